@@ -0,0 +1,59 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gerald.jackson.annotation.TestAnyGetterSetter.ExtendableBean;
+
+/**
+ * {@code TestAnyGetterSetter.ExtendableBean}：{@code @JsonAnyGetter}/{@code @JsonAnySetter}的开销。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnyGetterSetterBenchmark {
+    private ExtendableBean value;
+    
+    private byte[] payload;
+    
+    private ObjectWriter writer;
+    
+    private ObjectReader reader;
+    
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        
+        value = Fixtures.extendableBean();
+        writer = mapper.writerFor(ExtendableBean.class);
+        reader = mapper.readerFor(ExtendableBean.class);
+        payload = writer.writeValueAsBytes(value);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+    
+    @Benchmark
+    public ExtendableBean deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,95 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gerald.jackson.annotation.TestJsonIgnore.Order;
+import com.gerald.jackson.io.BatchWriter;
+import com.gerald.jackson.io.Framing;
+
+/**
+ * 一批500个{@code TestJsonIgnore.Order}：逐个{@code writeValueAsBytes}再写到输出(按长度前缀分帧)，
+ * 对比{@link BatchWriter}共用一个generator写出三种分帧。每次操作写出整批记录。
+ * 记录越小，每条记录创建generator、查找serializer的固定开销所占的比例越大。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchWriterBenchmark {
+    private static final int BATCH_SIZE = 500;
+
+    private List<Order> orders;
+
+    private ObjectWriter writer;
+
+    private BatchWriter batchWriter;
+
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = new ObjectMapper();
+
+        orders = new ArrayList<>(BATCH_SIZE);
+        for(int i = 0; i < BATCH_SIZE; i++) {
+            orders.add(Fixtures.order());
+        }
+        writer = mapper.writerFor(Order.class);
+        batchWriter = new BatchWriter(writer);
+        out = new ByteArrayOutputStream(256 * BATCH_SIZE);
+    }
+
+    @Benchmark
+    public int writeValueAsBytesPerRecord() throws IOException {
+        out.reset();
+        for(Order order : orders) {
+            byte[] record = writer.writeValueAsBytes(order);
+            out.write(record.length >>> 24);
+            out.write(record.length >>> 16);
+            out.write(record.length >>> 8);
+            out.write(record.length);
+            out.write(record);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int batchArray() throws IOException {
+        out.reset();
+        batchWriter.writeAll(orders, out, Framing.ARRAY);
+        return out.size();
+    }
+
+    @Benchmark
+    public int batchNdjson() throws IOException {
+        out.reset();
+        batchWriter.writeAll(orders, out, Framing.NDJSON);
+        return out.size();
+    }
+
+    @Benchmark
+    public int batchLengthPrefixed() throws IOException {
+        out.reset();
+        batchWriter.writeAll(orders, out, Framing.LENGTH_PREFIXED);
+        return out.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.gerald.jackson.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * benchmarks.jar的入口。
+ * <p>
+ * 不带参数时运行本包下的全部基准，并打开{@link GCProfiler}，输出每次操作分配的
+ * 字节数(gc.alloc.rate.norm)；带参数时，参数原样交给JMH的命令行处理，例如
+ * <pre>
+ * <code>
+ * java -jar benchmarks.jar Polymorphic -prof gc -f 1
+ * </code>
+ * </pre>
+ * </p>
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        if(args.length > 0) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        
+        runAll();
+    }
+    
+    private static void runAll() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackage().getName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        
+        new Runner(options).run();
+    }
+}
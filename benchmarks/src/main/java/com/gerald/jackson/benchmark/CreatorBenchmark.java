@@ -0,0 +1,69 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gerald.jackson.annotation.TestCreator.Resp;
+import com.gerald.jackson.creator.CreatorModule;
+
+/**
+ * {@code TestCreator.Resp}：通过{@code @JsonCreator}构造器反序列化不可变对象的开销，
+ * 以及注册{@link CreatorModule}之后的对比。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreatorBenchmark {
+    private Resp value;
+    
+    private byte[] payload;
+    
+    private ObjectWriter writer;
+    
+    private ObjectReader reader;
+    
+    private ObjectReader creatorReader;
+    
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        
+        value = Fixtures.resp();
+        writer = mapper.writerFor(Resp.class);
+        reader = mapper.readerFor(Resp.class);
+        payload = writer.writeValueAsBytes(value);
+        creatorReader = new ObjectMapper().registerModule(new CreatorModule()).readerFor(Resp.class);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+    
+    @Benchmark
+    public Resp deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+    
+    @Benchmark
+    public Resp deserializeWithCreatorModule() throws IOException {
+        return creatorReader.readValue(payload);
+    }
+}
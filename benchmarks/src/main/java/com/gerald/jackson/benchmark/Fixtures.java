@@ -0,0 +1,154 @@
+package com.gerald.jackson.benchmark;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Optional;
+
+import com.gerald.jackson.annotation.TestAnyGetterSetter.ExtendableBean;
+import com.gerald.jackson.annotation.TestCreator.Resp;
+import com.gerald.jackson.annotation.TestJsonFormat.Event;
+import com.gerald.jackson.annotation.TestJsonFormat.EventType;
+import com.gerald.jackson.annotation.TestJsonFormat.Page;
+import com.gerald.jackson.annotation.TestJsonIgnore.IgnoredType;
+import com.gerald.jackson.annotation.TestJsonIgnore.Order;
+import com.gerald.jackson.annotation.TestJsonUnwrap.Name;
+import com.gerald.jackson.annotation.TestJsonUnwrap.Person;
+import com.gerald.jackson.annotation.TestPolymorphic.DeliveryNotification;
+import com.gerald.jackson.annotation.TestPolymorphic.PayNotification;
+import com.gerald.jackson.annotation.TestRawValue.GeoResp;
+import com.gerald.jackson.inclusion.TestInclusionModule.Money;
+import com.gerald.jackson.inclusion.TestInclusionModule.Props;
+
+/**
+ * 基准测试使用的样本对象，字段取值与test中各个案例保持一致。时间字段使用固定值，
+ * 保证每次运行的payload长度相同。
+ */
+public final class Fixtures {
+    static final long FIXED_TIME = 1500000000000L;
+    
+    private Fixtures() {
+        
+    }
+    
+    public static Page page() {
+        Page page = new Page();
+        page.add("1");
+        page.add("2");
+        page.setPageNum(1);
+        page.setPageSize(10);
+        
+        return page;
+    }
+    
+    public static Event event() {
+        Event event = new Event();
+        event.setDate(new Date(FIXED_TIME));
+        event.setName("yang");
+        event.setPage(page());
+        event.setEventType(EventType.CREATE);
+        event.setInfos(Arrays.asList("str-1"));
+        
+        return event;
+    }
+    
+    public static Order order() {
+        Order order = new Order(1L);
+        order.setAddress("address-1");
+        order.setGoodsCount(2L);
+        order.setSum(2890L);
+        order.setIngored(new IgnoredType("value-1", "value-2"));
+        
+        return order;
+    }
+    
+    public static Resp resp() {
+        return new Resp(1000, "sucess");
+    }
+    
+    public static DeliveryNotification delivery() {
+        DeliveryNotification delivery = new DeliveryNotification();
+        delivery.setCreateTime(new Date(FIXED_TIME));
+        delivery.setDeliveryNo("0001");
+        delivery.setId(1L);
+        
+        return delivery;
+    }
+    
+    public static PayNotification pay() {
+        PayNotification pay = new PayNotification();
+        pay.setCreateTime(new Date(FIXED_TIME));
+        pay.setId(3L);
+        pay.setPayCode("pay-1");
+        pay.setTotal(233);
+        
+        return pay;
+    }
+    
+    public static Person person() {
+        Person p = new Person();
+        p.setId("123");
+        Name n = new Name();
+        n.setFirstName("yang");
+        n.setLastName("zongyuan");
+        p.setName(n);
+        
+        return p;
+    }
+    
+    public static ExtendableBean extendableBean() {
+        ExtendableBean bean = new ExtendableBean();
+        bean.name = "name-test";
+        bean.getProperties().put("attr1", "value1");
+        bean.getProperties().put("attr2", "value2");
+        
+        return bean;
+    }
+    
+    public static GeoResp geoResp() {
+        GeoResp resp = new GeoResp();
+        resp.setCode(10000000);
+        resp.setMsg("success");
+        resp.setResponse("{\"result\":{\"count\":9,\"data\":[]}}");
+        
+        return resp;
+    }
+    
+    /**
+     * 大部分属性为空的DTO，只有{@code level}和{@code title}会写出
+     */
+    public static Props sparseProps() {
+        Props props = new Props();
+        props.level = 1;
+        props.version = 0L;
+        props.title = "title";
+        props.attrs = new HashMap<>();
+        props.names = new String[0];
+        props.nick = Optional.empty();
+        props.values = Arrays.asList();
+        
+        return props;
+    }
+    
+    /**
+     * 所有属性都有值
+     */
+    public static Props denseProps() {
+        Props props = new Props();
+        props.level = 1;
+        props.version = 2L;
+        props.time = new Date(FIXED_TIME);
+        props.title = "title";
+        props.attrs = new HashMap<>();
+        props.attrs.put("k", "v");
+        props.names = new String[] {"a", "b"};
+        props.ids = new long[] {1, 2};
+        props.any = "any";
+        props.nick = Optional.of("nick");
+        props.price = new Money(100);
+        props.remark = "remark";
+        props.values = Arrays.asList(1, 2);
+        
+        return props;
+    }
+}
@@ -0,0 +1,62 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.gerald.jackson.inclusion.InclusionModule;
+import com.gerald.jackson.inclusion.TestInclusionModule.Props;
+
+/**
+ * {@code TestInclusionModule.Props}：{@code @JsonInclude}(NON_EMPTY/NON_DEFAULT等)的判断开销，
+ * 以及注册{@link InclusionModule}之后的对比。{@code sparse}的属性大多被忽略，{@code dense}的属性全部写出。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InclusionBenchmark {
+    @Param({"sparse", "dense"})
+    public String density;
+    
+    private Props value;
+    
+    private ObjectWriter writer;
+    
+    private ObjectWriter inclusionWriter;
+    
+    @Setup
+    public void setup() throws IOException {
+        value = "sparse".equals(density) ? Fixtures.sparseProps() : Fixtures.denseProps();
+        writer = new ObjectMapper().registerModule(new Jdk8Module()).writerFor(Props.class);
+        inclusionWriter = new ObjectMapper().registerModule(new InclusionModule())
+                                            .registerModule(new Jdk8Module())
+                                            .writerFor(Props.class);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+    
+    @Benchmark
+    public byte[] serializeInclusion() throws IOException {
+        return inclusionWriter.writeValueAsBytes(value);
+    }
+}
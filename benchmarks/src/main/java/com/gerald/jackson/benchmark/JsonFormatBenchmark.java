@@ -0,0 +1,85 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gerald.jackson.annotation.TestJsonFormat.Event;
+import com.gerald.jackson.annotation.TestJsonFormat.Page;
+
+/**
+ * {@code TestJsonFormat}：{@code Event}包含pattern格式的{@code Date}、NUMBER形式的
+ * enum、单元素数组展开以及{@code Page}；{@code Page}单独测量OBJECT形式的集合子类。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonFormatBenchmark {
+    private Event event;
+    
+    private Page page;
+    
+    private byte[] eventPayload;
+    
+    private byte[] pagePayload;
+    
+    private ObjectWriter eventWriter;
+    
+    private ObjectReader eventReader;
+    
+    private ObjectWriter pageWriter;
+    
+    private ObjectReader pageReader;
+    
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        
+        event = Fixtures.event();
+        page = Fixtures.page();
+        
+        eventWriter = mapper.writerFor(Event.class);
+        eventReader = mapper.readerFor(Event.class);
+        pageWriter = mapper.writerFor(Page.class);
+        pageReader = mapper.readerFor(Page.class);
+        
+        eventPayload = eventWriter.writeValueAsBytes(event);
+        pagePayload = pageWriter.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public byte[] serializeEvent() throws IOException {
+        return eventWriter.writeValueAsBytes(event);
+    }
+    
+    @Benchmark
+    public Event deserializeEvent() throws IOException {
+        return eventReader.readValue(eventPayload);
+    }
+    
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public Page deserializePage() throws IOException {
+        return pageReader.readValue(pagePayload);
+    }
+}
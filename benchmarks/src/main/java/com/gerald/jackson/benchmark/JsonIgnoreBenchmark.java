@@ -0,0 +1,93 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gerald.jackson.annotation.TestJsonIgnore.Order;
+import com.gerald.jackson.io.SkippingJsonFactory;
+
+/**
+ * {@code TestJsonIgnore.Order}：{@code @JsonIgnoreProperties}/{@code @JsonIgnore}/{@code @JsonIgnoreType}的开销。
+ * {@code unknownPayload}中90%以上的字节属于未知属性，对比逐个token跳过与{@link SkippingJsonFactory}的字节级跳过。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonIgnoreBenchmark {
+    private Order value;
+    
+    private byte[] payload;
+    
+    private ObjectWriter writer;
+    
+    private ObjectReader reader;
+    
+    private byte[] unknownPayload;
+    
+    private ObjectReader skippingReader;
+    
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        
+        value = Fixtures.order();
+        writer = mapper.writerFor(Order.class);
+        reader = mapper.readerFor(Order.class);
+        payload = writer.writeValueAsBytes(value);
+        
+        Map<String, Object> doc = mapper.convertValue(value, Map.class);
+        List<Object> extra = new ArrayList<>();
+        for(int i = 0; i < 200; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("name", "item-" + i + " \"quoted\" [x]");
+            item.put("values", new int[] {i, i + 1, i + 2});
+            item.put("nested", Fixtures.order());
+            extra.add(item);
+        }
+        doc.put("extra", extra);
+        unknownPayload = mapper.writeValueAsBytes(doc);
+        skippingReader = new ObjectMapper(new SkippingJsonFactory()).readerFor(Order.class);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+    
+    @Benchmark
+    public Order deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+    
+    @Benchmark
+    public Order deserializeUnknown() throws IOException {
+        return reader.readValue(unknownPayload);
+    }
+    
+    @Benchmark
+    public Order deserializeUnknownWithSkippingFactory() throws IOException {
+        return skippingReader.readValue(unknownPayload);
+    }
+}
@@ -0,0 +1,69 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gerald.jackson.annotation.TestJsonUnwrap.Person;
+import com.gerald.jackson.unwrapped.UnwrappedModule;
+
+/**
+ * {@code TestJsonUnwrap.Person}：{@code @JsonUnwrapped}的开销，反序列化时未知属性会经过TokenBuffer，
+ * 以及注册{@link UnwrappedModule}之后的对比。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonUnwrapBenchmark {
+    private Person value;
+    
+    private byte[] payload;
+    
+    private ObjectWriter writer;
+    
+    private ObjectReader reader;
+    
+    private ObjectReader unwrappedReader;
+    
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        
+        value = Fixtures.person();
+        writer = mapper.writerFor(Person.class);
+        reader = mapper.readerFor(Person.class);
+        payload = writer.writeValueAsBytes(value);
+        unwrappedReader = new ObjectMapper().registerModule(new UnwrappedModule()).readerFor(Person.class);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+    
+    @Benchmark
+    public Person deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+    
+    @Benchmark
+    public Person deserializeWithUnwrappedModule() throws IOException {
+        return unwrappedReader.readValue(payload);
+    }
+}
@@ -0,0 +1,81 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.gerald.jackson.annotation.TestJsonFormat.Event;
+import com.gerald.jackson.io.PipelinedReader;
+
+/**
+ * 从{@code InputStream}读取20000个{@code TestJsonFormat.Event}组成的数组：单线程的{@code MappingIterator}
+ * 对比{@link PipelinedReader}(解析和绑定在两个线程)。每次操作读取整个数组。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelinedReaderBenchmark {
+    private static final int COUNT = 20000;
+
+    private byte[] payload;
+
+    private ObjectReader reader;
+
+    private PipelinedReader pipelinedReader;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+
+        List<Event> events = new ArrayList<>(COUNT);
+        for(int i = 0; i < COUNT; i++) {
+            events.add(Fixtures.event());
+        }
+        payload = mapper.writeValueAsBytes(events);
+        reader = mapper.readerFor(Event.class);
+        pipelinedReader = new PipelinedReader(reader);
+    }
+
+    @Benchmark
+    public int mappingIterator() throws IOException {
+        int count = 0;
+        try(MappingIterator<Event> it = reader.readValues(new ByteArrayInputStream(payload))) {
+            while(it.hasNextValue()) {
+                it.nextValue();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int pipelined() throws IOException {
+        int count = 0;
+        try(PipelinedReader.Values<Event> values = pipelinedReader.readValues(new ByteArrayInputStream(payload))) {
+            while(values.hasNextValue()) {
+                values.nextValue();
+                count++;
+            }
+        }
+        return count;
+    }
+}
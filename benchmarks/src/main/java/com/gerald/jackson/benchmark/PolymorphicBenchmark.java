@@ -0,0 +1,110 @@
+package com.gerald.jackson.benchmark;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gerald.jackson.annotation.TestPolymorphic.DeliveryNotification;
+import com.gerald.jackson.annotation.TestPolymorphic.Notification;
+import com.gerald.jackson.annotation.TestPolymorphic.PayNotification;
+
+/**
+ * {@code TestPolymorphic.Notification}：{@code @JsonTypeInfo(include = As.PROPERTY)}的开销。
+ * <p>
+ * fixture中的{@code @JsonSubTypes}被注释掉了，这里通过{@link ObjectMapper#registerSubtypes(Class...)}
+ * 注册子类，类型名称与序列化时使用的默认名称一致，否则无法反序列化。
+ * </p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PolymorphicBenchmark {
+    private DeliveryNotification delivery;
+    
+    private PayNotification pay;
+    
+    private List<Notification> notifications;
+    
+    private byte[] deliveryPayload;
+    
+    private byte[] payPayload;
+    
+    private byte[] listPayload;
+    
+    private ObjectWriter writer;
+    
+    private ObjectReader reader;
+    
+    private ObjectWriter listWriter;
+    
+    private ObjectReader listReader;
+    
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerSubtypes(DeliveryNotification.class, PayNotification.class);
+        
+        delivery = Fixtures.delivery();
+        pay = Fixtures.pay();
+        notifications = Arrays.asList(delivery, Fixtures.delivery(), pay);
+        
+        JavaType listType = mapper.getTypeFactory().constructParametricType(List.class, Notification.class);
+        writer = mapper.writerFor(Notification.class);
+        reader = mapper.readerFor(Notification.class);
+        listWriter = mapper.writerFor(listType);
+        listReader = mapper.readerFor(listType);
+        
+        deliveryPayload = writer.writeValueAsBytes(delivery);
+        payPayload = writer.writeValueAsBytes(pay);
+        listPayload = listWriter.writeValueAsBytes(notifications);
+    }
+    
+    @Benchmark
+    public byte[] serializeDelivery() throws IOException {
+        return writer.writeValueAsBytes(delivery);
+    }
+    
+    @Benchmark
+    public Notification deserializeDelivery() throws IOException {
+        return reader.readValue(deliveryPayload);
+    }
+    
+    @Benchmark
+    public byte[] serializePay() throws IOException {
+        return writer.writeValueAsBytes(pay);
+    }
+    
+    @Benchmark
+    public Notification deserializePay() throws IOException {
+        return reader.readValue(payPayload);
+    }
+    
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return listWriter.writeValueAsBytes(notifications);
+    }
+    
+    @Benchmark
+    public List<Notification> deserializeList() throws IOException {
+        return listReader.readValue(listPayload);
+    }
+}
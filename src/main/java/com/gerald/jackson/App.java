@@ -1,13 +1,194 @@
 package com.gerald.jackson;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerald.jackson.load.DataFormat;
+import com.gerald.jackson.load.DataSetGenerator;
+import com.gerald.jackson.load.LoadRunner;
+import com.gerald.jackson.load.PassResult;
+import com.gerald.jackson.load.RecordType;
+
 /**
- * Hello world!
- *
+ * 数据集生成和读写压测的命令行工具。
+ * <p>
+ * 先生成指定大小的{@code Order}或{@code Notification}数据集并写入磁盘，然后进行若干轮
+ * 多线程的读和写，输出每秒记录数、MB/s以及GC的次数和耗时。例如
+ * <pre>
+ * <code>
+ * java -cp ... com.gerald.jackson.App --type=notification --size=500MB --format=ndjson --threads=8
+ * </code>
+ * </pre>
+ * </p>
  */
-public class App 
-{
-    public static void main( String[] args )
-    {
-        System.out.println( "Hello World!" );
+public class App {
+    private static final String USAGE =
+            "Usage: App [options]\n" +
+            "  --type=order|notification   record type (default: order)\n" +
+            "  --size=<n>[B|K|M|G][B]      data set size (default: 10MB)\n" +
+            "  --format=array|ndjson       file layout (default: array)\n" +
+            "  --file=<path>               data set file (default: target/dataset-<type>.json)\n" +
+            "  --threads=<n>               reader/writer threads (default: available processors)\n" +
+            "  --passes=<n>                timed read and write passes (default: 3)\n" +
+            "  --seed=<n>                  random seed (default: 0)\n" +
+            "  --skip-generate             reuse an existing data set file";
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options;
+        RecordType type;
+        DataFormat format;
+        long size;
+        Path file;
+        int threads;
+        int passes;
+        long seed;
+
+        // 所有参数错误都输出用法
+        try {
+            options = parseOptions(args);
+            if(options.containsKey("help")) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            type = parseEnum(RecordType.class, "type", options.getOrDefault("type", "order"));
+            format = parseEnum(DataFormat.class, "format", options.getOrDefault("format", "array"));
+            size = parseSize(options.getOrDefault("size", "10MB"));
+            file = Paths.get(options.getOrDefault("file", "target/dataset-" + type.name().toLowerCase(Locale.ROOT) + ".json"));
+            threads = parseInt("threads", options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())), 1);
+            passes = parseInt("passes", options.getOrDefault("passes", "3"), 0);
+            seed = parseLong("seed", options.getOrDefault("seed", "0"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+
+        long records;
+        if(options.containsKey("skip-generate")) {
+            records = -1;
+        } else {
+            if(file.toAbsolutePath().getParent() != null) {
+                file.toAbsolutePath().getParent().toFile().mkdirs();
+            }
+
+            long start = System.nanoTime();
+            records = new DataSetGenerator(mapper, seed).generate(file, type, format, size);
+            System.out.printf("generated %d %s records (%d bytes, %s) into %s in %.1f ms%n",
+                              records, type, file.toFile().length(), format, file, (System.nanoTime() - start) / 1e6);
+        }
+
+        LoadRunner runner = new LoadRunner(mapper, threads);
+        for(int i = 1; i <= passes; i++) {
+            System.out.println("pass " + i + " (" + threads + " threads)");
+
+            PassResult read = runner.read(file, type);
+            System.out.println("  " + read);
+
+            // 每个线程写出与文件相同数量的记录
+            long perThread = (records >= 0) ? records : read.getRecords() / threads;
+            System.out.println("  " + runner.write(type, format, perThread));
+        }
+    }
+
+    /**
+     * 解析<code>--key=value</code>和<code>--flag</code>形式的参数
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+
+        for(String arg : args) {
+            if(!arg.startsWith("--")) {
+                throw new IllegalArgumentException("unknown argument: " + arg);
+            }
+
+            int eq = arg.indexOf('=');
+            if(eq < 0) {
+                options.put(arg.substring(2), "");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+
+        return options;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> enumClass, String name, String value) {
+        try {
+            return Enum.valueOf(enumClass, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid --" + name + ": " + value);
+        }
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid --" + name + ": " + value);
+        }
+    }
+
+    private static int parseInt(String name, String value, int min) {
+        long n = parseLong(name, value);
+        if((n < min) || (n > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("invalid --" + name + ": " + value);
+        }
+
+        return (int)n;
+    }
+
+    /**
+     * 解析带单位的大小，例如"1KB"、"500M"，单位按1024进位，可以省略"B"
+     *
+     * @throws IllegalArgumentException 不认识的单位，或者大小不是正数
+     */
+    static long parseSize(String value) {
+        String str = value.trim().toUpperCase(Locale.ROOT);
+        int end = str.length();
+
+        if(str.endsWith("B")) {
+            end--;
+        }
+
+        int shift = 0;
+        if(end > 0) {
+            switch(str.charAt(end - 1)) {
+            case 'K':
+                shift = 10;
+                end--;
+                break;
+            case 'M':
+                shift = 20;
+                end--;
+                break;
+            case 'G':
+                shift = 30;
+                end--;
+                break;
+            default:
+                break;
+            }
+        }
+
+        long n;
+        try {
+            n = Long.parseLong(str.substring(0, end));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid --size: " + value);
+        }
+        if((n <= 0) || (n > (Long.MAX_VALUE >> shift))) {
+            throw new IllegalArgumentException("invalid --size: " + value);
+        }
+
+        return n << shift;
     }
 }
@@ -0,0 +1,181 @@
+package com.gerald.jackson;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+/**
+ * 共享的{@link ObjectMapper}注册表。
+ * <p>
+ * {@code ObjectMapper}内部缓存了已经解析的serializer和deserializer，每次调用都
+ * <code>new ObjectMapper()</code>会丢掉这些缓存。这里为每一种{@link Profile}持有一个配置好的
+ * mapper，并按{@link JavaType}缓存{@link ObjectReader}和{@link ObjectWriter}。
+ * </p>
+ * <p>
+ * {@code ObjectReader}/{@code ObjectWriter}在创建时会预先解析根类型的deserializer/serializer
+ * (见{@code DeserializationFeature#EAGER_DESERIALIZER_FETCH}和
+ * {@code SerializationFeature#EAGER_SERIALIZER_FETCH})，因此在构造时传入根类型，
+ * 或者启动时调用{@link #preload(JavaType...)}，可以把解析的开销提前到启动阶段。
+ * </p>
+ * <p>
+ * mapper、reader和writer都是线程安全的，可以在整个应用中共享一个注册表。
+ * </p>
+ */
+public class MapperRegistry {
+    public enum Profile {
+        /**
+         * 默认配置
+         */
+        PLAIN,
+
+        /**
+         * 注册了{@link Jdk8Module}，支持{@code Optional}等类型
+         */
+        JDK8,
+
+        /**
+         * 打开{@link SerializationFeature#INDENT_OUTPUT}，等价于
+         * {@link ObjectMapper#writerWithDefaultPrettyPrinter()}
+         */
+        PRETTY
+    }
+
+    private static class Holder {
+        static final MapperRegistry DEFAULT = new MapperRegistry();
+    }
+
+    private final TypeFactory typeFactory = TypeFactory.defaultInstance();
+
+    private final Map<Profile, ObjectMapper> mappers = new EnumMap<>(Profile.class);
+
+    private final Map<Profile, ConcurrentMap<JavaType, ObjectReader>> readers = new EnumMap<>(Profile.class);
+
+    private final Map<Profile, ConcurrentMap<JavaType, ObjectWriter>> writers = new EnumMap<>(Profile.class);
+
+    /**
+     * @param rootTypes 启动时预先解析的根类型，例如{@code Order.class}
+     */
+    public MapperRegistry(Type... rootTypes) {
+        for(Profile profile : Profile.values()) {
+            mappers.put(profile, createMapper(profile));
+            readers.put(profile, new ConcurrentHashMap<>());
+            writers.put(profile, new ConcurrentHashMap<>());
+        }
+
+        for(Type rootType : rootTypes) {
+            preload(typeFactory.constructType(rootType));
+        }
+    }
+
+    /**
+     * 没有预加载根类型的共享实例
+     */
+    public static MapperRegistry getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    private static ObjectMapper createMapper(Profile profile) {
+        ObjectMapper mapper = new ObjectMapper();
+
+        switch(profile) {
+        case JDK8:
+            mapper.registerModule(new Jdk8Module());
+            break;
+        case PRETTY:
+            mapper.enable(SerializationFeature.INDENT_OUTPUT);
+            break;
+        default:
+            break;
+        }
+
+        return mapper;
+    }
+
+    /**
+     * 为所有profile创建并缓存{@code types}的reader和writer，同时解析其serializer和deserializer
+     *
+     * @return this
+     */
+    public MapperRegistry preload(JavaType... types) {
+        for(JavaType type : types) {
+            for(Profile profile : Profile.values()) {
+                reader(profile, type);
+                writer(profile, type);
+            }
+        }
+
+        return this;
+    }
+
+    public ObjectMapper mapper(Profile profile) {
+        return mappers.get(profile);
+    }
+
+    public ObjectReader reader(Profile profile, JavaType type) {
+        ConcurrentMap<JavaType, ObjectReader> cache = readers.get(profile);
+        ObjectReader reader = cache.get(type);
+
+        if(reader == null) {
+            // 重复创建是无害的，只保留先放入的一个
+            reader = mappers.get(profile).readerFor(type);
+            ObjectReader existing = cache.putIfAbsent(type, reader);
+            if(existing != null) {
+                reader = existing;
+            }
+        }
+
+        return reader;
+    }
+
+    public ObjectReader reader(Profile profile, Class<?> type) {
+        return reader(profile, typeFactory.constructType(type));
+    }
+
+    public ObjectWriter writer(Profile profile, JavaType type) {
+        ConcurrentMap<JavaType, ObjectWriter> cache = writers.get(profile);
+        ObjectWriter writer = cache.get(type);
+
+        if(writer == null) {
+            writer = mappers.get(profile).writerFor(type);
+            ObjectWriter existing = cache.putIfAbsent(type, writer);
+            if(existing != null) {
+                writer = existing;
+            }
+        }
+
+        return writer;
+    }
+
+    public ObjectWriter writer(Profile profile, Class<?> type) {
+        return writer(profile, typeFactory.constructType(type));
+    }
+
+    /**
+     * 构造<code>List&lt;elementType&gt;</code>，例如{@code TestPolymorphic}中的
+     * <code>List&lt;Notification&gt;</code>。由于擦除，序列化这类集合时需要显式指定类型
+     */
+    public JavaType listType(Class<?> elementType) {
+        return typeFactory.constructCollectionType(List.class, elementType);
+    }
+
+    public JavaType collectionType(@SuppressWarnings("rawtypes") Class<? extends Collection> collectionType,
+                                   Class<?> elementType) {
+        return typeFactory.constructCollectionType(collectionType, elementType);
+    }
+
+    public TypeFactory getTypeFactory() {
+        return typeFactory;
+    }
+}
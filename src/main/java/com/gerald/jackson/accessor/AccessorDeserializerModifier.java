@@ -0,0 +1,59 @@
+package com.gerald.jackson.accessor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.impl.MethodProperty;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+
+/**
+ * 把通过setter赋值的{@code MethodProperty}替换为{@link LambdaSetterProperty}。
+ * <p>
+ * creator参数、字段属性、非public的setter以及无法生成函数的setter继续使用反射。
+ * </p>
+ */
+public class AccessorDeserializerModifier extends BeanDeserializerModifier {
+    @Override
+    public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                 BeanDeserializerBuilder builder) {
+        List<SettableBeanProperty> replacements = new ArrayList<>();
+
+        for(Iterator<SettableBeanProperty> it = builder.getProperties(); it.hasNext(); ) {
+            SettableBeanProperty prop = it.next();
+            if(prop.getClass() != MethodProperty.class) {
+                continue;
+            }
+
+            AnnotatedMember member = prop.getMember();
+            if(!(member instanceof AnnotatedMethod)) {
+                continue;
+            }
+
+            Method setter = ((AnnotatedMethod)member).getAnnotated();
+            if((setter.getParameterTypes().length != 1) || !Accessors.isAccessible(setter)) {
+                continue;
+            }
+
+            try {
+                replacements.add(LambdaSetterProperty.create(prop, setter));
+            } catch (Throwable e) {
+                // 保留反射实现
+            }
+        }
+
+        // 不能在遍历时修改builder中的属性
+        for(SettableBeanProperty prop : replacements) {
+            builder.addOrReplaceProperty(prop, true);
+        }
+
+        return builder;
+    }
+}
@@ -0,0 +1,28 @@
+package com.gerald.jackson.accessor;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * 用{@code LambdaMetafactory}生成的函数替换属性读写中的{@code Method.invoke}。
+ * <p>
+ * 例如{@code TestGetterSetter.Persion}、{@code TestJsonIgnore.Order}这样的普通bean，
+ * 序列化时每个属性都要经过一次反射调用，属性较多时反射是序列化的主要开销之一。
+ * 注册这个模块后，public的getter和setter由生成的类直接调用：
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new AccessorModule());
+ * </code>
+ * </pre>
+ * 生成的函数在创建serializer/deserializer时一次性生成，并随之缓存在mapper中。
+ * </p>
+ */
+public class AccessorModule extends SimpleModule {
+    private static final long serialVersionUID = 6021887342958829213L;
+
+    public AccessorModule() {
+        super(AccessorModule.class.getSimpleName());
+
+        setSerializerModifier(new AccessorSerializerModifier());
+        setDeserializerModifier(new AccessorDeserializerModifier());
+    }
+}
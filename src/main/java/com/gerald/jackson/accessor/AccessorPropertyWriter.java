@@ -0,0 +1,143 @@
+package com.gerald.jackson.accessor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+
+/**
+ * 属性值不通过{@code Method.invoke}/{@code Field.get}读取的{@link BeanPropertyWriter}。
+ * <p>
+ * {@code BeanPropertyWriter}的{@code serializeAsField}和{@code serializeAsElement}内联了反射调用，
+ * 无法只替换读取的部分，因此这里按jackson-2.8.8的实现重写了这两个方法：null值、动态serializer、
+ * {@code @JsonInclude}的忽略值以及自引用的处理都与原实现相同，只是值由{@link #getValue(Object)}读取。
+ * </p>
+ * <p>
+ * {@code get(Object)}是final方法，过滤器等少数直接调用它的地方仍然使用反射。
+ * </p>
+ */
+public abstract class AccessorPropertyWriter extends BeanPropertyWriter {
+    private static final long serialVersionUID = 3120471527866370651L;
+
+    protected AccessorPropertyWriter(BeanPropertyWriter base) {
+        super(base);
+    }
+
+    protected AccessorPropertyWriter(BeanPropertyWriter base, PropertyName name) {
+        super(base, name);
+    }
+
+    /**
+     * 读取{@code bean}的属性值
+     */
+    protected abstract Object getValue(Object bean) throws Exception;
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        serializeFieldValue(bean, getValue(bean), gen, prov);
+    }
+
+    @Override
+    public void serializeAsElement(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        serializeElementValue(bean, getValue(bean), gen, prov);
+    }
+
+    /**
+     * 以<code>"name" : value</code>的形式写出已经读取的属性值
+     */
+    protected final void serializeFieldValue(Object bean, Object value, JsonGenerator gen, SerializerProvider prov)
+            throws Exception {
+        if(value == null) {
+            if(_nullSerializer != null) {
+                gen.writeFieldName(_name);
+                _nullSerializer.serialize(null, gen, prov);
+            }
+            return;
+        }
+
+        JsonSerializer<Object> ser = serializerFor(value, prov);
+        if(isSuppressed(value, ser, prov)) {
+            return;
+        }
+
+        if((value == bean) && _handleSelfReference(bean, gen, prov, ser)) {
+            return;
+        }
+
+        gen.writeFieldName(_name);
+        if(_typeSerializer == null) {
+            ser.serialize(value, gen, prov);
+        } else {
+            ser.serializeWithType(value, gen, prov, _typeSerializer);
+        }
+    }
+
+    /**
+     * 作为数组元素写出已经读取的属性值(<code>@JsonFormat(shape = Shape.ARRAY)</code>)，
+     * 数组中的元素不能省略，被忽略的值写出占位的null
+     */
+    protected final void serializeElementValue(Object bean, Object value, JsonGenerator gen, SerializerProvider prov)
+            throws Exception {
+        if(value == null) {
+            if(_nullSerializer != null) {
+                _nullSerializer.serialize(null, gen, prov);
+            } else {
+                gen.writeNull();
+            }
+            return;
+        }
+
+        JsonSerializer<Object> ser = serializerFor(value, prov);
+        if(isSuppressed(value, ser, prov)) {
+            serializeAsPlaceholder(bean, gen, prov);
+            return;
+        }
+
+        if((value == bean) && _handleSelfReference(bean, gen, prov, ser)) {
+            return;
+        }
+
+        if(_typeSerializer == null) {
+            ser.serialize(value, gen, prov);
+        } else {
+            ser.serializeWithType(value, gen, prov, _typeSerializer);
+        }
+    }
+
+    /**
+     * 静态类型无法确定serializer时，按值的实际类型查找
+     */
+    protected final JsonSerializer<Object> serializerFor(Object value, SerializerProvider prov)
+            throws JsonMappingException {
+        JsonSerializer<Object> ser = _serializer;
+
+        if(ser == null) {
+            Class<?> cls = value.getClass();
+            PropertySerializerMap map = _dynamicSerializers;
+            ser = map.serializerFor(cls);
+            if(ser == null) {
+                ser = _findAndAddDynamic(map, cls, prov);
+            }
+        }
+
+        return ser;
+    }
+
+    /**
+     * {@code @JsonInclude}的NON_EMPTY/NON_DEFAULT等设置是否要求忽略这个值
+     */
+    protected boolean isSuppressed(Object value, JsonSerializer<Object> ser, SerializerProvider prov) {
+        if(_suppressableValue == null) {
+            return false;
+        }
+
+        if(_suppressableValue == MARKER_FOR_EMPTY) {
+            return ser.isEmpty(prov, value);
+        }
+
+        return _suppressableValue.equals(value);
+    }
+}
@@ -0,0 +1,49 @@
+package com.gerald.jackson.accessor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * 把通过getter读取的{@link BeanPropertyWriter}替换为{@link LambdaPropertyWriter}。
+ * <p>
+ * 只替换jackson默认的{@code BeanPropertyWriter}本身，其他模块已经替换过的writer保持不变；
+ * 字段属性、非public的getter以及无法生成函数的getter继续使用反射。
+ * </p>
+ */
+public class AccessorSerializerModifier extends BeanSerializerModifier {
+    @Override
+    public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                     List<BeanPropertyWriter> beanProperties) {
+        for(int i = 0; i < beanProperties.size(); i++) {
+            BeanPropertyWriter writer = beanProperties.get(i);
+            if(writer.getClass() != BeanPropertyWriter.class) {
+                continue;
+            }
+
+            AnnotatedMember member = writer.getMember();
+            if(!(member instanceof AnnotatedMethod)) {
+                continue;
+            }
+
+            Method getter = ((AnnotatedMethod)member).getAnnotated();
+            if(!Accessors.isAccessible(getter)) {
+                continue;
+            }
+
+            try {
+                beanProperties.set(i, LambdaPropertyWriter.create(writer, getter));
+            } catch (Throwable e) {
+                // 保留反射实现
+            }
+        }
+
+        return beanProperties;
+    }
+}
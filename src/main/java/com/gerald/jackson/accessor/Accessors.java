@@ -0,0 +1,117 @@
+package com.gerald.jackson.accessor;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 通过{@link LambdaMetafactory}为getter/setter生成函数对象。
+ * <p>
+ * 生成的类直接以<code>invokevirtual</code>调用目标方法，JIT可以像普通调用一样内联，
+ * 不再经过{@code Method.invoke}的参数数组、访问检查和异常包装。
+ * </p>
+ * <p>
+ * {@code LambdaMetafactory}只接受方法，不接受字段的{@code MethodHandle}，所以字段属性仍然使用反射。
+ * </p>
+ */
+public final class Accessors {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Accessors() {
+
+    }
+
+    /**
+     * 生成的类以{@code Accessors}为宿主，因此目标方法和声明它的类(以及外部类)都必须是public，
+     * 并且声明类能够从{@code Accessors}的ClassLoader中解析到
+     */
+    public static boolean isAccessible(Method method) {
+        if(!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+
+        Class<?> declaring = method.getDeclaringClass();
+        for(Class<?> cls = declaring; cls != null; cls = cls.getEnclosingClass()) {
+            if(!Modifier.isPublic(cls.getModifiers())) {
+                return false;
+            }
+        }
+
+        try {
+            return Class.forName(declaring.getName(), false, Accessors.class.getClassLoader()) == declaring;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 返回值为基本类型时自动装箱
+     */
+    @SuppressWarnings("unchecked")
+    public static Function<Object, Object> getter(Method method) throws Throwable {
+        return (Function<Object, Object>)create(Function.class, "apply",
+                MethodType.methodType(Object.class, Object.class), method,
+                MethodType.methodType(box(method.getReturnType()), method.getDeclaringClass()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ToIntFunction<Object> intGetter(Method method) throws Throwable {
+        return (ToIntFunction<Object>)create(ToIntFunction.class, "applyAsInt",
+                MethodType.methodType(int.class, Object.class), method,
+                MethodType.methodType(int.class, method.getDeclaringClass()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ToLongFunction<Object> longGetter(Method method) throws Throwable {
+        return (ToLongFunction<Object>)create(ToLongFunction.class, "applyAsLong",
+                MethodType.methodType(long.class, Object.class), method,
+                MethodType.methodType(long.class, method.getDeclaringClass()));
+    }
+
+    /**
+     * 参数为基本类型时自动拆箱；setter的返回值(例如返回this的setter)被丢弃
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> setter(Method method) throws Throwable {
+        return (BiConsumer<Object, Object>)create(BiConsumer.class, "accept",
+                MethodType.methodType(void.class, Object.class, Object.class), method,
+                MethodType.methodType(void.class, method.getDeclaringClass(), box(method.getParameterTypes()[0])));
+    }
+
+    @SuppressWarnings("unchecked")
+    static ObjIntConsumer<Object> intSetter(Method method) throws Throwable {
+        return (ObjIntConsumer<Object>)create(ObjIntConsumer.class, "accept",
+                MethodType.methodType(void.class, Object.class, int.class), method,
+                MethodType.methodType(void.class, method.getDeclaringClass(), int.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    static ObjLongConsumer<Object> longSetter(Method method) throws Throwable {
+        return (ObjLongConsumer<Object>)create(ObjLongConsumer.class, "accept",
+                MethodType.methodType(void.class, Object.class, long.class), method,
+                MethodType.methodType(void.class, method.getDeclaringClass(), long.class));
+    }
+
+    private static Object create(Class<?> functionType, String name, MethodType erasedType,
+                                 Method method, MethodType instantiatedType) throws Throwable {
+        MethodHandle target = LOOKUP.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(functionType),
+                                                      erasedType, target, instantiatedType);
+
+        return site.getTarget().invoke();
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
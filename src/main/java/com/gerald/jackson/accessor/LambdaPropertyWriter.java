@@ -0,0 +1,174 @@
+package com.gerald.jackson.accessor;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.NumberSerializers;
+
+/**
+ * 通过{@link Accessors}生成的函数读取getter的{@link AccessorPropertyWriter}。
+ * <p>
+ * {@code int}、{@code long}、{@code Integer}和{@code Long}属性的serializer是jackson自己的
+ * {@code IntegerSerializer}/{@code LongSerializer}时(没有<code>@JsonFormat(shape = Shape.STRING)</code>
+ * 或者自定义serializer)，直接调用{@code writeNumber}，基本类型的属性也不再装箱。
+ * </p>
+ */
+final class LambdaPropertyWriter extends AccessorPropertyWriter {
+    private static final long serialVersionUID = -1876203398861129532L;
+
+    private final NumberKind kind;
+
+    private final Function<Object, Object> getter;
+
+    private final ToIntFunction<Object> intGetter;
+
+    private final ToLongFunction<Object> longGetter;
+
+    /**
+     * 是否可以绕过serializer直接写出数字
+     */
+    private boolean direct;
+
+    private LambdaPropertyWriter(BeanPropertyWriter base, NumberKind kind, Function<Object, Object> getter,
+                                 ToIntFunction<Object> intGetter, ToLongFunction<Object> longGetter) {
+        super(base);
+        this.kind = kind;
+        this.getter = getter;
+        this.intGetter = intGetter;
+        this.longGetter = longGetter;
+        this.direct = isDirect(_serializer);
+    }
+
+    private LambdaPropertyWriter(LambdaPropertyWriter base, PropertyName name) {
+        super(base, name);
+        this.kind = base.kind;
+        this.getter = base.getter;
+        this.intGetter = base.intGetter;
+        this.longGetter = base.longGetter;
+        this.direct = base.direct;
+    }
+
+    /**
+     * @throws Throwable 无法为{@code getter}生成函数
+     */
+    static LambdaPropertyWriter create(BeanPropertyWriter base, Method getter) throws Throwable {
+        NumberKind kind = NumberKind.of(getter.getReturnType());
+
+        switch(kind) {
+        case INT:
+            return new LambdaPropertyWriter(base, kind, null, Accessors.intGetter(getter), null);
+        case LONG:
+            return new LambdaPropertyWriter(base, kind, null, null, Accessors.longGetter(getter));
+        default:
+            return new LambdaPropertyWriter(base, kind, Accessors.getter(getter), null, null);
+        }
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(PropertyName newName) {
+        return new LambdaPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void assignSerializer(JsonSerializer<Object> ser) {
+        super.assignSerializer(ser);
+        direct = isDirect(ser);
+    }
+
+    private boolean isDirect(JsonSerializer<Object> ser) {
+        if((ser == null) || (_suppressableValue != null)) {
+            return false;
+        }
+
+        switch(kind) {
+        case INT:
+        case BOXED_INT:
+            return ser.getClass() == NumberSerializers.IntegerSerializer.class;
+        case LONG:
+        case BOXED_LONG:
+            return ser.getClass() == NumberSerializers.LongSerializer.class;
+        default:
+            return false;
+        }
+    }
+
+    @Override
+    protected Object getValue(Object bean) {
+        switch(kind) {
+        case INT:
+            return intGetter.applyAsInt(bean);
+        case LONG:
+            return longGetter.applyAsLong(bean);
+        default:
+            return getter.apply(bean);
+        }
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        if(!direct || (_typeSerializer != null)) {
+            super.serializeAsField(bean, gen, prov);
+            return;
+        }
+
+        switch(kind) {
+        case INT:
+            gen.writeFieldName(_name);
+            gen.writeNumber(intGetter.applyAsInt(bean));
+            break;
+        case LONG:
+            gen.writeFieldName(_name);
+            gen.writeNumber(longGetter.applyAsLong(bean));
+            break;
+        default:
+            Object value = getter.apply(bean);
+            if(value == null) {
+                serializeFieldValue(bean, null, gen, prov);
+            } else {
+                gen.writeFieldName(_name);
+                writeNumber(value, gen);
+            }
+            break;
+        }
+    }
+
+    @Override
+    public void serializeAsElement(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        if(!direct || (_typeSerializer != null)) {
+            super.serializeAsElement(bean, gen, prov);
+            return;
+        }
+
+        switch(kind) {
+        case INT:
+            gen.writeNumber(intGetter.applyAsInt(bean));
+            break;
+        case LONG:
+            gen.writeNumber(longGetter.applyAsLong(bean));
+            break;
+        default:
+            Object value = getter.apply(bean);
+            if(value == null) {
+                serializeElementValue(bean, null, gen, prov);
+            } else {
+                writeNumber(value, gen);
+            }
+            break;
+        }
+    }
+
+    private void writeNumber(Object value, JsonGenerator gen) throws Exception {
+        if(kind == NumberKind.BOXED_INT) {
+            gen.writeNumber(((Integer)value).intValue());
+        } else {
+            gen.writeNumber(((Long)value).longValue());
+        }
+    }
+}
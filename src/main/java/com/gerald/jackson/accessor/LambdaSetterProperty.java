@@ -0,0 +1,210 @@
+package com.gerald.jackson.accessor;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.std.NumberDeserializers;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+
+/**
+ * 通过{@link Accessors}生成的函数调用setter的{@link SettableBeanProperty}，用于替换jackson的
+ * {@code MethodProperty}(它是final类，只能包装)。
+ * <p>
+ * {@code int}、{@code long}、{@code Integer}和{@code Long}属性的deserializer是jackson自己的
+ * {@code IntegerDeserializer}/{@code LongDeserializer}时，遇到整数直接从parser读取并赋值，
+ * 其他输入(字符串、浮点数、null等)仍然交给deserializer处理，行为与原实现一致。
+ * </p>
+ * <p>
+ * 返回新实例的setter({@code deserializeSetAndReturn}，用于builder)交给原来的{@code MethodProperty}。
+ * </p>
+ */
+final class LambdaSetterProperty extends SettableBeanProperty {
+    private static final long serialVersionUID = -5338150659442521337L;
+
+    private final SettableBeanProperty delegate;
+
+    private final NumberKind kind;
+
+    private final BiConsumer<Object, Object> setter;
+
+    private final ObjIntConsumer<Object> intSetter;
+
+    private final ObjLongConsumer<Object> longSetter;
+
+    /**
+     * 是否可以绕过deserializer直接读取整数
+     */
+    private final boolean direct;
+
+    private LambdaSetterProperty(SettableBeanProperty delegate, NumberKind kind, BiConsumer<Object, Object> setter,
+                                 ObjIntConsumer<Object> intSetter, ObjLongConsumer<Object> longSetter) {
+        super(delegate);
+        this.delegate = delegate;
+        this.kind = kind;
+        this.setter = setter;
+        this.intSetter = intSetter;
+        this.longSetter = longSetter;
+        this.direct = isDirect(_valueDeserializer);
+    }
+
+    private LambdaSetterProperty(LambdaSetterProperty src, JsonDeserializer<?> deser) {
+        super(src, deser);
+        this.delegate = src.delegate.withValueDeserializer(deser);
+        this.kind = src.kind;
+        this.setter = src.setter;
+        this.intSetter = src.intSetter;
+        this.longSetter = src.longSetter;
+        this.direct = isDirect(_valueDeserializer);
+    }
+
+    private LambdaSetterProperty(LambdaSetterProperty src, PropertyName newName) {
+        super(src, newName);
+        this.delegate = src.delegate.withName(newName);
+        this.kind = src.kind;
+        this.setter = src.setter;
+        this.intSetter = src.intSetter;
+        this.longSetter = src.longSetter;
+        this.direct = src.direct;
+    }
+
+    /**
+     * @param delegate jackson创建的{@code MethodProperty}
+     * @throws Throwable 无法为{@code setter}生成函数
+     */
+    static LambdaSetterProperty create(SettableBeanProperty delegate, Method setter) throws Throwable {
+        NumberKind kind = NumberKind.of(setter.getParameterTypes()[0]);
+
+        switch(kind) {
+        case INT:
+            return new LambdaSetterProperty(delegate, kind, Accessors.setter(setter), Accessors.intSetter(setter), null);
+        case LONG:
+            return new LambdaSetterProperty(delegate, kind, Accessors.setter(setter), null, Accessors.longSetter(setter));
+        default:
+            return new LambdaSetterProperty(delegate, kind, Accessors.setter(setter), null, null);
+        }
+    }
+
+    private boolean isDirect(JsonDeserializer<Object> deser) {
+        if((deser == null) || (_valueTypeDeserializer != null)) {
+            return false;
+        }
+
+        switch(kind) {
+        case INT:
+        case BOXED_INT:
+            return deser.getClass() == NumberDeserializers.IntegerDeserializer.class;
+        case LONG:
+        case BOXED_LONG:
+            return deser.getClass() == NumberDeserializers.LongDeserializer.class;
+        default:
+            return false;
+        }
+    }
+
+    @Override
+    public LambdaSetterProperty withValueDeserializer(JsonDeserializer<?> deser) {
+        if(_valueDeserializer == deser) {
+            return this;
+        }
+
+        return new LambdaSetterProperty(this, deser);
+    }
+
+    @Override
+    public LambdaSetterProperty withName(PropertyName newName) {
+        return new LambdaSetterProperty(this, newName);
+    }
+
+    @Override
+    public void fixAccess(DeserializationConfig config) {
+        delegate.fixAccess(config);
+    }
+
+    @Override
+    public AnnotatedMember getMember() {
+        return delegate.getMember();
+    }
+
+    @Override
+    public <A extends Annotation> A getAnnotation(Class<A> acls) {
+        return delegate.getAnnotation(acls);
+    }
+
+    @Override
+    public void deserializeAndSet(JsonParser p, DeserializationContext ctxt, Object instance) throws IOException {
+        if(direct && (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT)) {
+            switch(kind) {
+            case INT:
+                int intValue = p.getIntValue();
+                try {
+                    intSetter.accept(instance, intValue);
+                } catch (Exception e) {
+                    _throwAsIOE(p, e, intValue);
+                }
+                return;
+            case LONG:
+                long longValue = p.getLongValue();
+                try {
+                    longSetter.accept(instance, longValue);
+                } catch (Exception e) {
+                    _throwAsIOE(p, e, longValue);
+                }
+                return;
+            default:
+                // 不能写成条件表达式，Integer和Long会被提升为long
+                Object value;
+                if(kind.isIntLike()) {
+                    value = Integer.valueOf(p.getIntValue());
+                } else {
+                    value = Long.valueOf(p.getLongValue());
+                }
+                try {
+                    setter.accept(instance, value);
+                } catch (Exception e) {
+                    _throwAsIOE(p, e, value);
+                }
+                return;
+            }
+        }
+
+        Object value = deserialize(p, ctxt);
+        try {
+            set(instance, value);
+        } catch (Exception e) {
+            _throwAsIOE(p, e, value);
+        }
+    }
+
+    @Override
+    public Object deserializeSetAndReturn(JsonParser p, DeserializationContext ctxt, Object instance)
+            throws IOException {
+        return delegate.deserializeSetAndReturn(p, ctxt, instance);
+    }
+
+    @Override
+    public void set(Object instance, Object value) throws IOException {
+        if((value == null) && ((kind == NumberKind.INT) || (kind == NumberKind.LONG))) {
+            // 由反射抛出与原实现相同的异常
+            delegate.set(instance, null);
+            return;
+        }
+
+        setter.accept(instance, value);
+    }
+
+    @Override
+    public Object setAndReturn(Object instance, Object value) throws IOException {
+        return delegate.setAndReturn(instance, value);
+    }
+}
@@ -0,0 +1,49 @@
+package com.gerald.jackson.accessor;
+
+/**
+ * 有专门读写路径的属性类型
+ */
+enum NumberKind {
+    /**
+     * {@code int}
+     */
+    INT,
+
+    /**
+     * {@code long}
+     */
+    LONG,
+
+    /**
+     * {@code Integer}
+     */
+    BOXED_INT,
+
+    /**
+     * {@code Long}
+     */
+    BOXED_LONG,
+
+    /**
+     * 其他类型，按普通的对象处理
+     */
+    OTHER;
+
+    static NumberKind of(Class<?> type) {
+        if(type == int.class) {
+            return INT;
+        } else if(type == long.class) {
+            return LONG;
+        } else if(type == Integer.class) {
+            return BOXED_INT;
+        } else if(type == Long.class) {
+            return BOXED_LONG;
+        }
+
+        return OTHER;
+    }
+
+    boolean isIntLike() {
+        return (this == INT) || (this == BOXED_INT);
+    }
+}
@@ -0,0 +1,332 @@
+package com.gerald.jackson.bag;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 为少量属性(通常少于16个)设计的{@code Map<String, V>}，用于存放{@code @JsonAnySetter}收集的未知属性。
+ * <p>
+ * 键和值交替存放在同一个{@code Object[]}中，使用线性探测的开放寻址，删除时向前移动后续的元素，
+ * 不需要墓碑。与{@code HashMap}相比，每个属性不需要一个{@code Node}对象，空的{@code PropertyBag}
+ * 也不分配数组，适合在缓存中保存大量带有扩展属性的对象。
+ * </p>
+ * <p>
+ * jackson默认开启{@code JsonFactory.Feature.CANONICALIZE_FIELD_NAMES}，parser通过符号表返回的属性名
+ * 是同一个{@code String}实例，{@code @JsonAnySetter}把它直接作为键保存，相同的属性名不会产生新的键；
+ * 查找时先比较引用，再比较内容。
+ * </p>
+ * <p>
+ * 键不能为null。遍历的顺序是槽位的顺序，与{@code HashMap}一样不保证插入顺序；{@code entrySet()}、
+ * {@code keySet()}和{@code values()}的迭代器不支持{@code remove()}，需要使用{@link #remove(Object)}。
+ * 不是线程安全的。
+ * </p>
+ * <p>
+ * 注册{@link PropertyBagModule}后，{@code @JsonAnyGetter}返回{@code PropertyBag}时直接遍历数组写出属性。
+ * </p>
+ *
+ * @param <V> 属性值的类型
+ */
+public class PropertyBag<V> extends AbstractMap<String, V> {
+    private static final Object[] EMPTY = {};
+
+    private static final int MIN_CAPACITY = 4;
+
+    /**
+     * {@code table[2 * slot]}是键，{@code table[2 * slot + 1]}是值
+     */
+    private Object[] table = EMPTY;
+
+    private int size;
+
+    private Set<Map.Entry<String, V>> entrySet;
+
+    public PropertyBag() {
+    }
+
+    public PropertyBag(Map<String, ? extends V> map) {
+        if(!map.isEmpty()) {
+            table = new Object[capacityFor(map.size()) * 2];
+            putAll(map);
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 负载因子不超过3/4的最小的2的幂
+     */
+    private static int capacityFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while(size > capacity - (capacity >>> 2)) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    /**
+     * @return {@code key}所在的槽位，没有时返回-1
+     */
+    private int slotOf(Object key) {
+        if((size == 0) || !(key instanceof String)) {
+            return -1;
+        }
+
+        final Object[] tab = table;
+        final int mask = (tab.length >>> 1) - 1;
+
+        for(int slot = spread(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            Object k = tab[slot << 1];
+            if(k == null) {
+                return -1;
+            } else if((k == key) || k.equals(key)) {
+                return slot;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return slotOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = slotOf(key);
+
+        return (slot < 0) ? null : (V)table[(slot << 1) + 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(String key, V value) {
+        Objects.requireNonNull(key, "key");
+
+        int slot = slotOf(key);
+        if(slot >= 0) {
+            V old = (V)table[(slot << 1) + 1];
+            table[(slot << 1) + 1] = value;
+            return old;
+        }
+
+        int capacity = table.length >>> 1;
+        if(size + 1 > capacity - (capacity >>> 2)) {
+            resize(capacityFor(size + 1));
+        }
+
+        insert(table, key, value);
+        size++;
+
+        return null;
+    }
+
+    private static void insert(Object[] tab, Object key, Object value) {
+        final int mask = (tab.length >>> 1) - 1;
+
+        int slot = spread(key.hashCode()) & mask;
+        while(tab[slot << 1] != null) {
+            slot = (slot + 1) & mask;
+        }
+
+        tab[slot << 1] = key;
+        tab[(slot << 1) + 1] = value;
+    }
+
+    private void resize(int capacity) {
+        Object[] old = table;
+        Object[] tab = new Object[capacity * 2];
+
+        for(int i = 0; i < old.length; i += 2) {
+            if(old[i] != null) {
+                insert(tab, old[i], old[i + 1]);
+            }
+        }
+
+        table = tab;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int slot = slotOf(key);
+        if(slot < 0) {
+            return null;
+        }
+
+        final Object[] tab = table;
+        final int mask = (tab.length >>> 1) - 1;
+        V old = (V)tab[(slot << 1) + 1];
+
+        // 把探测链上后续的元素向前移动，填补删除留下的空位
+        int hole = slot;
+        for(int next = (hole + 1) & mask; tab[next << 1] != null; next = (next + 1) & mask) {
+            int home = spread(tab[next << 1].hashCode()) & mask;
+
+            if(((next - home) & mask) >= ((next - hole) & mask)) {
+                tab[hole << 1] = tab[next << 1];
+                tab[(hole << 1) + 1] = tab[(next << 1) + 1];
+                hole = next;
+            }
+        }
+
+        tab[hole << 1] = null;
+        tab[(hole << 1) + 1] = null;
+        size--;
+
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if(size > 0) {
+            Arrays.fill(table, null);
+            size = 0;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        final Object[] tab = table;
+
+        for(int i = 0; i < tab.length; i += 2) {
+            if(tab[i] != null) {
+                action.accept((String)tab[i], (V)tab[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * 交替存放键和值的数组，键为null的槽位是空的。只供{@link PropertyBagWriter}遍历，不能修改。
+     */
+    Object[] table() {
+        return table;
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        Set<Map.Entry<String, V>> set = entrySet;
+        if(set == null) {
+            set = new EntrySet();
+            entrySet = set;
+        }
+
+        return set;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+        @Override
+        public Iterator<Map.Entry<String, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PropertyBag.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, V>> {
+        private final Object[] tab = table;
+
+        private int next = advance(0);
+
+        private int advance(int index) {
+            while((index < tab.length) && (tab[index] == null)) {
+                index += 2;
+            }
+
+            return index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < tab.length;
+        }
+
+        @Override
+        public Map.Entry<String, V> next() {
+            if(next >= tab.length) {
+                throw new NoSuchElementException();
+            }
+
+            Entry entry = new Entry(tab, next);
+            next = advance(next + 2);
+
+            return entry;
+        }
+    }
+
+    /**
+     * {@link #setValue(Object)}直接写回数组
+     */
+    private final class Entry implements Map.Entry<String, V> {
+        private final Object[] tab;
+
+        private final int index;
+
+        Entry(Object[] tab, int index) {
+            this.tab = tab;
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return (String)tab[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V)tab[index + 1];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            V old = (V)tab[index + 1];
+            tab[index + 1] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof Map.Entry)) {
+                return false;
+            }
+
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>)o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
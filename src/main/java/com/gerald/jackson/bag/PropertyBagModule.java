@@ -0,0 +1,76 @@
+package com.gerald.jackson.bag;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.PropertyMetadata;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.AnyGetterWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerBuilder;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * 使用{@link PropertyBag}保存{@code @JsonAnySetter}的属性时，{@code @JsonAnyGetter}直接遍历数组写出属性。
+ * <pre>
+ * <code>
+ * private PropertyBag&lt;String&gt; properties = new PropertyBag&lt;&gt;();
+ *
+ * &#64;JsonAnyGetter
+ * public Map&lt;String, String&gt; getProperties() {
+ *     return properties;
+ * }
+ *
+ * &#64;JsonAnySetter
+ * public void setProperties(String name, String value) {
+ *     properties.put(name, value);
+ * }
+ * </code>
+ * </pre>
+ * 反序列化不需要额外处理：{@code @JsonAnySetter}收到的属性名已经是parser符号表中的实例。
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new PropertyBagModule());
+ * </code>
+ * </pre>
+ */
+public class PropertyBagModule extends SimpleModule {
+    private static final long serialVersionUID = 4419630865140236458L;
+
+    public PropertyBagModule() {
+        super(PropertyBagModule.class.getSimpleName());
+
+        setSerializerModifier(new SerializerModifier());
+    }
+
+    private static class SerializerModifier extends BeanSerializerModifier {
+        @Override
+        public BeanSerializerBuilder updateBuilder(SerializationConfig config, BeanDescription beanDesc,
+                                                   BeanSerializerBuilder builder) {
+            AnyGetterWriter anyGetter = builder.getAnyGetter();
+            AnnotatedMember accessor = beanDesc.findAnyGetter();
+
+            if((anyGetter == null) || (accessor == null) || (anyGetter instanceof PropertyBagWriter)) {
+                return builder;
+            }
+
+            // 声明的类型不可能是PropertyBag时不替换，例如Map<Integer, String>
+            JavaType type = accessor.getType();
+            if(!type.getRawClass().isAssignableFrom(PropertyBag.class)
+                    && !PropertyBag.class.isAssignableFrom(type.getRawClass())) {
+                return builder;
+            }
+
+            // 与BeanSerializerFactory中any-getter的属性相同
+            JavaType valueType = type.getContentType();
+            BeanProperty property = new BeanProperty.Std(PropertyName.construct(accessor.getName()), valueType, null,
+                                                         beanDesc.getClassAnnotations(), accessor,
+                                                         PropertyMetadata.STD_OPTIONAL);
+            builder.setAnyGetter(new PropertyBagWriter(anyGetter, property, accessor));
+
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.gerald.jackson.bag;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.ser.AnyGetterWriter;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.MapSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdKeySerializers;
+
+/**
+ * {@code @JsonAnyGetter}返回{@link PropertyBag}时直接遍历它的数组写出属性，
+ * 不经过{@code MapSerializer#serializeFields}的{@code entrySet()}和键的serializer。
+ * <p>
+ * 值按运行时类型查找serializer并缓存，与{@code MapSerializer}相同；null写出为JSON null。
+ * 运行时返回的不是{@code PropertyBag}时，用{@link #resolve}时查找的{@code Map}的serializer写出已经取得的值，
+ * 不会再调用一次any-getter。使用{@code PropertyFilter}、属性值需要多态类型信息，
+ * 或者any-getter上有{@code @JsonSerialize}、{@code @JsonIgnoreProperties}等注解时，
+ * 交给jackson原来的{@link AnyGetterWriter}处理。
+ * </p>
+ */
+final class PropertyBagWriter extends AnyGetterWriter {
+    private final AnyGetterWriter delegate;
+
+    private final JavaType valueType;
+
+    private boolean direct;
+
+    /**
+     * 返回值不是{@code PropertyBag}时使用，与{@code BeanSerializerFactory}为any-getter创建的serializer相同
+     */
+    private JsonSerializer<?> mapSerializer;
+
+    private PropertySerializerMap dynamicSerializers = PropertySerializerMap.emptyForProperties();
+
+    PropertyBagWriter(AnyGetterWriter delegate, BeanProperty property, AnnotatedMember accessor) {
+        super(property, accessor, null);
+
+        this.delegate = delegate;
+        this.valueType = property.getType();
+    }
+
+    @Override
+    public void fixAccess(SerializationConfig config) {
+        delegate.fixAccess(config);
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        delegate.resolve(provider);
+
+        JavaType keyType = _accessor.getType().getKeyType();
+        direct = (keyType != null) && (keyType.getRawClass() == String.class) && !valueType.hasGenericTypes()
+                && !hasSerializationAnnotations(provider.getAnnotationIntrospector())
+                && (provider.findTypeSerializer(valueType) == null)
+                && (provider.findKeySerializer(keyType, _property) instanceof StdKeySerializers.StringKeySerializer);
+        if(direct) {
+            mapSerializer = provider.findValueSerializer(_accessor.getType(), _property);
+        }
+    }
+
+    /**
+     * 这些注解由{@code MapSerializer#createContextual}处理
+     */
+    private boolean hasSerializationAnnotations(AnnotationIntrospector intr) {
+        if(intr == null) {
+            return false;
+        }
+
+        JsonIgnoreProperties.Value ignorals = intr.findPropertyIgnorals(_accessor);
+
+        return (intr.findSerializer(_accessor) != null) || (intr.findKeySerializer(_accessor) != null)
+                || (intr.findContentSerializer(_accessor) != null)
+                || (intr.findSerializationContentConverter(_accessor) != null)
+                || ((ignorals != null) && !ignorals.findIgnoredForSerialization().isEmpty());
+    }
+
+    @Override
+    public void getAndSerialize(Object bean, JsonGenerator gen, SerializerProvider provider) throws Exception {
+        if(!direct) {
+            delegate.getAndSerialize(bean, gen, provider);
+            return;
+        }
+
+        Object value = _accessor.getValue(bean);
+        if(!(value instanceof PropertyBag)) {
+            serializeOther(value, gen, provider);
+            return;
+        }
+
+        final Object[] table = ((PropertyBag<?>)value).table();
+        for(int i = 0; i < table.length; i += 2) {
+            Object key = table[i];
+            if(key == null) {
+                continue;
+            }
+
+            gen.writeFieldName((String)key);
+
+            Object elem = table[i + 1];
+            if(elem == null) {
+                provider.defaultSerializeNull(gen);
+                continue;
+            }
+
+            try {
+                serializerFor(elem.getClass(), provider).serialize(elem, gen, provider);
+            } catch (Exception e) {
+                wrapAndThrow(provider, e, value, (String)key);
+            }
+        }
+    }
+
+    /**
+     * 与{@code AnyGetterWriter#getAndSerialize}相同
+     */
+    @SuppressWarnings("unchecked")
+    private void serializeOther(Object value, JsonGenerator gen, SerializerProvider provider) throws Exception {
+        if(value == null) {
+            return;
+        }
+        if(!(value instanceof Map<?, ?>)) {
+            provider.reportMappingProblem("Value returned by 'any-getter' %s() not java.util.Map but %s",
+                                          _accessor.getName(), value.getClass().getName());
+        }
+
+        if(mapSerializer instanceof MapSerializer) {
+            ((MapSerializer)mapSerializer).serializeFields((Map<?, ?>)value, gen, provider);
+        } else {
+            ((JsonSerializer<Object>)mapSerializer).serialize(value, gen, provider);
+        }
+    }
+
+    private JsonSerializer<Object> serializerFor(Class<?> cls, SerializerProvider provider)
+            throws JsonMappingException {
+        PropertySerializerMap serializers = dynamicSerializers;
+
+        JsonSerializer<Object> serializer = serializers.serializerFor(cls);
+        if(serializer == null) {
+            PropertySerializerMap.SerializerAndMapResult result =
+                    serializers.findAndAddSecondarySerializer(cls, provider, _property);
+            dynamicSerializers = result.map;
+            serializer = result.serializer;
+        }
+
+        return serializer;
+    }
+
+    /**
+     * 与{@code StdSerializer#wrapAndThrow}相同，在异常中加上属性名
+     */
+    private static void wrapAndThrow(SerializerProvider provider, Throwable t, Object bag, String key)
+            throws IOException {
+        while((t instanceof InvocationTargetException) && (t.getCause() != null)) {
+            t = t.getCause();
+        }
+
+        if(t instanceof Error) {
+            throw (Error)t;
+        }
+
+        boolean wrap = provider.isEnabled(SerializationFeature.WRAP_EXCEPTIONS);
+        if(t instanceof IOException) {
+            if(!wrap || !(t instanceof JsonMappingException)) {
+                throw (IOException)t;
+            }
+        } else if(!wrap && (t instanceof RuntimeException)) {
+            throw (RuntimeException)t;
+        }
+
+        throw JsonMappingException.wrapWithPath(t, bag, key);
+    }
+
+    @Override
+    public void getAndFilter(Object bean, JsonGenerator gen, SerializerProvider provider, PropertyFilter filter)
+            throws Exception {
+        delegate.getAndFilter(bean, gen, provider, filter);
+    }
+}
@@ -0,0 +1,385 @@
+package com.gerald.jackson.creator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.UnresolvedForwardReference;
+import com.fasterxml.jackson.databind.deser.impl.ReadableObjectId;
+import com.fasterxml.jackson.databind.deser.std.NumberDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdValueInstantiator;
+import com.fasterxml.jackson.databind.introspect.AnnotatedWithParams;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * 直接调用{@code @JsonCreator}构造器(或者静态工厂方法)的{@link BeanDeserializer}。
+ * <p>
+ * jackson通过{@code PropertyValueBuffer}收集creator参数：基本类型的参数被装箱后放入{@code Object[]}，
+ * 最后反射调用构造器。这里在{@link #resolve(DeserializationContext)}时用{@link CreatorInvoker}链接构造器，
+ * 基本类型的参数直接写入{@code long[]}中的槽；已经读取的参数和{@code required = true}的参数
+ * 各用一个{@code long}的位集记录，缺少参数时的处理和异常信息与{@code PropertyValueBuffer}相同。
+ * </p>
+ * <p>
+ * 与jackson一样，所有creator参数都读取之后立即创建对象，剩余的属性通过setter赋值；
+ * 创建对象之前出现的普通属性先缓存起来。
+ * </p>
+ * <p>
+ * 有Object Id、{@code @JacksonInject}、{@code @JsonAnySetter}、{@code @JsonUnwrapped}、
+ * {@code EXTERNAL_PROPERTY}类型信息、超过64个creator参数，或者启用了
+ * {@code ACCEPT_CASE_INSENSITIVE_PROPERTIES}、{@code FAIL_ON_NULL_CREATOR_PROPERTIES}时，使用jackson原来的实现。
+ * 普通属性引用了尚未出现的Object Id时，与jackson一样在创建对象之后再赋值。
+ * </p>
+ */
+final class CreatorDeserializer extends BeanDeserializer {
+    private static final long serialVersionUID = -2907336574580593744L;
+
+    private static final byte READ_INT = 1;
+
+    private static final byte READ_LONG = 2;
+
+    /**
+     * null表示使用jackson原来的实现
+     */
+    private transient CreatorInvoker invoker;
+
+    /**
+     * 按参数顺序排列的creator属性
+     */
+    private SettableBeanProperty[] creatorProps;
+
+    private String[] names;
+
+    /**
+     * 遇到整数时直接从parser读取的参数：{@link #READ_INT}、{@link #READ_LONG}，或者0
+     */
+    private byte[] directReads;
+
+    private long requiredMask;
+
+    private long allMask;
+
+    CreatorDeserializer(BeanDeserializer src) {
+        super(src);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        super.resolve(ctxt);
+        link(ctxt);
+    }
+
+    private void link(DeserializationContext ctxt) {
+        if((_propertyBasedCreator == null) || (_objectIdReader != null) || (_injectables != null)
+                || (_anySetter != null) || (_unwrappedPropertyHandler != null) || (_externalTypeIdHandler != null)
+                || (_valueInstantiator.getClass() != StdValueInstantiator.class)
+                || ctxt.isEnabled(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)) {
+            return;
+        }
+
+        AnnotatedWithParams creator = _valueInstantiator.getWithArgsCreator();
+        Collection<SettableBeanProperty> props = _propertyBasedCreator.properties();
+        if((creator == null) || (props.size() != creator.getParameterCount()) || (props.size() > 64)) {
+            return;
+        }
+
+        SettableBeanProperty[] ordered = new SettableBeanProperty[props.size()];
+        for(SettableBeanProperty prop : props) {
+            int index = prop.getCreatorIndex();
+            if((index < 0) || (index >= ordered.length) || (ordered[index] != null)
+                    || (prop.getInjectableValueId() != null) || !prop.hasValueDeserializer()) {
+                return;
+            }
+            ordered[index] = prop;
+        }
+
+        CreatorInvoker linked;
+        try {
+            linked = CreatorInvoker.link(creator.getMember());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return;
+        }
+
+        String[] propNames = new String[ordered.length];
+        byte[] reads = new byte[ordered.length];
+        long required = 0L;
+
+        for(int i = 0; i < ordered.length; i++) {
+            SettableBeanProperty prop = ordered[i];
+            Class<?> type = linked.getParameterType(i);
+            Class<?> deserClass = prop.getValueDeserializer().getClass();
+
+            propNames[i] = prop.getName();
+            if(prop.isRequired()) {
+                required |= 1L << i;
+            }
+            if(!prop.hasValueTypeDeserializer()) {
+                if((type == int.class) && (deserClass == NumberDeserializers.IntegerDeserializer.class)) {
+                    reads[i] = READ_INT;
+                } else if((type == long.class) && (deserClass == NumberDeserializers.LongDeserializer.class)) {
+                    reads[i] = READ_LONG;
+                }
+            }
+        }
+
+        creatorProps = ordered;
+        names = propNames;
+        directReads = reads;
+        requiredMask = required;
+        allMask = (ordered.length == 64) ? -1L : ((1L << ordered.length) - 1);
+        invoker = linked;
+    }
+
+    @Override
+    protected Object _deserializeUsingPropertyBased(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final CreatorInvoker invoker = this.invoker;
+        if((invoker == null) || ctxt.isEnabled(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES)) {
+            return super._deserializeUsingPropertyBased(p, ctxt);
+        }
+
+        long[] prims = invoker.newPrims();
+        Object[] refs = invoker.newRefs();
+        long seen = 0L;
+        // 创建对象之前出现的普通属性，按(属性, 值)成对保存
+        List<Object> buffered = null;
+        TokenBuffer unknown = null;
+        List<BeanReferring> referrings = null;
+
+        for(JsonToken t = p.getCurrentToken(); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+            String propName = p.getCurrentName();
+            p.nextToken();
+
+            int index = indexOf(propName);
+            if(index >= 0) {
+                bind(p, ctxt, index, prims, refs);
+                seen |= 1L << index;
+
+                if(seen == allMask) {
+                    p.nextToken();
+                    Object bean = create(ctxt, prims, refs, buffered);
+                    if(bean == null) {
+                        return ctxt.handleInstantiationProblem(handledType(), null, _creatorReturnedNullException());
+                    }
+                    p.setCurrentValue(bean);
+                    setReferrings(referrings, bean);
+
+                    if(bean.getClass() != _beanType.getRawClass()) {
+                        return handlePolymorphic(p, ctxt, bean, unknown);
+                    }
+                    if(unknown != null) {
+                        bean = handleUnknownProperties(ctxt, bean, unknown);
+                    }
+                    return deserialize(p, ctxt, bean);
+                }
+                continue;
+            }
+
+            SettableBeanProperty prop = _beanProperties.find(propName);
+            if(prop != null) {
+                if(buffered == null) {
+                    buffered = new ArrayList<>();
+                }
+                try {
+                    Object value = _deserializeWithErrorWrapping(p, ctxt, prop);
+                    buffered.add(prop);
+                    buffered.add(value);
+                } catch (UnresolvedForwardReference reference) {
+                    BeanReferring referring = new BeanReferring(ctxt, reference, prop.getType(), prop);
+                    reference.getRoid().appendReferring(referring);
+                    if(referrings == null) {
+                        referrings = new ArrayList<>();
+                    }
+                    referrings.add(referring);
+                }
+                continue;
+            }
+
+            if((_ignorableProps != null) && _ignorableProps.contains(propName)) {
+                handleIgnoredProperty(p, ctxt, handledType(), propName);
+                continue;
+            }
+
+            if(unknown == null) {
+                unknown = new TokenBuffer(p, ctxt);
+            }
+            unknown.writeFieldName(propName);
+            unknown.copyCurrentStructure(p);
+        }
+
+        if(seen != allMask) {
+            fillMissing(ctxt, seen, prims, refs);
+        }
+
+        Object bean = create(ctxt, prims, refs, buffered);
+        if(bean == null) {
+            return ctxt.handleInstantiationProblem(handledType(), null, _creatorReturnedNullException());
+        }
+        setReferrings(referrings, bean);
+
+        if(unknown != null) {
+            if(bean.getClass() != _beanType.getRawClass()) {
+                return handlePolymorphic(null, ctxt, bean, unknown);
+            }
+            return handleUnknownProperties(ctxt, bean, unknown);
+        }
+
+        return bean;
+    }
+
+    private static void setReferrings(List<BeanReferring> referrings, Object bean) {
+        if(referrings != null) {
+            for(BeanReferring referring : referrings) {
+                referring.setBean(bean);
+            }
+        }
+    }
+
+    /**
+     * 解析器默认会intern属性名，先比较引用
+     */
+    private int indexOf(String name) {
+        String[] names = this.names;
+
+        for(int i = 0; i < names.length; i++) {
+            if(names[i] == name) {
+                return i;
+            }
+        }
+
+        for(int i = 0; i < names.length; i++) {
+            if(names[i].equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void bind(JsonParser p, DeserializationContext ctxt, int index, long[] prims, Object[] refs)
+            throws IOException {
+        SettableBeanProperty prop = creatorProps[index];
+        Class<?> type = invoker.getParameterType(index);
+        int slot = invoker.slot(index);
+
+        if(!type.isPrimitive()) {
+            refs[slot] = _deserializeWithErrorWrapping(p, ctxt, prop);
+            return;
+        }
+
+        if((directReads[index] != 0) && (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT)) {
+            try {
+                prims[slot] = (directReads[index] == READ_INT) ? p.getIntValue() : p.getLongValue();
+            } catch (Exception e) {
+                wrapAndThrow(e, _beanType.getRawClass(), prop.getName(), ctxt);
+            }
+            return;
+        }
+
+        prims[slot] = CreatorInvoker.toBits(type, _deserializeWithErrorWrapping(p, ctxt, prop));
+    }
+
+    /**
+     * 与{@code PropertyValueBuffer}一样按参数顺序检查缺少的参数
+     */
+    private void fillMissing(DeserializationContext ctxt, long seen, long[] prims, Object[] refs)
+            throws IOException {
+        long missing = allMask & ~seen;
+
+        while(missing != 0) {
+            int index = Long.numberOfTrailingZeros(missing);
+            missing &= missing - 1;
+
+            SettableBeanProperty prop = creatorProps[index];
+            if((requiredMask & (1L << index)) != 0) {
+                ctxt.reportMappingException("Missing required creator property '%s' (index %d)",
+                                            prop.getName(), prop.getCreatorIndex());
+            }
+            if(ctxt.isEnabled(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES)) {
+                ctxt.reportMappingException("Missing creator property '%s' (index %d); DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES enabled",
+                                            prop.getName(), prop.getCreatorIndex());
+            }
+
+            Object value = prop.getValueDeserializer().getNullValue(ctxt);
+            Class<?> type = invoker.getParameterType(index);
+            if(type.isPrimitive()) {
+                prims[invoker.slot(index)] = CreatorInvoker.toBits(type, value);
+            } else {
+                refs[invoker.slot(index)] = value;
+            }
+        }
+    }
+
+    private Object create(DeserializationContext ctxt, long[] prims, Object[] refs, List<Object> buffered)
+            throws IOException {
+        Object bean;
+        try {
+            bean = invoker.invoke(prims, refs);
+        } catch (Exception | ExceptionInInitializerError e) {
+            return ctxt.handleInstantiationProblem(_valueInstantiator.getWithArgsCreator().getDeclaringClass(), null,
+                                                   rewrapCtorProblem(ctxt, e));
+        }
+
+        if((bean != null) && (buffered != null)) {
+            for(int i = 0; i < buffered.size(); i += 2) {
+                ((SettableBeanProperty)buffered.get(i)).set(bean, buffered.get(i + 1));
+            }
+        }
+
+        return bean;
+    }
+
+    /**
+     * 与{@code StdValueInstantiator.rewrapCtorProblem}相同：不论{@code WRAP_EXCEPTIONS}，
+     * creator抛出的异常总是包装为{@link JsonMappingException}
+     */
+    private JsonMappingException rewrapCtorProblem(DeserializationContext ctxt, Throwable t) {
+        if((t instanceof ExceptionInInitializerError) && (t.getCause() != null)) {
+            t = t.getCause();
+        }
+        if(t instanceof JsonMappingException) {
+            return (JsonMappingException)t;
+        }
+
+        return ctxt.instantiationException(_valueInstantiator.getValueClass(), t);
+    }
+
+    /**
+     * 与{@code BeanDeserializer.BeanReferring}相同：Object Id解析之后给已经创建的对象赋值
+     */
+    private static final class BeanReferring extends ReadableObjectId.Referring {
+        private final DeserializationContext ctxt;
+
+        private final SettableBeanProperty prop;
+
+        private Object bean;
+
+        BeanReferring(DeserializationContext ctxt, UnresolvedForwardReference reference, JavaType valueType,
+                      SettableBeanProperty prop) {
+            super(reference, valueType);
+            this.ctxt = ctxt;
+            this.prop = prop;
+        }
+
+        void setBean(Object bean) {
+            this.bean = bean;
+        }
+
+        @Override
+        public void handleResolvedForwardReference(Object id, Object value) throws IOException {
+            if(bean == null) {
+                ctxt.reportMappingException("Can not resolve ObjectId forward reference using property '%s' (of type %s): Bean not yet resolved",
+                                            prop.getName(), prop.getMember().getDeclaringClass().getName());
+            }
+            prop.set(bean, value);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.gerald.jackson.creator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 把creator(构造器或者静态工厂方法)链接为<code>(long[] prims, Object[] refs)Object</code>形式的
+ * {@link MethodHandle}。
+ * <p>
+ * 基本类型的参数保存在{@code prims}中，{@code double}/{@code float}保存原始的位表示，
+ * {@code boolean}保存0或者1；其他参数按顺序保存在{@code refs}中。每个参数从哪一个槽读取、
+ * 如何转换为参数类型都在链接时确定，调用时不再需要装箱和反射。
+ * </p>
+ */
+final class CreatorInvoker {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, long[].class, Object[].class);
+
+    private final MethodHandle handle;
+
+    /**
+     * 每个参数所在的槽：基本类型为{@code prims}的下标，其他为{@code refs}的下标
+     */
+    private final int[] slots;
+
+    private final Class<?>[] parameterTypes;
+
+    private final int primCount;
+
+    private final int refCount;
+
+    private CreatorInvoker(MethodHandle handle, int[] slots, Class<?>[] parameterTypes, int primCount, int refCount) {
+        this.handle = handle;
+        this.slots = slots;
+        this.parameterTypes = parameterTypes;
+        this.primCount = primCount;
+        this.refCount = refCount;
+    }
+
+    /**
+     * @param creator 已经设置为可访问的构造器或者静态工厂方法
+     */
+    static CreatorInvoker link(Member creator) throws ReflectiveOperationException {
+        MethodHandle target;
+        Class<?>[] parameterTypes;
+
+        if(creator instanceof Constructor) {
+            target = LOOKUP.unreflectConstructor((Constructor<?>)creator);
+            parameterTypes = ((Constructor<?>)creator).getParameterTypes();
+        } else if((creator instanceof Method) && Modifier.isStatic(creator.getModifiers())) {
+            target = LOOKUP.unreflect((Method)creator);
+            parameterTypes = ((Method)creator).getParameterTypes();
+        } else {
+            throw new IllegalArgumentException("Not a constructor or static factory method: " + creator);
+        }
+
+        int[] slots = new int[parameterTypes.length];
+        int[] reorder = new int[parameterTypes.length];
+        MethodHandle[] extractors = new MethodHandle[parameterTypes.length];
+        int primCount = 0;
+        int refCount = 0;
+
+        for(int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = parameterTypes[i];
+
+            if(type.isPrimitive()) {
+                slots[i] = primCount++;
+                reorder[i] = 0;
+                extractors[i] = primitiveExtractor(type, slots[i]);
+            } else {
+                slots[i] = refCount++;
+                reorder[i] = 1;
+                extractors[i] = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(Object[].class), 1, slots[i])
+                                             .asType(MethodType.methodType(type, Object[].class));
+            }
+        }
+
+        // (A0, A1, ...)R -> (long[]|Object[], ...)R -> (long[], Object[])Object
+        MethodHandle filtered = MethodHandles.filterArguments(target, 0, extractors);
+        MethodHandle handle = MethodHandles.permuteArguments(filtered.asType(filtered.type().changeReturnType(Object.class)),
+                                                             INVOKER_TYPE, reorder);
+
+        return new CreatorInvoker(handle, slots, parameterTypes, primCount, refCount);
+    }
+
+    private static MethodHandle primitiveExtractor(Class<?> type, int slot) throws ReflectiveOperationException {
+        MethodHandle bits = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(long[].class), 1, slot);
+
+        if(type == double.class) {
+            return MethodHandles.filterReturnValue(bits,
+                    LOOKUP.findStatic(Double.class, "longBitsToDouble", MethodType.methodType(double.class, long.class)));
+        } else if(type == float.class) {
+            MethodHandle toFloat = LOOKUP.findStatic(Float.class, "intBitsToFloat", MethodType.methodType(float.class, int.class));
+            return MethodHandles.filterReturnValue(bits, MethodHandles.explicitCastArguments(toFloat,
+                    MethodType.methodType(float.class, long.class)));
+        }
+
+        // long到int/short/byte/char为截断，到boolean取最低位
+        return MethodHandles.explicitCastArguments(bits, MethodType.methodType(type, long[].class));
+    }
+
+    int getParameterCount() {
+        return slots.length;
+    }
+
+    Class<?> getParameterType(int index) {
+        return parameterTypes[index];
+    }
+
+    int slot(int index) {
+        return slots[index];
+    }
+
+    long[] newPrims() {
+        return new long[primCount];
+    }
+
+    Object[] newRefs() {
+        return new Object[refCount];
+    }
+
+    /**
+     * 把装箱的值转换为{@code prims}中的表示
+     */
+    static long toBits(Class<?> type, Object value) {
+        if(value == null) {
+            return 0L;
+        } else if(type == double.class) {
+            return Double.doubleToRawLongBits(((Number)value).doubleValue());
+        } else if(type == float.class) {
+            return Float.floatToRawIntBits(((Number)value).floatValue());
+        } else if(type == boolean.class) {
+            return ((Boolean)value).booleanValue() ? 1L : 0L;
+        } else if(type == char.class) {
+            return ((Character)value).charValue();
+        }
+
+        return ((Number)value).longValue();
+    }
+
+    /**
+     * @throws Exception creator抛出的异常，由调用方包装为{@code JsonMappingException}
+     */
+    Object invoke(long[] prims, Object[] refs) throws Exception {
+        try {
+            return (Object)handle.invokeExact(prims, refs);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.gerald.jackson.creator;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * 为使用{@code @JsonCreator}多参数构造器的类型(例如{@code TestCreator.Resp}、
+ * {@code TestJsonFormat.Page}这样的不可变对象)安装{@link CreatorDeserializer}。
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new CreatorModule());
+ * </code>
+ * </pre>
+ */
+public class CreatorModule extends SimpleModule {
+    private static final long serialVersionUID = 4470951388716233405L;
+
+    public CreatorModule() {
+        super(CreatorModule.class.getSimpleName());
+
+        setDeserializerModifier(new DeserializerModifier());
+    }
+
+    private static class DeserializerModifier extends BeanDeserializerModifier {
+        @Override
+        public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                      JsonDeserializer<?> deserializer) {
+            if((deserializer.getClass() != BeanDeserializer.class)
+                    || !((BeanDeserializer)deserializer).getValueInstantiator().canCreateFromObjectWith()) {
+                return deserializer;
+            }
+
+            return new CreatorDeserializer((BeanDeserializer)deserializer);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.gerald.jackson.date;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * 注册{@link FastDateDeserializer}
+ * <pre>
+ * <code>
+ * mapper.registerModule(new DateModule());
+ * </code>
+ * </pre>
+ */
+public class DateModule extends SimpleModule {
+    private static final long serialVersionUID = 2929254810409632712L;
+
+    public DateModule() {
+        super(DateModule.class.getSimpleName());
+        
+        addDeserializer(Date.class, new FastDateDeserializer());
+    }
+}
@@ -0,0 +1,251 @@
+package com.gerald.jackson.date;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * 由定长的日期格式编译得到的解析器，例如<code>yyyy-MM-dd HH:mm:ss</code>。
+ * <p>
+ * 支持的字段只有<code>yyyy</code>、<code>MM</code>、<code>dd</code>、<code>HH</code>、
+ * <code>mm</code>、<code>ss</code>和<code>SSS</code>，字段之外只能是非字母的字面字符。
+ * 这样每个字段在输入中的位置都是固定的，解析时直接按下标读取数字，不需要
+ * {@code SimpleDateFormat}的逐字段匹配，也不需要先生成{@code String}。
+ * 不支持的格式{@link #compile(String)}返回null，由调用方使用原来的方式处理。
+ * </p>
+ * <p>
+ * 实例不可变，可以在线程间共享。
+ * </p>
+ */
+public final class DatePattern {
+    /**
+     * {@link #parse(char[], int, int, TimeZone)}无法解析时的返回值
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+    
+    private static final int YEAR = 0;
+    
+    private static final int MONTH = 1;
+    
+    private static final int DAY = 2;
+    
+    private static final int HOUR = 3;
+    
+    private static final int MINUTE = 4;
+    
+    private static final int SECOND = 5;
+    
+    private static final int MILLIS = 6;
+    
+    private static final String LETTERS = "yMdHmsS";
+    
+    private static final int[] WIDTHS = {4, 2, 2, 2, 2, 2, 3};
+    
+    /**
+     * 早于格里高利历启用的日期交给{@code SimpleDateFormat}(儒略历)处理
+     */
+    private static final int MIN_YEAR = 1583;
+    
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    
+    private final String pattern;
+    
+    private final int length;
+    
+    private final int[] fields;
+    
+    private final int[] fieldOffsets;
+    
+    private final char[] literals;
+    
+    private final int[] literalOffsets;
+    
+    private DatePattern(String pattern, int[] fields, int[] fieldOffsets, char[] literals, int[] literalOffsets) {
+        this.pattern = pattern;
+        this.length = pattern.length();
+        this.fields = fields;
+        this.fieldOffsets = fieldOffsets;
+        this.literals = literals;
+        this.literalOffsets = literalOffsets;
+    }
+    
+    /**
+     * @return 编译后的解析器；格式中包含不支持的字段或者不是定长时返回null
+     */
+    public static DatePattern compile(String pattern) {
+        List<int[]> fields = new ArrayList<>();
+        StringBuilder literals = new StringBuilder();
+        List<Integer> literalOffsets = new ArrayList<>();
+        boolean[] seen = new boolean[WIDTHS.length];
+        
+        int i = 0;
+        while(i < pattern.length()) {
+            char c = pattern.charAt(i);
+            
+            if(((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z'))) {
+                int field = LETTERS.indexOf(c);
+                int end = i;
+                while((end < pattern.length()) && (pattern.charAt(end) == c)) {
+                    end++;
+                }
+                
+                if((field < 0) || (end - i != WIDTHS[field]) || seen[field]) {
+                    return null;
+                }
+                
+                seen[field] = true;
+                fields.add(new int[] {field, i});
+                i = end;
+            } else if(c == '\'') {
+                // 引号中的字面量不常用，不支持
+                return null;
+            } else {
+                literals.append(c);
+                literalOffsets.add(i);
+                i++;
+            }
+        }
+        
+        if(fields.isEmpty()) {
+            return null;
+        }
+        
+        int[] fieldTypes = new int[fields.size()];
+        int[] fieldOffsets = new int[fields.size()];
+        for(int j = 0; j < fields.size(); j++) {
+            fieldTypes[j] = fields.get(j)[0];
+            fieldOffsets[j] = fields.get(j)[1];
+        }
+        
+        int[] offsets = new int[literalOffsets.size()];
+        for(int j = 0; j < offsets.length; j++) {
+            offsets[j] = literalOffsets.get(j);
+        }
+        
+        return new DatePattern(pattern, fieldTypes, fieldOffsets, literals.toString().toCharArray(), offsets);
+    }
+    
+    public String getPattern() {
+        return pattern;
+    }
+    
+    /**
+     * 解析{@code buf[offset, offset + len)}
+     * 
+     * @return 距离1970-01-01T00:00:00Z的毫秒数；长度不符、含有非数字字符、字段超出范围
+     *         (例如13月)或者年份早于1583时返回{@link #INVALID}
+     */
+    public long parse(char[] buf, int offset, int len, TimeZone timeZone) {
+        if(len != length) {
+            return INVALID;
+        }
+        
+        for(int i = 0; i < literals.length; i++) {
+            if(buf[offset + literalOffsets[i]] != literals[i]) {
+                return INVALID;
+            }
+        }
+        
+        // 未出现的字段取SimpleDateFormat的默认值
+        int year = 1970;
+        int month = 1;
+        int day = 1;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+        
+        for(int i = 0; i < fields.length; i++) {
+            int value = 0;
+            int start = offset + fieldOffsets[i];
+            int end = start + WIDTHS[fields[i]];
+            
+            for(int j = start; j < end; j++) {
+                int digit = buf[j] - '0';
+                if((digit < 0) || (digit > 9)) {
+                    return INVALID;
+                }
+                value = value * 10 + digit;
+            }
+            
+            switch(fields[i]) {
+            case YEAR:
+                year = value;
+                break;
+            case MONTH:
+                month = value;
+                break;
+            case DAY:
+                day = value;
+                break;
+            case HOUR:
+                hour = value;
+                break;
+            case MINUTE:
+                minute = value;
+                break;
+            case SECOND:
+                second = value;
+                break;
+            default:
+                millis = value;
+                break;
+            }
+        }
+        
+        if((year < MIN_YEAR) || (month < 1) || (month > 12) || (day < 1) || (day > daysInMonth(year, month))
+                || (hour > 23) || (minute > 59) || (second > 59)) {
+            return INVALID;
+        }
+        
+        long local = daysFromCivil(year, month, day) * MILLIS_PER_DAY
+                   + ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+        
+        return toUtc(local, timeZone);
+    }
+    
+    private static long toUtc(long local, TimeZone timeZone) {
+        int offset = timeZone.getOffset(local - timeZone.getRawOffset());
+        long utc = local - offset;
+        
+        // 在夏令时切换附近，用第一次的结果再校正一次
+        int actual = timeZone.getOffset(utc);
+        if(actual != offset) {
+            utc = local - actual;
+        }
+        
+        return utc;
+    }
+    
+    private static int daysInMonth(int year, int month) {
+        switch(month) {
+        case 2:
+            return (((year % 4) == 0) && (((year % 100) != 0) || ((year % 400) == 0))) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+    
+    /**
+     * 公历日期到1970-01-01的天数(Howard Hinnant的days_from_civil算法)
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = (month <= 2) ? year - 1 : year;
+        int era = y / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        
+        return era * 146097L + doe - 719468;
+    }
+    
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,179 @@
+package com.gerald.jackson.date;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.TimeZone;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/**
+ * 以<code>yyyy-MM-dd HH:mm:ss</code>格式输出{@link Date}，可以在多个线程间共享。
+ * <p>
+ * 测试中的{@code TestSerialize.DateSerializer}在线程间共享一个{@link SimpleDateFormat}，
+ * 并发时结果错乱，而且每次调用都会分配{@code StringBuffer}和{@code FieldPosition}。这里
+ * 直接用两位数字表拼出字符，并缓存
+ * <ol>
+ * <li>当天的日期前缀<code>yyyy-MM-dd </code></li>
+ * <li>当前这一秒的完整字符串</li>
+ * </ol>
+ * 同一秒内的时间只需要一次比较和一次{@link JsonGenerator#writeString(char[], int, int)}。
+ * 缓存对象创建后不再修改，通过volatile字段发布，因此不需要加锁。
+ * </p>
+ * <p>
+ * 与{@code SimpleDateFormat}一样，默认使用JVM的默认时区，也可以在构造时指定。
+ * 公元1583年之前(儒略历)和9999年之后的时间交给{@code SimpleDateFormat}处理。
+ * </p>
+ */
+public class DateSerializer extends StdScalarSerializer<Date> {
+    private static final long serialVersionUID = 6027379514938839154L;
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+    
+    private static final int LENGTH = PATTERN.length();
+    
+    private static final int PREFIX_LENGTH = "yyyy-MM-dd ".length();
+    
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    
+    private static final long MIN_DAY = LocalDate.of(1583, 1, 1).toEpochDay();
+    
+    private static final long MAX_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+    
+    static final char[] DIGIT_TENS = new char[100];
+    
+    static final char[] DIGIT_ONES = new char[100];
+    
+    static {
+        for(int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (char)('0' + i / 10);
+            DIGIT_ONES[i] = (char)('0' + i % 10);
+        }
+    }
+    
+    private static final class DayCache {
+        final long day;
+        
+        final char[] prefix;
+        
+        DayCache(long day, char[] prefix) {
+            this.day = day;
+            this.prefix = prefix;
+        }
+    }
+    
+    private static final class SecondCache {
+        final long second;
+        
+        final char[] chars;
+        
+        SecondCache(long second, char[] chars) {
+            this.second = second;
+            this.chars = chars;
+        }
+    }
+    
+    private final TimeZone timeZone;
+    
+    private transient volatile DayCache dayCache;
+    
+    private transient volatile SecondCache secondCache;
+    
+    public DateSerializer() {
+        this(TimeZone.getDefault());
+    }
+    
+    public DateSerializer(TimeZone timeZone) {
+        super(Date.class);
+        this.timeZone = (TimeZone)timeZone.clone();
+    }
+
+    @Override
+    public void serialize(Date value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        long second = Math.floorDiv(value.getTime(), 1000L);
+        SecondCache cache = secondCache;
+        
+        if((cache == null) || (cache.second != second)) {
+            char[] chars = format(second);
+            if(chars == null) {
+                gen.writeString(formatSlow(value));
+                return;
+            }
+            
+            cache = new SecondCache(second, chars);
+            secondCache = cache;
+        }
+        
+        gen.writeString(cache.chars, 0, LENGTH);
+    }
+    
+    /**
+     * @return 格式化的结果，超出快速路径支持的范围时返回null
+     */
+    private char[] format(long second) {
+        long millis = second * 1000L;
+        long local = millis + timeZone.getOffset(millis);
+        long day = Math.floorDiv(local, MILLIS_PER_DAY);
+        
+        if((day < MIN_DAY) || (day > MAX_DAY)) {
+            return null;
+        }
+        
+        DayCache cache = dayCache;
+        if((cache == null) || (cache.day != day)) {
+            cache = new DayCache(day, formatDay(day));
+            dayCache = cache;
+        }
+        
+        int secondOfDay = (int)(Math.floorMod(local, MILLIS_PER_DAY) / 1000L);
+        int hour = secondOfDay / 3600;
+        int minute = (secondOfDay / 60) % 60;
+        int sec = secondOfDay % 60;
+        
+        char[] chars = new char[LENGTH];
+        System.arraycopy(cache.prefix, 0, chars, 0, PREFIX_LENGTH);
+        chars[11] = DIGIT_TENS[hour];
+        chars[12] = DIGIT_ONES[hour];
+        chars[13] = ':';
+        chars[14] = DIGIT_TENS[minute];
+        chars[15] = DIGIT_ONES[minute];
+        chars[16] = ':';
+        chars[17] = DIGIT_TENS[sec];
+        chars[18] = DIGIT_ONES[sec];
+        
+        return chars;
+    }
+    
+    private static char[] formatDay(long day) {
+        // 每天只执行一次，直接借用java.time做历法换算
+        LocalDate date = LocalDate.ofEpochDay(day);
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        int dayOfMonth = date.getDayOfMonth();
+        
+        char[] prefix = new char[PREFIX_LENGTH];
+        prefix[0] = DIGIT_TENS[year / 100];
+        prefix[1] = DIGIT_ONES[year / 100];
+        prefix[2] = DIGIT_TENS[year % 100];
+        prefix[3] = DIGIT_ONES[year % 100];
+        prefix[4] = '-';
+        prefix[5] = DIGIT_TENS[month];
+        prefix[6] = DIGIT_ONES[month];
+        prefix[7] = '-';
+        prefix[8] = DIGIT_TENS[dayOfMonth];
+        prefix[9] = DIGIT_ONES[dayOfMonth];
+        prefix[10] = ' ';
+        
+        return prefix;
+    }
+    
+    private String formatSlow(Date value) {
+        SimpleDateFormat format = new SimpleDateFormat(PATTERN);
+        format.setTimeZone(timeZone);
+        
+        return format.format(value);
+    }
+}
@@ -0,0 +1,87 @@
+package com.gerald.jackson.date;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.TimeZone;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.DateDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+/**
+ * 处理<code>@JsonFormat(shape = Shape.STRING, pattern = ...)</code>的{@link Date}反序列化。
+ * <p>
+ * 默认情况下，jackson为每个带pattern的属性clone一个{@code SimpleDateFormat}，解析时先取出
+ * {@code String}再交给{@code DateFormat}。这里在{@link #createContextual}阶段把pattern
+ * 编译为{@link DatePattern}，解析时直接读取parser的字符缓冲区
+ * ({@link JsonParser#getTextCharacters()})。
+ * </p>
+ * <p>
+ * pattern不是定长格式，或者输入不符合格式(数字时间戳、长度不同、超出范围等)时，交给
+ * jackson原来的{@link DateDeserializers.DateDeserializer}，行为与不使用本类时一致。
+ * </p>
+ */
+public class FastDateDeserializer extends StdScalarDeserializer<Date> implements ContextualDeserializer {
+    private static final long serialVersionUID = -2380316185913520941L;
+
+    private final DatePattern pattern;
+    
+    private final TimeZone timeZone;
+    
+    private final JsonDeserializer<Date> fallback;
+    
+    public FastDateDeserializer() {
+        this(null, null, DateDeserializers.DateDeserializer.instance);
+    }
+    
+    protected FastDateDeserializer(DatePattern pattern, TimeZone timeZone, JsonDeserializer<Date> fallback) {
+        super(Date.class);
+        this.pattern = pattern;
+        this.timeZone = timeZone;
+        this.fallback = fallback;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
+            throws JsonMappingException {
+        JsonDeserializer<Date> deser = (JsonDeserializer<Date>)DateDeserializers.DateDeserializer.instance
+                                                                    .createContextual(ctxt, property);
+        
+        if(property != null) {
+            JsonFormat.Value format = findFormatOverrides(ctxt, property, Date.class);
+            
+            if((format != null) && format.hasPattern()) {
+                DatePattern compiled = DatePattern.compile(format.getPattern());
+                
+                if(compiled != null) {
+                    TimeZone tz = format.getTimeZone();
+                    
+                    return new FastDateDeserializer(compiled, (tz == null) ? ctxt.getTimeZone() : tz, deser);
+                }
+            }
+        }
+        
+        return deser;
+    }
+
+    @Override
+    public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if((pattern != null) && (p.getCurrentToken() == JsonToken.VALUE_STRING)) {
+            long millis = pattern.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength(), timeZone);
+            
+            if(millis != DatePattern.INVALID) {
+                return new Date(millis);
+            }
+        }
+        
+        return fallback.deserialize(p, ctxt);
+    }
+}
@@ -0,0 +1,143 @@
+package com.gerald.jackson.enums;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.EnumDeserializer;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.EnumSerializer;
+import com.fasterxml.jackson.databind.ser.std.JsonValueSerializer;
+import com.fasterxml.jackson.databind.util.EnumValues;
+
+/**
+ * 用{@link FastEnumSerializer}和{@link FastEnumDeserializer}替换jackson为enum
+ * 生成的serializer和deserializer。
+ * <p>
+ * 对于像{@code TestJsonValue.ErrorCode}这样同时使用{@code @JsonValue}和{@code @JsonCreator}
+ * 的enum，认为creator是{@code @JsonValue}的逆映射：命中{@code @JsonValue}输出的字符串
+ * 直接返回对应的常量，其他输入仍然交给creator。
+ * </p>
+ * <p>
+ * 启用了{@code WRITE_ENUMS_USING_TO_STRING}/{@code READ_ENUMS_USING_TO_STRING}、
+ * {@code @JsonValue}返回的不是字符串、或者enum以OBJECT形式序列化时，保持jackson原来的实现。
+ * </p>
+ */
+public class EnumModule extends SimpleModule {
+    private static final long serialVersionUID = -4408924612577512917L;
+
+    public EnumModule() {
+        super(EnumModule.class.getSimpleName());
+        
+        setSerializerModifier(new SerializerModifier());
+        setDeserializerModifier(new DeserializerModifier());
+    }
+    
+    /**
+     * @return 每个常量的{@code @JsonValue}输出，存在非字符串的输出时返回null
+     */
+    private static String[] jsonValues(AnnotatedMethod accessor, Object[] constants) {
+        String[] values = new String[constants.length];
+        
+        try {
+            accessor.getAnnotated().setAccessible(true);
+            
+            for(int i = 0; i < constants.length; i++) {
+                Object value = accessor.callOn(constants[i]);
+                if(!(value instanceof String)) {
+                    return null;
+                }
+                values[i] = (String)value;
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        
+        return values;
+    }
+    
+    private static class SerializerModifier extends BeanSerializerModifier {
+        @SuppressWarnings("unchecked")
+        @Override
+        public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc, 
+                                                  JsonSerializer<?> serializer) {
+            if(!beanDesc.getType().isEnumType()
+                    || !((serializer instanceof EnumSerializer) || (serializer instanceof JsonValueSerializer))
+                    || config.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)) {
+                return serializer;
+            }
+            
+            Class<Enum<?>> enumClass = (Class<Enum<?>>)beanDesc.getBeanClass();
+            Enum<?>[] constants = enumClass.getEnumConstants();
+            SerializedString[] values = new SerializedString[constants.length];
+            AnnotatedMethod accessor = beanDesc.findJsonValueMethod();
+            
+            if(accessor != null) {
+                String[] strs = jsonValues(accessor, constants);
+                if(strs == null) {
+                    return serializer;
+                }
+                
+                for(int i = 0; i < strs.length; i++) {
+                    values[i] = new SerializedString(strs[i]);
+                }
+            } else {
+                EnumValues names = EnumValues.constructFromName(config, enumClass);
+                for(Enum<?> constant : constants) {
+                    values[constant.ordinal()] = new SerializedString(names.serializedValueFor(constant).getValue());
+                }
+            }
+            
+            JsonFormat.Value format = beanDesc.findExpectedFormat(null);
+            Boolean asIndex = (format == null) ? null : FastEnumSerializer.asIndex(format.getShape());
+            
+            return new FastEnumSerializer(enumClass, values, asIndex, accessor != null);
+        }
+    }
+    
+    private static class DeserializerModifier extends BeanDeserializerModifier {
+        @Override
+        public JsonDeserializer<?> modifyEnumDeserializer(DeserializationConfig config, JavaType type, 
+                                                          BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+            if(config.isEnabled(DeserializationFeature.READ_ENUMS_USING_TO_STRING)) {
+                return deserializer;
+            }
+            
+            Class<?> enumClass = type.getRawClass();
+            Object[] constants = enumClass.getEnumConstants();
+            AnnotatedMethod accessor = beanDesc.findJsonValueMethod();
+            String[] keys;
+            
+            if(accessor != null) {
+                keys = jsonValues(accessor, constants);
+                if(keys == null) {
+                    return deserializer;
+                }
+            } else if(deserializer instanceof EnumDeserializer) {
+                keys = new String[constants.length];
+                keys = config.getAnnotationIntrospector().findEnumValues(enumClass, (Enum<?>[])constants, keys);
+                for(int i = 0; i < keys.length; i++) {
+                    if(keys[i] == null) {
+                        keys[i] = ((Enum<?>)constants[i]).name();
+                    }
+                }
+            } else {
+                return deserializer;
+            }
+            
+            // 只有jackson自己的EnumDeserializer会把数字当作序号；creator方式的数字输入仍交给creator
+            Object[] byIndex = (deserializer instanceof EnumDeserializer) ? constants : null;
+            
+            return new FastEnumDeserializer(enumClass, EnumTable.build(keys, constants), byIndex, deserializer);
+        }
+    }
+}
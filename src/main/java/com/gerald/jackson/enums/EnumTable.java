@@ -0,0 +1,115 @@
+package com.gerald.jackson.enums;
+
+/**
+ * 以{@code char[]}片段为键的只读查找表，用于把parser缓冲区中的文本直接映射为enum常量。
+ * <p>
+ * 构造时尝试寻找一个无冲突的乘法散列(完美散列)，找到时每次查找只需比较一个槽位；
+ * 找不到时退化为线性探测的开放寻址表。查找过程不分配任何对象。
+ * </p>
+ */
+final class EnumTable {
+    private static final int[] MULTIPLIERS = {
+        0x9E3779B1, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646D, 0xFD7046C5, 0xB55A4F09
+    };
+    
+    private final char[][] keys;
+    
+    private final Object[] values;
+    
+    private final int multiplier;
+    
+    private final int shift;
+    
+    private final int mask;
+    
+    private EnumTable(char[][] keys, Object[] values, int multiplier, int bits) {
+        this.keys = keys;
+        this.values = values;
+        this.multiplier = multiplier;
+        this.shift = 32 - bits;
+        this.mask = (1 << bits) - 1;
+    }
+    
+    static EnumTable build(String[] names, Object[] constants) {
+        int minBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, names.length * 2 - 1)));
+        
+        // 先找完美散列：表的大小最多放大到8倍
+        for(int bits = minBits; bits <= minBits + 3; bits++) {
+            for(int multiplier : MULTIPLIERS) {
+                EnumTable table = tryBuild(names, constants, multiplier, bits, false);
+                if(table != null) {
+                    return table;
+                }
+            }
+        }
+        
+        return tryBuild(names, constants, MULTIPLIERS[0], minBits, true);
+    }
+    
+    private static EnumTable tryBuild(String[] names, Object[] constants, int multiplier, int bits, boolean probe) {
+        int size = 1 << bits;
+        char[][] keys = new char[size][];
+        Object[] values = new Object[size];
+        EnumTable table = new EnumTable(keys, values, multiplier, bits);
+        
+        for(int i = 0; i < names.length; i++) {
+            char[] key = names[i].toCharArray();
+            int slot = table.slot(key, 0, key.length);
+            
+            while(keys[slot] != null) {
+                if(!probe) {
+                    return null;
+                }
+                slot = (slot + 1) & table.mask;
+            }
+            
+            keys[slot] = key;
+            values[slot] = constants[i];
+        }
+        
+        return table;
+    }
+    
+    private int slot(char[] buf, int offset, int len) {
+        int h = len;
+        for(int i = offset, end = offset + len; i < end; i++) {
+            h = 31 * h + buf[i];
+        }
+        
+        return ((h * multiplier) >>> shift) & mask;
+    }
+    
+    /**
+     * @return 对应的常量，不存在时返回null
+     */
+    Object find(char[] buf, int offset, int len) {
+        int slot = slot(buf, offset, len);
+        
+        while(true) {
+            char[] key = keys[slot];
+            if(key == null) {
+                return null;
+            }
+            
+            if(matches(key, buf, offset, len)) {
+                return values[slot];
+            }
+            
+            slot = (slot + 1) & mask;
+        }
+    }
+    
+    private static boolean matches(char[] key, char[] buf, int offset, int len) {
+        if(key.length != len) {
+            return false;
+        }
+        
+        for(int i = 0; i < len; i++) {
+            if(key[i] != buf[offset + i]) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+}
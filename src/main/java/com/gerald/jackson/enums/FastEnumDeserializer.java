@@ -0,0 +1,96 @@
+package com.gerald.jackson.enums;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+/**
+ * enum的反序列化：在parser的字符缓冲区上直接查找{@link EnumTable}，不生成{@code String}，
+ * 也不调用{@code @JsonCreator}工厂方法。
+ * <p>
+ * 只处理命中的字符串和(对没有creator的enum)合法的序号，其他情况，包括未知的值、
+ * {@code READ_ENUMS_USING_TO_STRING}等，都交给jackson原来的deserializer，保持原有的
+ * 错误处理和配置行为。
+ * </p>
+ */
+public class FastEnumDeserializer extends StdScalarDeserializer<Object>
+    implements ContextualDeserializer, ResolvableDeserializer {
+    private static final long serialVersionUID = -6283740419766312049L;
+
+    private final EnumTable table;
+    
+    /**
+     * 按序号索引的常量；为null时数字输入交给{@link #fallback}
+     */
+    private final Object[] byIndex;
+    
+    private final JsonDeserializer<?> fallback;
+    
+    FastEnumDeserializer(Class<?> enumClass, EnumTable table, Object[] byIndex, JsonDeserializer<?> fallback) {
+        super(enumClass);
+        this.table = table;
+        this.byIndex = byIndex;
+        this.fallback = fallback;
+    }
+    
+    protected FastEnumDeserializer withFallback(JsonDeserializer<?> deser) {
+        if(deser == fallback) {
+            return this;
+        }
+        
+        return new FastEnumDeserializer(handledType(), table, byIndex, deser);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        if(fallback instanceof ResolvableDeserializer) {
+            ((ResolvableDeserializer)fallback).resolve(ctxt);
+        }
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
+            throws JsonMappingException {
+        if(fallback instanceof ContextualDeserializer) {
+            return withFallback(((ContextualDeserializer)fallback).createContextual(ctxt, property));
+        }
+        
+        return this;
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken t = p.getCurrentToken();
+        
+        if(t == JsonToken.VALUE_STRING) {
+            if(!ctxt.isEnabled(DeserializationFeature.READ_ENUMS_USING_TO_STRING)) {
+                Object value = table.find(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                if(value != null) {
+                    return value;
+                }
+            }
+        } else if((t == JsonToken.VALUE_NUMBER_INT) && (byIndex != null)
+                && !ctxt.isEnabled(DeserializationFeature.FAIL_ON_NUMBERS_FOR_ENUMS)) {
+            int index = p.getIntValue();
+            if((index >= 0) && (index < byIndex.length)) {
+                return byIndex[index];
+            }
+        }
+        
+        return fallback.deserialize(p, ctxt);
+    }
+    
+    @Override
+    public boolean isCachable() {
+        return true;
+    }
+}
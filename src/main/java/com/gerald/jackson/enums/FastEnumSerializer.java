@@ -0,0 +1,92 @@
+package com.gerald.jackson.enums;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/**
+ * enum的序列化：每个常量的输出({@code @JsonValue}的返回值或者名称)预先生成
+ * {@link SerializedString}，写出时复用其中缓存的UTF-8字节。
+ * <p>
+ * 与jackson的{@code EnumSerializer}一样，属性或者类型上的
+ * <code>@JsonFormat(shape = Shape.NUMBER)</code>以及{@code WRITE_ENUMS_USING_INDEX}
+ * 使用序号输出。使用{@code @JsonValue}的enum与jackson的{@code JsonValueSerializer}一样，
+ * 总是输出{@code @JsonValue}的返回值，不受这两者影响。
+ * </p>
+ */
+public class FastEnumSerializer extends StdScalarSerializer<Enum<?>> implements ContextualSerializer {
+    private static final long serialVersionUID = 4616123565418669003L;
+
+    private final SerializedString[] values;
+    
+    /**
+     * null表示由{@link SerializationFeature#WRITE_ENUMS_USING_INDEX}决定
+     */
+    private final Boolean asIndex;
+    
+    /**
+     * {@link #values}是否为{@code @JsonValue}的输出
+     */
+    private final boolean jsonValue;
+    
+    @SuppressWarnings("unchecked")
+    FastEnumSerializer(Class<?> enumClass, SerializedString[] values, Boolean asIndex, boolean jsonValue) {
+        super((Class<Enum<?>>)enumClass, false);
+        this.values = values;
+        this.asIndex = jsonValue ? Boolean.FALSE : asIndex;
+        this.jsonValue = jsonValue;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if((property != null) && !jsonValue) {
+            JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+            
+            if(format != null) {
+                Boolean index = asIndex(format.getShape());
+                if((index != null) && !index.equals(asIndex)) {
+                    return new FastEnumSerializer(handledType(), values, index, false);
+                }
+            }
+        }
+        
+        return this;
+    }
+    
+    static Boolean asIndex(JsonFormat.Shape shape) {
+        if(shape == null) {
+            return null;
+        }
+        
+        if(shape.isNumeric()) {
+            return Boolean.TRUE;
+        }
+        
+        if(shape == JsonFormat.Shape.STRING) {
+            return Boolean.FALSE;
+        }
+        
+        return null;
+    }
+
+    @Override
+    public void serialize(Enum<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        boolean index = (asIndex != null) ? asIndex : provider.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX);
+        
+        if(index) {
+            gen.writeNumber(value.ordinal());
+        } else {
+            gen.writeString(values[value.ordinal()]);
+        }
+    }
+}
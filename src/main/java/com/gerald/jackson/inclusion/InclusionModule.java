@@ -0,0 +1,57 @@
+package com.gerald.jackson.inclusion;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * 为带有{@code @JsonInclude}(NON_NULL、NON_ABSENT、NON_EMPTY、NON_DEFAULT)的属性预先确定判断方式，
+ * 见{@link InclusionPropertyWriter}。
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new InclusionModule())
+ *                                         .registerModule(new Jdk8Module());
+ * </code>
+ * </pre>
+ * <p>
+ * 后注册的模块的{@code BeanSerializerModifier}先执行。{@code Jdk8Module#configureAbsentsAsNulls(boolean)}打开时，
+ * jdk8模块会把{@code Optional}属性替换为它自己的writer，这个模块需要在{@code Jdk8Module}之前注册才能再替换它，
+ * 否则这些属性保持jdk8模块的实现。
+ * 这个模块自己通过{@code LambdaMetafactory}生成的函数读取public的getter，不需要同时注册{@code AccessorModule}。
+ * </p>
+ */
+public class InclusionModule extends SimpleModule {
+    private static final long serialVersionUID = -2715286370946126046L;
+
+    public InclusionModule() {
+        super(InclusionModule.class.getSimpleName());
+
+        setSerializerModifier(new SerializerModifier());
+    }
+
+    private static class SerializerModifier extends BeanSerializerModifier {
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            for(int i = 0; i < beanProperties.size(); i++) {
+                BeanPropertyWriter writer = beanProperties.get(i);
+
+                if((writer.getClass() != BeanPropertyWriter.class)
+                        && !InclusionPropertyWriter.JDK8_OPTIONAL_WRITER.equals(writer.getClass().getName())) {
+                    continue;
+                }
+
+                InclusionPropertyWriter inclusion = InclusionPropertyWriter.create(writer);
+                if(inclusion != null) {
+                    beanProperties.set(i, inclusion);
+                }
+            }
+
+            return beanProperties;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.gerald.jackson.inclusion;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.IndexedListSerializer;
+import com.fasterxml.jackson.databind.ser.impl.IndexedStringListSerializer;
+import com.fasterxml.jackson.databind.ser.impl.StringArraySerializer;
+import com.fasterxml.jackson.databind.ser.impl.StringCollectionSerializer;
+import com.fasterxml.jackson.databind.ser.std.CollectionSerializer;
+import com.fasterxml.jackson.databind.ser.std.MapSerializer;
+import com.fasterxml.jackson.databind.ser.std.NumberSerializers;
+import com.fasterxml.jackson.databind.ser.std.ObjectArraySerializer;
+import com.fasterxml.jackson.databind.ser.std.StdArraySerializers;
+import com.fasterxml.jackson.databind.ser.std.StringSerializer;
+import com.gerald.jackson.accessor.AccessorPropertyWriter;
+import com.gerald.jackson.accessor.Accessors;
+
+/**
+ * 在创建serializer时就确定{@code @JsonInclude}判断方式的{@link AccessorPropertyWriter}。
+ * <p>
+ * jackson对NON_EMPTY的属性每次都调用{@code serializer.isEmpty}，对NON_DEFAULT的属性每次都把装箱后的值
+ * 与默认值比较{@code equals}。这里按属性的声明类型和忽略值预先选好一种{@link Check}：
+ * <ul>
+ * <li>
+ *  {@code int}/{@code long}的getter由{@link Accessors}生成的函数读取，不装箱，直接与默认值比较；
+ *  {@code Integer}、{@code Long}、{@code Boolean}和{@code Double}也比较基本类型的值
+ * </li>
+ * <li>
+ *  其他的默认值先比较引用，再调用{@code equals}
+ * </li>
+ * <li>
+ *  值的serializer是jackson自己的{@code String}、集合、数组、{@code Map}或者jdk8模块的{@code Optional}
+ *  serializer时，直接判断长度、{@code isEmpty()}或者{@code isPresent()}，结果与这些serializer的
+ *  {@code isEmpty}相同；{@code Map}和{@code Optional}只在能确定为空时跳过{@code isEmpty}，
+ *  否则仍然交给serializer判断内容
+ * </li>
+ * </ul>
+ * 自定义的serializer仍然调用它自己的{@code isEmpty}。
+ * </p>
+ */
+final class InclusionPropertyWriter extends AccessorPropertyWriter {
+    private static final long serialVersionUID = 2391861465473640893L;
+
+    /**
+     * jdk8模块为{@code Optional}属性生成的writer，null和{@code Optional.empty()}都不写出
+     */
+    static final String JDK8_OPTIONAL_WRITER = "com.fasterxml.jackson.datatype.jdk8.Jdk8OptionalBeanPropertyWriter";
+
+    /**
+     * {@code isEmpty}只判断长度或者是否存在值的serializer
+     */
+    private static final Set<Class<?>> TRUSTED_SERIALIZERS = trustedSerializers();
+
+    enum Check {
+        /**
+         * 只忽略null
+         */
+        NULL,
+
+        EMPTY_STRING,
+
+        EMPTY_COLLECTION,
+
+        EMPTY_ARRAY,
+
+        EMPTY_MAP,
+
+        ABSENT_OPTIONAL,
+
+        /**
+         * 交给serializer的{@code isEmpty}
+         */
+        EMPTY,
+
+        DEFAULT_INT,
+
+        DEFAULT_LONG,
+
+        DEFAULT_BOOLEAN,
+
+        DEFAULT_DOUBLE,
+
+        /**
+         * 先比较引用，再调用{@code equals}
+         */
+        DEFAULT_OBJECT
+    }
+
+    private final Check check;
+
+    private final long defaultBits;
+
+    /**
+     * 原来的writer是否是jdk8模块的{@code Optional} writer
+     */
+    private final boolean skipAbsent;
+
+    private final Function<Object, Object> getter;
+
+    private final ToIntFunction<Object> intGetter;
+
+    private final ToLongFunction<Object> longGetter;
+
+    /**
+     * 不被忽略的{@code int}/{@code long}是否可以绕过serializer直接写出
+     */
+    private boolean direct;
+
+    /**
+     * 上一次确认过的可信serializer，属性的值通常只有一种类型
+     */
+    private transient JsonSerializer<?> trusted;
+
+    private InclusionPropertyWriter(BeanPropertyWriter base, boolean skipAbsent, Function<Object, Object> getter,
+                                    ToIntFunction<Object> intGetter, ToLongFunction<Object> longGetter) {
+        super(base);
+        this.check = compile(getType().getRawClass(), _suppressableValue);
+        this.defaultBits = defaultBits(check, _suppressableValue);
+        this.skipAbsent = skipAbsent;
+        this.getter = getter;
+        this.intGetter = intGetter;
+        this.longGetter = longGetter;
+        this.direct = isDirect(_serializer);
+    }
+
+    private InclusionPropertyWriter(InclusionPropertyWriter base, PropertyName name) {
+        super(base, name);
+        this.check = base.check;
+        this.defaultBits = base.defaultBits;
+        this.skipAbsent = base.skipAbsent;
+        this.getter = base.getter;
+        this.intGetter = base.intGetter;
+        this.longGetter = base.longGetter;
+        this.direct = base.direct;
+    }
+
+    /**
+     * @return {@code base}没有{@code @JsonInclude}的设置时返回null
+     */
+    static InclusionPropertyWriter create(BeanPropertyWriter base) {
+        Function<Object, Object> getter = null;
+        ToIntFunction<Object> intGetter = null;
+        ToLongFunction<Object> longGetter = null;
+
+        AnnotatedMember member = base.getMember();
+        if(member instanceof AnnotatedMethod) {
+            Method method = ((AnnotatedMethod)member).getAnnotated();
+
+            if(Accessors.isAccessible(method)) {
+                try {
+                    if(method.getReturnType() == int.class) {
+                        intGetter = Accessors.intGetter(method);
+                    } else if(method.getReturnType() == long.class) {
+                        longGetter = Accessors.longGetter(method);
+                    } else {
+                        getter = Accessors.getter(method);
+                    }
+                } catch (Throwable e) {
+                    // 使用反射读取
+                }
+            }
+        }
+
+        InclusionPropertyWriter writer = new InclusionPropertyWriter(base,
+                JDK8_OPTIONAL_WRITER.equals(base.getClass().getName()), getter, intGetter, longGetter);
+
+        return ((writer._suppressableValue == null) && !writer.willSuppressNulls()) ? null : writer;
+    }
+
+    private static Set<Class<?>> trustedSerializers() {
+        Set<Class<?>> classes = new HashSet<>();
+        Collections.addAll(classes, StringSerializer.class, CollectionSerializer.class, IndexedListSerializer.class,
+                           StringCollectionSerializer.class, IndexedStringListSerializer.class, MapSerializer.class,
+                           ObjectArraySerializer.class, StringArraySerializer.class);
+        Collections.addAll(classes, StdArraySerializers.class.getDeclaredClasses());
+
+        try {
+            classes.add(Class.forName("com.fasterxml.jackson.datatype.jdk8.OptionalSerializer", false,
+                                      InclusionPropertyWriter.class.getClassLoader()));
+        } catch (ClassNotFoundException | LinkageError e) {
+            // 没有jdk8模块
+        }
+
+        return classes;
+    }
+
+    static Check compile(Class<?> type, Object suppressableValue) {
+        if(suppressableValue == null) {
+            return Check.NULL;
+        }
+
+        if(suppressableValue == MARKER_FOR_EMPTY) {
+            if(type == String.class) {
+                return Check.EMPTY_STRING;
+            } else if(Collection.class.isAssignableFrom(type)) {
+                return Check.EMPTY_COLLECTION;
+            } else if(type.isArray()) {
+                return Check.EMPTY_ARRAY;
+            } else if(Map.class.isAssignableFrom(type)) {
+                return Check.EMPTY_MAP;
+            } else if(type == Optional.class) {
+                return Check.ABSENT_OPTIONAL;
+            }
+            return Check.EMPTY;
+        }
+
+        if(((type == int.class) || (type == Integer.class)) && (suppressableValue instanceof Integer)) {
+            return Check.DEFAULT_INT;
+        } else if(((type == long.class) || (type == Long.class)) && (suppressableValue instanceof Long)) {
+            return Check.DEFAULT_LONG;
+        } else if(((type == boolean.class) || (type == Boolean.class)) && (suppressableValue instanceof Boolean)) {
+            return Check.DEFAULT_BOOLEAN;
+        } else if(((type == double.class) || (type == Double.class)) && (suppressableValue instanceof Double)) {
+            return Check.DEFAULT_DOUBLE;
+        }
+
+        return Check.DEFAULT_OBJECT;
+    }
+
+    private static long defaultBits(Check check, Object suppressableValue) {
+        switch(check) {
+        case DEFAULT_INT:
+        case DEFAULT_LONG:
+            return ((Number)suppressableValue).longValue();
+        case DEFAULT_BOOLEAN:
+            return ((Boolean)suppressableValue).booleanValue() ? 1 : 0;
+        case DEFAULT_DOUBLE:
+            return Double.doubleToLongBits((Double)suppressableValue);
+        default:
+            return 0;
+        }
+    }
+
+    Check getCheck() {
+        return check;
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(PropertyName newName) {
+        return new InclusionPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void assignSerializer(JsonSerializer<Object> ser) {
+        super.assignSerializer(ser);
+        direct = isDirect(ser);
+    }
+
+    private boolean isDirect(JsonSerializer<Object> ser) {
+        if((ser == null) || (_typeSerializer != null) || ((check != Check.NULL) && (check != Check.DEFAULT_INT)
+                && (check != Check.DEFAULT_LONG))) {
+            return false;
+        }
+
+        if(intGetter != null) {
+            return ser.getClass() == NumberSerializers.IntegerSerializer.class;
+        } else if(longGetter != null) {
+            return ser.getClass() == NumberSerializers.LongSerializer.class;
+        }
+
+        return false;
+    }
+
+    @Override
+    protected Object getValue(Object bean) throws Exception {
+        if(getter != null) {
+            return getter.apply(bean);
+        } else if(intGetter != null) {
+            return intGetter.applyAsInt(bean);
+        } else if(longGetter != null) {
+            return longGetter.applyAsLong(bean);
+        }
+
+        return get(bean);
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        if(intGetter != null) {
+            int value = intGetter.applyAsInt(bean);
+            if((check == Check.DEFAULT_INT) && (value == defaultBits)) {
+                return;
+            }
+
+            if(direct) {
+                gen.writeFieldName(_name);
+                gen.writeNumber(value);
+            } else {
+                serializeFieldValue(bean, value, gen, prov);
+            }
+            return;
+        }
+
+        if(longGetter != null) {
+            long value = longGetter.applyAsLong(bean);
+            if((check == Check.DEFAULT_LONG) && (value == defaultBits)) {
+                return;
+            }
+
+            if(direct) {
+                gen.writeFieldName(_name);
+                gen.writeNumber(value);
+            } else {
+                serializeFieldValue(bean, value, gen, prov);
+            }
+            return;
+        }
+
+        Object value = getValue(bean);
+        if(skipAbsent && (_nullSerializer == null) && (value instanceof Optional) && !((Optional<?>)value).isPresent()) {
+            return;
+        }
+
+        serializeFieldValue(bean, value, gen, prov);
+    }
+
+    @Override
+    protected boolean isSuppressed(Object value, JsonSerializer<Object> ser, SerializerProvider prov) {
+        switch(check) {
+        case NULL:
+            return false;
+        case EMPTY_STRING:
+            if(isTrusted(ser) && (value instanceof String)) {
+                return ((String)value).isEmpty();
+            }
+            break;
+        case EMPTY_COLLECTION:
+            if(isTrusted(ser) && (value instanceof Collection)) {
+                return ((Collection<?>)value).isEmpty();
+            }
+            break;
+        case EMPTY_ARRAY:
+            if(isTrusted(ser) && value.getClass().isArray()) {
+                return (value instanceof Object[]) ? (((Object[])value).length == 0) : (Array.getLength(value) == 0);
+            }
+            break;
+        case EMPTY_MAP:
+            if(isTrusted(ser) && (value instanceof Map) && ((Map<?, ?>)value).isEmpty()) {
+                return true;
+            }
+            break;
+        case ABSENT_OPTIONAL:
+            if(isTrusted(ser) && (value instanceof Optional) && !((Optional<?>)value).isPresent()) {
+                return true;
+            }
+            break;
+        case DEFAULT_INT:
+            return (value instanceof Integer) && (((Integer)value).intValue() == defaultBits);
+        case DEFAULT_LONG:
+            return (value instanceof Long) && (((Long)value).longValue() == defaultBits);
+        case DEFAULT_BOOLEAN:
+            return (value instanceof Boolean) && ((((Boolean)value).booleanValue() ? 1 : 0) == defaultBits);
+        case DEFAULT_DOUBLE:
+            return (value instanceof Double) && (Double.doubleToLongBits((Double)value) == defaultBits);
+        case DEFAULT_OBJECT:
+            return (value == _suppressableValue) || _suppressableValue.equals(value);
+        default:
+            break;
+        }
+
+        return ser.isEmpty(prov, value);
+    }
+
+    private boolean isTrusted(JsonSerializer<?> ser) {
+        if(ser == trusted) {
+            return true;
+        }
+
+        if(TRUSTED_SERIALIZERS.contains(ser.getClass())) {
+            trusted = ser;
+            return true;
+        }
+
+        return false;
+    }
+}
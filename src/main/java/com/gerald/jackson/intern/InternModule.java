@@ -0,0 +1,88 @@
+package com.gerald.jackson.intern;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * 为{@link JsonIntern @JsonIntern}的{@code String}属性设置{@link InternStringDeserializer}，
+ * 同一个module注册到的所有mapper共用一个{@link StringDeduplicator}。
+ * <pre>
+ * <code>
+ * StripedStringDeduplicator deduplicator = new StripedStringDeduplicator();
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new InternModule(deduplicator));
+ * ...
+ * System.out.println(deduplicator.getHitRate());
+ * </code>
+ * </pre>
+ * 只处理setter和字段属性；{@code @JsonCreator}的参数和已经指定了deserializer的属性不变。
+ */
+public class InternModule extends SimpleModule {
+    private static final long serialVersionUID = 6871541207375012917L;
+
+    private final StringDeduplicator deduplicator;
+
+    public InternModule() {
+        this(new StripedStringDeduplicator());
+    }
+
+    public InternModule(StringDeduplicator deduplicator) {
+        super(InternModule.class.getSimpleName());
+
+        this.deduplicator = deduplicator;
+        setDeserializerModifier(new DeserializerModifier(new InternStringDeserializer(deduplicator)));
+    }
+
+    public StringDeduplicator getDeduplicator() {
+        return deduplicator;
+    }
+
+    private static class DeserializerModifier extends BeanDeserializerModifier {
+        private final InternStringDeserializer deserializer;
+
+        DeserializerModifier(InternStringDeserializer deserializer) {
+            this.deserializer = deserializer;
+        }
+
+        @Override
+        public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                     BeanDeserializerBuilder builder) {
+            JsonIntern classIntern = beanDesc.getClassAnnotations().get(JsonIntern.class);
+            boolean classDefault = (classIntern != null) && classIntern.value();
+
+            for(BeanPropertyDefinition def : beanDesc.findProperties()) {
+                Boolean intern = findIntern(def.getField());
+                if(intern == null) {
+                    intern = findIntern(def.getSetter());
+                }
+                if(intern == null) {
+                    intern = findIntern(def.getGetter());
+                }
+                if(!((intern == null) ? classDefault : intern)) {
+                    continue;
+                }
+
+                SettableBeanProperty prop = builder.findProperty(def.getFullName());
+                if((prop != null) && !prop.hasValueDeserializer() && (prop.getType().getRawClass() == String.class)) {
+                    builder.addOrReplaceProperty(prop.withValueDeserializer(deserializer), true);
+                }
+            }
+
+            return builder;
+        }
+
+        private static Boolean findIntern(Annotated annotated) {
+            if(annotated == null) {
+                return null;
+            }
+
+            JsonIntern intern = annotated.getAnnotation(JsonIntern.class);
+            return (intern == null) ? null : intern.value();
+        }
+    }
+}
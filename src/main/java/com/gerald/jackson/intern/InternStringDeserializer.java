@@ -0,0 +1,34 @@
+package com.gerald.jackson.intern;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+/**
+ * {@link JsonIntern @JsonIntern}属性的deserializer：JSON字符串直接用parser的字符缓冲区查找
+ * {@link StringDeduplicator}，命中时不创建{@code String}；其它token(数字、数组等)交给jackson的
+ * {@link StringDeserializer}，转换的结果不去重。
+ */
+public class InternStringDeserializer extends StdScalarDeserializer<String> {
+    private static final long serialVersionUID = -3372036595016294150L;
+
+    private final StringDeduplicator deduplicator;
+
+    public InternStringDeserializer(StringDeduplicator deduplicator) {
+        super(String.class);
+        this.deduplicator = deduplicator;
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if(p.getCurrentToken() == JsonToken.VALUE_STRING) {
+            return deduplicator.deduplicate(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+
+        return StringDeserializer.instance.deserialize(p, ctxt);
+    }
+}
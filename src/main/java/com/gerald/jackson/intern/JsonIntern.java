@@ -0,0 +1,23 @@
+package com.gerald.jackson.intern;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotation;
+
+/**
+ * 反序列化时通过{@link StringDeduplicator}复用相同的字符串，需要注册{@link InternModule}。
+ * <p>
+ * 标注在{@code String}类型的属性(字段、getter或者setter)上只对这个属性生效；标注在类上对类中所有
+ * {@code String}类型的属性生效，其中个别属性可以用{@code @JsonIntern(false)}排除。
+ * 只适合取值有限、大量重复的属性，例如地址、状态、类型名，取值几乎不重复的属性(id、备注)只会降低命中率。
+ * </p>
+ */
+@Target({ElementType.TYPE, ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotation
+public @interface JsonIntern {
+    boolean value() default true;
+}
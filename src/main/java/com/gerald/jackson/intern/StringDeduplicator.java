@@ -0,0 +1,15 @@
+package com.gerald.jackson.intern;
+
+/**
+ * {@link InternModule}使用的字符串去重，实现必须是线程安全的。
+ * <p>
+ * 参数直接是parser的字符缓冲区({@code JsonParser#getTextCharacters()})，实现不能修改或者保存这个数组，
+ * 命中时不需要创建新的{@code String}。
+ * </p>
+ */
+public interface StringDeduplicator {
+    /**
+     * @return 与{@code new String(buf, offset, len)}相等的字符串，可能是之前返回过的实例
+     */
+    String deduplicate(char[] buf, int offset, int len);
+}
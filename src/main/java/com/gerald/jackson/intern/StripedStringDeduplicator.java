@@ -0,0 +1,171 @@
+package com.gerald.jackson.intern;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有容量上限、分段加锁的{@link StringDeduplicator}。
+ * <p>
+ * 缓存分为若干段，每段是一个两路组相联的{@code String[]}表，由字符的hash(与{@code String#hashCode()}相同)
+ * 选择段和槽位。查找时直接比较缓冲区中的字符，命中时返回缓存的实例；未命中时创建字符串并放入槽位，
+ * 替换同一组中较旧的一个。不同段的查找互不阻塞，表的大小固定，不会随输入无限增长，也不需要
+ * {@code String#intern()}的全局表。超过{@code maxLength}的字符串不缓存。
+ * </p>
+ * <p>
+ * {@link #getHits()}、{@link #getMisses()}、{@link #getHitRate()}用于判断标注了
+ * {@link JsonIntern @JsonIntern}的属性是否真的重复，命中率很低时应当去掉标注。
+ * </p>
+ */
+public class StripedStringDeduplicator implements StringDeduplicator {
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    public static final int DEFAULT_STRIPES = 16;
+
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    private final Stripe[] stripes;
+
+    private final int stripeShift;
+
+    private final int maxLength;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    private static final class Stripe {
+        final String[] table;
+
+        Stripe(int size) {
+            table = new String[size];
+        }
+    }
+
+    public StripedStringDeduplicator() {
+        this(DEFAULT_CAPACITY, DEFAULT_STRIPES, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity 最多缓存的字符串个数，向上取整为2的幂
+     * @param stripes 段数，向上取整为2的幂
+     * @param maxLength 缓存的字符串的最大长度
+     */
+    public StripedStringDeduplicator(int capacity, int stripes, int maxLength) {
+        if((capacity < 2) || (stripes < 1) || (maxLength < 0)) {
+            throw new IllegalArgumentException("capacity = " + capacity + ", stripes = " + stripes
+                                               + ", maxLength = " + maxLength);
+        }
+
+        int stripeCount = ceilingPowerOfTwo(stripes);
+        int stripeSize = Math.max(2, ceilingPowerOfTwo(capacity) / stripeCount);
+
+        this.stripes = new Stripe[stripeCount];
+        for(int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(stripeSize);
+        }
+        // 段由hash的高位选择，槽位由低位选择
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+        this.maxLength = maxLength;
+    }
+
+    private static int ceilingPowerOfTwo(int n) {
+        return (n <= 1) ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    @Override
+    public String deduplicate(char[] buf, int offset, int len) {
+        if(len > maxLength) {
+            skipped.increment();
+            return new String(buf, offset, len);
+        }
+
+        int h = 0;
+        for(int i = offset, end = offset + len; i < end; i++) {
+            h = 31 * h + buf[i];
+        }
+        int spread = h ^ (h >>> 16);
+
+        Stripe stripe = stripes[(stripeShift == 32) ? 0 : ((spread * 0x9E3779B9) >>> stripeShift)];
+        String[] table = stripe.table;
+        // 同一组的两个槽位相邻
+        int first = spread & (table.length - 2);
+
+        synchronized(stripe) {
+            String s = table[first];
+            if(matches(s, h, buf, offset, len)) {
+                hits.increment();
+                return s;
+            }
+
+            String other = table[first + 1];
+            if(matches(other, h, buf, offset, len)) {
+                // 最近命中的放在第一个槽位
+                table[first] = other;
+                table[first + 1] = s;
+                hits.increment();
+                return other;
+            }
+
+            String created = new String(buf, offset, len);
+            table[first + 1] = s;
+            table[first] = created;
+            misses.increment();
+            return created;
+        }
+    }
+
+    private static boolean matches(String s, int h, char[] buf, int offset, int len) {
+        if((s == null) || (s.length() != len) || (s.hashCode() != h)) {
+            return false;
+        }
+
+        for(int i = 0; i < len; i++) {
+            if(s.charAt(i) != buf[offset + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 超过最大长度、没有经过缓存的次数
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return 命中次数占全部调用次数的比例，还没有调用时返回0
+     */
+    public double getHitRate() {
+        long hit = getHits();
+        long total = hit + getMisses() + getSkipped();
+
+        return (total == 0) ? 0.0 : (double)hit / total;
+    }
+
+    /**
+     * 清空统计，不清空缓存
+     */
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        skipped.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits = %d, misses = %d, skipped = %d, hit rate = %.2f%%", getHits(), getMisses(),
+                             getSkipped(), getHitRate() * 100);
+    }
+}
@@ -0,0 +1,205 @@
+package com.gerald.jackson.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * 把一批对象写到同一个{@link OutputStream}，代替对每个对象调用{@code writeValueAsBytes}。
+ * <p>
+ * 一批记录共用一个{@link JsonGenerator}和{@link SequenceWriter}：generator的缓冲区只申请一次，
+ * 根对象的serializer只查找一次(由{@code writerFor(type)}预先确定，或者由{@code SequenceWriter}按运行时类型缓存)。
+ * {@link Framing#LENGTH_PREFIXED}需要知道每条记录的长度，记录先写到一个复用的缓冲区，再连同长度一次写出。
+ * </p>
+ * <pre>
+ * <code>
+ * BatchWriter writer = new BatchWriter(mapper.writerFor(Event.class));
+ * writer.writeAll(events, out, Framing.NDJSON);
+ *
+ * try(BatchWriter.Sequence sequence = writer.withFlushInterval(100).open(out, Framing.LENGTH_PREFIXED)) {
+ *     for(Event event : source) {
+ *         sequence.write(event);
+ *     }
+ * }
+ * </code>
+ * </pre>
+ * <p>
+ * 写出时关闭{@code FLUSH_AFTER_WRITE_VALUE}，只在每{@link #withFlushInterval flushInterval}条记录之后和结束时
+ * flush；{@code NDJSON}和{@code LENGTH_PREFIXED}不使用{@code INDENT_OUTPUT}和writer上的pretty printer。{@code out}不会被关闭。
+ * 与{@link ObjectWriter}一样不可变，可以在线程之间共享；{@link Sequence}不是线程安全的。
+ * </p>
+ */
+public final class BatchWriter {
+    private final ObjectWriter writer;
+
+    private final int flushInterval;
+
+    public BatchWriter(ObjectWriter writer) {
+        this(writer, 0);
+    }
+
+    private BatchWriter(ObjectWriter writer, int flushInterval) {
+        this.writer = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * @param records 每写出这么多条记录flush一次，0表示只在结束时flush
+     */
+    public BatchWriter withFlushInterval(int records) {
+        if(records < 0) {
+            throw new IllegalArgumentException("flush interval must not be negative: " + records);
+        }
+
+        return (records == flushInterval) ? this : new BatchWriter(writer, records);
+    }
+
+    /**
+     * 写出{@code values}中的全部记录并flush
+     *
+     * @return 写出的记录数
+     */
+    public int writeAll(Iterable<?> values, OutputStream out, Framing framing) throws IOException {
+        try(Sequence sequence = open(out, framing)) {
+            for(Object value : values) {
+                sequence.write(value);
+            }
+            return sequence.getCount();
+        }
+    }
+
+    public Sequence open(OutputStream out, Framing framing) throws IOException {
+        return new Sequence(out, framing);
+    }
+
+    /**
+     * 逐条写出记录，{@link #close()}时写出数组的结束符并flush，不关闭{@code out}
+     */
+    public final class Sequence implements Closeable, Flushable {
+        private final OutputStream out;
+
+        private final Framing framing;
+
+        private final FrameBuffer frame;
+
+        private final JsonGenerator gen;
+
+        private final SequenceWriter sequence;
+
+        private int count;
+
+        private boolean closed;
+
+        private Sequence(OutputStream out, Framing framing) throws IOException {
+            this.out = out;
+            this.framing = framing;
+
+            ObjectWriter w = writer;
+            if(framing == Framing.LENGTH_PREFIXED) {
+                frame = new FrameBuffer();
+                gen = w.getFactory().createGenerator(frame);
+            } else {
+                frame = null;
+                gen = w.getFactory().createGenerator(out);
+            }
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            if(framing == Framing.ARRAY) {
+                sequence = w.writeValuesAsArray(gen);
+            } else {
+                // 每条记录必须在一行内，writer上配置的pretty printer也要替换掉；
+                // 记录之间的分隔由这里写出，不使用默认的空格
+                sequence = w.without(SerializationFeature.INDENT_OUTPUT)
+                            .with(new MinimalPrettyPrinter(""))
+                            .writeValues(gen);
+            }
+        }
+
+        public Sequence write(Object value) throws IOException {
+            if(closed) {
+                throw new IllegalStateException("Sequence already closed");
+            }
+
+            sequence.write(value);
+            switch(framing) {
+            case NDJSON:
+                gen.writeRaw('\n');
+                break;
+            case LENGTH_PREFIXED:
+                gen.flush();
+                frame.writeFrameTo(out);
+                break;
+            default:
+                break;
+            }
+
+            count++;
+            if((flushInterval > 0) && ((count % flushInterval) == 0)) {
+                flush();
+            }
+
+            return this;
+        }
+
+        /**
+         * @return 已经写出的记录数
+         */
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            gen.flush();
+            if(frame != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(closed) {
+                return;
+            }
+
+            closed = true;
+            sequence.close();
+            // 把缓冲区还给BufferRecycler；写到out的generator同时会flush out
+            gen.close();
+            if(frame != null) {
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * 一条记录的缓冲区，开头预留4个字节的长度
+     */
+    private static final class FrameBuffer extends ByteArrayOutputStream {
+        private static final int HEADER = 4;
+
+        FrameBuffer() {
+            super(512);
+            count = HEADER;
+        }
+
+        void writeFrameTo(OutputStream out) throws IOException {
+            int len = count - HEADER;
+
+            buf[0] = (byte)(len >>> 24);
+            buf[1] = (byte)(len >>> 16);
+            buf[2] = (byte)(len >>> 8);
+            buf[3] = (byte)len;
+            out.write(buf, 0, count);
+            count = HEADER;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.gerald.jackson.io;
+
+/**
+ * {@link BatchWriter}写出的一批记录的分隔方式
+ */
+public enum Framing {
+    /**
+     * 一个JSON数组，记录之间用逗号分隔
+     */
+    ARRAY,
+
+    /**
+     * 换行分隔的JSON(NDJSON)，每条记录后面是一个{@code '\n'}
+     */
+    NDJSON,
+
+    /**
+     * 每条记录前面是4个字节、大端序的长度，之后是记录的UTF-8 JSON，没有其它分隔符
+     */
+    LENGTH_PREFIXED
+}
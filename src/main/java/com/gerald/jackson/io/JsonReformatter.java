@@ -0,0 +1,258 @@
+package com.gerald.jackson.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.PrettyPrinter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.Instantiatable;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * 不经过{@code Map}/{@code JsonNode}，把{@code JsonParser}读到的token直接交给{@code JsonGenerator}，
+ * 重新格式化JSON文本。
+ * <p>
+ * {@code mapper.readValue(str, Object.class)}再写出的做法需要把整个文档建成对象；这里每次只处理一个token，
+ * 缩进和紧凑格式的内存占用与文档大小无关，可以处理多个G的文件。字符串不解码成{@code String}，
+ * 数字保留原来的文本；输入中连续的多个根值(例如每行一个JSON)会依次写出，
+ * {@link #pretty()}和{@link #compact()}在根值之间换行，NDJSON输出后仍然是每行一个JSON。
+ * </p>
+ * <p>
+ * {@link #withSortedKeys(boolean)}按属性名排序时，必须先读完一个对象的全部属性才能写出，
+ * 每个对象的属性值缓存在{@code TokenBuffer}中，内存占用与最大的对象成正比。相同的属性名保持原来的顺序。
+ * </p>
+ * <pre>
+ * <code>
+ * JsonReformatter.pretty().withSortedKeys(true).reformat(Paths.get("dump.json"), Paths.get("sorted.json"));
+ * </code>
+ * </pre>
+ * 实例是不可变的，可以在多个线程中使用。
+ */
+public final class JsonReformatter {
+    private static final Comparator<Member> BY_NAME = Comparator.comparing(m -> m.name);
+
+    /**
+     * 默认的根值分隔符是空格，会把NDJSON合并成一行
+     */
+    private static final String ROOT_SEPARATOR = "\n";
+
+    private final JsonFactory factory;
+
+    /**
+     * null表示紧凑格式
+     */
+    private final PrettyPrinter prettyPrinter;
+
+    private final boolean sortKeys;
+
+    private JsonReformatter(JsonFactory factory, PrettyPrinter prettyPrinter, boolean sortKeys) {
+        this.factory = factory;
+        this.prettyPrinter = prettyPrinter;
+        this.sortKeys = sortKeys;
+    }
+
+    /**
+     * 与{@code ObjectMapper#writerWithDefaultPrettyPrinter()}相同的缩进格式
+     */
+    public static JsonReformatter pretty() {
+        return new JsonReformatter(newFactory(), new DefaultPrettyPrinter(ROOT_SEPARATOR), false);
+    }
+
+    /**
+     * 去掉所有空白
+     */
+    public static JsonReformatter compact() {
+        return new JsonReformatter(newFactory(), null, false);
+    }
+
+    /**
+     * 属性名不加入符号表，否则属性名很多的大文件会让符号表一直增长；输入输出流由调用方关闭。
+     * 紧凑格式没有{@code PrettyPrinter}，根值分隔符由factory决定
+     */
+    private static JsonFactory newFactory() {
+        return new JsonFactory().disable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES)
+                                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                                .setRootValueSeparator(ROOT_SEPARATOR);
+    }
+
+    /**
+     * @param prettyPrinter null表示紧凑格式，根值之间换行；否则根值分隔符由{@code prettyPrinter}决定
+     */
+    public JsonReformatter withPrettyPrinter(PrettyPrinter prettyPrinter) {
+        return new JsonReformatter(factory, prettyPrinter, sortKeys);
+    }
+
+    public JsonReformatter withSortedKeys(boolean sortKeys) {
+        return new JsonReformatter(factory, prettyPrinter, sortKeys);
+    }
+
+    public void reformat(InputStream in, OutputStream out) throws IOException {
+        try(JsonParser p = factory.createParser(in); JsonGenerator g = createGenerator(out)) {
+            copy(p, g);
+        }
+    }
+
+    public void reformat(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        reformat(Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
+    /**
+     * 使用{@link MappedFileInputStream}读取{@code source}
+     */
+    public void reformat(Path source, Path target) throws IOException {
+        try(InputStream in = new MappedFileInputStream(source); OutputStream out = Files.newOutputStream(target)) {
+            reformat(in, out);
+        }
+    }
+
+    public String reformat(String json) throws IOException {
+        StringWriter writer = new StringWriter(json.length());
+
+        try(JsonParser p = factory.createParser(json); JsonGenerator g = factory.createGenerator(writer)) {
+            setPrettyPrinter(g);
+            copy(p, g);
+        }
+
+        return writer.toString();
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator g = factory.createGenerator(out);
+        setPrettyPrinter(g);
+
+        return g;
+    }
+
+    /**
+     * 与{@code ObjectWriter}相同，有状态的{@code PrettyPrinter}每个generator使用一个新的实例
+     */
+    private void setPrettyPrinter(JsonGenerator g) {
+        PrettyPrinter pp = prettyPrinter;
+        if(pp instanceof Instantiatable<?>) {
+            pp = (PrettyPrinter)((Instantiatable<?>)pp).createInstance();
+        }
+
+        g.setPrettyPrinter(pp);
+    }
+
+    private void copy(JsonParser p, JsonGenerator g) throws IOException {
+        JsonToken t;
+
+        if(sortKeys) {
+            while(p.nextToken() != null) {
+                copyValue(p, g);
+            }
+        } else {
+            while((t = p.nextToken()) != null) {
+                copyToken(p, g, t);
+            }
+        }
+    }
+
+    /**
+     * 复制当前的token，不处理它的子节点
+     */
+    private static void copyToken(JsonParser p, JsonGenerator g, JsonToken t) throws IOException {
+        switch(t) {
+            case START_OBJECT:
+                g.writeStartObject();
+                break;
+            case END_OBJECT:
+                g.writeEndObject();
+                break;
+            case START_ARRAY:
+                g.writeStartArray();
+                break;
+            case END_ARRAY:
+                g.writeEndArray();
+                break;
+            case FIELD_NAME:
+                g.writeFieldName(p.getCurrentName());
+                break;
+            case VALUE_STRING:
+                g.writeString(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                g.writeNumber(p.getText());
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                g.writeBoolean(t == JsonToken.VALUE_TRUE);
+                break;
+            case VALUE_NULL:
+                g.writeNull();
+                break;
+            default:
+                g.copyCurrentEvent(p);
+        }
+    }
+
+    /**
+     * 复制当前的值，包括它的子节点，对象的属性按名称排序
+     */
+    private static void copyValue(JsonParser p, JsonGenerator g) throws IOException {
+        JsonToken t = p.getCurrentToken();
+
+        if(t == JsonToken.START_OBJECT) {
+            copySortedObject(p, g);
+        } else if(t == JsonToken.START_ARRAY) {
+            g.writeStartArray();
+            while(p.nextToken() != JsonToken.END_ARRAY) {
+                copyValue(p, g);
+            }
+            g.writeEndArray();
+        } else {
+            copyToken(p, g, t);
+        }
+    }
+
+    private static void copySortedObject(JsonParser p, JsonGenerator g) throws IOException {
+        List<Member> members = new ArrayList<>();
+
+        while(p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.getCurrentName();
+            p.nextToken();
+
+            TokenBuffer value = new TokenBuffer(null, false);
+            copyValue(p, value);
+            members.add(new Member(name, value));
+        }
+
+        // List#sort是稳定的，相同的属性名保持原来的顺序
+        members.sort(BY_NAME);
+
+        g.writeStartObject();
+        for(Member member : members) {
+            g.writeFieldName(member.name);
+            member.value.serialize(g);
+        }
+        g.writeEndObject();
+    }
+
+    private static final class Member {
+        final String name;
+
+        final TokenBuffer value;
+
+        Member(String name, TokenBuffer value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
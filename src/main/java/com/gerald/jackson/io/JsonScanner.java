@@ -0,0 +1,237 @@
+package com.gerald.jackson.io;
+
+import java.util.Arrays;
+
+/**
+ * 在{@link RawInput}上只识别JSON结构、不解码值的扫描器。
+ * <p>
+ * 用于在真正解析之前，以很低的代价找到对象中某个成员的位置，例如多态类型的type id。扫描器不做完整的
+ * 语法检查，只保证遇到不完整或者明显错误的输入时返回{@link #NOT_FOUND}，此时调用方应当回退到
+ * 正常的解析，由解析器报告错误。
+ * </p>
+ */
+public final class JsonScanner {
+    /**
+     * 没有找到，或者输入不完整、格式错误
+     */
+    public static final int NOT_FOUND = -1;
+
+    private JsonScanner() {
+
+    }
+
+    public static boolean isWhitespace(int c) {
+        return (c == ' ') || (c == '\n') || (c == '\r') || (c == '\t');
+    }
+
+    /**
+     * @return 从{@code pos}开始第一个非空白字符的下标，可能等于输入的长度
+     */
+    public static int skipWhitespace(RawInput in, int pos) {
+        int length = in.length();
+
+        while((pos < length) && isWhitespace(in.at(pos))) {
+            pos++;
+        }
+
+        return pos;
+    }
+
+    /**
+     * @param pos 开始的双引号
+     * @return 结束的双引号之后的下标
+     */
+    public static int skipString(RawInput in, int pos) {
+        int length = in.length();
+
+        for(int i = pos + 1; i < length; i++) {
+            int c = in.at(i);
+
+            if(c == '"') {
+                return i + 1;
+            } else if(c == '\\') {
+                i++;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * @param pos 值的第一个字符
+     * @return 值之后的下标
+     */
+    public static int skipValue(RawInput in, int pos) {
+        int length = in.length();
+        if(pos >= length) {
+            return NOT_FOUND;
+        }
+
+        int c = in.at(pos);
+        if(c == '"') {
+            return skipString(in, pos);
+        } else if((c == '{') || (c == '[')) {
+            return skipContainer(in, pos);
+        } else if((c == '}') || (c == ']') || (c == ',') || (c == ':')) {
+            return NOT_FOUND;
+        }
+
+        // 数字、true、false、null
+        int i = pos + 1;
+        while(i < length) {
+            c = in.at(i);
+            if((c == ',') || (c == '}') || (c == ']') || isWhitespace(c)) {
+                break;
+            }
+            i++;
+        }
+
+        return i;
+    }
+
+    private static int skipContainer(RawInput in, int pos) {
+        int length = in.length();
+        int depth = 0;
+
+        for(int i = pos; i < length; i++) {
+            int c = in.at(i);
+
+            if(c == '"') {
+                i = skipString(in, i);
+                if(i < 0) {
+                    return NOT_FOUND;
+                }
+                i--;
+            } else if((c == '{') || (c == '[')) {
+                depth++;
+            } else if((c == '}') || (c == ']')) {
+                if(--depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * 在{@code objectStart}处的对象中查找名为{@code name}的第一个成员，并返回其字符串值。
+     * <p>
+     * 名称或者值包含转义字符时无法可靠地比较和截取，与找不到一样返回null；
+     * 值不是字符串时也返回null。
+     * </p>
+     *
+     * @param objectStart 对象开始的'{'
+     */
+    public static String findStringMember(RawInput in, int objectStart, String name) {
+        int length = in.length();
+        if((objectStart < 0) || (objectStart >= length) || (in.at(objectStart) != '{')) {
+            return null;
+        }
+
+        int pos = skipWhitespace(in, objectStart + 1);
+        if((pos < length) && (in.at(pos) == '}')) {
+            return null;
+        }
+
+        while(pos < length) {
+            if(in.at(pos) != '"') {
+                return null;
+            }
+
+            int nameEnd = skipString(in, pos);
+            if(nameEnd < 0) {
+                return null;
+            }
+            if(contains(in, pos + 1, nameEnd - 1, '\\')) {
+                return null;
+            }
+            boolean matched = in.regionMatches(pos + 1, nameEnd - 1, name);
+
+            pos = skipWhitespace(in, nameEnd);
+            if((pos >= length) || (in.at(pos) != ':')) {
+                return null;
+            }
+            pos = skipWhitespace(in, pos + 1);
+
+            int valueEnd = skipValue(in, pos);
+            if(valueEnd < 0) {
+                return null;
+            }
+
+            if(matched) {
+                if((in.at(pos) != '"') || contains(in, pos + 1, valueEnd - 1, '\\')) {
+                    return null;
+                }
+                return in.substring(pos + 1, valueEnd - 1);
+            }
+
+            pos = skipWhitespace(in, valueEnd);
+            if((pos >= length) || (in.at(pos) != ',')) {
+                return null;
+            }
+            pos = skipWhitespace(in, pos + 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * 找到顶层数组中每个元素的范围；输入不是数组时，找到以空白分隔的每个顶层值(例如NDJSON)的范围。
+     *
+     * @return 依次为每个值的开始和结束下标，长度是值的个数的两倍；输入不完整或者格式错误时返回null
+     */
+    public static int[] findValues(RawInput in) {
+        int length = in.length();
+        int[] bounds = new int[16];
+        int count = 0;
+
+        int pos = skipWhitespace(in, 0);
+        boolean array = (pos < length) && (in.at(pos) == '[');
+        if(array) {
+            pos = skipWhitespace(in, pos + 1);
+            if((pos < length) && (in.at(pos) == ']')) {
+                return (skipWhitespace(in, pos + 1) == length) ? new int[0] : null;
+            }
+        }
+
+        while(pos < length) {
+            int end = skipValue(in, pos);
+            if(end < 0) {
+                return null;
+            }
+
+            if(count == bounds.length) {
+                bounds = Arrays.copyOf(bounds, count * 2);
+            }
+            bounds[count++] = pos;
+            bounds[count++] = end;
+            pos = skipWhitespace(in, end);
+
+            if(!array) {
+                continue;
+            }
+
+            if(pos >= length) {
+                return null;
+            } else if(in.at(pos) == ']') {
+                return (skipWhitespace(in, pos + 1) == length) ? Arrays.copyOf(bounds, count) : null;
+            } else if(in.at(pos) != ',') {
+                return null;
+            }
+            pos = skipWhitespace(in, pos + 1);
+        }
+
+        return array ? null : Arrays.copyOf(bounds, count);
+    }
+
+    private static boolean contains(RawInput in, int start, int end, int c) {
+        for(int i = start; i < end; i++) {
+            if(in.at(i) == c) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+package com.gerald.jackson.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 按窗口顺序映射文件的{@code InputStream}。
+ * <p>
+ * 每次只映射{@value #WINDOW_SIZE}字节，读完一个窗口后映射下一个，因此可以读取超过2G的文件；
+ * 读取时直接从映射的内存复制，不经过{@code FileInputStream}的系统调用和内核缓冲区。
+ * 旧的窗口由GC回收时解除映射。
+ * </p>
+ */
+public final class MappedFileInputStream extends InputStream {
+    static final long WINDOW_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+
+    private final long windowSize;
+
+    private final long size;
+
+    /**
+     * 已经映射到的文件位置
+     */
+    private long mapped;
+
+    private MappedByteBuffer buffer;
+
+    public MappedFileInputStream(Path path) throws IOException {
+        this(path, WINDOW_SIZE);
+    }
+
+    MappedFileInputStream(Path path, long windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * @return 当前窗口没有剩余数据并且已经到达文件末尾时返回false
+     */
+    private boolean ensure() throws IOException {
+        if((buffer != null) && buffer.hasRemaining()) {
+            return true;
+        }
+
+        if(!channel.isOpen()) {
+            throw new IOException("Stream closed");
+        }
+
+        if(mapped >= size) {
+            return false;
+        }
+
+        long length = Math.min(windowSize, size - mapped);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+        mapped += length;
+
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return ensure() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if(len == 0) {
+            return 0;
+        } else if(!ensure()) {
+            return -1;
+        }
+
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+
+        while((skipped < n) && ensure()) {
+            int step = (int)Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + step);
+            skipped += step;
+        }
+
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        long remaining = (size - mapped) + ((buffer == null) ? 0 : buffer.remaining());
+
+        return (int)Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,91 @@
+package com.gerald.jackson.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * 逐个读取文件中顶层数组(或者以空白分隔的多个顶层值)的元素，例如
+ * <pre>
+ * <code>
+ * JavaType type = mapper.getTypeFactory().constructParametricType(List.class, Notification.class);
+ * try(Stream&lt;Notification&gt; notifications = MappedJsonReader.of(mapper, type).stream(path)) {
+ *     notifications.forEach(this::reconcile);
+ * }
+ * </code>
+ * </pre>
+ * <p>
+ * 文件通过{@link MappedFileInputStream}按窗口映射，parser直接从映射的内存复制到自己的输入缓冲区，
+ * 不经过{@code FileInputStream}和额外的堆上缓冲区，也不受单个{@code MappedByteBuffer}2G的限制。
+ * jackson 2.8的parser只能从{@code byte[]}读取，这一次复制无法避免。
+ * 任何时候内存中只有当前的元素和一个映射窗口，已经返回的元素可以被回收。
+ * </p>
+ */
+public final class MappedJsonReader {
+    private final ObjectReader reader;
+
+    private final long windowSize;
+
+    /**
+     * @param reader 元素类型的reader
+     */
+    public MappedJsonReader(ObjectReader reader) {
+        this(reader, MappedFileInputStream.WINDOW_SIZE);
+    }
+
+    MappedJsonReader(ObjectReader reader, long windowSize) {
+        this.reader = reader.with(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * @param type 元素类型，也可以是{@code List<Notification>}这样的集合或者数组类型，这时读取其中的元素
+     */
+    public static MappedJsonReader of(ObjectMapper mapper, JavaType type) {
+        JavaType elementType = (type.isCollectionLikeType() || type.isArrayType()) ? type.getContentType() : type;
+
+        return new MappedJsonReader(mapper.readerFor(elementType));
+    }
+
+    /**
+     * 关闭返回的{@code MappingIterator}时关闭文件
+     */
+    public <T> MappingIterator<T> readValues(Path path) throws IOException {
+        InputStream in = new MappedFileInputStream(path, windowSize);
+
+        try {
+            return reader.readValues(in);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 有序的串行{@code Stream}，关闭{@code Stream}时关闭文件。解析失败时抛出jackson的
+     * {@code RuntimeJsonMappingException}。
+     */
+    public <T> Stream<T> stream(Path path) throws IOException {
+        MappingIterator<T> it = readValues(path);
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED);
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                it.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package com.gerald.jackson.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+
+/**
+ * 并行读取内存中的顶层数组，或者以空白分隔的多个顶层值(NDJSON)。
+ * <p>
+ * 先由{@link JsonScanner#findValues(RawInput)}找到每个元素在输入中的范围，然后在{@code ForkJoinPool}中
+ * 把元素分成若干段，每个元素使用自己的parser从原来的{@code byte[]}中解析，{@code ObjectReader}由所有线程共享。
+ * 异常中的位置是相对于元素开始的位置，元素的下标记录在异常的路径中。
+ * </p>
+ * <p>
+ * 扫描器发现输入不完整或者格式错误时，退回到单线程的{@code ObjectReader#readValues}，由jackson报告错误。
+ * </p>
+ * <pre>
+ * <code>
+ * ParallelArrayReader reader = new ParallelArrayReader(mapper.readerFor(Order.class));
+ * List&lt;Order&gt; orders = reader.readList(bytes);
+ * </code>
+ * </pre>
+ */
+public final class ParallelArrayReader {
+    /**
+     * 每个线程大约分到的段数，段数多于线程数时可以平衡元素大小的差异
+     */
+    private static final int SLICES_PER_THREAD = 4;
+
+    private final ObjectReader reader;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param reader 元素类型的reader
+     */
+    public ParallelArrayReader(ObjectReader reader) {
+        this(reader, ForkJoinPool.commonPool());
+    }
+
+    public ParallelArrayReader(ObjectReader reader, ForkJoinPool pool) {
+        this.reader = reader;
+        this.pool = pool;
+    }
+
+    /**
+     * @return 与输入中的顺序相同；与顺序解析时相同，返回可以修改的{@code ArrayList}
+     */
+    public <T> List<T> readList(byte[] json) throws IOException {
+        int[] bounds = JsonScanner.findValues(RawInput.of(json));
+        if(bounds == null) {
+            return readSequentially(json);
+        }
+
+        Object[] values = new Object[bounds.length / 2];
+        int threshold = Math.max(1, values.length / (pool.getParallelism() * SLICES_PER_THREAD));
+
+        try {
+            pool.invoke(new DecodeTask(json, bounds, values, 0, values.length, threshold));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> list = (List<T>)new ArrayList<>(Arrays.asList(values));
+        return list;
+    }
+
+    /**
+     * 不保证顺序的并行{@code Stream}，在执行终止操作的线程所在的{@code ForkJoinPool}(通常是公共的pool)中解析。
+     * 解析失败时抛出{@code RuntimeJsonMappingException}或者{@code UncheckedIOException}。
+     */
+    public <T> Stream<T> stream(byte[] json) throws IOException {
+        int[] bounds = JsonScanner.findValues(RawInput.of(json));
+        if(bounds == null) {
+            List<T> list = readSequentially(json);
+            return list.stream();
+        }
+
+        return IntStream.range(0, bounds.length / 2).parallel().unordered().mapToObj(i -> {
+            try {
+                return this.<T>decode(json, bounds, i);
+            } catch (JsonMappingException e) {
+                throw new RuntimeJsonMappingException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T> T decode(byte[] json, int[] bounds, int index) throws IOException {
+        int start = bounds[index * 2];
+        int end = bounds[index * 2 + 1];
+
+        try {
+            return reader.readValue(json, start, end - start);
+        } catch (JsonMappingException e) {
+            e.prependPath(List.class, index);
+            throw e;
+        }
+    }
+
+    private <T> List<T> readSequentially(byte[] json) throws IOException {
+        List<T> list = new ArrayList<>();
+
+        try(MappingIterator<T> it = reader.readValues(json)) {
+            while(it.hasNextValue()) {
+                list.add(it.nextValue());
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * 解析[from, to)中的元素，元素个数超过{@code threshold}时一分为二
+     */
+    private final class DecodeTask extends RecursiveAction {
+        private static final long serialVersionUID = -1029383640432478311L;
+
+        private final byte[] json;
+
+        private final int[] bounds;
+
+        private final Object[] values;
+
+        private final int from;
+
+        private final int to;
+
+        private final int threshold;
+
+        DecodeTask(byte[] json, int[] bounds, Object[] values, int from, int to, int threshold) {
+            this.json = json;
+            this.bounds = bounds;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if((to - from) > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new DecodeTask(json, bounds, values, from, middle, threshold),
+                          new DecodeTask(json, bounds, values, middle, to, threshold));
+                return;
+            }
+
+            try {
+                for(int i = from; i < to; i++) {
+                    values[i] = decode(json, bounds, i);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.gerald.jackson.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * 流水线方式读取顶层数组(或者以空白分隔的多个顶层值)的元素：一个线程解析输入，调用方的线程绑定对象。
+ * <p>
+ * 解析线程把元素的token复制到{@link TokenBuffer}中，每{@code batchSize}个元素为一批，通过容量为
+ * {@code queueCapacity}批的{@link SpscRingBuffer}交给调用方；调用方从批次中用{@code ObjectReader}绑定对象，
+ * 使用与直接读取相同的deserializer(包括{@code Notification}这样的多态类型)。队列满时解析线程等待，
+ * 因此内存中最多有{@code queueCapacity}批元素；元素的顺序与输入相同。
+ * 浮点数在批次中保存为{@code BigDecimal}，{@code BigDecimal}类型的属性和{@code USE_BIG_DECIMAL_FOR_FLOATS}
+ * 得到与直接读取相同的精确值。
+ * </p>
+ * <p>
+ * 适合输入不能按元素切分(例如{@code InputStream})、绑定的代价与解析相当的情况；
+ * 能够一次放入内存的{@code byte[]}应当优先使用{@link ParallelArrayReader}。
+ * 解析错误在调用方读到出错位置时抛出，位置是输入中的位置；绑定错误的位置没有意义，元素的下标记录在异常的路径中。
+ * </p>
+ * <pre>
+ * <code>
+ * PipelinedReader reader = new PipelinedReader(mapper.readerFor(Order.class));
+ * try(PipelinedReader.Values&lt;Order&gt; orders = reader.readValues(in)) {
+ *     while(orders.hasNextValue()) {
+ *         process(orders.nextValue());
+ *     }
+ * }
+ * </code>
+ * </pre>
+ */
+public final class PipelinedReader {
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    /**
+     * 队列中表示输入结束的元素
+     */
+    private static final Object END = new Object();
+
+    private final ObjectReader reader;
+
+    private final Executor executor;
+
+    private final int batchSize;
+
+    private final int queueCapacity;
+
+    /**
+     * @param reader 元素类型的reader
+     */
+    public PipelinedReader(ObjectReader reader) {
+        this(reader, PipelinedReader::startDaemon, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param executor 运行解析任务，每次读取提交一个任务，任务一直运行到输入结束或者{@link Values#close()}
+     */
+    public PipelinedReader(ObjectReader reader, Executor executor, int batchSize, int queueCapacity) {
+        if((batchSize < 1) || (queueCapacity < 1)) {
+            throw new IllegalArgumentException("batchSize = " + batchSize + ", queueCapacity = " + queueCapacity);
+        }
+
+        this.reader = reader.with(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    private static void startDaemon(Runnable task) {
+        Thread thread = new Thread(task, PipelinedReader.class.getSimpleName() + "-tokenizer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 解析线程结束时关闭{@code in}
+     */
+    public <T> Values<T> readValues(InputStream in) throws IOException {
+        JsonParser p = reader.getFactory().createParser(in);
+
+        return start(p);
+    }
+
+    public <T> Values<T> readValues(byte[] json) throws IOException {
+        return start(reader.getFactory().createParser(json));
+    }
+
+    /**
+     * @return 与输入中的顺序相同
+     */
+    public <T> List<T> readList(InputStream in) throws IOException {
+        try(Values<T> values = readValues(in)) {
+            return values.toList();
+        }
+    }
+
+    public <T> List<T> readList(byte[] json) throws IOException {
+        try(Values<T> values = readValues(json)) {
+            return values.toList();
+        }
+    }
+
+    private <T> Values<T> start(JsonParser p) throws IOException {
+        SpscRingBuffer<Object> queue = new SpscRingBuffer<>(queueCapacity);
+
+        try {
+            reader.getConfig().initialize(p);
+            executor.execute(() -> tokenize(p, queue));
+        } catch (RuntimeException e) {
+            p.close();
+            throw e;
+        }
+
+        return new Values<>(queue);
+    }
+
+    /**
+     * 解析线程：把元素复制到批次中放入队列，最后放入{@link #END}或者异常。
+     * 出错时与{@code MappingIterator}一样，先交出错误之前已经完整读取的元素
+     */
+    private void tokenize(JsonParser p, SpscRingBuffer<Object> queue) {
+        TokenBuffer batch = null;
+        int count = 0;
+
+        try(JsonParser parser = p) {
+            JsonToken t = parser.nextToken();
+            boolean array = (t == JsonToken.START_ARRAY);
+            if(array) {
+                t = parser.nextToken();
+            }
+
+            while((t != null) && !(array && (t == JsonToken.END_ARRAY))) {
+                if(batch == null) {
+                    batch = newBuffer(parser);
+                }
+                batch.copyCurrentStructure(parser);
+
+                if(++count == batchSize) {
+                    // 队列已经关闭，调用方不再读取
+                    if(!queue.put(batch)) {
+                        return;
+                    }
+                    batch = null;
+                    count = 0;
+                }
+                t = parser.nextToken();
+            }
+
+            if(batch != null) {
+                if(!queue.put(batch)) {
+                    return;
+                }
+                batch = null;
+            }
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            try {
+                TokenBuffer complete = completed(batch, count);
+                if((complete == null) || queue.put(complete)) {
+                    queue.put(e);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * {@code TokenBuffer}默认把浮点数转换为{@code double}，之后无法再得到原来的精确值
+     */
+    private static TokenBuffer newBuffer(JsonParser p) {
+        return new TokenBuffer(p).forceUseOfBigDecimal(true);
+    }
+
+    /**
+     * @return {@code batch}中前{@code count}个完整的元素，出错的元素可能只复制了一部分；没有时返回null
+     */
+    private static TokenBuffer completed(TokenBuffer batch, int count) {
+        if((batch == null) || (count == 0)) {
+            return null;
+        }
+
+        try(JsonParser replay = batch.asParser()) {
+            TokenBuffer complete = newBuffer(replay);
+            for(int i = 0; i < count; i++) {
+                replay.nextToken();
+                complete.copyCurrentStructure(replay);
+            }
+            return complete;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 按顺序绑定元素，与{@code MappingIterator}类似。{@link #close()}使解析线程退出，没有读完时也应当调用。
+     * 不是线程安全的。
+     */
+    public final class Values<T> implements Iterator<T>, Closeable {
+        private final SpscRingBuffer<Object> queue;
+
+        /**
+         * 当前批次的parser
+         */
+        private JsonParser batch;
+
+        /**
+         * {@link #batch}是否已经位于下一个元素的开始
+         */
+        private boolean pending;
+
+        private boolean done;
+
+        private int index;
+
+        private Values(SpscRingBuffer<Object> queue) {
+            this.queue = queue;
+        }
+
+        public boolean hasNextValue() throws IOException {
+            while(!done) {
+                if(batch != null) {
+                    if(pending || (batch.nextToken() != null)) {
+                        pending = true;
+                        return true;
+                    }
+                    batch.close();
+                    batch = null;
+                }
+
+                Object item;
+                try {
+                    item = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new InterruptedIOException("Interrupted while waiting for tokenizer");
+                }
+
+                if(item == END) {
+                    close();
+                } else if(item instanceof Throwable) {
+                    close();
+                    throw rethrow((Throwable)item);
+                } else {
+                    batch = new DoubleParser(((TokenBuffer)item).asParser(reader));
+                }
+            }
+
+            return false;
+        }
+
+        public T nextValue() throws IOException {
+            if(!hasNextValue()) {
+                throw new NoSuchElementException();
+            }
+
+            pending = false;
+            try {
+                return reader.readValue(batch);
+            } catch (JsonMappingException e) {
+                close();
+                e.prependPath(List.class, index);
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            } finally {
+                index++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return hasNextValue();
+            } catch (JsonMappingException e) {
+                throw new RuntimeJsonMappingException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            try {
+                return nextValue();
+            } catch (JsonMappingException e) {
+                throw new RuntimeJsonMappingException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * 读取剩余的全部元素
+         */
+        public List<T> toList() throws IOException {
+            List<T> list = new ArrayList<>();
+            while(hasNextValue()) {
+                list.add(nextValue());
+            }
+            return list;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(done) {
+                return;
+            }
+
+            done = true;
+            queue.close();
+            if(batch != null) {
+                batch.close();
+                batch = null;
+            }
+        }
+
+        private IOException rethrow(Throwable e) {
+            if(e instanceof IOException) {
+                return (IOException)e;
+            } else if(e instanceof RuntimeException) {
+                throw (RuntimeException)e;
+            } else if(e instanceof Error) {
+                throw (Error)e;
+            }
+            return new IOException(e);
+        }
+    }
+
+    /**
+     * 批次中的浮点数是{@code BigDecimal}，与从文本解析时一样报告为{@code DOUBLE}，
+     * 否则{@code Object}和{@code JsonNode}会得到{@code BigDecimal}而不是{@code Double}。
+     * {@code getDecimalValue()}仍然返回精确的值
+     */
+    private static final class DoubleParser extends JsonParserDelegate {
+        DoubleParser(JsonParser p) {
+            super(p);
+        }
+
+        @Override
+        public NumberType getNumberType() throws IOException {
+            return (getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT) ? NumberType.DOUBLE : super.getNumberType();
+        }
+
+        @Override
+        public Number getNumberValue() throws IOException {
+            return (getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT) ? Double.valueOf(getDoubleValue())
+                                                                       : super.getNumberValue();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.gerald.jackson.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * 由{@link ProjectionReader}创建的、编译好的投影。
+ * <p>
+ * 路径被编译为一棵按属性名(或者数组下标)查找的树。读取时沿着树遍历文档：不在树中的属性直接
+ * {@code skipChildren()}，不生成token也不创建对象；树中的叶子所在的值原样复制到{@code TokenBuffer}，
+ * 最后只对这个小得多的文档做一次绑定。一个对象中所有路径都已经读到时跳过对象的其余部分，
+ * 根上的所有路径都读到时立即停止解析，之后的输入不再读取，因此也不检查其中的语法错误。
+ * </p>
+ * <p>
+ * 重复的属性名与jackson一样以最后一个值为准：同一个属性再次出现时重新复制，但不重复计数。
+ * 所有路径都已经读到之后才出现的重复属性不会被读取。
+ * </p>
+ * <p>
+ * 数组中只复制需要的元素，之前的元素以null占位，保持元素的下标不变；最大的下标之后的元素不再读取。
+ * 路径要求对象或者数组、而文档中是标量时，当作路径不存在。绑定时异常中的位置是相对于复制出来的
+ * 文档的，路径仍然正确。
+ * </p>
+ */
+public final class Projection<T> {
+    private final ObjectReader reader;
+
+    private final Node root;
+
+    /**
+     * 树中的节点数
+     */
+    private final int nodes;
+
+    /**
+     * 直接绑定唯一的路径处的值，而不是按原来的结构绑定
+     */
+    private final boolean valueOnly;
+
+    Projection(ObjectReader reader, String[] paths, boolean valueOnly) {
+        if(paths.length == 0) {
+            throw new IllegalArgumentException("no path to project");
+        }
+
+        this.reader = reader;
+        this.valueOnly = valueOnly;
+        this.root = new Node();
+
+        for(String path : paths) {
+            Node node = root;
+            for(JsonPointer ptr = JsonPointer.compile(path); !ptr.matches(); ptr = ptr.tail()) {
+                node = node.child(ptr.getMatchingProperty(), ptr.getMatchingIndex());
+            }
+            node.leaf = true;
+        }
+        root.countLeaves();
+        this.nodes = root.number(0);
+    }
+
+    public T readValue(byte[] json) throws IOException {
+        try(JsonParser p = reader.getFactory().createParser(json)) {
+            return readValue(p);
+        }
+    }
+
+    public T readValue(String json) throws IOException {
+        try(JsonParser p = reader.getFactory().createParser(json)) {
+            return readValue(p);
+        }
+    }
+
+    /**
+     * 读取完成后关闭{@code in}
+     */
+    public T readValue(InputStream in) throws IOException {
+        try(JsonParser p = reader.getFactory().createParser(in)) {
+            return readValue(p);
+        }
+    }
+
+    /**
+     * 从{@code p}读取一个值，返回时{@code p}可能停在值的中间
+     */
+    public T readValue(JsonParser p) throws IOException {
+        JsonToken t = (p.getCurrentToken() != null) ? p.getCurrentToken() : p.nextToken();
+        if(t == null) {
+            throw JsonMappingException.from(p, "No content to map due to end-of-input");
+        }
+
+        Walk walk = new Walk(p, valueOnly ? null : new TokenBuffer(p));
+        if(root.accepts(t)) {
+            walk.visit(root);
+        }
+
+        if(valueOnly) {
+            @SuppressWarnings("unchecked")
+            T value = (T)walk.value;
+            return value;
+        }
+        if(walk.out.firstToken() == null) {
+            // 根是标量，而路径要求对象或者数组
+            return null;
+        }
+
+        try(JsonParser copied = walk.out.asParser(p.getCodec())) {
+            return reader.readValue(copied);
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * 最大的数组下标，没有下标时为-1
+         */
+        private int maxIndex = -1;
+
+        private boolean leaf;
+
+        /**
+         * 节点的编号，{@link Walk#seen}中的下标
+         */
+        private int id;
+
+        /**
+         * 这个节点之下的路径数
+         */
+        private int leaves;
+
+        Node child(String name, int index) {
+            Node node = children.get(name);
+            if(node == null) {
+                node = new Node();
+                children.put(name, node);
+                maxIndex = Math.max(maxIndex, index);
+            }
+
+            return node;
+        }
+
+        int countLeaves() {
+            if(leaf) {
+                // 路径是另一个路径的前缀时，复制整个值
+                children.clear();
+                maxIndex = -1;
+                leaves = 1;
+            } else {
+                leaves = 0;
+                for(Node child : children.values()) {
+                    leaves += child.countLeaves();
+                }
+            }
+
+            return leaves;
+        }
+
+        /**
+         * 从{@code next}开始为这个节点和它的子节点编号，返回下一个编号
+         */
+        int number(int next) {
+            id = next++;
+            for(Node child : children.values()) {
+                next = child.number(next);
+            }
+
+            return next;
+        }
+
+        /**
+         * @param t 值的第一个token
+         */
+        boolean accepts(JsonToken t) {
+            if(leaf) {
+                return true;
+            } else if(t == JsonToken.START_OBJECT) {
+                return true;
+            } else if(t == JsonToken.START_ARRAY) {
+                return maxIndex >= 0;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * 一次读取的状态
+     */
+    private final class Walk {
+        private final JsonParser p;
+
+        /**
+         * 复制出来的文档，{@link #valueOnly}时为null
+         */
+        private final TokenBuffer out;
+
+        private Object value;
+
+        /**
+         * 已经读到的属性对应的节点。重复的属性名再次出现时不能再从对象的待读路径数中扣除，
+         * 否则会在还有路径没有读到时跳过对象的其余部分
+         */
+        private final BitSet seen = new BitSet(nodes);
+
+        Walk(JsonParser p, TokenBuffer out) {
+            this.p = p;
+            this.out = out;
+        }
+
+        /**
+         * 当前token是{@code node}对应的值的第一个token，返回时是值的最后一个token，或者已经停止读取
+         */
+        void visit(Node node) throws IOException {
+            if(node.leaf) {
+                if(out != null) {
+                    out.copyCurrentStructure(p);
+                } else {
+                    value = reader.readValue(p);
+                }
+            } else if(p.getCurrentToken() == JsonToken.START_OBJECT) {
+                visitObject(node);
+            } else {
+                visitArray(node);
+            }
+        }
+
+        private void visitObject(Node node) throws IOException {
+            if(out != null) {
+                out.writeStartObject();
+            }
+
+            int pending = node.leaves;
+            JsonToken t;
+            while((t = p.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = p.getCurrentName();
+                Node child = node.children.get(name);
+                t = p.nextToken();
+
+                if(child == null) {
+                    p.skipChildren();
+                    continue;
+                }
+
+                if(child.accepts(t)) {
+                    if(out != null) {
+                        out.writeFieldName(name);
+                    }
+                    visit(child);
+                } else {
+                    p.skipChildren();
+                }
+
+                if(!seen.get(child.id)) {
+                    seen.set(child.id);
+                    pending -= child.leaves;
+                }
+                if(pending <= 0) {
+                    skipRest(node);
+                    t = JsonToken.END_OBJECT;
+                    break;
+                }
+            }
+            checkEnd(t);
+
+            if(out != null) {
+                out.writeEndObject();
+            }
+        }
+
+        private void visitArray(Node node) throws IOException {
+            if(out != null) {
+                out.writeStartArray();
+            }
+
+            JsonToken t;
+            for(int i = 0; ((t = p.nextToken()) != null) && !t.isStructEnd(); i++) {
+                Node child = node.children.get(Integer.toString(i));
+
+                if((child != null) && child.accepts(t)) {
+                    visit(child);
+                } else {
+                    p.skipChildren();
+                    if((out != null) && (i < node.maxIndex)) {
+                        out.writeNull();
+                    }
+                }
+
+                if(i >= node.maxIndex) {
+                    skipRest(node);
+                    t = JsonToken.END_ARRAY;
+                    break;
+                }
+            }
+            checkEnd(t);
+
+            if(out != null) {
+                out.writeEndArray();
+            }
+        }
+
+        /**
+         * 跳过{@code node}对应的值的其余部分，直到对应的结束token。根节点不需要跳过，直接停止读取
+         */
+        private void skipRest(Node node) throws IOException {
+            if(node == root) {
+                return;
+            }
+
+            JsonToken t;
+            while(((t = p.nextToken()) != null) && !t.isStructEnd()) {
+                p.skipChildren();
+            }
+            checkEnd(t);
+        }
+
+        private void checkEnd(JsonToken t) throws JsonParseException {
+            if(t == null) {
+                throw new JsonParseException(p, "Unexpected end-of-input: expected close marker for "
+                                                + p.getParsingContext().typeDesc());
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.gerald.jackson.io;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 只读取文档中部分路径的reader，路径使用JSON Pointer表示，例如
+ * <pre>
+ * <code>
+ * Projection&lt;Order&gt; projection = new ProjectionReader(mapper).project(Order.class, "/goodsCount", "/address");
+ * Order order = projection.readValue(bytes);
+ * </code>
+ * </pre>
+ * <p>
+ * 返回的{@link Projection}预先编译了路径，是线程安全的，应当缓存起来重复使用。
+ * 使用{@link SkippingJsonFactory}创建mapper时，不需要的值在字节层面跳过。
+ * </p>
+ */
+public final class ProjectionReader {
+    private final ObjectMapper mapper;
+
+    public ProjectionReader(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * 把{@code paths}处的值按原来的结构绑定到{@code type}，其它属性保持默认值
+     *
+     * @param paths JSON Pointer，例如"/goodsCount"、"/items/0/name"
+     */
+    public <T> Projection<T> project(Class<T> type, String... paths) {
+        return project(mapper.constructType(type), paths);
+    }
+
+    public <T> Projection<T> project(JavaType type, String... paths) {
+        return new Projection<>(mapper.readerFor(type), paths, false);
+    }
+
+    /**
+     * 把{@code path}处的值本身绑定到{@code type}，例如{@code projectValue(Long.class, "/goodsCount")}。
+     * 路径不存在时读取的结果为null
+     */
+    public <T> Projection<T> projectValue(Class<T> type, String path) {
+        return projectValue(mapper.constructType(type), path);
+    }
+
+    public <T> Projection<T> projectValue(JavaType type, String path) {
+        return new Projection<>(mapper.readerFor(type), new String[] {path}, true);
+    }
+}
@@ -0,0 +1,272 @@
+package com.gerald.jackson.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.base.ParserBase;
+import com.fasterxml.jackson.core.json.ReaderBasedJsonParser;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8StreamJsonParser;
+
+/**
+ * 解析器正在读取的原始输入：UTF-8的{@code byte[]}，或者{@code String}/{@code char[]}。
+ * <p>
+ * JSON的结构字符都是ASCII，而UTF-8多字节序列中的每个字节都不小于0x80，因此按字节和按字符扫描
+ * 结构的结果相同，{@link JsonScanner}只通过{@link #at(int)}访问输入。
+ * </p>
+ * <p>
+ * 只有{@code ObjectMapper#readValue(byte[])}、{@code readValue(String)}等整个输入都在内存中的情况
+ * 才能取得原始输入；从{@code InputStream}、{@code Reader}读取，或者从{@code TokenBuffer}回放时，
+ * {@link #of(JsonParser)}返回null。
+ * </p>
+ */
+public abstract class RawInput {
+    /**
+     * 超过这个长度的字节直接写入{@code UTF8JsonGenerator}的{@code OutputStream}，与jackson自己的阈值相同
+     */
+    private static final int MAX_BYTES_TO_BUFFER = 512;
+
+    /**
+     * {@code ParserBase._currInputProcessed}。从{@code byte[]}的中间开始解析时，
+     * {@code UTF8StreamJsonParser}报告的位置是相对于起始下标的，起始下标保存在这个字段中(取负值)
+     */
+    private static final MethodHandle INPUT_PROCESSED = findInputProcessed();
+
+    RawInput() {
+
+    }
+
+    private static MethodHandle findInputProcessed() {
+        try {
+            Field field = ParserBase.class.getDeclaredField("_currInputProcessed");
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return 解析器的原始输入，无法取得时返回null
+     */
+    public static RawInput of(JsonParser p) {
+        Class<?> parserClass = p.getClass();
+        Object source;
+
+        if((parserClass == UTF8StreamJsonParser.class) || (parserClass == SkippingJsonParser.class)) {
+            source = p.getTokenLocation().getSourceRef();
+            if(!(source instanceof byte[]) || (INPUT_PROCESSED == null)) {
+                return null;
+            }
+
+            long processed;
+            try {
+                processed = (long)INPUT_PROCESSED.invokeExact((ParserBase)p);
+            } catch (Throwable e) {
+                return null;
+            }
+            return (processed <= 0) ? new Bytes((byte[])source, (int)-processed) : null;
+        } else if(parserClass == ReaderBasedJsonParser.class) {
+            source = p.getTokenLocation().getSourceRef();
+            if(source instanceof String) {
+                return new Chars((String)source);
+            } else if(source instanceof char[]) {
+                return new Chars(CharBuffer.wrap((char[])source));
+            }
+        }
+
+        return null;
+    }
+
+    public static RawInput of(byte[] bytes) {
+        return new Bytes(bytes, 0);
+    }
+
+    public static RawInput of(CharSequence chars) {
+        return new Chars(chars);
+    }
+
+    /**
+     * 当前token在输入中的下标
+     */
+    public abstract int offsetOf(JsonLocation location);
+
+    public abstract int length();
+
+    /**
+     * @return 下标处的字符，或者无符号的字节
+     */
+    public abstract int at(int index);
+
+    /**
+     * [start, end)是否与{@code str}相同。输入为字节时只比较ASCII
+     */
+    public abstract boolean regionMatches(int start, int end, String str);
+
+    /**
+     * 不包含转义的[start, end)
+     */
+    public abstract String substring(int start, int end);
+
+    /**
+     * [start, end)的UTF-8编码的副本
+     */
+    public abstract byte[] toBytes(int start, int end);
+
+    /**
+     * 把[start, end)作为一个值原样写出，相当于{@link JsonGenerator#writeRawValue(String)}，
+     * 只是尽量不经过{@code String}
+     */
+    public abstract void writeRawValue(JsonGenerator gen, int start, int end) throws IOException;
+
+    static final class Bytes extends RawInput {
+        private final byte[] bytes;
+
+        /**
+         * 解析器报告的位置所相对的下标
+         */
+        private final int base;
+
+        Bytes(byte[] bytes, int base) {
+            this.bytes = bytes;
+            this.base = base;
+        }
+
+        @Override
+        public int offsetOf(JsonLocation location) {
+            return base + (int)location.getByteOffset();
+        }
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public int at(int index) {
+            return bytes[index] & 0xFF;
+        }
+
+        @Override
+        public boolean regionMatches(int start, int end, String str) {
+            if((end - start) != str.length()) {
+                return false;
+            }
+
+            for(int i = start; i < end; i++) {
+                if(bytes[i] != str.charAt(i - start)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public String substring(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] toBytes(int start, int end) {
+            return Arrays.copyOfRange(bytes, start, end);
+        }
+
+        @Override
+        public void writeRawValue(JsonGenerator gen, int start, int end) throws IOException {
+            if(gen.getClass() != UTF8JsonGenerator.class) {
+                gen.writeRawValue(substring(start, end));
+                return;
+            }
+
+            // 较短的值复制到generator的缓冲区中更快
+            Object target = gen.getOutputTarget();
+            if(((end - start) <= MAX_BYTES_TO_BUFFER) || !(target instanceof OutputStream)) {
+                gen.writeRawValue(substring(start, end));
+                return;
+            }
+
+            // 写出分隔符之后把缓冲区中的内容交给OutputStream，再直接写出原始字节
+            gen.writeRawValue("");
+            boolean flushPassed = gen.isEnabled(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            gen.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            try {
+                gen.flush();
+            } finally {
+                if(flushPassed) {
+                    gen.enable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+                }
+            }
+            ((OutputStream)target).write(bytes, start, end - start);
+        }
+    }
+
+    static final class Chars extends RawInput {
+        private final CharSequence chars;
+
+        Chars(CharSequence chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        public int offsetOf(JsonLocation location) {
+            return (int)location.getCharOffset();
+        }
+
+        @Override
+        public int length() {
+            return chars.length();
+        }
+
+        @Override
+        public int at(int index) {
+            return chars.charAt(index);
+        }
+
+        @Override
+        public boolean regionMatches(int start, int end, String str) {
+            if((end - start) != str.length()) {
+                return false;
+            }
+
+            for(int i = start; i < end; i++) {
+                if(chars.charAt(i) != str.charAt(i - start)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public String substring(int start, int end) {
+            return chars.subSequence(start, end).toString();
+        }
+
+        @Override
+        public byte[] toBytes(int start, int end) {
+            return substring(start, end).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void writeRawValue(JsonGenerator gen, int start, int end) throws IOException {
+            if(chars instanceof String) {
+                gen.writeRawValue((String)chars, start, end - start);
+            } else if((chars instanceof CharBuffer) && ((CharBuffer)chars).hasArray()) {
+                CharBuffer buffer = (CharBuffer)chars;
+                gen.writeRawValue(buffer.array(), buffer.arrayOffset() + buffer.position() + start, end - start);
+            } else {
+                gen.writeRawValue(substring(start, end));
+            }
+        }
+    }
+}
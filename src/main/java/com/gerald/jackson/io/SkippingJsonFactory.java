@@ -0,0 +1,121 @@
+package com.gerald.jackson.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.json.ByteSourceJsonBootstrapper;
+
+/**
+ * 为UTF-8的{@code byte[]}和{@code InputStream}输入创建{@link SkippingJsonParser}的{@code JsonFactory}。
+ * <p>
+ * jackson跳过被{@code @JsonIgnoreProperties}、{@code @JsonIgnore}忽略的属性，以及
+ * {@code ignoreUnknown = true}时的未知属性，都是调用{@code JsonParser#skipChildren()}，
+ * 使用这个factory创建mapper之后，这些属性的值在字节层面跳过，不需要修改任何bean或者deserializer：
+ * </p>
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper(new SkippingJsonFactory());
+ * </code>
+ * </pre>
+ * <p>
+ * 被跳过的值不做完整的语法检查，见{@link SkippingJsonParser}。UTF-16/UTF-32的输入、{@code Reader}和
+ * {@code String}输入，以及关闭了{@code CANONICALIZE_FIELD_NAMES}时，与{@code JsonFactory}相同。
+ * </p>
+ */
+public class SkippingJsonFactory extends JsonFactory {
+    private static final long serialVersionUID = -6310526317542807236L;
+
+    /**
+     * 检测编码需要的字节数
+     */
+    private static final int ENCODING_BYTES = 4;
+
+    public SkippingJsonFactory() {
+        super();
+    }
+
+    protected SkippingJsonFactory(JsonFactory src, ObjectCodec codec) {
+        super(src, codec);
+    }
+
+    @Override
+    public JsonFactory copy() {
+        _checkInvalidCopy(SkippingJsonFactory.class);
+
+        return new SkippingJsonFactory(this, null);
+    }
+
+    @Override
+    protected Object readResolve() {
+        return new SkippingJsonFactory(this, _objectCodec);
+    }
+
+    @Override
+    protected JsonParser _createParser(byte[] data, int offset, int len, IOContext ctxt) throws IOException {
+        int start = utf8Start(ctxt, data, offset, offset + len);
+        if(start < 0) {
+            return super._createParser(data, offset, len, ctxt);
+        }
+
+        return newParser(ctxt, null, data, start, offset + len, false);
+    }
+
+    @Override
+    protected JsonParser _createParser(InputStream in, IOContext ctxt) throws IOException {
+        byte[] buffer = ctxt.allocReadIOBuffer();
+        int end = 0;
+
+        while(end < ENCODING_BYTES) {
+            int count = in.read(buffer, end, buffer.length - end);
+            if(count < 0) {
+                break;
+            }
+            end += count;
+        }
+
+        int start = utf8Start(ctxt, buffer, 0, end);
+        if(start >= 0) {
+            return newParser(ctxt, in, buffer, start, end, true);
+        }
+
+        // 已经读取的字节放回输入的前面，交给jackson处理
+        byte[] head = Arrays.copyOf(buffer, end);
+        ctxt.releaseReadIOBuffer(buffer);
+        return super._createParser(new SequenceInputStream(new ByteArrayInputStream(head), in), ctxt);
+    }
+
+    private JsonParser newParser(IOContext ctxt, InputStream in, byte[] buffer, int start, int end,
+                                 boolean recyclable) {
+        return new SkippingJsonParser(ctxt, _parserFeatures, in, _objectCodec,
+                                      _byteSymbolCanonicalizer.makeChild(_factoryFeatures),
+                                      buffer, start, end, recyclable);
+    }
+
+    /**
+     * @return 跳过BOM之后的开始下标；不是UTF-8，或者没有打开{@code CANONICALIZE_FIELD_NAMES}
+     *     (jackson此时不使用{@code UTF8StreamJsonParser})时返回-1
+     */
+    private int utf8Start(IOContext ctxt, byte[] data, int start, int end) throws IOException {
+        if(!isEnabled(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES)) {
+            return -1;
+        }
+        if(new ByteSourceJsonBootstrapper(ctxt, data, start, end - start).detectEncoding() != JsonEncoding.UTF8) {
+            return -1;
+        }
+
+        if(((end - start) >= 3) && (data[start] == (byte)0xEF) && (data[start + 1] == (byte)0xBB)
+                && (data[start + 2] == (byte)0xBF)) {
+            start += 3;
+        }
+
+        return start;
+    }
+}
@@ -0,0 +1,207 @@
+package com.gerald.jackson.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.json.UTF8StreamJsonParser;
+import com.fasterxml.jackson.core.sym.ByteQuadsCanonicalizer;
+
+/**
+ * 在字节层面实现{@link #skipChildren()}的{@code UTF8StreamJsonParser}，由{@link SkippingJsonFactory}创建。
+ * <p>
+ * 跳过对象或者数组时不再逐个生成token，而是每次从输入缓冲区读取8个字节作为一个{@code long}，
+ * 用位运算同时找出其中的双引号、反斜杠和括号，只对这些字节做处理；不包含这些字节的8个字节一次跳过。
+ * 因为'['、']'与'{'、'}'只差0x20这一位，括号只需要两次比较。换行符也以同样的方式计数，
+ * 跳过之后报告的行号和列号与逐个token跳过时相同(只以'\r'换行的输入除外)。
+ * </p>
+ * <p>
+ * 被跳过的内容只检查字符串和括号是否完整、最外层的括号是否匹配，不做完整的语法检查，
+ * 例如<code>{"a" : [1 2}</code>会被当作一个对象跳过。打开了注释、单引号等非标准特性时
+ * 无法只依靠括号和双引号确定结构，回退到jackson的实现。
+ * </p>
+ */
+final class SkippingJsonParser extends UTF8StreamJsonParser {
+    private static final long ONES = 0x0101010101010101L;
+
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private static final long QUOTES = ONES * '"';
+
+    private static final long BACKSLASHES = ONES * '\\';
+
+    private static final long NEWLINES = ONES * '\n';
+
+    /**
+     * 与0x20按位或之后，'['变为'{'，']'变为'}'，其它字节都不会变为这两个字节
+     */
+    private static final long CASE_BIT = ONES * 0x20;
+
+    private static final long OPEN_BRACES = ONES * '{';
+
+    private static final long CLOSE_BRACES = ONES * '}';
+
+    private static final int NOT_CLOSED = -1;
+
+    /**
+     * 以小端序读取{@code _inputBuffer}，缓冲区数组改变时重新创建
+     */
+    private ByteBuffer words;
+
+    SkippingJsonParser(IOContext ctxt, int features, InputStream in, ObjectCodec codec, ByteQuadsCanonicalizer sym,
+                       byte[] inputBuffer, int start, int end, boolean bufferRecyclable) {
+        super(ctxt, features, in, codec, sym, inputBuffer, start, end, bufferRecyclable);
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        if((_currToken != JsonToken.START_OBJECT) && (_currToken != JsonToken.START_ARRAY)) {
+            return this;
+        }
+        if(isEnabled(Feature.ALLOW_COMMENTS) || isEnabled(Feature.ALLOW_YAML_COMMENTS)
+                || isEnabled(Feature.ALLOW_SINGLE_QUOTES)) {
+            return super.skipChildren();
+        }
+
+        int close = skipToClose();
+        if(close == NOT_CLOSED) {
+            return this;
+        }
+
+        // 与nextToken()返回结束标记时的位置相同
+        _tokenInputRow = _currInputRow;
+        _tokenInputTotal = _currInputProcessed + _inputPtr;
+        _tokenInputCol = _inputPtr - _currInputRowStart;
+
+        if(close == '}') {
+            if(!_parsingContext.inObject()) {
+                _reportMismatchedEndMarker(close, ']');
+            }
+            _currToken = JsonToken.END_OBJECT;
+        } else {
+            if(!_parsingContext.inArray()) {
+                _reportMismatchedEndMarker(close, '}');
+            }
+            _currToken = JsonToken.END_ARRAY;
+        }
+        _parsingContext = _parsingContext.clearAndGetParent();
+
+        return this;
+    }
+
+    /**
+     * 从{@code _inputPtr}开始找到与当前的开始标记配对的结束标记，之后{@code _inputPtr}指向结束标记的下一个字节
+     *
+     * @return 结束标记，输入提前结束时返回{@link #NOT_CLOSED}
+     */
+    private int skipToClose() throws IOException {
+        int depth = 1;
+        boolean inString = false;
+        // 小于这个下标的字节已被反斜杠转义
+        int escaped = 0;
+
+        while(true) {
+            byte[] buffer = _inputBuffer;
+            int end = _inputEnd;
+            int i = _inputPtr;
+
+            if((words == null) || (words.array() != buffer)) {
+                words = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            for(; (end - i) >= 8; i += 8) {
+                long word = words.getLong(i);
+                long newlines = match(word, NEWLINES);
+                long marks = match(word, QUOTES) | match(word, BACKSLASHES)
+                        | match(word | CASE_BIT, OPEN_BRACES) | match(word | CASE_BIT, CLOSE_BRACES);
+
+                while(marks != 0) {
+                    int pos = i + (Long.numberOfTrailingZeros(marks) >>> 3);
+                    marks &= marks - 1;
+
+                    if(pos < escaped) {
+                        continue;
+                    }
+
+                    int c = buffer[pos];
+                    if(inString) {
+                        if(c == '"') {
+                            inString = false;
+                        } else if(c == '\\') {
+                            escaped = pos + 2;
+                        }
+                    } else if(c == '"') {
+                        inString = true;
+                    } else if((c == '{') || (c == '[')) {
+                        depth++;
+                    } else if(((c == '}') || (c == ']')) && (--depth == 0)) {
+                        // 只计算结束标记之前的换行
+                        int used = pos - i + 1;
+                        if(used < 8) {
+                            newlines &= (1L << (used << 3)) - 1;
+                        }
+                        countNewlines(newlines, i);
+                        _inputPtr = pos + 1;
+                        return c;
+                    }
+                }
+
+                countNewlines(newlines, i);
+            }
+
+            for(; i < end; i++) {
+                int c = buffer[i];
+
+                if(c == '\n') {
+                    _currInputRow++;
+                    _currInputRowStart = i + 1;
+                } else if(i < escaped) {
+                    continue;
+                } else if(inString) {
+                    if(c == '"') {
+                        inString = false;
+                    } else if(c == '\\') {
+                        escaped = i + 2;
+                    }
+                } else if(c == '"') {
+                    inString = true;
+                } else if((c == '{') || (c == '[')) {
+                    depth++;
+                } else if(((c == '}') || (c == ']')) && (--depth == 0)) {
+                    _inputPtr = i + 1;
+                    return c;
+                }
+            }
+
+            // 读入下一段输入后下标从0开始
+            _inputPtr = end;
+            escaped -= end;
+            if(!_loadMore()) {
+                _handleEOF();
+                return NOT_CLOSED;
+            }
+        }
+    }
+
+    private void countNewlines(long newlines, int base) {
+        if(newlines != 0) {
+            _currInputRow += Long.bitCount(newlines);
+            _currInputRowStart = base + ((63 - Long.numberOfLeadingZeros(newlines)) >>> 3) + 1;
+        }
+    }
+
+    /**
+     * @return 与{@code pattern}相同的字节的最高位为1，其余都为0。与常见的{@code (x - 0x01..) & ~x & 0x80..}
+     *     不同，不会因为借位在匹配的字节之后产生误报
+     */
+    private static long match(long word, long pattern) {
+        long x = word ^ pattern;
+
+        return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+    }
+}
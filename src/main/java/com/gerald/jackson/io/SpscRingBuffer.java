@@ -0,0 +1,181 @@
+package com.gerald.jackson.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 单生产者、单消费者的有界环形队列，{@link PipelinedReader}用来把token批次从解析线程交给绑定线程。
+ * <p>
+ * 生产者只写{@code tail}，消费者只写{@code head}，两边都用{@code lazySet}发布，不需要锁和CAS。
+ * 队列满或者空时先自旋，再{@code yield}，最后短暂地{@code park}；对方操作后会{@code unpark}等待的线程，
+ * {@code park}带有超时，因此错过一次唤醒也只是多等一个周期。
+ * </p>
+ * <p>
+ * {@link #close()}之后{@link #put}不再等待，返回false，用于消费者提前结束时让生产者退出。
+ * </p>
+ */
+final class SpscRingBuffer<E> {
+    private static final int SPINS = 64;
+
+    private static final int YIELDS = 16;
+
+    private static final long PARK_NANOS = 50_000L;
+
+    private final Object[] buffer;
+
+    private final int mask;
+
+    /**
+     * 下一个要取出的位置，只由消费者修改
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * 下一个要放入的位置，只由生产者修改
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    private volatile Thread waitingProducer;
+
+    private volatile Thread waitingConsumer;
+
+    private volatile boolean closed;
+
+    /**
+     * @param capacity 向上取整为2的幂
+     */
+    SpscRingBuffer(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+
+        int size = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * 只能由生产者调用
+     *
+     * @return 队列已满时返回false
+     */
+    boolean offer(E e) {
+        long t = tail.get();
+        if(t - head.get() == buffer.length) {
+            return false;
+        }
+
+        buffer[(int)t & mask] = e;
+        tail.lazySet(t + 1);
+
+        Thread consumer = waitingConsumer;
+        if(consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * 只能由消费者调用
+     *
+     * @return 队列为空时返回null
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long h = head.get();
+        if(h == tail.get()) {
+            return null;
+        }
+
+        int index = (int)h & mask;
+        E e = (E)buffer[index];
+        buffer[index] = null;
+        head.lazySet(h + 1);
+
+        Thread producer = waitingProducer;
+        if(producer != null) {
+            LockSupport.unpark(producer);
+        }
+        return e;
+    }
+
+    /**
+     * 等待直到放入或者队列被关闭
+     *
+     * @return 队列已经关闭时返回false
+     */
+    boolean put(E e) throws InterruptedException {
+        for(int i = 0; !closed; i++) {
+            if(offer(e)) {
+                return true;
+            }
+
+            if(i >= SPINS + YIELDS) {
+                // 先登记再检查一次，避免消费者在登记之前取走元素而错过唤醒
+                waitingProducer = Thread.currentThread();
+                if(offer(e)) {
+                    waitingProducer = null;
+                    return true;
+                }
+                if(!closed) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                waitingProducer = null;
+            } else if(i >= SPINS) {
+                Thread.yield();
+            }
+
+            if(Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 等待直到取出一个元素
+     */
+    E take() throws InterruptedException {
+        for(int i = 0; ; i++) {
+            E e = poll();
+            if(e != null) {
+                return e;
+            }
+
+            if(i >= SPINS + YIELDS) {
+                waitingConsumer = Thread.currentThread();
+                e = poll();
+                if(e != null) {
+                    waitingConsumer = null;
+                    return e;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+                waitingConsumer = null;
+            } else if(i >= SPINS) {
+                Thread.yield();
+            }
+
+            if(Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    void close() {
+        closed = true;
+
+        Thread producer = waitingProducer;
+        if(producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,286 @@
+package com.gerald.jackson.jsontype;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * 处理{@code As.EXTERNAL_PROPERTY}属性的{@link BeanDeserializer}。
+ * <p>
+ * jackson的{@code ExternalTypeHandler}总是先把属性值复制到{@code TokenBuffer}，读到type id之后再拼成
+ * <code>[typeId, value]</code>形式的第二个{@code TokenBuffer}进行反序列化。这里在type id先出现时
+ * (配合{@link TypeIdFirstPropertyWriter}写出的格式)直接从解析器读取属性值；属性值先出现时只缓存一次，
+ * 读到type id或者对象结束时直接反序列化。缺少type id或者属性值时的处理与
+ * {@code ExternalTypeHandler#complete}相同；只是对象形式的属性值缺少type id时，jackson会把null当作type id
+ * 继续解析并报告"need JSON String that contains type id"，这里直接报告缺少type id属性。
+ * </p>
+ * <p>
+ * 使用{@code @JsonCreator}或者delegate创建对象、type属性同时也是普通属性、属性有自定义的deserializer，
+ * 或者{@code visible = true}时，使用jackson原来的实现。
+ * </p>
+ */
+final class ExternalTypeIdDeserializer extends BeanDeserializer {
+    private static final long serialVersionUID = 8126418447651306512L;
+
+    /**
+     * null表示使用jackson原来的实现
+     */
+    private SettableBeanProperty[] externalProps;
+
+    private TypeIdFirstExternalTypeDeserializer[] typeDesers;
+
+    private String[] propNames;
+
+    private String[] typeNames;
+
+    ExternalTypeIdDeserializer(BeanDeserializer src) {
+        super(src);
+    }
+
+    /**
+     * @return {@code deserializer}是否有{@code As.EXTERNAL_PROPERTY}的属性
+     */
+    static boolean hasExternalTypeId(BeanDeserializer deserializer) {
+        Iterator<SettableBeanProperty> it = deserializer.properties();
+
+        while(it.hasNext()) {
+            if(isExternal(it.next())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isExternal(SettableBeanProperty prop) {
+        TypeDeserializer typeDeser = prop.getValueTypeDeserializer();
+
+        return (typeDeser != null) && (typeDeser.getTypeInclusion() == JsonTypeInfo.As.EXTERNAL_PROPERTY);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        // resolve之后jackson会把这些属性从_beanProperties移到ExternalTypeHandler中
+        List<SettableBeanProperty> candidates = new ArrayList<>();
+        for(SettableBeanProperty prop : _beanProperties) {
+            if(isExternal(prop)) {
+                candidates.add(prop);
+            }
+        }
+
+        super.resolve(ctxt);
+        link(ctxt, candidates);
+    }
+
+    private void link(DeserializationContext ctxt, List<SettableBeanProperty> candidates) {
+        if((_externalTypeIdHandler == null) || (_propertyBasedCreator != null) || (_delegateDeserializer != null)
+                || (_unwrappedPropertyHandler != null) || (_objectIdReader != null) || candidates.isEmpty()) {
+            return;
+        }
+
+        int count = candidates.size();
+        SettableBeanProperty[] props = new SettableBeanProperty[count];
+        TypeIdFirstExternalTypeDeserializer[] desers = new TypeIdFirstExternalTypeDeserializer[count];
+        String[] names = new String[count];
+        String[] types = new String[count];
+
+        for(int i = 0; i < count; i++) {
+            SettableBeanProperty prop = candidates.get(i);
+            TypeDeserializer typeDeser = prop.getValueTypeDeserializer();
+
+            if(!(typeDeser instanceof TypeIdFirstExternalTypeDeserializer) || prop.hasValueDeserializer()
+                    || (ctxt.getAnnotationIntrospector().findDeserializationConverter(prop.getMember()) != null)) {
+                return;
+            }
+
+            props[i] = prop;
+            desers[i] = (TypeIdFirstExternalTypeDeserializer)typeDeser;
+            names[i] = prop.getName();
+            types[i] = typeDeser.getPropertyName();
+
+            if(desers[i].isTypeIdVisible() || (_beanProperties.find(names[i]) != null)
+                    || (_beanProperties.find(types[i]) != null)) {
+                return;
+            }
+        }
+
+        // 属性名和type属性名都不能重复
+        for(int i = 0; i < count; i++) {
+            for(int j = 0; j < count; j++) {
+                if(names[i].equals(types[j]) || ((i != j)
+                        && (names[i].equals(names[j]) || types[i].equals(types[j])))) {
+                    return;
+                }
+            }
+        }
+
+        propNames = names;
+        typeNames = types;
+        typeDesers = desers;
+        externalProps = props;
+    }
+
+    @Override
+    protected Object deserializeWithExternalTypeId(JsonParser p, DeserializationContext ctxt, Object bean)
+            throws IOException {
+        if(externalProps == null) {
+            return super.deserializeWithExternalTypeId(p, ctxt, bean);
+        }
+
+        final Class<?> activeView = _needViewProcesing ? ctxt.getActiveView() : null;
+        // 已经读到、但是还没有对应属性值的type id
+        String[] typeIds = new String[externalProps.length];
+        // 已经读到、但是还没有对应type id的属性值
+        TokenBuffer[] values = null;
+
+        for(JsonToken t = p.getCurrentToken(); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+            String propName = p.getCurrentName();
+            p.nextToken();
+
+            SettableBeanProperty prop = _beanProperties.find(propName);
+            if(prop != null) {
+                if((activeView != null) && !prop.visibleInView(activeView)) {
+                    p.skipChildren();
+                    continue;
+                }
+                try {
+                    prop.deserializeAndSet(p, ctxt, bean);
+                } catch (Exception e) {
+                    wrapAndThrow(e, bean, propName, ctxt);
+                }
+                continue;
+            }
+
+            if((_ignorableProps != null) && _ignorableProps.contains(propName)) {
+                handleIgnoredProperty(p, ctxt, bean, propName);
+                continue;
+            }
+
+            int index = indexOf(typeNames, propName);
+            if(index >= 0) {
+                String typeId = p.getText();
+                p.skipChildren();
+
+                if((values != null) && (values[index] != null)) {
+                    JsonParser buffered = values[index].asParser(p);
+                    buffered.nextToken();
+                    values[index] = null;
+                    deserializeAndSet(buffered, ctxt, bean, index, typeId);
+                } else {
+                    typeIds[index] = typeId;
+                }
+                continue;
+            }
+
+            index = indexOf(propNames, propName);
+            if(index >= 0) {
+                String typeId = typeIds[index];
+
+                if(typeId != null) {
+                    typeIds[index] = null;
+                    deserializeAndSet(p, ctxt, bean, index, typeId);
+                } else {
+                    if(values == null) {
+                        values = new TokenBuffer[externalProps.length];
+                    }
+                    TokenBuffer tokens = new TokenBuffer(p, ctxt);
+                    tokens.copyCurrentStructure(p);
+                    values[index] = tokens;
+                }
+                continue;
+            }
+
+            if(_anySetter != null) {
+                try {
+                    _anySetter.deserializeAndSet(p, ctxt, bean, propName);
+                } catch (Exception e) {
+                    wrapAndThrow(e, bean, propName, ctxt);
+                }
+                continue;
+            }
+
+            handleUnknownProperty(p, ctxt, bean, propName);
+        }
+
+        return complete(p, ctxt, bean, typeIds, values);
+    }
+
+    /**
+     * 对象结束时，处理只有type id或者只有属性值的属性
+     */
+    private Object complete(JsonParser p, DeserializationContext ctxt, Object bean, String[] typeIds,
+                            TokenBuffer[] values) throws IOException {
+        for(int i = 0; i < externalProps.length; i++) {
+            SettableBeanProperty prop = externalProps[i];
+
+            if(typeIds[i] != null) {
+                if(prop.isRequired()
+                        || ctxt.isEnabled(DeserializationFeature.FAIL_ON_MISSING_EXTERNAL_TYPE_ID_PROPERTY)) {
+                    ctxt.reportMappingException("Missing property '%s' for external type id '%s'",
+                                                prop.getName(), typeNames[i]);
+                }
+                return bean;
+            }
+
+            TokenBuffer tokens = (values == null) ? null : values[i];
+            if(tokens == null) {
+                continue;
+            }
+
+            JsonParser buffered = tokens.asParser(p);
+            JsonToken t = buffered.nextToken();
+            if((t != null) && t.isScalarValue()) {
+                Object result = TypeDeserializer.deserializeIfNatural(buffered, ctxt, prop.getType());
+                if(result != null) {
+                    prop.set(bean, result);
+                    continue;
+                }
+            }
+
+            JsonDeserializer<Object> deser = typeDesers[i].findDefaultImplDeserializer(ctxt);
+            if(deser == null) {
+                ctxt.reportMappingException("Missing external type id property '%s'", typeNames[i]);
+            }
+            prop.set(bean, (t == JsonToken.VALUE_NULL) ? null : deser.deserialize(buffered, ctxt));
+        }
+
+        return bean;
+    }
+
+    /**
+     * @param p 指向属性值的第一个token
+     */
+    private void deserializeAndSet(JsonParser p, DeserializationContext ctxt, Object bean, int index, String typeId)
+            throws IOException {
+        Object value = null;
+
+        if(p.getCurrentToken() != JsonToken.VALUE_NULL) {
+            value = typeDesers[index].deserializeTypedValue(p, ctxt, typeId);
+        }
+
+        externalProps[index].set(bean, value);
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for(int i = 0; i < names.length; i++) {
+            if(names[i].equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.gerald.jackson.jsontype;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.TypeIdResolverBase;
+
+/**
+ * 通过{@link SubtypeTable}查找type id的{@link TypeIdResolver}，代替{@code TypeNameIdResolver}。
+ * <p>
+ * 每个子类型的{@link JavaType}在构造时就已经解析好；序列化时按值的{@code Class}直接查表，
+ * 不需要{@code TypeNameIdResolver}中的{@code JavaType}构造和同步。表中没有的类型和type id
+ * 交给原来的{@code TypeNameIdResolver}处理，错误信息也由它给出。
+ * </p>
+ */
+final class IndexedTypeIdResolver extends TypeIdResolverBase {
+    private final SubtypeTable table;
+
+    /**
+     * 与{@link SubtypeTable#typeAt(int)}的槽位对应
+     */
+    private final JavaType[] javaTypes;
+
+    private final TypeIdResolver fallback;
+
+    IndexedTypeIdResolver(MapperConfig<?> config, JavaType baseType, SubtypeTable table, TypeIdResolver fallback) {
+        super(baseType, config.getTypeFactory());
+        this.table = table;
+        this.fallback = fallback;
+        this.javaTypes = new JavaType[table.capacity()];
+
+        for(int slot = 0; slot < javaTypes.length; slot++) {
+            Class<?> type = table.typeAt(slot);
+            if(type != null) {
+                javaTypes[slot] = config.constructType(type);
+            }
+        }
+    }
+
+    @Override
+    public String idFromValue(Object value) {
+        String id = table.idOf(value.getClass());
+
+        return (id != null) ? id : fallback.idFromValue(value);
+    }
+
+    @Override
+    public String idFromValueAndType(Object value, Class<?> suggestedType) {
+        if(value != null) {
+            return idFromValue(value);
+        }
+
+        String id = (suggestedType == null) ? null : table.idOf(suggestedType);
+        return (id != null) ? id : fallback.idFromValueAndType(null, suggestedType);
+    }
+
+    @Override
+    public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+        int slot = table.indexOf(id);
+
+        return (slot >= 0) ? javaTypes[slot] : fallback.typeFromId(context, id);
+    }
+
+    @Override
+    public String getDescForKnownTypeIds() {
+        return fallback.getDescForKnownTypeIds();
+    }
+
+    @Override
+    public JsonTypeInfo.Id getMechanism() {
+        return JsonTypeInfo.Id.NAME;
+    }
+}
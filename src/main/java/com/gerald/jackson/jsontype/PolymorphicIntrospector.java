@@ -0,0 +1,80 @@
+package com.gerald.jackson.jsontype;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import com.fasterxml.jackson.databind.jsontype.impl.StdTypeResolverBuilder;
+
+/**
+ * 使用{@link PolymorphicTypeResolverBuilder}处理{@code @JsonTypeInfo}的{@code AnnotationIntrospector}。
+ * <p>
+ * 只实现查找{@code TypeResolverBuilder}的方法，其他方法返回null，交给之后的{@code AnnotationIntrospector}
+ * (包括用户配置的)处理，因此插入到最前面也不会改变其他标注的处理方式。
+ * </p>
+ * <p>
+ * 只有标注在类上的{@code @JsonTypeInfo}开启type id预扫描：这时所有子类都继承了这个标注，
+ * {@link PolymorphicModule}可以让子类的deserializer忽略type属性。标注在属性上时子类并不知道type属性，
+ * 仍然使用jackson原来的实现。
+ * </p>
+ */
+public class PolymorphicIntrospector extends NopAnnotationIntrospector {
+    private static final long serialVersionUID = -6342750813209356284L;
+
+    /**
+     * 按照jackson的规则读取{@code @JsonTypeInfo}等标注，只是创建的是{@link PolymorphicTypeResolverBuilder}
+     */
+    private final TypeResolverIntrospector resolvers;
+
+    public PolymorphicIntrospector() {
+        this(null);
+    }
+
+    /**
+     * @param subtypeIndex 可以为null
+     */
+    public PolymorphicIntrospector(SubtypeIndex subtypeIndex) {
+        this.resolvers = new TypeResolverIntrospector(subtypeIndex);
+    }
+
+    @Override
+    public TypeResolverBuilder<?> findTypeResolver(MapperConfig<?> config, AnnotatedClass ac, JavaType baseType) {
+        TypeResolverBuilder<?> builder = resolvers.findTypeResolver(config, ac, baseType);
+
+        if(builder instanceof PolymorphicTypeResolverBuilder) {
+            ((PolymorphicTypeResolverBuilder)builder).scanTypeId(true);
+        }
+
+        return builder;
+    }
+
+    @Override
+    public TypeResolverBuilder<?> findPropertyTypeResolver(MapperConfig<?> config, AnnotatedMember am,
+                                                           JavaType baseType) {
+        return resolvers.findPropertyTypeResolver(config, am, baseType);
+    }
+
+    @Override
+    public TypeResolverBuilder<?> findPropertyContentTypeResolver(MapperConfig<?> config, AnnotatedMember am,
+                                                                  JavaType containerType) {
+        return resolvers.findPropertyContentTypeResolver(config, am, containerType);
+    }
+
+    private static class TypeResolverIntrospector extends JacksonAnnotationIntrospector {
+        private static final long serialVersionUID = 4257409337519526871L;
+
+        private final transient SubtypeIndex subtypeIndex;
+
+        TypeResolverIntrospector(SubtypeIndex subtypeIndex) {
+            this.subtypeIndex = subtypeIndex;
+        }
+
+        @Override
+        protected StdTypeResolverBuilder _constructStdTypeResolverBuilder() {
+            return new PolymorphicTypeResolverBuilder().subtypeIndex(subtypeIndex);
+        }
+    }
+}
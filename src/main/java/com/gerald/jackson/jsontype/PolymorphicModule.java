@@ -0,0 +1,132 @@
+package com.gerald.jackson.jsontype;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * 让多态类型的type id总是写在最前面，并在读取时避免{@code TokenBuffer}缓存。
+ * <ul>
+ * <li>
+ *  {@code As.PROPERTY}：jackson本身总是先写出type id。读取时如果type id不是第一个属性，
+ *  由{@link TypeIdFirstTypeDeserializer}在原始输入中预先找到type id，直接使用子类型的deserializer
+ * </li>
+ * <li>
+ *  {@code As.EXTERNAL_PROPERTY}：由{@link TypeIdFirstPropertyWriter}在属性值之前写出type id，
+ *  由{@link ExternalTypeIdDeserializer}读取
+ * </li>
+ * </ul>
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new PolymorphicModule());
+ * </code>
+ * </pre>
+ * <p>
+ * 模块会在已有的{@code AnnotationIntrospector}之前插入{@link PolymorphicIntrospector}，它只处理{@code @JsonTypeInfo}，
+ * 其他标注仍由已有的{@code AnnotationIntrospector}处理；自定义{@code @JsonTypeInfo}处理的
+ * {@code AnnotationIntrospector}应当在这个模块之后注册。
+ * </p>
+ */
+public class PolymorphicModule extends SimpleModule {
+    private static final long serialVersionUID = 2979606584372734436L;
+
+    private transient SubtypeIndex subtypeIndex;
+
+    public PolymorphicModule() {
+        super(PolymorphicModule.class.getSimpleName());
+
+        setSerializerModifier(new SerializerModifier());
+        setDeserializerModifier(new DeserializerModifier());
+    }
+
+    /**
+     * 注册{@code subtypeIndex}中的全部子类型，并通过它查找{@code Id.NAME}的type id，例如
+     * <pre>
+     * <code>
+     * new PolymorphicModule().withSubtypeIndex(SubtypeIndex.scan("com.gerald.jackson"))
+     * </code>
+     * </pre>
+     *
+     * @return this
+     */
+    public PolymorphicModule withSubtypeIndex(SubtypeIndex subtypeIndex) {
+        this.subtypeIndex = subtypeIndex;
+        return this;
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+
+        if(subtypeIndex != null) {
+            List<NamedType> namedTypes = subtypeIndex.getNamedTypes();
+            context.registerSubtypes(namedTypes.toArray(new NamedType[namedTypes.size()]));
+        }
+        context.insertAnnotationIntrospector(new PolymorphicIntrospector(subtypeIndex));
+    }
+
+    private static class SerializerModifier extends BeanSerializerModifier {
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            for(int i = 0; i < beanProperties.size(); i++) {
+                BeanPropertyWriter writer = beanProperties.get(i);
+                TypeSerializer typeSer = writer.getTypeSerializer();
+
+                if((writer.getClass() == BeanPropertyWriter.class) && (typeSer != null)
+                        && (typeSer.getTypeInclusion() == JsonTypeInfo.As.EXTERNAL_PROPERTY)) {
+                    beanProperties.set(i, new TypeIdFirstPropertyWriter(writer));
+                }
+            }
+
+            return beanProperties;
+        }
+    }
+
+    private static class DeserializerModifier extends BeanDeserializerModifier {
+        /**
+         * {@link TypeIdFirstTypeDeserializer}把整个对象交给子类型的deserializer，
+         * 子类型需要像jackson一样忽略其中的type属性
+         */
+        @Override
+        public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                     BeanDeserializerBuilder builder) {
+            JsonTypeInfo info = beanDesc.getClassInfo().getAnnotation(JsonTypeInfo.class);
+            if((info == null) || (info.include() != JsonTypeInfo.As.PROPERTY) || info.visible()
+                    || (info.use() == JsonTypeInfo.Id.NONE)) {
+                return builder;
+            }
+
+            String name = info.property().isEmpty() ? info.use().getDefaultPropertyName() : info.property();
+            if(!builder.hasProperty(PropertyName.construct(name))) {
+                builder.addIgnorable(name);
+            }
+
+            return builder;
+        }
+
+        @Override
+        public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                      JsonDeserializer<?> deserializer) {
+            if((deserializer.getClass() != BeanDeserializer.class)
+                    || !ExternalTypeIdDeserializer.hasExternalTypeId((BeanDeserializer)deserializer)) {
+                return deserializer;
+            }
+
+            return new ExternalTypeIdDeserializer((BeanDeserializer)deserializer);
+        }
+    }
+}
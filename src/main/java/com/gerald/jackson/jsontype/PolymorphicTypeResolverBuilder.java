@@ -0,0 +1,77 @@
+package com.gerald.jackson.jsontype;
+
+import java.util.Collection;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.AsExternalTypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.impl.AsPropertyTypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.impl.StdTypeResolverBuilder;
+
+/**
+ * 在jackson创建的{@link TypeDeserializer}基础上，为{@code As.PROPERTY}创建
+ * {@link TypeIdFirstTypeDeserializer}，为{@code As.EXTERNAL_PROPERTY}创建
+ * {@link TypeIdFirstExternalTypeDeserializer}；配置了{@link SubtypeIndex}时，
+ * 使用{@link IndexedTypeIdResolver}查找{@code Id.NAME}的type id。
+ */
+public class PolymorphicTypeResolverBuilder extends StdTypeResolverBuilder {
+    private boolean scanTypeId;
+
+    private SubtypeIndex subtypeIndex;
+
+    /**
+     * 是否预扫描{@code As.PROPERTY}的type id
+     */
+    public PolymorphicTypeResolverBuilder scanTypeId(boolean scanTypeId) {
+        this.scanTypeId = scanTypeId;
+        return this;
+    }
+
+    /**
+     * 使用{@code subtypeIndex}查找{@code Id.NAME}的type id
+     */
+    public PolymorphicTypeResolverBuilder subtypeIndex(SubtypeIndex subtypeIndex) {
+        this.subtypeIndex = subtypeIndex;
+        return this;
+    }
+
+    @Override
+    public TypeDeserializer buildTypeDeserializer(DeserializationConfig config, JavaType baseType,
+                                                  Collection<NamedType> subtypes) {
+        TypeDeserializer deser = super.buildTypeDeserializer(config, baseType, subtypes);
+
+        if(scanTypeId && (_includeAs == JsonTypeInfo.As.PROPERTY)
+                && (deser.getClass() == AsPropertyTypeDeserializer.class)) {
+            return new TypeIdFirstTypeDeserializer((AsPropertyTypeDeserializer)deser, null);
+        } else if((deser != null) && (deser.getClass() == AsExternalTypeDeserializer.class)) {
+            return new TypeIdFirstExternalTypeDeserializer((AsExternalTypeDeserializer)deser, null);
+        }
+
+        return deser;
+    }
+
+    /**
+     * 只有基类本身在索引中、并且jackson收集到的子类型与索引完全一致时才使用{@link IndexedTypeIdResolver}，
+     * 否则(例如直接反序列化某个子类，或者另外注册了同一个类的其他名称)仍然使用{@code TypeNameIdResolver}
+     */
+    @Override
+    protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType, Collection<NamedType> subtypes,
+                                        boolean forSer, boolean forDeser) {
+        TypeIdResolver resolver = super.idResolver(config, baseType, subtypes, forSer, forDeser);
+        if((subtypeIndex == null) || (_customIdResolver != null) || (_idType != JsonTypeInfo.Id.NAME)) {
+            return resolver;
+        }
+
+        SubtypeTable table = subtypeIndex.table(baseType.getRawClass());
+        if((table == null) || !table.matches(subtypes)) {
+            return resolver;
+        }
+
+        return new IndexedTypeIdResolver(config, baseType, table, resolver);
+    }
+}
@@ -0,0 +1,313 @@
+package com.gerald.jackson.jsontype;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+
+/**
+ * 启动时一次建好的子类型索引。
+ * <p>
+ * jackson在第一次遇到多态基类时才收集子类型：没有{@code @JsonSubTypes}和{@code @JsonTypeName}
+ * (例如{@code TestPolymorphic.Notification})时根本找不到子类；序列化时{@code TypeNameIdResolver}
+ * 对每个值都要构造{@code JavaType}并在{@code synchronized}的{@code Map}中查找type id。
+ * </p>
+ * <p>
+ * {@link #scan(String...)}扫描类路径中指定包下的所有类，找到声明了
+ * <code>@JsonTypeInfo(use = Id.NAME)</code>的基类及其全部子类型，按jackson的规则确定type id
+ * ({@code @JsonTypeName}、基类的{@code @JsonSubTypes}，或者不含包名的类名)，为每个基类建好
+ * {@link SubtypeTable}。{@link PolymorphicModule#withSubtypeIndex(SubtypeIndex)}把这些子类型注册到
+ * mapper，并用{@link IndexedTypeIdResolver}代替{@code TypeNameIdResolver}。
+ * </p>
+ * <p>
+ * 构建时生成的类列表可以通过{@link #of(Class...)}直接建立索引，不需要扫描类路径。
+ * </p>
+ */
+public final class SubtypeIndex {
+    private final Map<Class<?>, SubtypeTable> tables;
+
+    private final List<NamedType> namedTypes;
+
+    private final int classCount;
+
+    private final long nanos;
+
+    private SubtypeIndex(Map<Class<?>, SubtypeTable> tables, List<NamedType> namedTypes, int classCount,
+                         long nanos) {
+        this.tables = tables;
+        this.namedTypes = namedTypes;
+        this.classCount = classCount;
+        this.nanos = nanos;
+    }
+
+    /**
+     * 使用当前线程的{@code ClassLoader}扫描{@code packages}
+     *
+     * @throws UncheckedIOException 无法读取类路径
+     */
+    public static SubtypeIndex scan(String... packages) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+        return scan((loader == null) ? SubtypeIndex.class.getClassLoader() : loader, packages);
+    }
+
+    public static SubtypeIndex scan(ClassLoader loader, String... packages) {
+        long start = System.nanoTime();
+
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            for(String pkg : packages) {
+                findClassNames(loader, pkg.replace('.', '/'), names);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Class<?>> classes = new ArrayList<>(names.size());
+        for(String name : names) {
+            try {
+                classes.add(Class.forName(name, false, loader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                // 缺少依赖的类不可能出现在JSON中
+            }
+        }
+
+        return build(classes, start);
+    }
+
+    public static SubtypeIndex of(Class<?>... classes) {
+        long start = System.nanoTime();
+        List<Class<?>> list = new ArrayList<>(classes.length);
+        Collections.addAll(list, classes);
+
+        return build(list, start);
+    }
+
+    private static void findClassNames(ClassLoader loader, String path, Set<String> names) throws IOException {
+        Enumeration<URL> urls = loader.getResources(path);
+
+        while(urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+
+            if("file".equals(url.getProtocol())) {
+                Path root;
+                try {
+                    root = Paths.get(url.toURI());
+                } catch (URISyntaxException e) {
+                    throw new IOException(e);
+                }
+
+                try(Stream<Path> files = Files.walk(root)) {
+                    files.map(file -> root.relativize(file).toString().replace(root.getFileSystem().getSeparator(), "/"))
+                         .forEach(name -> addClassName(path + "/" + name, names));
+                }
+            } else if("jar".equals(url.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection)url.openConnection();
+                connection.setUseCaches(false);
+
+                try(JarFile jar = connection.getJarFile()) {
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while(entries.hasMoreElements()) {
+                        String name = entries.nextElement().getName();
+                        if(name.startsWith(path + "/")) {
+                            addClassName(name, names);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addClassName(String resource, Set<String> names) {
+        if(!resource.endsWith(".class") || resource.endsWith("module-info.class")
+                || resource.endsWith("package-info.class")) {
+            return;
+        }
+
+        names.add(resource.substring(0, resource.length() - ".class".length()).replace('/', '.'));
+    }
+
+    private static SubtypeIndex build(List<Class<?>> classes, long start) {
+        // 基类 -> (子类型 -> type id)，保持扫描的顺序
+        Map<Class<?>, Map<Class<?>, String>> hierarchies = new LinkedHashMap<>();
+
+        for(Class<?> cls : classes) {
+            if(!isCandidate(cls)) {
+                continue;
+            }
+
+            for(Class<?> base : findBaseTypes(cls)) {
+                Map<Class<?>, String> subtypes = hierarchies.get(base);
+                if(subtypes == null) {
+                    subtypes = new LinkedHashMap<>();
+                    hierarchies.put(base, subtypes);
+                }
+                subtypes.put(cls, typeIdOf(cls, base));
+            }
+        }
+
+        Map<Class<?>, SubtypeTable> tables = new HashMap<>();
+        List<NamedType> namedTypes = new ArrayList<>();
+
+        for(Map.Entry<Class<?>, Map<Class<?>, String>> entry : hierarchies.entrySet()) {
+            List<NamedType> subtypes = new ArrayList<>();
+            for(Map.Entry<Class<?>, String> subtype : entry.getValue().entrySet()) {
+                subtypes.add(new NamedType(subtype.getKey(), subtype.getValue()));
+            }
+
+            SubtypeTable table = SubtypeTable.build(subtypes);
+            if(table != null) {
+                tables.put(entry.getKey(), table);
+            }
+            namedTypes.addAll(subtypes);
+        }
+
+        return new SubtypeIndex(tables, Collections.unmodifiableList(namedTypes), classes.size(),
+                                System.nanoTime() - start);
+    }
+
+    /**
+     * 匿名类、局部类和非静态的内部类无法由jackson创建
+     */
+    private static boolean isCandidate(Class<?> cls) {
+        if(cls.isAnonymousClass() || cls.isLocalClass() || cls.isSynthetic() || cls.isAnnotation()
+                || cls.isEnum() || cls.isPrimitive() || cls.isArray()) {
+            return false;
+        }
+
+        return (cls.getEnclosingClass() == null) || Modifier.isStatic(cls.getModifiers());
+    }
+
+    /**
+     * @return 声明了<code>@JsonTypeInfo(use = Id.NAME)</code>的所有超类型，包括{@code cls}本身
+     */
+    private static Set<Class<?>> findBaseTypes(Class<?> cls) {
+        Set<Class<?>> bases = new LinkedHashSet<>();
+        collectBaseTypes(cls, bases, new HashMap<>());
+
+        return bases;
+    }
+
+    private static void collectBaseTypes(Class<?> cls, Set<Class<?>> bases, Map<Class<?>, Boolean> visited) {
+        if((cls == null) || (cls == Object.class) || (visited.put(cls, Boolean.TRUE) != null)) {
+            return;
+        }
+
+        JsonTypeInfo info = cls.getDeclaredAnnotation(JsonTypeInfo.class);
+        if((info != null) && (info.use() == JsonTypeInfo.Id.NAME)) {
+            bases.add(cls);
+        }
+
+        collectBaseTypes(cls.getSuperclass(), bases, visited);
+        for(Class<?> iface : cls.getInterfaces()) {
+            collectBaseTypes(iface, bases, visited);
+        }
+    }
+
+    /**
+     * 与jackson的顺序相同：子类自己的{@code @JsonTypeName}，{@code base}到子类之间
+     * {@code @JsonSubTypes}中的名称，最后是不含包名的类名
+     */
+    private static String typeIdOf(Class<?> cls, Class<?> base) {
+        JsonTypeName typeName = cls.getDeclaredAnnotation(JsonTypeName.class);
+        if((typeName != null) && !typeName.value().isEmpty()) {
+            return typeName.value();
+        }
+
+        for(Class<?> c = cls; (c != null) && base.isAssignableFrom(c); c = c.getSuperclass()) {
+            String name = findSubtypeName(c, cls);
+            if(name != null) {
+                return name;
+            }
+        }
+
+        String name = findSubtypeName(base, cls);
+        return (name != null) ? name : SubtypeTable.defaultTypeId(cls);
+    }
+
+    private static String findSubtypeName(Class<?> declaring, Class<?> cls) {
+        JsonSubTypes subTypes = declaring.getDeclaredAnnotation(JsonSubTypes.class);
+        if(subTypes == null) {
+            return null;
+        }
+
+        for(JsonSubTypes.Type type : subTypes.value()) {
+            if((type.value() == cls) && !type.name().isEmpty()) {
+                return type.name();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return 声明了{@code @JsonTypeInfo}的{@code baseType}的子类型表，不在索引中时返回null
+     */
+    SubtypeTable table(Class<?> baseType) {
+        return tables.get(baseType);
+    }
+
+    /**
+     * 需要注册到mapper的全部子类型以及它们的type id
+     */
+    public List<NamedType> getNamedTypes() {
+        return namedTypes;
+    }
+
+    /**
+     * 索引中的基类数量
+     */
+    public int getBaseTypeCount() {
+        return tables.size();
+    }
+
+    /**
+     * 扫描到的类的数量
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * 扫描并建立索引的耗时
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * 例如<code>indexed 2 base types, 6 subtypes from 120 classes in 35.2 ms</code>
+     */
+    public String report() {
+        return String.format(Locale.ROOT, "indexed %d base types, %d subtypes from %d classes in %.1f ms",
+                             getBaseTypeCount(), namedTypes.size(), classCount, nanos / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+}
@@ -0,0 +1,144 @@
+package com.gerald.jackson.jsontype;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+
+/**
+ * 一个基类的全部子类型：type id到类型、类型到type id的两张只读开放寻址表。
+ * <p>
+ * 表在构造时一次建好，查找只计算一次散列并线性探测，不加锁也不分配对象。
+ * {@code Class}的{@code hashCode}是同一性散列，按引用比较。
+ * </p>
+ */
+final class SubtypeTable {
+    private final String[] ids;
+
+    private final Class<?>[] types;
+
+    private final Class<?>[] classKeys;
+
+    private final String[] classIds;
+
+    private final int mask;
+
+    private final int size;
+
+    private SubtypeTable(int capacity, int size) {
+        this.ids = new String[capacity];
+        this.types = new Class<?>[capacity];
+        this.classKeys = new Class<?>[capacity];
+        this.classIds = new String[capacity];
+        this.mask = capacity - 1;
+        this.size = size;
+    }
+
+    /**
+     * @return 有重复的type id时返回null，此时无法与jackson保持一致
+     */
+    static SubtypeTable build(List<NamedType> subtypes) {
+        int capacity = Integer.highestOneBit(Math.max(2, subtypes.size() * 2 - 1)) << 1;
+        SubtypeTable table = new SubtypeTable(capacity, subtypes.size());
+
+        for(NamedType subtype : subtypes) {
+            String id = subtype.getName();
+            if(table.indexOf(id) >= 0) {
+                return null;
+            }
+
+            int slot = spread(id.hashCode()) & table.mask;
+            while(table.ids[slot] != null) {
+                slot = (slot + 1) & table.mask;
+            }
+            table.ids[slot] = id;
+            table.types[slot] = subtype.getType();
+
+            slot = spread(subtype.getType().hashCode()) & table.mask;
+            while(table.classKeys[slot] != null) {
+                slot = (slot + 1) & table.mask;
+            }
+            table.classKeys[slot] = subtype.getType();
+            table.classIds[slot] = id;
+        }
+
+        return table;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 与{@code TypeNameIdResolver}相同，没有名称的类型使用不含包名的类名
+     */
+    static String defaultTypeId(Class<?> cls) {
+        String name = cls.getName();
+        int index = name.lastIndexOf('.');
+
+        return (index < 0) ? name : name.substring(index + 1);
+    }
+
+    /**
+     * @return {@code id}所在的槽位，没有时返回-1
+     */
+    int indexOf(String id) {
+        for(int slot = spread(id.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            String key = ids[slot];
+            if(key == null) {
+                return -1;
+            } else if(key.equals(id)) {
+                return slot;
+            }
+        }
+    }
+
+    Class<?> typeAt(int slot) {
+        return types[slot];
+    }
+
+    /**
+     * 槽位的数量，{@link #typeAt(int)}的参数范围
+     */
+    int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * @return {@code cls}的type id，不是这个基类的子类型时返回null
+     */
+    String idOf(Class<?> cls) {
+        for(int slot = spread(cls.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            Class<?> key = classKeys[slot];
+            if(key == null) {
+                return null;
+            } else if(key == cls) {
+                return classIds[slot];
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * jackson为基类收集到的子类型以及它们的type id是否与这张表完全相同
+     */
+    boolean matches(Collection<NamedType> subtypes) {
+        if((subtypes == null) || (subtypes.size() != size)) {
+            return false;
+        }
+
+        for(NamedType subtype : subtypes) {
+            Class<?> cls = subtype.getType();
+            String id = subtype.hasName() ? subtype.getName() : defaultTypeId(cls);
+
+            if(!id.equals(idOf(cls))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.gerald.jackson.jsontype;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.impl.AsExternalTypeDeserializer;
+
+/**
+ * {@code As.EXTERNAL_PROPERTY}的{@link TypeDeserializer}，供{@link ExternalTypeIdDeserializer}
+ * 在已经读到type id时直接反序列化属性值。
+ */
+public class TypeIdFirstExternalTypeDeserializer extends AsExternalTypeDeserializer {
+    private static final long serialVersionUID = -3935581244342573357L;
+
+    public TypeIdFirstExternalTypeDeserializer(AsExternalTypeDeserializer src, BeanProperty property) {
+        super(src, property);
+    }
+
+    @Override
+    public TypeDeserializer forProperty(BeanProperty prop) {
+        return (prop == _property) ? this : new TypeIdFirstExternalTypeDeserializer(this, prop);
+    }
+
+    /**
+     * @param p 指向属性值的第一个token
+     */
+    Object deserializeTypedValue(JsonParser p, DeserializationContext ctxt, String typeId) throws IOException {
+        JsonDeserializer<Object> deser = _findDeserializer(ctxt, typeId);
+        if(deser == null) {
+            ctxt.reportMappingException("Could not resolve type id '%s' into a subtype of %s", typeId, _baseType);
+        }
+
+        return deser.deserialize(p, ctxt);
+    }
+
+    /**
+     * 只有属性值、没有type id时使用{@code defaultImpl}
+     *
+     * @return 没有{@code defaultImpl}时返回null
+     */
+    JsonDeserializer<Object> findDefaultImplDeserializer(DeserializationContext ctxt) throws IOException {
+        return _findDefaultImplDeserializer(ctxt);
+    }
+
+    /**
+     * {@code visible = true}时jackson会把type id放回属性值中，这种情况不使用快速路径
+     */
+    boolean isTypeIdVisible() {
+        return _typeIdVisible;
+    }
+}
@@ -0,0 +1,60 @@
+package com.gerald.jackson.jsontype;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.gerald.jackson.accessor.AccessorPropertyWriter;
+
+/**
+ * 把{@code As.EXTERNAL_PROPERTY}的type id写在属性值之前的{@link BeanPropertyWriter}。
+ * <p>
+ * jackson的{@code AsExternalTypeSerializer}在属性值之后写出type id，读取时只能先缓存属性值。
+ * 这里先写出<code>"type" : "id"</code>，再不带类型信息地写出属性值，{@link ExternalTypeIdDeserializer}
+ * 读取时就不需要缓存。null值以及被{@code @JsonInclude}忽略的值与jackson一样不写出type id。
+ * </p>
+ */
+final class TypeIdFirstPropertyWriter extends AccessorPropertyWriter {
+    private static final long serialVersionUID = -4400861307327624431L;
+
+    TypeIdFirstPropertyWriter(BeanPropertyWriter base) {
+        super(base);
+    }
+
+    private TypeIdFirstPropertyWriter(TypeIdFirstPropertyWriter base, PropertyName name) {
+        super(base, name);
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(PropertyName newName) {
+        return new TypeIdFirstPropertyWriter(this, newName);
+    }
+
+    @Override
+    protected Object getValue(Object bean) throws Exception {
+        return get(bean);
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        Object value = get(bean);
+        if(value == null) {
+            serializeFieldValue(bean, null, gen, prov);
+            return;
+        }
+
+        JsonSerializer<Object> ser = serializerFor(value, prov);
+        if(isSuppressed(value, ser, prov)) {
+            return;
+        }
+
+        if((value == bean) && _handleSelfReference(bean, gen, prov, ser)) {
+            return;
+        }
+
+        gen.writeStringField(_typeSerializer.getPropertyName(), _typeSerializer.getTypeIdResolver().idFromValue(value));
+        gen.writeFieldName(_name);
+        ser.serialize(value, gen, prov);
+    }
+}
@@ -0,0 +1,78 @@
+package com.gerald.jackson.jsontype;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.impl.AsPropertyTypeDeserializer;
+import com.gerald.jackson.io.JsonScanner;
+import com.gerald.jackson.io.RawInput;
+
+/**
+ * {@code As.PROPERTY}的type id不是第一个属性时，jackson会把之前的属性复制到{@code TokenBuffer}，
+ * 找到type id之后再回放。
+ * <p>
+ * 这里在第一个属性不是type id时，用{@link JsonScanner}在原始输入中找到type id，然后直接把解析器
+ * 交给子类型的deserializer，type属性由子类型的deserializer忽略(见{@link PolymorphicModule})。
+ * 无法取得原始输入、type id包含转义字符或者不是字符串，或者启用了{@code FAIL_ON_IGNORED_PROPERTIES}时，
+ * 使用jackson原来的实现。
+ * </p>
+ */
+public class TypeIdFirstTypeDeserializer extends AsPropertyTypeDeserializer {
+    private static final long serialVersionUID = 2207346713566931590L;
+
+    public TypeIdFirstTypeDeserializer(AsPropertyTypeDeserializer src, BeanProperty property) {
+        super(src, property);
+    }
+
+    @Override
+    public TypeDeserializer forProperty(BeanProperty prop) {
+        return (prop == _property) ? this : new TypeIdFirstTypeDeserializer(this, prop);
+    }
+
+    @Override
+    public Object deserializeTypedFromObject(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if((p.getCurrentToken() != JsonToken.START_OBJECT) || p.canReadTypeId()
+                || ctxt.isEnabled(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)) {
+            return super.deserializeTypedFromObject(p, ctxt);
+        }
+
+        RawInput in = RawInput.of(p);
+        int start = (in == null) ? -1 : in.offsetOf(p.getTokenLocation());
+
+        // type id是第一个属性时jackson本身不需要缓存
+        if((p.nextToken() != JsonToken.FIELD_NAME) || (in == null)
+                || _typePropertyName.equals(p.getCurrentName())) {
+            return super.deserializeTypedFromObject(p, ctxt);
+        }
+
+        String typeId = JsonScanner.findStringMember(in, start, _typePropertyName);
+        if(typeId != null) {
+            JsonDeserializer<Object> deser = _findDeserializer(ctxt, typeId);
+            if(canSkipTypeProperty(deser)) {
+                return deser.deserialize(p, ctxt);
+            }
+        }
+
+        return super.deserializeTypedFromObject(p, ctxt);
+    }
+
+    /**
+     * 子类型的deserializer是否会像jackson一样处理对象中的type属性：{@code visible = true}时交给同名的属性，
+     * 否则由{@link PolymorphicModule}加入的ignorable忽略。自定义的deserializer，以及子类型本身有同名属性时
+     * 无法保证这一点。
+     */
+    private boolean canSkipTypeProperty(JsonDeserializer<Object> deser) {
+        if(!(deser instanceof BeanDeserializerBase)) {
+            return false;
+        }
+
+        return _typeIdVisible || (((BeanDeserializerBase)deser).findProperty(_typePropertyName) == null);
+    }
+}
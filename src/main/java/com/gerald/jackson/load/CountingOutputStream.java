@@ -0,0 +1,54 @@
+package com.gerald.jackson.load;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 统计写出字节数的{@link OutputStream}。不传入下游时，丢弃所有数据，只做计数。
+ */
+class CountingOutputStream extends FilterOutputStream {
+    private long count;
+    
+    CountingOutputStream() {
+        this(null);
+    }
+    
+    CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        if(out != null) {
+            out.write(b);
+        }
+        count++;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if(out != null) {
+            out.write(b, off, len);
+        }
+        count += len;
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        if(out != null) {
+            out.flush();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if(out != null) {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.gerald.jackson.load;
+
+/**
+ * 数据集在磁盘上的组织方式
+ */
+public enum DataFormat {
+    /**
+     * 一个JSON数组，记录之间用逗号分隔
+     */
+    ARRAY,
+    
+    /**
+     * 换行分隔的JSON(NDJSON)，每行一条记录
+     */
+    NDJSON
+}
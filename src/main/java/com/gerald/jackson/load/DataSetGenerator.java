@@ -0,0 +1,72 @@
+package com.gerald.jackson.load;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * 生成指定大小的合成数据集。
+ * <p>
+ * 每条记录先单独序列化，再按{@link DataFormat}拼接写入文件，因此可以精确控制文件大小：
+ * 当下一条记录会使文件超过目标大小时停止(至少写出一条记录)。
+ * </p>
+ */
+public class DataSetGenerator {
+    private final ObjectMapper mapper;
+    
+    private final long seed;
+    
+    public DataSetGenerator(ObjectMapper mapper, long seed) {
+        this.mapper = mapper;
+        this.seed = seed;
+    }
+    
+    /**
+     * @return 写出的记录数
+     */
+    public long generate(Path file, RecordType type, DataFormat format, long targetBytes) throws IOException {
+        ObjectWriter writer = mapper.writerFor(type.getValueType());
+        Random random = new Random(seed);
+        
+        try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+            // 数组格式需要为'['和']'预留两个字节，NDJSON为最后的换行预留一个字节
+            long written = (format == DataFormat.ARRAY) ? 2 : 1;
+            long count = 0;
+            
+            if(format == DataFormat.ARRAY) {
+                out.write('[');
+            }
+            
+            while(true) {
+                byte[] record = writer.writeValueAsBytes(type.create(count, random));
+                long next = written + record.length + ((count > 0) ? 1 : 0);
+                
+                if((count > 0) && (next > targetBytes)) {
+                    break;
+                }
+                
+                if(count > 0) {
+                    out.write((format == DataFormat.ARRAY) ? ',' : '\n');
+                }
+                out.write(record);
+                
+                written = next;
+                count++;
+            }
+            
+            if(format == DataFormat.ARRAY) {
+                out.write(']');
+            } else {
+                out.write('\n');
+            }
+            
+            return count;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.gerald.jackson.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 所有收集器的累计GC次数和耗时。{@link #since(GcStats)}计算两次采样之间的差值。
+ */
+public class GcStats {
+    private final long count;
+    
+    private final long millis;
+    
+    private GcStats(long count, long millis) {
+        this.count = count;
+        this.millis = millis;
+    }
+    
+    public static GcStats snapshot() {
+        long count = 0;
+        long millis = 0;
+        
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // 不支持统计的收集器返回-1
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        
+        return new GcStats(count, millis);
+    }
+    
+    public GcStats since(GcStats start) {
+        return new GcStats(count - start.count, millis - start.millis);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+    
+    @Override
+    public String toString() {
+        return "gc = " + count + " collections / " + millis + " ms";
+    }
+}
@@ -0,0 +1,126 @@
+package com.gerald.jackson.load;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+/**
+ * 多线程读写压测。
+ * <p>
+ * 读：每个线程独立地流式读取整个数据文件({@link MappingIterator}，数组和NDJSON都适用)；<br>
+ * 写：每个线程把一组预先生成的样本记录循环序列化{@code records}次，写到只计数的输出流。
+ * </p>
+ * <p>
+ * 统计的是所有线程的合计记录数和字节数，除以整轮的墙钟时间。
+ * </p>
+ */
+public class LoadRunner {
+    private static final int SAMPLE_SIZE = 10000;
+    
+    private final ObjectMapper mapper;
+    
+    private final int threads;
+    
+    public LoadRunner(ObjectMapper mapper, int threads) {
+        this.mapper = mapper;
+        this.threads = threads;
+    }
+    
+    public PassResult read(final Path file, RecordType type) throws IOException {
+        final ObjectReader reader = mapper.readerFor(type.getValueType());
+        final long size = Files.size(file);
+        
+        return run("read", () -> {
+            long count = 0;
+            
+            try(InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+                MappingIterator<Object> it = reader.readValues(in)) {
+                while(it.hasNextValue()) {
+                    it.nextValue();
+                    count++;
+                }
+            }
+            
+            return new long[] {count, size};
+        });
+    }
+    
+    public PassResult write(RecordType type, DataFormat format, final long records) throws IOException {
+        final List<Object> samples = new ArrayList<>();
+        Random random = new Random(0);
+        for(int i = 0; i < Math.min(records, SAMPLE_SIZE); i++) {
+            samples.add(type.create(i, random));
+        }
+        
+        ObjectWriter writer = mapper.writerFor(type.getValueType());
+        final ObjectWriter sequenceWriter = (format == DataFormat.NDJSON) ? writer.withRootValueSeparator("\n") : writer;
+        final boolean array = (format == DataFormat.ARRAY);
+        
+        return run("write", () -> {
+            CountingOutputStream out = new CountingOutputStream();
+            
+            try(SequenceWriter seq = array ? sequenceWriter.writeValuesAsArray(out) : sequenceWriter.writeValues(out)) {
+                for(long i = 0; i < records; i++) {
+                    seq.write(samples.get((int)(i % samples.size())));
+                }
+            }
+            
+            return new long[] {records, out.getCount()};
+        });
+    }
+    
+    /**
+     * 在{@code threads}个线程上同时执行{@code task}，task返回{记录数, 字节数}
+     */
+    private PassResult run(String name, Callable<long[]> task) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            GcStats gcStart = GcStats.snapshot();
+            long start = System.nanoTime();
+            
+            for(int i = 0; i < threads; i++) {
+                futures.add(executor.submit(task));
+            }
+            
+            long records = 0;
+            long bytes = 0;
+            for(Future<long[]> future : futures) {
+                long[] result = future.get();
+                records += result[0];
+                bytes += result[1];
+            }
+            
+            long nanos = System.nanoTime() - start;
+            
+            return new PassResult(name, records, bytes, nanos, GcStats.snapshot().since(gcStart));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException)e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
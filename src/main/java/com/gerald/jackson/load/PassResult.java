@@ -0,0 +1,55 @@
+package com.gerald.jackson.load;
+
+/**
+ * 一轮读或写的统计结果
+ */
+public class PassResult {
+    private final String name;
+    
+    private final long records;
+    
+    private final long bytes;
+    
+    private final long nanos;
+    
+    private final GcStats gc;
+    
+    public PassResult(String name, long records, long bytes, long nanos, GcStats gc) {
+        this.name = name;
+        this.records = records;
+        this.bytes = bytes;
+        this.nanos = nanos;
+        this.gc = gc;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+    
+    public GcStats getGc() {
+        return gc;
+    }
+    
+    public double recordsPerSecond() {
+        return records * 1e9 / nanos;
+    }
+    
+    public double megabytesPerSecond() {
+        return bytes * 1e9 / nanos / (1024 * 1024);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%-6s records = %d, bytes = %d, time = %.1f ms, %.0f records/s, %.2f MB/s, %s",
+                             name, records, bytes, nanos / 1e6,
+                             recordsPerSecond(), megabytesPerSecond(), gc);
+    }
+}
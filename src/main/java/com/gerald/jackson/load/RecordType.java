@@ -0,0 +1,70 @@
+package com.gerald.jackson.load;
+
+import java.util.Date;
+import java.util.Random;
+
+import com.gerald.jackson.model.DeliveryNotification;
+import com.gerald.jackson.model.Notification;
+import com.gerald.jackson.model.Order;
+import com.gerald.jackson.model.PayNotification;
+
+/**
+ * 可以生成的记录类型。{@link #create(long, Random)}根据序号和随机数生成一条记录，
+ * 相同的种子生成相同的数据集。
+ */
+public enum RecordType {
+    ORDER(Order.class) {
+        @Override
+        public Object create(long index, Random random) {
+            Order order = new Order(index);
+            order.setSum((long)random.nextInt(1000000));
+            order.setGoodsCount((long)(1 + random.nextInt(20)));
+            order.setAddress("address-" + random.nextInt(10000));
+            
+            return order;
+        }
+    },
+    
+    /**
+     * {@link DeliveryNotification}和{@link PayNotification}混合的通知流
+     */
+    NOTIFICATION(Notification.class) {
+        @Override
+        public Object create(long index, Random random) {
+            Notification notification;
+            
+            if(random.nextBoolean()) {
+                DeliveryNotification delivery = new DeliveryNotification();
+                delivery.setDeliveryNo(String.format("%08d", random.nextInt(100000000)));
+                notification = delivery;
+            } else {
+                PayNotification pay = new PayNotification();
+                pay.setPayCode("pay-" + random.nextInt(100000));
+                pay.setTotal(random.nextInt(100000));
+                notification = pay;
+            }
+            
+            notification.setId(index);
+            notification.setCreateTime(new Date(BASE_TIME + index * 1000L));
+            
+            return notification;
+        }
+    };
+    
+    private static final long BASE_TIME = 1500000000000L;
+    
+    private final Class<?> valueType;
+    
+    private RecordType(Class<?> valueType) {
+        this.valueType = valueType;
+    }
+    
+    /**
+     * 序列化和反序列化时使用的根类型。对于通知，使用基类，以便写出类型信息
+     */
+    public Class<?> getValueType() {
+        return valueType;
+    }
+    
+    public abstract Object create(long index, Random random);
+}
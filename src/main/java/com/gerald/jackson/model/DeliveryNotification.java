@@ -0,0 +1,23 @@
+package com.gerald.jackson.model;
+
+public class DeliveryNotification extends Notification {
+    private String deliveryNo;
+
+    public String getDeliveryNo() {
+        return deliveryNo;
+    }
+
+    public void setDeliveryNo(String deliveryNo) {
+        this.deliveryNo = deliveryNo;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        
+        builder.append("deliveryNo = ").append(deliveryNo).append("\n")
+               .append(super.toString());
+        
+        return builder.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.gerald.jackson.model;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonSubTypes.Type;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeInfo.As;
+import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
+
+/**
+ * 通知的基类，对应测试中的{@code TestPolymorphic.Notification}。
+ * <p>
+ * 与测试案例不同，这里在父类上使用{@link JsonSubTypes @JsonSubTypes}声明了子类的类型名称，
+ * 因此可以直接反序列化。
+ * </p>
+ */
+@JsonTypeInfo(use = Id.NAME, include = As.PROPERTY, property = "type")
+@JsonSubTypes({
+    @Type(value = DeliveryNotification.class, name = "delivery"),
+    @Type(value = PayNotification.class, name = "pay")
+})
+public class Notification {
+    private Long id;
+    
+    private Date createTime;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        
+        builder.append("id = ").append(id).append("\n")
+               .append("createTime = ").append(createTime);
+        
+        return builder.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.gerald.jackson.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gerald.jackson.intern.JsonIntern;
+
+/**
+ * 订单。字段与测试中的{@code TestJsonIgnore.Order}一致，去掉了只用于演示
+ * {@code @JsonIgnore}的部分，用作压测和读写工具的数据模型。
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Order {
+    private Long id;
+    
+    private Long sum;
+    
+    private Long goodsCount;
+    
+    /**
+     * 取值有限，注册了{@code InternModule}时复用相同的字符串
+     */
+    @JsonIntern
+    private String address;
+    
+    public Order() {
+        
+    }
+    
+    public Order(Long id) {
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSum() {
+        return sum;
+    }
+
+    public void setSum(Long sum) {
+        this.sum = sum;
+    }
+
+    public Long getGoodsCount() {
+        return goodsCount;
+    }
+
+    public void setGoodsCount(Long goodsCount) {
+        this.goodsCount = goodsCount;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        
+        builder.append("id = ").append(id).append("\n")
+               .append("sum = ").append(sum).append("\n")
+               .append("goodsCount = ").append(goodsCount).append("\n")
+               .append("address = ").append(address);
+        
+        return builder.toString();
+    }
+}
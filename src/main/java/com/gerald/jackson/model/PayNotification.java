@@ -0,0 +1,34 @@
+package com.gerald.jackson.model;
+
+public class PayNotification extends Notification {
+    private String payCode;
+    
+    private Integer total;
+
+    public String getPayCode() {
+        return payCode;
+    }
+
+    public void setPayCode(String payCode) {
+        this.payCode = payCode;
+    }
+
+    public Integer getTotal() {
+        return total;
+    }
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        
+        builder.append("payCode = ").append(payCode).append("\n")
+               .append("total = ").append(total).append("\n")
+               .append(super.toString());
+        
+        return builder.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.gerald.jackson.page;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+
+/**
+ * 与{@code TestJsonFormat.Page}格式相同的分页结果：
+ * <pre>
+ * <code>
+ * {"pageNum" : 1, "pageSize" : 10, "items" : [...]}
+ * </code>
+ * </pre>
+ * 但是不保存元素，序列化时由{@link StreamingPageSerializer}从{@code Iterator}、{@code Spliterator}或者
+ * {@code Stream}中逐个取出元素写出，因此只能写出一次。写出之后(包括失败时)会关闭{@code Stream}。
+ * <p>
+ * 反序列化时，如果{@code ObjectReader}设置了{@link #ITEM_CALLBACK}属性，每个元素读出后立即交给这个
+ * {@code Consumer}，不在内存中保留；否则元素保存在一个{@code List}中。两种方式都可以通过
+ * {@link #getCount()}得到元素个数。
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new StreamingPageModule());
+ * mapper.writeValue(out, StreamingPage.of(1, 1000, orders.stream()));
+ *
+ * mapper.readerFor(new TypeReference&lt;StreamingPage&lt;Order&gt;&gt;() {})
+ *       .withAttribute(StreamingPage.ITEM_CALLBACK, (Consumer&lt;Order&gt;)this::save)
+ *       .readValue(in);
+ * </code>
+ * </pre>
+ * </p>
+ */
+public final class StreamingPage<T> implements AutoCloseable {
+    /**
+     * {@code DeserializationContext}中的属性名，值是一个{@code Consumer}，接收所有{@code StreamingPage}中的元素
+     */
+    public static final String ITEM_CALLBACK = StreamingPage.class.getName() + ".ITEM_CALLBACK";
+
+    private final int pageNum;
+
+    private final int pageSize;
+
+    private final Iterator<? extends T> items;
+
+    private final Stream<? extends T> stream;
+
+    private final long count;
+
+    private StreamingPage(int pageNum, int pageSize, Iterator<? extends T> items, Stream<? extends T> stream,
+                          long count) {
+        this.pageNum = pageNum;
+        this.pageSize = pageSize;
+        this.items = items;
+        this.stream = stream;
+        this.count = count;
+    }
+
+    public static <T> StreamingPage<T> of(int pageNum, int pageSize, Iterator<? extends T> items) {
+        return new StreamingPage<>(pageNum, pageSize, items, null, -1);
+    }
+
+    public static <T> StreamingPage<T> of(int pageNum, int pageSize, Spliterator<? extends T> items) {
+        return new StreamingPage<>(pageNum, pageSize, Spliterators.iterator(items), null, -1);
+    }
+
+    /**
+     * @param items 写出之后关闭
+     */
+    public static <T> StreamingPage<T> of(int pageNum, int pageSize, Stream<? extends T> items) {
+        return new StreamingPage<>(pageNum, pageSize, items.iterator(), items, -1);
+    }
+
+    /**
+     * 反序列化的结果
+     *
+     * @param items 交给{@link #ITEM_CALLBACK}处理时为空
+     */
+    static <T> StreamingPage<T> read(int pageNum, int pageSize, List<T> items, long count) {
+        return new StreamingPage<>(pageNum, pageSize, items.iterator(), null, count);
+    }
+
+    static <T> StreamingPage<T> read(int pageNum, int pageSize, long count) {
+        return read(pageNum, pageSize, Collections.<T>emptyList(), count);
+    }
+
+    public int getPageNum() {
+        return pageNum;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * 剩余的元素，只能遍历一次
+     */
+    @SuppressWarnings("unchecked")
+    public Iterator<T> items() {
+        return (Iterator<T>)items;
+    }
+
+    /**
+     * @return 反序列化时读到的元素个数，其他情况下返回-1
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 关闭{@code Stream}
+     */
+    @Override
+    public void close() {
+        if(stream != null) {
+            stream.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "pageSize = " + pageSize + ", pageNum = " + pageNum + ", count = " + count;
+    }
+}
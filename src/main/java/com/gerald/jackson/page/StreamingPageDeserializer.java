@@ -0,0 +1,131 @@
+package com.gerald.jackson.page;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+
+/**
+ * 读取{@link StreamingPage}。{@code items}中的每个元素读出后交给{@link StreamingPage#ITEM_CALLBACK}，
+ * 没有设置这个属性时保存在{@code List}中。{@code Consumer}抛出的异常不做包装直接抛出。
+ */
+public class StreamingPageDeserializer extends StdDeserializer<StreamingPage<?>> implements ContextualDeserializer {
+    private static final long serialVersionUID = -1850296415420311542L;
+
+    private final JavaType itemType;
+
+    private final JsonDeserializer<Object> itemDeserializer;
+
+    private final TypeDeserializer typeDeserializer;
+
+    public StreamingPageDeserializer(JavaType itemType) {
+        this(itemType, null, null);
+    }
+
+    private StreamingPageDeserializer(JavaType itemType, JsonDeserializer<Object> itemDeserializer,
+                                      TypeDeserializer typeDeserializer) {
+        super(StreamingPage.class);
+        this.itemType = itemType;
+        this.itemDeserializer = itemDeserializer;
+        this.typeDeserializer = typeDeserializer;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
+            throws JsonMappingException {
+        TypeDeserializer typeDeser = ctxt.getConfig().findTypeDeserializer(itemType);
+        if(typeDeser != null) {
+            typeDeser = typeDeser.forProperty(property);
+        }
+
+        return new StreamingPageDeserializer(itemType, ctxt.findContextualValueDeserializer(itemType, property),
+                                             typeDeser);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public StreamingPage<?> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken t = p.getCurrentToken();
+        if(t == JsonToken.START_OBJECT) {
+            t = p.nextToken();
+        } else if(t != JsonToken.FIELD_NAME) {
+            return (StreamingPage<?>)ctxt.handleUnexpectedToken(handledType(), p);
+        }
+
+        Consumer<Object> callback = (Consumer<Object>)ctxt.getAttribute(StreamingPage.ITEM_CALLBACK);
+        List<Object> items = (callback == null) ? new ArrayList<>() : null;
+        int pageNum = 0;
+        int pageSize = 0;
+        long count = 0;
+
+        for(; t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+            String name = p.getCurrentName();
+            t = p.nextToken();
+
+            if(StreamingPageSerializer.PAGE_NUM.equals(name)) {
+                pageNum = _parseIntPrimitive(p, ctxt);
+            } else if(StreamingPageSerializer.PAGE_SIZE.equals(name)) {
+                pageSize = _parseIntPrimitive(p, ctxt);
+            } else if(StreamingPageSerializer.ITEMS.equals(name)) {
+                if(t == JsonToken.VALUE_NULL) {
+                    continue;
+                } else if(t != JsonToken.START_ARRAY) {
+                    return (StreamingPage<?>)ctxt.handleUnexpectedToken(handledType(), p);
+                }
+
+                while(p.nextToken() != JsonToken.END_ARRAY) {
+                    Object item = deserializeItem(p, ctxt, count);
+                    count++;
+
+                    if(callback == null) {
+                        items.add(item);
+                    } else {
+                        callback.accept(item);
+                    }
+                }
+            } else {
+                handleUnknownProperty(p, ctxt, handledType(), name);
+            }
+        }
+
+        return (callback == null) ? StreamingPage.read(pageNum, pageSize, items, count)
+                                  : StreamingPage.read(pageNum, pageSize, count);
+    }
+
+    /**
+     * @param p 指向元素的第一个token
+     */
+    private Object deserializeItem(JsonParser p, DeserializationContext ctxt, long index) throws IOException {
+        try {
+            if(p.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return itemDeserializer.getNullValue(ctxt);
+            } else if(typeDeserializer == null) {
+                return itemDeserializer.deserialize(p, ctxt);
+            } else {
+                return itemDeserializer.deserializeWithType(p, ctxt, typeDeserializer);
+            }
+        } catch (Exception e) {
+            JsonMappingException wrapped = JsonMappingException.wrapWithPath(e, List.class,
+                                                                              (int)Math.min(index, Integer.MAX_VALUE));
+            wrapped.prependPath(handledType(), StreamingPageSerializer.ITEMS);
+            throw wrapped;
+        }
+    }
+
+    @Override
+    public Object deserializeWithType(JsonParser p, DeserializationContext ctxt, TypeDeserializer typeDeserializer)
+            throws IOException {
+        return typeDeserializer.deserializeTypedFromObject(p, ctxt);
+    }
+}
@@ -0,0 +1,79 @@
+package com.gerald.jackson.page;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
+
+/**
+ * 注册{@link StreamingPage}的serializer和deserializer。元素类型来自{@code StreamingPage<T>}的声明类型，
+ * 所以根对象需要通过{@code writerFor}/{@code readerFor}指定完整的类型，否则按照{@code Object}处理。
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new StreamingPageModule());
+ * </code>
+ * </pre>
+ */
+public class StreamingPageModule extends SimpleModule {
+    private static final long serialVersionUID = -5368113960377592281L;
+
+    static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
+    private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    public StreamingPageModule() {
+        super(StreamingPageModule.class.getSimpleName());
+    }
+
+    /**
+     * 写出时每{@code flushInterval}个元素flush一次，默认{@value #DEFAULT_FLUSH_INTERVAL}，小于等于0时不主动flush
+     *
+     * @return this
+     */
+    public StreamingPageModule withFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+
+        context.addSerializers(new PageSerializers(flushInterval));
+        context.addDeserializers(new PageDeserializers());
+    }
+
+    private static class PageSerializers extends Serializers.Base {
+        private final int flushInterval;
+
+        PageSerializers(int flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        @Override
+        public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+            if(type.getRawClass() != StreamingPage.class) {
+                return null;
+            }
+
+            return new StreamingPageSerializer(type.containedTypeOrUnknown(0), flushInterval);
+        }
+    }
+
+    private static class PageDeserializers extends Deserializers.Base {
+        @Override
+        public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config,
+                                                        BeanDescription beanDesc) {
+            if(type.getRawClass() != StreamingPage.class) {
+                return null;
+            }
+
+            return new StreamingPageDeserializer(type.containedTypeOrUnknown(0));
+        }
+    }
+}
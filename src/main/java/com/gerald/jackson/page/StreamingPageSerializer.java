@@ -0,0 +1,136 @@
+package com.gerald.jackson.page;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * 写出{@link StreamingPage}：先写出{@code pageNum}、{@code pageSize}，再边取元素边写出{@code items}。
+ * <p>
+ * 元素的声明类型是final类型(或者打开了{@code USE_STATIC_TYPING})时预先确定serializer，否则按照每个元素的
+ * 实际类型查找并缓存。每写出{@code flushInterval}个元素调用一次{@code JsonGenerator#flush()}，
+ * 把已经生成的内容交给下层的输出流，不在generator或者{@code ByteArrayOutputStream}中累积整页的内容。
+ * </p>
+ */
+public class StreamingPageSerializer extends StdSerializer<StreamingPage<?>> implements ContextualSerializer {
+    private static final long serialVersionUID = 3170947283342617262L;
+
+    static final String PAGE_NUM = "pageNum";
+
+    static final String PAGE_SIZE = "pageSize";
+
+    static final String ITEMS = "items";
+
+    private final JavaType itemType;
+
+    private final int flushInterval;
+
+    private final BeanProperty property;
+
+    private final TypeSerializer typeSerializer;
+
+    /**
+     * null表示按照元素的实际类型查找
+     */
+    private final JsonSerializer<Object> itemSerializer;
+
+    private PropertySerializerMap dynamicSerializers = PropertySerializerMap.emptyForProperties();
+
+    /**
+     * @param flushInterval 小于等于0时不主动flush
+     */
+    public StreamingPageSerializer(JavaType itemType, int flushInterval) {
+        this(itemType, flushInterval, null, null, null);
+    }
+
+    private StreamingPageSerializer(JavaType itemType, int flushInterval, BeanProperty property,
+                                    TypeSerializer typeSerializer, JsonSerializer<Object> itemSerializer) {
+        super(StreamingPage.class, false);
+        this.itemType = itemType;
+        this.flushInterval = flushInterval;
+        this.property = property;
+        this.typeSerializer = typeSerializer;
+        this.itemSerializer = itemSerializer;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        TypeSerializer typeSer = provider.findTypeSerializer(itemType);
+        if(typeSer != null) {
+            typeSer = typeSer.forProperty(property);
+        }
+
+        JsonSerializer<Object> ser = null;
+        if(!itemType.isJavaLangObject()
+                && (itemType.isFinal() || provider.isEnabled(MapperFeature.USE_STATIC_TYPING))) {
+            ser = provider.findValueSerializer(itemType, property);
+        }
+
+        return new StreamingPageSerializer(itemType, flushInterval, property, typeSer, ser);
+    }
+
+    @Override
+    public void serialize(StreamingPage<?> value, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject();
+        gen.setCurrentValue(value);
+        gen.writeNumberField(PAGE_NUM, value.getPageNum());
+        gen.writeNumberField(PAGE_SIZE, value.getPageSize());
+        gen.writeArrayFieldStart(ITEMS);
+
+        int index = 0;
+        try {
+            for(Iterator<?> it = value.items(); it.hasNext(); index++) {
+                serializeItem(it.next(), gen, provider);
+
+                if((flushInterval > 0) && (((index + 1) % flushInterval) == 0)) {
+                    gen.flush();
+                }
+            }
+        } catch (Exception e) {
+            wrapAndThrow(provider, e, value, index);
+        } finally {
+            value.close();
+        }
+
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void serializeItem(Object item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if(item == null) {
+            provider.defaultSerializeNull(gen);
+            return;
+        }
+
+        JsonSerializer<Object> ser = itemSerializer;
+        if(ser == null) {
+            Class<?> type = item.getClass();
+            ser = dynamicSerializers.serializerFor(type);
+            if(ser == null) {
+                PropertySerializerMap.SerializerAndMapResult result =
+                        dynamicSerializers.findAndAddSecondarySerializer(type, provider, property);
+                dynamicSerializers = result.map;
+                ser = result.serializer;
+            }
+        }
+
+        if(typeSerializer == null) {
+            ser.serialize(item, gen, provider);
+        } else {
+            ser.serializeWithType(item, gen, provider, typeSerializer);
+        }
+    }
+}
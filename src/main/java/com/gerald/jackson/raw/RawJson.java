@@ -0,0 +1,82 @@
+package com.gerald.jackson.raw;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.gerald.jackson.io.RawInput;
+
+/**
+ * 一段原样保存的JSON值，例如网关透传的第三方响应。
+ * <p>
+ * 从内存中的{@code byte[]}/{@code String}反序列化时，{@link RawJsonDeserializer}只记录值在输入中的范围，
+ * 不解码其中的字符串和数字，也不创建任何对象；{@link #toString()}在第一次调用时才解码。序列化时把记录的
+ * 字节或者字符直接交给generator。因此一个{@code RawJson}会让整个输入一直可达，不适合长期保存。
+ * </p>
+ */
+public final class RawJson {
+    private final RawInput source;
+
+    private final int start;
+
+    private final int end;
+
+    private String text;
+
+    private RawJson(RawInput source, int start, int end, String text) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.text = text;
+    }
+
+    /**
+     * @param json 合法的JSON值，不做检查
+     */
+    public static RawJson of(String json) {
+        return new RawJson(RawInput.of(json), 0, json.length(), json);
+    }
+
+    static RawJson capture(RawInput source, int start, int end) {
+        return new RawJson(source, start, end, null);
+    }
+
+    /**
+     * 原始输入中的长度：字节输入时是UTF-8字节数，否则是字符数
+     */
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * 把值原样写出
+     */
+    public void writeTo(JsonGenerator gen) throws IOException {
+        source.writeRawValue(gen, start, end);
+    }
+
+    @Override
+    public String toString() {
+        String text = this.text;
+
+        if(text == null) {
+            text = source.substring(start, end);
+            this.text = text;
+        }
+
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if(this == obj) {
+            return true;
+        }
+
+        return (obj instanceof RawJson) && toString().equals(obj.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+}
@@ -0,0 +1,91 @@
+package com.gerald.jackson.raw;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.gerald.jackson.io.JsonScanner;
+import com.gerald.jackson.io.RawInput;
+
+/**
+ * 记录解析器当前值在原始输入中的范围。
+ * <p>
+ * 对象和数组由解析器{@code skipChildren()}跳过，结束位置取自结束token的位置；其中的字符串不会被解码。
+ * 标量的结束位置由{@link JsonScanner}确定。无法取得原始输入时(例如从{@code InputStream}读取)，
+ * 把当前值复制为紧凑格式的JSON文本。
+ * </p>
+ */
+final class RawJsonCapture {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private RawJsonCapture() {
+
+    }
+
+    static RawJson capture(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken t = p.getCurrentToken();
+        RawInput in = RawInput.of(p);
+        int start = (in == null) ? -1 : in.offsetOf(p.getTokenLocation());
+
+        if((start < 0) || (start >= in.length()) || !startsWith(in.at(start), t)) {
+            return RawJson.of(copy(p));
+        }
+
+        int end;
+        if((t == JsonToken.START_OBJECT) || (t == JsonToken.START_ARRAY)) {
+            int close = (t == JsonToken.START_OBJECT) ? '}' : ']';
+
+            p.skipChildren();
+            end = in.offsetOf(p.getTokenLocation()) + 1;
+            if((end <= start) || (end > in.length()) || (in.at(end - 1) != close)) {
+                ctxt.reportMappingException("Could not locate the end of raw JSON value starting at %d", start);
+            }
+        } else {
+            end = JsonScanner.skipValue(in, start);
+            if(end < 0) {
+                return RawJson.of(copy(p));
+            }
+        }
+
+        return RawJson.capture(in, start, end);
+    }
+
+    /**
+     * 原始输入中当前位置的字符是否与token一致，用于确认位置是正确的
+     */
+    private static boolean startsWith(int c, JsonToken t) {
+        switch(t) {
+        case START_OBJECT:
+            return c == '{';
+        case START_ARRAY:
+            return c == '[';
+        case VALUE_STRING:
+            return c == '"';
+        case VALUE_TRUE:
+            return c == 't';
+        case VALUE_FALSE:
+            return c == 'f';
+        case VALUE_NULL:
+            return c == 'n';
+        case VALUE_NUMBER_INT:
+        case VALUE_NUMBER_FLOAT:
+            return (c == '-') || ((c >= '0') && (c <= '9'));
+        default:
+            return false;
+        }
+    }
+
+    private static String copy(JsonParser p) throws IOException {
+        StringWriter writer = new StringWriter();
+
+        try(JsonGenerator gen = FACTORY.createGenerator(writer)) {
+            gen.copyCurrentStructure(p);
+        }
+
+        return writer.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.gerald.jackson.raw;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * 把任意JSON值读取为{@link RawJson}，见{@link RawJsonCapture}
+ */
+public class RawJsonDeserializer extends StdDeserializer<RawJson> {
+    private static final long serialVersionUID = -1540384049404870512L;
+
+    public RawJsonDeserializer() {
+        super(RawJson.class);
+    }
+
+    @Override
+    public RawJson deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return RawJsonCapture.capture(p, ctxt);
+    }
+}
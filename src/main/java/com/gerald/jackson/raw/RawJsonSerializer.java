@@ -0,0 +1,23 @@
+package com.gerald.jackson.raw;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * 原样写出{@link RawJson}
+ */
+public class RawJsonSerializer extends StdSerializer<RawJson> {
+    private static final long serialVersionUID = -3064305781233905512L;
+
+    public RawJsonSerializer() {
+        super(RawJson.class);
+    }
+
+    @Override
+    public void serialize(RawJson value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        value.writeTo(gen);
+    }
+}
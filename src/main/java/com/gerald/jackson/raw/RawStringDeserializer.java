@@ -0,0 +1,25 @@
+package com.gerald.jackson.raw;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * {@link JsonRawValue @JsonRawValue}的{@code String}属性的deserializer：与序列化对称，
+ * 把属性的JSON值原样读取为字符串，字符串值也保留引号和转义
+ */
+public class RawStringDeserializer extends StdDeserializer<String> {
+    private static final long serialVersionUID = 6079151542457212387L;
+
+    public RawStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return RawJsonCapture.capture(p, ctxt).toString();
+    }
+}
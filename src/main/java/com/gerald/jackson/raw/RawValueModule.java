@@ -0,0 +1,68 @@
+package com.gerald.jackson.raw;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * 原样读写JSON值：
+ * <ul>
+ * <li>{@link RawJson}类型的属性只记录值在输入中的范围，写出时直接复制</li>
+ * <li>
+ *  {@link JsonRawValue @JsonRawValue}的{@code String}属性(例如{@code TestRawValue.GeoResp#response})
+ *  在反序列化时也读取值的原始文本，而不是要求一个JSON字符串
+ * </li>
+ * </ul>
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new RawValueModule());
+ * </code>
+ * </pre>
+ */
+public class RawValueModule extends SimpleModule {
+    private static final long serialVersionUID = -7206350420932170861L;
+
+    public RawValueModule() {
+        super(RawValueModule.class.getSimpleName());
+
+        addSerializer(RawJson.class, new RawJsonSerializer());
+        addDeserializer(RawJson.class, new RawJsonDeserializer());
+        setDeserializerModifier(new DeserializerModifier());
+    }
+
+    private static class DeserializerModifier extends BeanDeserializerModifier {
+        private final RawStringDeserializer rawStringDeserializer = new RawStringDeserializer();
+
+        @Override
+        public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                     BeanDeserializerBuilder builder) {
+            for(BeanPropertyDefinition def : beanDesc.findProperties()) {
+                if(!isRawValue(def.getGetter()) && !isRawValue(def.getField()) && !isRawValue(def.getSetter())) {
+                    continue;
+                }
+
+                SettableBeanProperty prop = builder.findProperty(def.getFullName());
+                if((prop != null) && !prop.hasValueDeserializer() && (prop.getType().getRawClass() == String.class)) {
+                    builder.addOrReplaceProperty(prop.withValueDeserializer(rawStringDeserializer), true);
+                }
+            }
+
+            return builder;
+        }
+
+        private static boolean isRawValue(Annotated annotated) {
+            if(annotated == null) {
+                return false;
+            }
+
+            JsonRawValue rawValue = annotated.getAnnotation(JsonRawValue.class);
+            return (rawValue != null) && rawValue.value();
+        }
+    }
+}
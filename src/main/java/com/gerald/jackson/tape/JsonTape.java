@@ -0,0 +1,386 @@
+package com.gerald.jackson.tape;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.json.ByteSourceJsonBootstrapper;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.json.WriterBasedJsonGenerator;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.gerald.jackson.io.JsonScanner;
+import com.gerald.jackson.io.RawInput;
+
+/**
+ * 以"磁带"形式保存的无类型JSON文档，用来代替{@code mapper.readValue(str, Object.class)}生成的
+ * {@code LinkedHashMap}/{@code ArrayList}。
+ * <p>
+ * 文档保存为原始的UTF-8字节和一个{@code long[]}，每个token占一个{@code long}：高8位是
+ * {@link JsonToken#ordinal()}，低56位对于标量和属性名是token在字节中的开始位置，对于对象和数组的开始
+ * 是配对的结束token的下标(低32位)和成员个数(高24位)，因此跳过一个对象或者数组是O(1)的。
+ * 除此之外不创建任何对象，内存占用大约是原始JSON长度加上每个token 8个字节。
+ * </p>
+ * <p>
+ * 通过{@link #root()}返回的{@link TapeValue}导航，只有真正读取的字符串和数字才被解码。写出到JSON文本时
+ * 标量保持原来的写法(例如{@code 1.5e3}、{@code \u4e2d})，不会损失数字的精度。
+ * {@code JsonTape}可以直接作为{@code readValue}的目标类型或者bean的属性类型，也可以被序列化：
+ * </p>
+ * <pre>
+ * <code>
+ * JsonTape tape = mapper.readValue(str, JsonTape.class);
+ * String name = tape.root().get("name").textValue();
+ * </code>
+ * </pre>
+ * <p>
+ * 不可变，可以在线程之间共享。
+ * </p>
+ */
+@JsonDeserialize(using = JsonTapeDeserializer.class)
+public final class JsonTape implements JsonSerializable {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final JsonToken[] TOKENS = JsonToken.values();
+
+    private static final int TAG_SHIFT = 56;
+
+    private static final long PAYLOAD_MASK = (1L << TAG_SHIFT) - 1;
+
+    private static final int COUNT_SHIFT = 32;
+
+    /**
+     * 成员个数超过这个值时需要逐个计数
+     */
+    static final int MAX_COUNT = (1 << (TAG_SHIFT - COUNT_SHIFT)) - 1;
+
+    private final byte[] json;
+
+    private final long[] tape;
+
+    private final RawInput raw;
+
+    private JsonTape(byte[] json, long[] tape) {
+        this.json = json;
+        this.tape = tape;
+        this.raw = RawInput.of(json);
+    }
+
+    /**
+     * 解析{@code json}中的第一个值，{@code json}不会被复制，之后不能再修改。
+     * 与jackson一样自动识别编码，UTF-16和UTF-32的输入先转换为UTF-8
+     */
+    public static JsonTape parse(byte[] json) throws IOException {
+        byte[] utf8 = toUTF8(json);
+
+        try(JsonParser p = FACTORY.createParser(utf8)) {
+            return new JsonTape(utf8, build(p));
+        }
+    }
+
+    public static JsonTape parse(String json) throws IOException {
+        return parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 磁带中保存的是字节位置，只有UTF-8的输入才能取得
+     */
+    private static byte[] toUTF8(byte[] json) throws IOException {
+        IOContext ctxt = new IOContext(new BufferRecycler(), json, false);
+        ByteSourceJsonBootstrapper bootstrapper = new ByteSourceJsonBootstrapper(ctxt, json, 0, json.length);
+        if(bootstrapper.detectEncoding() == JsonEncoding.UTF8) {
+            return json;
+        }
+
+        StringBuilder str = new StringBuilder(json.length / 2);
+        try(Reader reader = bootstrapper.constructReader()) {
+            char[] buf = new char[4000];
+            for(int n; (n = reader.read(buf)) >= 0; ) {
+                str.append(buf, 0, n);
+            }
+        }
+
+        return str.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long[] build(JsonParser p) throws IOException {
+        long[] tape = new long[64];
+        int size = 0;
+        // 尚未结束的对象和数组在磁带中的下标、成员个数，以及是否是数组
+        int[] starts = new int[16];
+        int[] counts = new int[16];
+        boolean[] arrays = new boolean[16];
+        int depth = 0;
+
+        JsonToken t = p.nextToken();
+        if(t == null) {
+            throw new JsonParseException(p, "No content to build tape from");
+        }
+
+        do {
+            if(size == tape.length) {
+                tape = Arrays.copyOf(tape, size * 2);
+            }
+
+            // 数组的元素，或者对象的属性名
+            if((depth > 0) && ((t == JsonToken.FIELD_NAME) || (arrays[depth - 1] && !t.isStructEnd()))) {
+                counts[depth - 1]++;
+            }
+
+            switch(t) {
+            case START_OBJECT:
+            case START_ARRAY:
+                if(depth == starts.length) {
+                    starts = Arrays.copyOf(starts, depth * 2);
+                    counts = Arrays.copyOf(counts, depth * 2);
+                    arrays = Arrays.copyOf(arrays, depth * 2);
+                }
+                starts[depth] = size;
+                counts[depth] = 0;
+                arrays[depth] = (t == JsonToken.START_ARRAY);
+                depth++;
+                tape[size] = entry(t, 0);
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                depth--;
+                int start = starts[depth];
+                long count = Math.min(counts[depth], MAX_COUNT);
+                tape[start] |= (count << COUNT_SHIFT) | size;
+                tape[size] = entry(t, start);
+                break;
+            default:
+                long offset = p.getTokenLocation().getByteOffset();
+                if(offset < 0) {
+                    // 不是基于字节的解析器，-1会破坏高位的token类型
+                    throw new JsonParseException(p, "No byte offset available to build tape from");
+                }
+                tape[size] = entry(t, offset);
+                break;
+            }
+            size++;
+        } while((depth > 0) && ((t = p.nextToken()) != null));
+
+        if(depth > 0) {
+            throw new JsonParseException(p, "Unexpected end-of-input: expected close marker for "
+                                            + p.getParsingContext().typeDesc());
+        }
+
+        return Arrays.copyOf(tape, size);
+    }
+
+    private static long entry(JsonToken t, long payload) {
+        return ((long)t.ordinal() << TAG_SHIFT) | payload;
+    }
+
+    public TapeValue root() {
+        return new TapeValue(this, 0);
+    }
+
+    /**
+     * 原始JSON的字节数
+     */
+    public int getJsonLength() {
+        return json.length;
+    }
+
+    /**
+     * 磁带中token的个数
+     */
+    public int getTapeLength() {
+        return tape.length;
+    }
+
+    JsonToken token(int index) {
+        return TOKENS[(int)(tape[index] >>> TAG_SHIFT)];
+    }
+
+    int offset(int index) {
+        return (int)(tape[index] & PAYLOAD_MASK);
+    }
+
+    /**
+     * @param index 对象或者数组的开始
+     * @return 配对的结束token的下标
+     */
+    int end(int index) {
+        return (int)tape[index];
+    }
+
+    /**
+     * @return 成员个数，超过{@link #MAX_COUNT}时为{@link #MAX_COUNT}
+     */
+    int count(int index) {
+        return (int)((tape[index] & PAYLOAD_MASK) >>> COUNT_SHIFT);
+    }
+
+    /**
+     * @return 下一个兄弟值的下标
+     */
+    int next(int index) {
+        JsonToken t = token(index);
+
+        return ((t == JsonToken.START_OBJECT) || (t == JsonToken.START_ARRAY)) ? end(index) + 1 : index + 1;
+    }
+
+    /**
+     * 标量在原始字节中的结束位置
+     */
+    int scalarEnd(int index) {
+        return JsonScanner.skipValue(raw, offset(index));
+    }
+
+    /**
+     * 字符串或者属性名解码后的值
+     */
+    String text(int index) {
+        int start = offset(index);
+        int end = scalarEnd(index);
+
+        for(int i = start + 1; i < end - 1; i++) {
+            if(json[i] == '\\') {
+                // 构造磁带时已经检查过语法，这里不会失败
+                try(JsonParser p = FACTORY.createParser(json, start, end - start)) {
+                    p.nextToken();
+                    return p.getText();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        return new String(json, start + 1, end - start - 2, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 未转义的属性名是否等于{@code name}，不创建字符串
+     */
+    boolean nameEquals(int index, String name, byte[] utf8) {
+        int start = offset(index) + 1;
+        int end = scalarEnd(index) - 1;
+
+        for(int i = start; i < end; i++) {
+            if(json[i] == '\\') {
+                return name.equals(text(index));
+            }
+        }
+
+        if((end - start) != utf8.length) {
+            return false;
+        }
+        for(int i = 0; i < utf8.length; i++) {
+            if(json[start + i] != utf8[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 与{@code readValue(str, Object.class)}相同：按大小返回{@code Integer}、{@code Long}或者{@code BigInteger}
+     */
+    Number intValue(int index) {
+        String text = rawText(index);
+
+        if(text.length() <= 18) {
+            long value = Long.parseLong(text);
+            if(value == (int)value) {
+                return Integer.valueOf((int)value);
+            }
+            return Long.valueOf(value);
+        }
+
+        BigInteger value = new BigInteger(text);
+        return (value.bitLength() < 64) ? Long.valueOf(value.longValue()) : value;
+    }
+
+    Double floatValue(int index) {
+        return Double.valueOf(rawText(index));
+    }
+
+    /**
+     * 标量在原始字节中的文本
+     */
+    String rawText(int index) {
+        int start = offset(index);
+
+        return new String(json, start, scalarEnd(index) - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 把标量原样写出；generator不输出JSON文本，或者需要转换数字、转义字符(包括{@code ESCAPE_NON_ASCII}
+     * 和{@code CharacterEscapes})时按类型写出
+     */
+    void writeScalar(JsonGenerator gen, int index) throws IOException {
+        Class<?> genClass = gen.getClass();
+
+        if(((genClass == UTF8JsonGenerator.class) || (genClass == WriterBasedJsonGenerator.class))
+                && !gen.isEnabled(JsonGenerator.Feature.WRITE_NUMBERS_AS_STRINGS)
+                && (gen.getHighestEscapedChar() == 0) && (gen.getCharacterEscapes() == null)) {
+            raw.writeRawValue(gen, offset(index), scalarEnd(index));
+        } else {
+            writeTyped(gen, index);
+        }
+    }
+
+    private void writeTyped(JsonGenerator gen, int index) throws IOException {
+        switch(token(index)) {
+        case VALUE_STRING:
+            gen.writeString(text(index));
+            break;
+        case VALUE_NUMBER_INT:
+            Number number = intValue(index);
+            if(number instanceof Integer) {
+                gen.writeNumber(number.intValue());
+            } else if(number instanceof Long) {
+                gen.writeNumber(number.longValue());
+            } else {
+                gen.writeNumber((BigInteger)number);
+            }
+            break;
+        case VALUE_NUMBER_FLOAT:
+            gen.writeNumber(floatValue(index));
+            break;
+        case VALUE_TRUE:
+            gen.writeBoolean(true);
+            break;
+        case VALUE_FALSE:
+            gen.writeBoolean(false);
+            break;
+        default:
+            gen.writeNull();
+            break;
+        }
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        root().writeTo(gen);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        typeSer.writeTypePrefixForScalar(this, gen);
+        root().writeTo(gen);
+        typeSer.writeTypeSuffixForScalar(this, gen);
+    }
+
+    @Override
+    public String toString() {
+        return root().toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.gerald.jackson.tape;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.gerald.jackson.io.RawInput;
+
+/**
+ * 把任意JSON值读取为{@link JsonTape}。
+ * <p>
+ * 能够取得原始输入时，对象和数组由解析器{@code skipChildren()}跳过，复制其原始字节后构造磁带；
+ * 否则(例如从{@code InputStream}读取，或者值是标量)把当前值复制为紧凑格式的JSON。
+ * </p>
+ */
+public class JsonTapeDeserializer extends StdDeserializer<JsonTape> {
+    private static final long serialVersionUID = 4207738270036981584L;
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    public JsonTapeDeserializer() {
+        super(JsonTape.class);
+    }
+
+    @Override
+    public JsonTape deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        byte[] json = capture(p, ctxt);
+
+        return JsonTape.parse((json != null) ? json : copy(p));
+    }
+
+    /**
+     * @return 当前对象或者数组的原始字节，无法取得时返回null，此时解析器的位置不变
+     */
+    private static byte[] capture(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken t = p.getCurrentToken();
+        if((t != JsonToken.START_OBJECT) && (t != JsonToken.START_ARRAY)) {
+            return null;
+        }
+
+        RawInput in = RawInput.of(p);
+        int start = (in == null) ? -1 : in.offsetOf(p.getTokenLocation());
+        boolean object = (t == JsonToken.START_OBJECT);
+        if((start < 0) || (start >= in.length()) || (in.at(start) != (object ? '{' : '['))) {
+            return null;
+        }
+
+        p.skipChildren();
+        int end = in.offsetOf(p.getTokenLocation()) + 1;
+        if((end <= start) || (end > in.length()) || (in.at(end - 1) != (object ? '}' : ']'))) {
+            ctxt.reportMappingException("Could not locate the end of JSON value starting at %d", start);
+        }
+
+        return in.toBytes(start, end);
+    }
+
+    private static byte[] copy(JsonParser p) throws IOException {
+        ByteArrayBuilder bytes = new ByteArrayBuilder();
+
+        try(JsonGenerator gen = FACTORY.createGenerator(bytes)) {
+            gen.copyCurrentStructure(p);
+        }
+
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,271 @@
+package com.gerald.jackson.tape;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * {@link JsonTape}中一个值的游标，只包含磁带和下标，创建的代价很小。
+ * <p>
+ * 对象和数组可以按属性名、下标查找，或者迭代其中的成员；查找属性时直接比较原始字节，不解码属性名。
+ * 标量只有调用{@link #textValue()}、{@link #numberValue()}等方法时才被解码，每次调用都重新解码，
+ * 需要反复使用的值应当由调用方保存。
+ * </p>
+ */
+public final class TapeValue implements Iterable<TapeValue> {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final JsonTape tape;
+
+    private final int index;
+
+    TapeValue(JsonTape tape, int index) {
+        this.tape = tape;
+        this.index = index;
+    }
+
+    public JsonToken getToken() {
+        return tape.token(index);
+    }
+
+    public boolean isObject() {
+        return getToken() == JsonToken.START_OBJECT;
+    }
+
+    public boolean isArray() {
+        return getToken() == JsonToken.START_ARRAY;
+    }
+
+    public boolean isNull() {
+        return getToken() == JsonToken.VALUE_NULL;
+    }
+
+    /**
+     * @return 对象的属性个数或者数组的元素个数，标量返回0
+     */
+    public int size() {
+        if(!isObject() && !isArray()) {
+            return 0;
+        }
+
+        int count = tape.count(index);
+        if(count < JsonTape.MAX_COUNT) {
+            return count;
+        }
+
+        count = 0;
+        for(Iterator<TapeValue> it = iterator(); it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return 对象中名为{@code name}的第一个属性；不是对象或者没有这个属性时返回null
+     */
+    public TapeValue get(String name) {
+        if(!isObject()) {
+            return null;
+        }
+
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        int end = tape.end(index);
+        for(int i = index + 1; i < end; i = tape.next(i + 1)) {
+            if(tape.nameEquals(i, name, utf8)) {
+                return new TapeValue(tape, i + 1);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return 数组中的第{@code position}个元素；不是数组或者越界时返回null
+     */
+    public TapeValue get(int position) {
+        if(!isArray() || (position < 0)) {
+            return null;
+        }
+
+        int end = tape.end(index);
+        int i = index + 1;
+        for(int n = 0; (n < position) && (i < end); n++) {
+            i = tape.next(i);
+        }
+
+        return (i < end) ? new TapeValue(tape, i) : null;
+    }
+
+    /**
+     * @return 作为对象的属性时的属性名，否则返回null
+     */
+    public String getName() {
+        if((index > 0) && (tape.token(index - 1) == JsonToken.FIELD_NAME)) {
+            return tape.text(index - 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * 对象的属性值(属性名由{@link #getName()}取得)或者数组的元素，标量没有成员
+     */
+    @Override
+    public Iterator<TapeValue> iterator() {
+        JsonToken t = getToken();
+        boolean object = (t == JsonToken.START_OBJECT);
+        int end = (object || (t == JsonToken.START_ARRAY)) ? tape.end(index) : index + 1;
+
+        return new Iterator<TapeValue>() {
+            private int next = object ? index + 2 : index + 1;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public TapeValue next() {
+                if(next >= end) {
+                    throw new NoSuchElementException();
+                }
+
+                TapeValue value = new TapeValue(tape, next);
+                next = tape.next(next) + (object ? 1 : 0);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * @return 字符串的值，其它类型返回null
+     */
+    public String textValue() {
+        return (getToken() == JsonToken.VALUE_STRING) ? tape.text(index) : null;
+    }
+
+    /**
+     * @return 与{@code readValue(str, Object.class)}相同的{@code Integer}、{@code Long}、{@code BigInteger}
+     *     或者{@code Double}，不是数字时返回null
+     */
+    public Number numberValue() {
+        switch(getToken()) {
+        case VALUE_NUMBER_INT:
+            return tape.intValue(index);
+        case VALUE_NUMBER_FLOAT:
+            return tape.floatValue(index);
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * @return 不是数字时返回0
+     */
+    public long longValue() {
+        Number number = numberValue();
+
+        return (number == null) ? 0L : number.longValue();
+    }
+
+    /**
+     * @return 不是数字时返回0
+     */
+    public double doubleValue() {
+        Number number = numberValue();
+
+        return (number == null) ? 0.0 : number.doubleValue();
+    }
+
+    public boolean booleanValue() {
+        return getToken() == JsonToken.VALUE_TRUE;
+    }
+
+    /**
+     * 把这个值完整地解码为{@code readValue(str, Object.class)}返回的{@code LinkedHashMap}、{@code ArrayList}
+     * 和标量，只应当用于调用方真正需要的子树
+     */
+    public Object materialize() {
+        switch(getToken()) {
+        case START_OBJECT:
+            Map<String, Object> map = new LinkedHashMap<>();
+            for(TapeValue value : this) {
+                map.put(value.getName(), value.materialize());
+            }
+            return map;
+        case START_ARRAY:
+            List<Object> list = new ArrayList<>(size());
+            for(TapeValue value : this) {
+                list.add(value.materialize());
+            }
+            return list;
+        case VALUE_STRING:
+            return textValue();
+        case VALUE_TRUE:
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            return Boolean.FALSE;
+        case VALUE_NULL:
+            return null;
+        default:
+            return numberValue();
+        }
+    }
+
+    /**
+     * 写出这个值。JSON文本的generator直接写出标量的原始字节，不经过解码
+     */
+    public void writeTo(JsonGenerator gen) throws IOException {
+        int end = tape.next(index);
+
+        for(int i = index; i < end; i++) {
+            switch(tape.token(i)) {
+            case START_OBJECT:
+                gen.writeStartObject();
+                break;
+            case END_OBJECT:
+                gen.writeEndObject();
+                break;
+            case START_ARRAY:
+                gen.writeStartArray();
+                break;
+            case END_ARRAY:
+                gen.writeEndArray();
+                break;
+            case FIELD_NAME:
+                gen.writeFieldName(tape.text(i));
+                break;
+            default:
+                tape.writeScalar(gen, i);
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return 紧凑格式的JSON
+     */
+    @Override
+    public String toString() {
+        StringWriter writer = new StringWriter();
+
+        try(JsonGenerator gen = FACTORY.createGenerator(writer)) {
+            writeTo(gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+}
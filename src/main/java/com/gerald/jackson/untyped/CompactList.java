@@ -0,0 +1,397 @@
+package com.gerald.jackson.untyped;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * 用基本类型数组保存数字的{@code List<Object>}，由{@link CompactUntypedDeserializer}代替{@code ArrayList}创建。
+ * <p>
+ * 列表处于以下4种模式之一，任何时刻只使用一个数组：
+ * </p>
+ * <ul>
+ * <li>{@link Mode#INTS}：元素都是{@code Integer}，保存在{@code int[]}中；</li>
+ * <li>{@link Mode#LONGS}：元素都是{@code Long}，保存在{@code long[]}中；</li>
+ * <li>{@link Mode#DOUBLES}：元素都是{@code Double}，保存在{@code double[]}中；</li>
+ * <li>{@link Mode#OBJECTS}：其它情况，与{@code ArrayList}相同。</li>
+ * </ul>
+ * <p>
+ * 加入不能保存的值时，列表把已有的元素转换到OBJECTS模式，之后不再变窄，
+ * 因此混合了数字和其它值(包括同时有{@code Integer}和{@code Long})的数组仍然是装箱的。
+ * {@link #get(int)}返回的值与加入时的装箱类型相同，与{@code readValue(str, Object.class)}的结果一致。
+ * 读取数字应当优先使用{@link #getInt(int)}、{@link #getLong(int)}、{@link #getDouble(int)}，不会装箱。
+ * </p>
+ * <p>
+ * 允许null元素。不是线程安全的。
+ * </p>
+ */
+public final class CompactList extends AbstractList<Object> implements RandomAccess {
+    public enum Mode {
+        INTS, LONGS, DOUBLES, OBJECTS
+    }
+
+    private static final int[] NO_INTS = {};
+
+    private Mode mode = Mode.INTS;
+
+    private int[] ints = NO_INTS;
+
+    private long[] longs;
+
+    private double[] doubles;
+
+    private Object[] objects;
+
+    private int size;
+
+    public CompactList() {
+    }
+
+    public CompactList(int capacity) {
+        if(capacity > 0) {
+            ints = new int[capacity];
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    private void checkIndex(int index, int bound) {
+        if((index < 0) || (index >= bound)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private int capacity() {
+        switch(mode) {
+        case INTS:
+            return ints.length;
+        case LONGS:
+            return longs.length;
+        case DOUBLES:
+            return doubles.length;
+        default:
+            return objects.length;
+        }
+    }
+
+    private void resize(int capacity) {
+        switch(mode) {
+        case INTS:
+            ints = Arrays.copyOf(ints, capacity);
+            break;
+        case LONGS:
+            longs = Arrays.copyOf(longs, capacity);
+            break;
+        case DOUBLES:
+            doubles = Arrays.copyOf(doubles, capacity);
+            break;
+        default:
+            objects = Arrays.copyOf(objects, capacity);
+            break;
+        }
+    }
+
+    /**
+     * 为插入一个元素准备空间，{@code index}及之后的元素后移一位
+     */
+    private void open(int index) {
+        if(size == capacity()) {
+            resize(Math.max(4, size + (size >> 1)));
+        }
+
+        if(index < size) {
+            switch(mode) {
+            case INTS:
+                System.arraycopy(ints, index, ints, index + 1, size - index);
+                break;
+            case LONGS:
+                System.arraycopy(longs, index, longs, index + 1, size - index);
+                break;
+            case DOUBLES:
+                System.arraycopy(doubles, index, doubles, index + 1, size - index);
+                break;
+            default:
+                System.arraycopy(objects, index, objects, index + 1, size - index);
+                break;
+            }
+        }
+
+        size++;
+        modCount++;
+    }
+
+    private void widenToObjects() {
+        Object[] values = new Object[Math.max(capacity(), 4)];
+        for(int i = 0; i < size; i++) {
+            values[i] = get(i);
+        }
+
+        objects = values;
+        ints = null;
+        longs = null;
+        doubles = null;
+        mode = Mode.OBJECTS;
+    }
+
+    /**
+     * 空列表可以切换到任何模式，不需要转换
+     */
+    private void switchEmpty(Mode target) {
+        int capacity = Math.max(capacity(), 4);
+
+        ints = null;
+        longs = null;
+        doubles = null;
+        objects = null;
+        switch(target) {
+        case INTS:
+            ints = new int[capacity];
+            break;
+        case LONGS:
+            longs = new long[capacity];
+            break;
+        case DOUBLES:
+            doubles = new double[capacity];
+            break;
+        default:
+            objects = new Object[capacity];
+            break;
+        }
+        mode = target;
+    }
+
+    /**
+     * 把列表调整为能够保存{@code value}的模式
+     */
+    private void accommodate(Object value) {
+        Mode target = modeOf(value);
+        if(target == mode) {
+            return;
+        }
+
+        if(size == 0) {
+            switchEmpty(target);
+        } else if(mode != Mode.OBJECTS) {
+            widenToObjects();
+        }
+    }
+
+    private static Mode modeOf(Object value) {
+        if(value instanceof Integer) {
+            return Mode.INTS;
+        } else if(value instanceof Long) {
+            return Mode.LONGS;
+        } else if(value instanceof Double) {
+            return Mode.DOUBLES;
+        } else {
+            return Mode.OBJECTS;
+        }
+    }
+
+    private void store(int index, Object value) {
+        switch(mode) {
+        case INTS:
+            ints[index] = (Integer)value;
+            break;
+        case LONGS:
+            longs[index] = (Long)value;
+            break;
+        case DOUBLES:
+            doubles[index] = (Double)value;
+            break;
+        default:
+            objects[index] = value;
+            break;
+        }
+    }
+
+    public void addInt(int value) {
+        if(mode != Mode.INTS) {
+            add(Integer.valueOf(value));
+            return;
+        }
+
+        open(size);
+        ints[size - 1] = value;
+    }
+
+    /**
+     * 元素按{@code Long}返回，即使能用{@code int}表示
+     */
+    public void addLong(long value) {
+        if((mode == Mode.INTS) && (size == 0)) {
+            switchEmpty(Mode.LONGS);
+        }
+        if(mode != Mode.LONGS) {
+            add(Long.valueOf(value));
+            return;
+        }
+
+        open(size);
+        longs[size - 1] = value;
+    }
+
+    public void addDouble(double value) {
+        if((mode == Mode.INTS) && (size == 0)) {
+            switchEmpty(Mode.DOUBLES);
+        }
+        if(mode != Mode.DOUBLES) {
+            add(Double.valueOf(value));
+            return;
+        }
+
+        open(size);
+        doubles[size - 1] = value;
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        if((index < 0) || (index > size)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        accommodate(element);
+        open(index);
+        store(index, element);
+    }
+
+    @Override
+    public Object get(int index) {
+        checkIndex(index, size);
+
+        switch(mode) {
+        case INTS:
+            return Integer.valueOf(ints[index]);
+        case LONGS:
+            return Long.valueOf(longs[index]);
+        case DOUBLES:
+            return Double.valueOf(doubles[index]);
+        default:
+            return objects[index];
+        }
+    }
+
+    /**
+     * @throws ClassCastException 元素不是数字
+     */
+    public int getInt(int index) {
+        checkIndex(index, size);
+
+        return (mode == Mode.INTS) ? ints[index] : (int)getLong(index);
+    }
+
+    /**
+     * @throws ClassCastException 元素不是数字
+     */
+    public long getLong(int index) {
+        checkIndex(index, size);
+
+        switch(mode) {
+        case INTS:
+            return ints[index];
+        case LONGS:
+            return longs[index];
+        case DOUBLES:
+            return (long)doubles[index];
+        default:
+            return ((Number)objects[index]).longValue();
+        }
+    }
+
+    /**
+     * @throws ClassCastException 元素不是数字
+     */
+    public double getDouble(int index) {
+        checkIndex(index, size);
+
+        switch(mode) {
+        case INTS:
+            return ints[index];
+        case LONGS:
+            return longs[index];
+        case DOUBLES:
+            return doubles[index];
+        default:
+            return ((Number)objects[index]).doubleValue();
+        }
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        checkIndex(index, size);
+
+        Object old = get(index);
+        accommodate(element);
+        store(index, element);
+
+        return old;
+    }
+
+    @Override
+    public Object remove(int index) {
+        checkIndex(index, size);
+
+        Object old = get(index);
+        int moved = size - index - 1;
+        switch(mode) {
+        case INTS:
+            System.arraycopy(ints, index + 1, ints, index, moved);
+            break;
+        case LONGS:
+            System.arraycopy(longs, index + 1, longs, index, moved);
+            break;
+        case DOUBLES:
+            System.arraycopy(doubles, index + 1, doubles, index, moved);
+            break;
+        default:
+            System.arraycopy(objects, index + 1, objects, index, moved);
+            objects[size - 1] = null;
+            break;
+        }
+        size--;
+        modCount++;
+
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if(mode == Mode.OBJECTS) {
+            Arrays.fill(objects, 0, size, null);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 释放数组中未使用的容量，{@link CompactUntypedDeserializer}在读完一个数组后调用
+     */
+    public void trimToSize() {
+        if(size < capacity()) {
+            resize(size);
+        }
+    }
+
+    int[] ints() {
+        return ints;
+    }
+
+    long[] longs() {
+        return longs;
+    }
+
+    double[] doubles() {
+        return doubles;
+    }
+
+    Object[] objects() {
+        return objects;
+    }
+}
@@ -0,0 +1,159 @@
+package com.gerald.jackson.untyped;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * {@link CompactList}的序列化：基本类型模式直接从数组写出数字，不装箱。
+ * <p>
+ * 其它元素与{@code List<Object>}一样按运行时类型查找序列化器，并且与{@code CollectionSerializer}一样
+ * 缓存在{@code PropertySerializerMap}中；启用了默认类型信息时，元素按声明类型{@code Object}写出类型信息，
+ * 可以由{@link CompactUntypedDeserializer}读回。
+ * </p>
+ */
+public class CompactListSerializer extends StdSerializer<CompactList> implements ContextualSerializer {
+    private static final long serialVersionUID = 2571690853215236247L;
+
+    /**
+     * 元素的类型信息，没有启用默认类型信息时为null
+     */
+    private final TypeSerializer valueTypeSer;
+
+    /**
+     * {@link #valueTypeSer}是否已经由{@link #createContextual}确定
+     */
+    private final boolean resolved;
+
+    /**
+     * 按元素的运行时类型缓存的序列化器，只在{@link #resolved}时使用
+     */
+    private transient PropertySerializerMap dynamicValueSerializers;
+
+    public CompactListSerializer() {
+        this(null, false);
+    }
+
+    private CompactListSerializer(TypeSerializer valueTypeSer, boolean resolved) {
+        super(CompactList.class);
+        this.valueTypeSer = valueTypeSer;
+        this.resolved = resolved;
+        this.dynamicValueSerializers = PropertySerializerMap.emptyForProperties();
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        return resolved ? this : new CompactListSerializer(findValueTypeSerializer(provider), true);
+    }
+
+    static TypeSerializer findValueTypeSerializer(SerializerProvider provider) throws JsonMappingException {
+        return provider.findTypeSerializer(provider.constructType(Object.class));
+    }
+
+    /**
+     * 与{@code MapSerializer}、{@code CollectionSerializer}写出{@code Object}类型的值相同
+     *
+     * @param serializers 已经解析的序列化器的缓存，为null时每次查找
+     * @return 加入了新的序列化器之后的缓存
+     */
+    static PropertySerializerMap serializeValue(Object value, JsonGenerator gen, SerializerProvider provider,
+                                                TypeSerializer typeSer, PropertySerializerMap serializers)
+            throws IOException {
+        if(value == null) {
+            provider.defaultSerializeNull(gen);
+            return serializers;
+        }
+
+        Class<?> cls = value.getClass();
+        JsonSerializer<Object> ser = (serializers == null) ? null : serializers.serializerFor(cls);
+        if(ser == null) {
+            if(serializers == null) {
+                ser = provider.findValueSerializer(cls, null);
+            } else {
+                PropertySerializerMap.SerializerAndMapResult result =
+                        serializers.findAndAddSecondarySerializer(cls, provider, null);
+                serializers = result.map;
+                ser = result.serializer;
+            }
+        }
+
+        if(typeSer == null) {
+            ser.serialize(value, gen, provider);
+        } else {
+            ser.serializeWithType(value, gen, provider, typeSer);
+        }
+
+        return serializers;
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, CompactList value) {
+        return value.isEmpty();
+    }
+
+    @Override
+    public void serialize(CompactList value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray(value.size());
+        serializeContents(value, gen, provider);
+        gen.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(CompactList value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        typeSer.writeTypePrefixForArray(value, gen);
+        gen.setCurrentValue(value);
+        serializeContents(value, gen, provider);
+        typeSer.writeTypeSuffixForArray(value, gen);
+    }
+
+    private void serializeContents(CompactList value, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        final int size = value.size();
+
+        switch(value.getMode()) {
+        case INTS:
+            int[] ints = value.ints();
+            for(int i = 0; i < size; i++) {
+                gen.writeNumber(ints[i]);
+            }
+            break;
+        case LONGS:
+            long[] longs = value.longs();
+            for(int i = 0; i < size; i++) {
+                gen.writeNumber(longs[i]);
+            }
+            break;
+        case DOUBLES:
+            double[] doubles = value.doubles();
+            for(int i = 0; i < size; i++) {
+                gen.writeNumber(doubles[i]);
+            }
+            break;
+        default:
+            Object[] objects = value.objects();
+            if(resolved) {
+                PropertySerializerMap serializers = dynamicValueSerializers;
+                for(int i = 0; i < size; i++) {
+                    serializers = serializeValue(objects[i], gen, provider, valueTypeSer, serializers);
+                }
+                dynamicValueSerializers = serializers;
+            } else {
+                TypeSerializer typeSer = findValueTypeSerializer(provider);
+                for(int i = 0; i < size; i++) {
+                    serializeValue(objects[i], gen, provider, typeSer, null);
+                }
+            }
+            break;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.gerald.jackson.untyped;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 保持插入顺序的{@code Map<String, Object>}，由{@link CompactUntypedDeserializer}代替{@code LinkedHashMap}创建。
+ * <p>
+ * 键和值按插入顺序存放在两个平行的数组中，每个属性不需要{@code LinkedHashMap}的{@code Entry}对象
+ * (包含hash、next、before、after共6个字段)。属性不超过{@value #INDEX_THRESHOLD}个时线性查找；
+ * 更多时另外维护一个{@code int[]}的开放寻址索引，槽位中保存下标加1。
+ * 更新已有的键不改变其位置；删除需要移动后续的元素并重建索引，是O(n)的，适合读多写少的文档。
+ * </p>
+ * <p>
+ * 键不能为null。{@code entrySet()}的迭代器支持{@code remove()}，{@code Entry#setValue}写回map。
+ * 不是线程安全的。
+ * </p>
+ */
+public final class CompactMap extends AbstractMap<String, Object> {
+    static final int INDEX_THRESHOLD = 8;
+
+    private static final String[] NO_KEYS = {};
+
+    private static final Object[] NO_VALUES = {};
+
+    private String[] keys = NO_KEYS;
+
+    private Object[] values = NO_VALUES;
+
+    private int size;
+
+    /**
+     * 开放寻址的索引，槽位中是下标加1，0表示空；属性较少时为null
+     */
+    private int[] index;
+
+    private int modCount;
+
+    private Set<Map.Entry<String, Object>> entrySet;
+
+    public CompactMap() {
+    }
+
+    public CompactMap(int capacity) {
+        if(capacity > 0) {
+            keys = new String[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return {@code key}的下标，没有时返回-1
+     */
+    private int indexOf(Object key) {
+        if(!(key instanceof String)) {
+            return -1;
+        }
+
+        if(index == null) {
+            for(int i = 0; i < size; i++) {
+                // 属性名通常来自parser的符号表，先比较引用
+                if((keys[i] == key) || keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        final int mask = index.length - 1;
+        for(int slot = spread(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int i = index[slot] - 1;
+            if(i < 0) {
+                return -1;
+            } else if((keys[i] == key) || keys[i].equals(key)) {
+                return i;
+            }
+        }
+    }
+
+    private void rebuildIndex() {
+        if(size <= INDEX_THRESHOLD) {
+            index = null;
+            return;
+        }
+
+        int capacity = Integer.highestOneBit(size * 2 - 1) << 1;
+        int[] idx = new int[capacity];
+        for(int i = 0; i < size; i++) {
+            insertIndex(idx, i);
+        }
+        index = idx;
+    }
+
+    private void insertIndex(int[] idx, int i) {
+        final int mask = idx.length - 1;
+
+        int slot = spread(keys[i].hashCode()) & mask;
+        while(idx[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idx[slot] = i + 1;
+    }
+
+    private void checkIndex(int i) {
+        if((i < 0) || (i >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+
+    public String keyAt(int i) {
+        checkIndex(i);
+
+        return keys[i];
+    }
+
+    public Object valueAt(int i) {
+        checkIndex(i);
+
+        return values[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+
+        return (i < 0) ? null : values[i];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Objects.requireNonNull(key, "key");
+
+        int i = indexOf(key);
+        if(i >= 0) {
+            Object old = values[i];
+            values[i] = value;
+            return old;
+        }
+
+        if(size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        modCount++;
+
+        if(size > INDEX_THRESHOLD) {
+            // 负载因子不超过1/2
+            if((index == null) || (size * 2 > index.length)) {
+                rebuildIndex();
+            } else {
+                insertIndex(index, size - 1);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int i = indexOf(key);
+
+        return (i < 0) ? null : removeAt(i);
+    }
+
+    private Object removeAt(int i) {
+        Object old = values[i];
+
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(values, i + 1, values, i, size - i - 1);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        rebuildIndex();
+
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        index = null;
+        modCount++;
+    }
+
+    /**
+     * 释放数组中未使用的容量，{@link CompactUntypedDeserializer}在读完一个对象后调用
+     */
+    public void trimToSize() {
+        if(size < keys.length) {
+            keys = (size == 0) ? NO_KEYS : Arrays.copyOf(keys, size);
+            values = (size == 0) ? NO_VALUES : Arrays.copyOf(values, size);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if(entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    CompactMap.this.clear();
+                }
+            };
+        }
+
+        return entrySet;
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int next;
+
+        private int last = -1;
+
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if(modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if(next >= size) {
+                throw new NoSuchElementException();
+            }
+
+            last = next++;
+            return new Entry(last);
+        }
+
+        @Override
+        public void remove() {
+            if(last < 0) {
+                throw new IllegalStateException();
+            }
+            if(modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class Entry extends AbstractMap.SimpleEntry<String, Object> {
+        private static final long serialVersionUID = 3937452617532480431L;
+
+        private final int position;
+
+        Entry(int position) {
+            super(keys[position], values[position]);
+            this.position = position;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            values[position] = value;
+            return super.setValue(value);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.gerald.jackson.untyped;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * {@link CompactMap}的序列化：按下标遍历两个数组，不创建{@code Entry}和迭代器。
+ * <p>
+ * 与{@code MapSerializer}一样支持{@code ORDER_MAP_ENTRIES_BY_KEYS}和{@code WRITE_NULL_MAP_VALUES}；
+ * 不支持属性上的{@code @JsonInclude}等配置。属性值的写出与{@link CompactListSerializer}相同。
+ * </p>
+ */
+public class CompactMapSerializer extends StdSerializer<CompactMap> implements ContextualSerializer {
+    private static final long serialVersionUID = 8512208475170362617L;
+
+    /**
+     * 属性值的类型信息，没有启用默认类型信息时为null
+     */
+    private final TypeSerializer valueTypeSer;
+
+    /**
+     * {@link #valueTypeSer}是否已经由{@link #createContextual}确定
+     */
+    private final boolean resolved;
+
+    /**
+     * 按属性值的运行时类型缓存的序列化器，只在{@link #resolved}时使用
+     */
+    private transient PropertySerializerMap dynamicValueSerializers;
+
+    public CompactMapSerializer() {
+        this(null, false);
+    }
+
+    private CompactMapSerializer(TypeSerializer valueTypeSer, boolean resolved) {
+        super(CompactMap.class);
+        this.valueTypeSer = valueTypeSer;
+        this.resolved = resolved;
+        this.dynamicValueSerializers = PropertySerializerMap.emptyForProperties();
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        return resolved ? this
+                        : new CompactMapSerializer(CompactListSerializer.findValueTypeSerializer(provider), true);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, CompactMap value) {
+        return value.isEmpty();
+    }
+
+    @Override
+    public void serialize(CompactMap value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        serializeFields(value, gen, provider);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(CompactMap value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        typeSer.writeTypePrefixForObject(value, gen);
+        gen.setCurrentValue(value);
+        serializeFields(value, gen, provider);
+        typeSer.writeTypeSuffixForObject(value, gen);
+    }
+
+    private void serializeFields(CompactMap value, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        boolean writeNulls = provider.isEnabled(SerializationFeature.WRITE_NULL_MAP_VALUES);
+        TypeSerializer typeSer = resolved ? valueTypeSer : CompactListSerializer.findValueTypeSerializer(provider);
+        PropertySerializerMap serializers = resolved ? dynamicValueSerializers : null;
+
+        if(provider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS) && (value.size() > 1)) {
+            for(Map.Entry<String, Object> entry : new TreeMap<>(value).entrySet()) {
+                serializers = serializeField(entry.getKey(), entry.getValue(), writeNulls, typeSer, serializers,
+                                             gen, provider);
+            }
+        } else {
+            for(int i = 0, size = value.size(); i < size; i++) {
+                serializers = serializeField(value.keyAt(i), value.valueAt(i), writeNulls, typeSer, serializers,
+                                             gen, provider);
+            }
+        }
+
+        if(resolved) {
+            dynamicValueSerializers = serializers;
+        }
+    }
+
+    private static PropertySerializerMap serializeField(String name, Object fieldValue, boolean writeNulls,
+                                                        TypeSerializer typeSer, PropertySerializerMap serializers,
+                                                        JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        if((fieldValue != null) || writeNulls) {
+            gen.writeFieldName(name);
+            return CompactListSerializer.serializeValue(fieldValue, gen, provider, typeSer, serializers);
+        }
+
+        return serializers;
+    }
+}
@@ -0,0 +1,100 @@
+package com.gerald.jackson.untyped;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.UntypedObjectDeserializer;
+
+/**
+ * 无类型值的反序列化：对象读取为{@link CompactMap}，数组读取为{@link CompactList}，标量与
+ * {@code UntypedObjectDeserializer}相同。
+ * <p>
+ * 数组中的{@code int}、{@code long}范围的整数和浮点数直接从parser取得基本类型的值加入列表，不创建
+ * {@code Integer}、{@code Long}、{@code Double}；{@code BigInteger}、{@code USE_BIG_DECIMAL_FOR_FLOATS}、
+ * {@code USE_BIG_INTEGER_FOR_INTS}/{@code USE_LONG_FOR_INTS}以及自定义的数字反序列化仍然由父类处理。
+ * 属性值中的数字仍然是装箱的。
+ * </p>
+ */
+public class CompactUntypedDeserializer extends UntypedObjectDeserializer {
+    private static final long serialVersionUID = 6052471733560416207L;
+
+    public CompactUntypedDeserializer() {
+        super(null, null);
+    }
+
+    protected CompactUntypedDeserializer(CompactUntypedDeserializer base, JsonDeserializer<?> mapDeser,
+                                         JsonDeserializer<?> listDeser, JsonDeserializer<?> stringDeser,
+                                         JsonDeserializer<?> numberDeser) {
+        super(base, mapDeser, listDeser, stringDeser, numberDeser);
+    }
+
+    @Override
+    protected JsonDeserializer<?> _withResolved(JsonDeserializer<?> mapDeser, JsonDeserializer<?> listDeser,
+                                                JsonDeserializer<?> stringDeser, JsonDeserializer<?> numberDeser) {
+        return new CompactUntypedDeserializer(this, mapDeser, listDeser, stringDeser, numberDeser);
+    }
+
+    @Override
+    protected Object mapArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+        boolean primitiveInts = (_numberDeserializer == null) && !ctxt.hasSomeOfFeatures(F_MASK_INT_COERCIONS);
+        boolean primitiveFloats = (_numberDeserializer == null)
+                && !ctxt.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        CompactList list = new CompactList();
+
+        JsonToken t;
+        while((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if((t == JsonToken.VALUE_NUMBER_INT) && primitiveInts) {
+                switch(p.getNumberType()) {
+                case INT:
+                    list.addInt(p.getIntValue());
+                    continue;
+                case LONG:
+                    list.addLong(p.getLongValue());
+                    continue;
+                default:
+                    break;
+                }
+            } else if((t == JsonToken.VALUE_NUMBER_FLOAT) && primitiveFloats) {
+                list.addDouble(p.getDoubleValue());
+                continue;
+            } else if(t == null) {
+                // 与父类一样由deserialize()报告输入不完整
+                return deserialize(p, ctxt);
+            }
+
+            list.add(deserialize(p, ctxt));
+        }
+
+        list.trimToSize();
+        return list;
+    }
+
+    @Override
+    protected Object mapObject(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String key;
+
+        JsonToken t = p.getCurrentToken();
+        if(t == JsonToken.START_OBJECT) {
+            key = p.nextFieldName();
+        } else if(t == JsonToken.FIELD_NAME) {
+            key = p.getCurrentName();
+        } else if(t == JsonToken.END_OBJECT) {
+            key = null;
+        } else {
+            return ctxt.handleUnexpectedToken(handledType(), p);
+        }
+
+        CompactMap map = new CompactMap();
+        for(; key != null; key = p.nextFieldName()) {
+            p.nextToken();
+            map.put(key, deserialize(p, ctxt));
+        }
+
+        map.trimToSize();
+        return map;
+    }
+}
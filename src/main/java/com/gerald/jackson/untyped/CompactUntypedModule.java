@@ -0,0 +1,26 @@
+package com.gerald.jackson.untyped;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * 注册{@link CompactUntypedDeserializer}以及{@link CompactMap}、{@link CompactList}的序列化。
+ * 注册之后{@code readValue(str, Object.class)}以及{@code Map<String, Object>}、{@code List<Object>}
+ * 中的无类型值返回{@link CompactMap}和{@link CompactList}，它们仍然实现{@code Map}和{@code List}，
+ * {@code equals}和{@code hashCode}与{@code LinkedHashMap}、{@code ArrayList}兼容。
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new CompactUntypedModule());
+ * </code>
+ * </pre>
+ */
+public class CompactUntypedModule extends SimpleModule {
+    private static final long serialVersionUID = 3196528764316404135L;
+
+    public CompactUntypedModule() {
+        super(CompactUntypedModule.class.getSimpleName());
+
+        addDeserializer(Object.class, new CompactUntypedDeserializer());
+        addSerializer(CompactList.class, new CompactListSerializer());
+        addSerializer(CompactMap.class, new CompactMapSerializer());
+    }
+}
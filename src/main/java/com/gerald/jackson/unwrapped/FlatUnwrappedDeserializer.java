@@ -0,0 +1,323 @@
+package com.gerald.jackson.unwrapped;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.ValueInstantiator;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * 把{@code @JsonUnwrapped}属性的子属性合并到自己的属性表中的{@link BeanDeserializer}。
+ * <p>
+ * jackson的{@code UnwrappedPropertyHandler}把所有不属于外层对象的属性复制到{@code TokenBuffer}，
+ * 对象结束后再把整个缓存交给每一个unwrapped属性的deserializer解析一遍。这里在{@link #resolve}时
+ * 把子对象的属性(已经按照{@code prefix}/{@code suffix}改名)按名称建立索引，读取时直接把属性值设置到子对象上，
+ * 只解析一遍。行为与jackson相同：
+ * <ul>
+ * <li>外层对象的属性和忽略的属性优先，不会再交给子对象</li>
+ * <li>多个子对象有同名属性时，每个子对象都会得到这个属性值</li>
+ * <li>子对象总是会被创建，即使输入中没有它的任何属性；在对象结束时设置到外层对象上</li>
+ * <li>不属于任何对象的属性直接忽略</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 外层对象使用{@code @JsonCreator}、delegate、object id或者any setter，unwrapped属性有自定义的deserializer，
+ * 子对象不是通过默认构造器创建的普通bean(有any setter、注入的值、嵌套的unwrapped属性或者
+ * {@code As.EXTERNAL_PROPERTY}的属性)，或者打开了{@code FAIL_ON_IGNORED_PROPERTIES}、
+ * {@code ACCEPT_CASE_INSENSITIVE_PROPERTIES}时，
+ * 使用jackson原来的实现。
+ * </p>
+ */
+final class FlatUnwrappedDeserializer extends BeanDeserializer {
+    private static final long serialVersionUID = -4906131740217244613L;
+
+    /**
+     * 子对象的一个属性
+     */
+    private static final class ChildProperty {
+        /**
+         * 子对象的下标
+         */
+        final int index;
+
+        final SettableBeanProperty prop;
+
+        ChildProperty(int index, SettableBeanProperty prop) {
+            this.index = index;
+            this.prop = prop;
+        }
+    }
+
+    /**
+     * 外层对象上的unwrapped属性，null表示使用jackson原来的实现
+     */
+    private SettableBeanProperty[] unwrappedProps;
+
+    private ValueInstantiator[] instantiators;
+
+    /**
+     * 改名后的子属性名 -&gt; 拥有这个属性的子对象
+     */
+    private Map<String, ChildProperty[]> childProps;
+
+    private boolean needViewProcessing;
+
+    FlatUnwrappedDeserializer(BeanDeserializer src) {
+        super(src);
+    }
+
+    /**
+     * @return {@code deserializer}是否有{@code @JsonUnwrapped}属性
+     */
+    static boolean hasUnwrapped(AnnotationIntrospector intr, BeanDeserializer deserializer) {
+        Iterator<SettableBeanProperty> it = deserializer.properties();
+
+        while(it.hasNext()) {
+            if(findUnwrapper(intr, it.next()) != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * {@code BeanDeserializer}的子类默认不能再被unwrap，这里与jackson一样返回忽略未知属性的副本
+     */
+    @Override
+    public JsonDeserializer<Object> unwrappingDeserializer(NameTransformer unwrapper) {
+        return new Unwrapping(this, unwrapper);
+    }
+
+    private static final class Unwrapping extends BeanDeserializer {
+        private static final long serialVersionUID = 2245925117212404962L;
+
+        Unwrapping(BeanDeserializer src, NameTransformer unwrapper) {
+            super(src, unwrapper);
+        }
+    }
+
+    private static NameTransformer findUnwrapper(AnnotationIntrospector intr, SettableBeanProperty prop) {
+        AnnotatedMember member = prop.getMember();
+
+        return (member == null) ? null : intr.findUnwrappingNameTransformer(member);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        // resolve之后jackson会把这些属性从_beanProperties移到UnwrappedPropertyHandler中
+        List<SettableBeanProperty> candidates = new ArrayList<>();
+        for(SettableBeanProperty prop : _beanProperties) {
+            if(findUnwrapper(ctxt.getAnnotationIntrospector(), prop) != null) {
+                candidates.add(prop);
+            }
+        }
+
+        super.resolve(ctxt);
+        link(ctxt, candidates);
+    }
+
+    private void link(DeserializationContext ctxt, List<SettableBeanProperty> candidates)
+            throws JsonMappingException {
+        if((_unwrappedPropertyHandler == null) || (_propertyBasedCreator != null) || (_delegateDeserializer != null)
+                || (_externalTypeIdHandler != null) || (_objectIdReader != null) || (_anySetter != null)
+                || !_valueInstantiator.canCreateUsingDefault() || candidates.isEmpty()
+                || ctxt.isEnabled(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)) {
+            return;
+        }
+
+        AnnotationIntrospector intr = ctxt.getAnnotationIntrospector();
+        int count = candidates.size();
+        SettableBeanProperty[] props = new SettableBeanProperty[count];
+        ValueInstantiator[] insts = new ValueInstantiator[count];
+        Map<String, ChildProperty[]> table = new HashMap<>();
+        boolean views = _needViewProcesing;
+
+        for(int i = 0; i < count; i++) {
+            SettableBeanProperty prop = candidates.get(i);
+
+            if(prop.hasValueDeserializer() || (prop.getValueTypeDeserializer() != null)
+                    || (intr.findDeserializationConverter(prop.getMember()) != null)) {
+                return;
+            }
+
+            // 与resolve中为属性查找的deserializer相同
+            JsonDeserializer<Object> deser = findDeserializer(ctxt, prop.getType(), prop);
+            if((deser.getClass() != BeanDeserializer.class) || !isPlainBean(ctxt, (BeanDeserializer)deser)) {
+                return;
+            }
+
+            BeanDeserializer child = (BeanDeserializer)deser;
+            BeanDeserializer unwrapping = (BeanDeserializer)child.unwrappingDeserializer(findUnwrapper(intr, prop));
+            for(Iterator<SettableBeanProperty> it = unwrapping.properties(); it.hasNext(); ) {
+                SettableBeanProperty childProp = it.next();
+                if(!childProp.hasValueDeserializer()) {
+                    return;
+                }
+
+                views |= childProp.hasViews();
+                ChildProperty[] owners = table.get(childProp.getName());
+                int n = (owners == null) ? 0 : owners.length;
+                ChildProperty[] extended = new ChildProperty[n + 1];
+                if(n > 0) {
+                    System.arraycopy(owners, 0, extended, 0, n);
+                }
+                extended[n] = new ChildProperty(i, childProp);
+                table.put(childProp.getName(), extended);
+            }
+
+            props[i] = prop;
+            insts[i] = child.getValueInstantiator();
+        }
+
+        needViewProcessing = views;
+        childProps = table;
+        instantiators = insts;
+        unwrappedProps = props;
+    }
+
+    /**
+     * 通过默认构造器创建，所有可以设置的属性都在属性表中
+     */
+    private static boolean isPlainBean(DeserializationContext ctxt, BeanDeserializer deser) {
+        ValueInstantiator inst = deser.getValueInstantiator();
+        if(!inst.canCreateUsingDefault() || inst.canCreateFromObjectWith() || inst.canCreateUsingDelegate()
+                || (deser.getObjectIdReader() != null)) {
+            return false;
+        }
+
+        BeanDescription desc = ctxt.getConfig().introspect(deser.getValueType());
+        Map<Object, AnnotatedMember> injectables = desc.findInjectables();
+        if((desc.findAnySetter() != null) || (desc.findAnySetterField() != null)
+                || ((injectables != null) && !injectables.isEmpty())) {
+            return false;
+        }
+
+        // 嵌套的unwrapped属性和EXTERNAL_PROPERTY的属性在resolve时从属性表中移除
+        AnnotationIntrospector intr = ctxt.getAnnotationIntrospector();
+        for(BeanPropertyDefinition def : desc.findProperties()) {
+            AnnotatedMember mutator = def.getNonConstructorMutator();
+            if((mutator != null)
+                    && ((deser.findProperty(def.getName()) == null)
+                            || (intr.findUnwrappingNameTransformer(mutator) != null))) {
+                return false;
+            }
+        }
+
+        return !hasUnwrapped(intr, deser);
+    }
+
+    /**
+     * @return 是否使用合并后的属性表
+     */
+    boolean isFlattened() {
+        return unwrappedProps != null;
+    }
+
+    @Override
+    protected Object deserializeWithUnwrapped(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if((unwrappedProps == null) || ctxt.isEnabled(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)) {
+            return super.deserializeWithUnwrapped(p, ctxt);
+        }
+
+        final Object bean = _valueInstantiator.createUsingDefault(ctxt);
+        p.setCurrentValue(bean);
+
+        if(_injectables != null) {
+            injectValues(ctxt, bean);
+        }
+        final Class<?> activeView = needViewProcessing ? ctxt.getActiveView() : null;
+        final Object[] children = new Object[unwrappedProps.length];
+        String propName = p.hasTokenId(JsonTokenId.ID_FIELD_NAME) ? p.getCurrentName() : null;
+
+        for(; propName != null; propName = p.nextFieldName()) {
+            p.nextToken();
+            SettableBeanProperty prop = _beanProperties.find(propName);
+            if(prop != null) {
+                if((activeView != null) && !prop.visibleInView(activeView)) {
+                    p.skipChildren();
+                    continue;
+                }
+                try {
+                    prop.deserializeAndSet(p, ctxt, bean);
+                } catch (Exception e) {
+                    wrapAndThrow(e, bean, propName, ctxt);
+                }
+                continue;
+            }
+
+            if((_ignorableProps != null) && _ignorableProps.contains(propName)) {
+                handleIgnoredProperty(p, ctxt, bean, propName);
+                continue;
+            }
+
+            ChildProperty[] owners = childProps.get(propName);
+            if(owners == null) {
+                p.skipChildren();
+            } else if(owners.length == 1) {
+                deserializeAndSet(p, ctxt, children, owners[0], propName, activeView);
+            } else {
+                // 多个子对象的同名属性，每个子对象都需要读取一遍
+                TokenBuffer tokens = new TokenBuffer(p, ctxt);
+                tokens.copyCurrentStructure(p);
+                for(ChildProperty owner : owners) {
+                    JsonParser buffered = tokens.asParser(p);
+                    buffered.nextToken();
+                    deserializeAndSet(buffered, ctxt, children, owner, propName, activeView);
+                }
+            }
+        }
+
+        for(int i = 0; i < children.length; i++) {
+            Object child = (children[i] == null) ? instantiators[i].createUsingDefault(ctxt) : children[i];
+            try {
+                unwrappedProps[i].set(bean, child);
+            } catch (Exception e) {
+                wrapAndThrow(e, bean, unwrappedProps[i].getName(), ctxt);
+            }
+        }
+
+        return bean;
+    }
+
+    /**
+     * @param p 指向属性值的第一个token
+     */
+    private void deserializeAndSet(JsonParser p, DeserializationContext ctxt, Object[] children, ChildProperty owner,
+                                   String propName, Class<?> activeView) throws IOException {
+        if((activeView != null) && !owner.prop.visibleInView(activeView)) {
+            p.skipChildren();
+            return;
+        }
+
+        Object child = children[owner.index];
+        if(child == null) {
+            child = instantiators[owner.index].createUsingDefault(ctxt);
+            children[owner.index] = child;
+        }
+
+        try {
+            owner.prop.deserializeAndSet(p, ctxt, child);
+        } catch (Exception e) {
+            wrapAndThrow(e, child, propName, ctxt);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.gerald.jackson.unwrapped;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * 为有{@code @JsonUnwrapped}属性的类型(例如{@code TestJsonUnwrap.Person})安装{@link FlatUnwrappedDeserializer}，
+ * 子对象的属性直接从输入中读取，不经过{@code TokenBuffer}。
+ * <pre>
+ * <code>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new UnwrappedModule());
+ * </code>
+ * </pre>
+ * <p>
+ * 序列化不受影响。
+ * </p>
+ */
+public class UnwrappedModule extends SimpleModule {
+    private static final long serialVersionUID = 6342380955284927717L;
+
+    public UnwrappedModule() {
+        super(UnwrappedModule.class.getSimpleName());
+
+        setDeserializerModifier(new DeserializerModifier());
+    }
+
+    private static class DeserializerModifier extends BeanDeserializerModifier {
+        @Override
+        public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                      JsonDeserializer<?> deserializer) {
+            if((deserializer.getClass() != BeanDeserializer.class)
+                    || !FlatUnwrappedDeserializer.hasUnwrapped(config.getAnnotationIntrospector(),
+                                                               (BeanDeserializer)deserializer)) {
+                return deserializer;
+            }
+
+            return new FlatUnwrappedDeserializer((BeanDeserializer)deserializer);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.gerald.jackson;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestApp {
+    @Test
+    public void testParseSize() {
+        Assert.assertEquals(100L, App.parseSize("100"));
+        Assert.assertEquals(100L, App.parseSize("100B"));
+        Assert.assertEquals(2048L, App.parseSize("2K"));
+        Assert.assertEquals(2048L, App.parseSize("2kb"));
+        Assert.assertEquals(10L << 20, App.parseSize("10M"));
+        Assert.assertEquals(500L << 20, App.parseSize("500MB"));
+        Assert.assertEquals(1L << 30, App.parseSize("1G"));
+        Assert.assertEquals(1L << 30, App.parseSize(" 1GB "));
+        
+        for(String invalid : new String[] {"10X", "10TB", "MB", "", "-1K", "0", "1.5G"}) {
+            try {
+                App.parseSize(invalid);
+                Assert.fail(invalid);
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+}
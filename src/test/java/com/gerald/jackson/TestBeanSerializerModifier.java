@@ -1,16 +1,262 @@
 package com.gerald.jackson;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+
+import org.junit.Assert;
 import org.junit.Test;
 
-import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.gerald.jackson.accessor.AccessorDeserializerModifier;
+import com.gerald.jackson.accessor.AccessorModule;
+import com.gerald.jackson.accessor.AccessorPropertyWriter;
+import com.gerald.jackson.accessor.AccessorSerializerModifier;
+import com.gerald.jackson.annotation.TestGetterSetter.Persion;
+import com.gerald.jackson.annotation.TestJsonFormat.Event;
+import com.gerald.jackson.annotation.TestJsonFormat.EventType;
+import com.gerald.jackson.annotation.TestJsonFormat.Page;
+import com.gerald.jackson.annotation.TestJsonIgnore.Order;
 
+/**
+ * 通过{@link AccessorSerializerModifier}替换属性的读取方式。序列化和反序列化的结果
+ * 必须与没有注册modifier的mapper完全相同
+ */
 public class TestBeanSerializerModifier {
-    public static class CustomBeanSerializerModifier extends BeanSerializerModifier {
-        
+    public static class CustomBeanSerializerModifier extends AccessorSerializerModifier {
+
+    }
+
+    @JsonPropertyOrder({"count", "total", "boxedCount", "boxedTotal", "text", "nullCount"})
+    public static class Numbers {
+        private int count;
+
+        private long total;
+
+        private Integer boxedCount;
+
+        private Long boxedTotal;
+
+        private long text;
+
+        private Long nullCount;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public Integer getBoxedCount() {
+            return boxedCount;
+        }
+
+        public void setBoxedCount(Integer boxedCount) {
+            this.boxedCount = boxedCount;
+        }
+
+        public Long getBoxedTotal() {
+            return boxedTotal;
+        }
+
+        public void setBoxedTotal(Long boxedTotal) {
+            this.boxedTotal = boxedTotal;
+        }
+
+        @JsonFormat(shape = Shape.STRING)
+        public long getText() {
+            return text;
+        }
+
+        public void setText(long text) {
+            this.text = text;
+        }
+
+        public Long getNullCount() {
+            return nullCount;
+        }
+
+        public void setNullCount(Long nullCount) {
+            this.nullCount = nullCount;
+        }
+    }
+
+    @JsonFormat(shape = Shape.ARRAY)
+    @JsonPropertyOrder({"count", "total", "boxedCount", "boxedTotal", "text", "nullCount"})
+    public static class NumberRow extends Numbers {
+
     }
-    
+
+    @JsonInclude(Include.NON_DEFAULT)
+    public static class Sparse {
+        private int count;
+
+        private String name;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private static ObjectMapper customMapper() {
+        SimpleModule module = new SimpleModule("custom");
+        module.setSerializerModifier(new CustomBeanSerializerModifier());
+        module.setDeserializerModifier(new AccessorDeserializerModifier());
+
+        return new ObjectMapper().registerModule(module);
+    }
+
+    private static Numbers numbers(Numbers numbers) {
+        numbers.setCount(-7);
+        numbers.setTotal(Long.MAX_VALUE);
+        numbers.setBoxedCount(Integer.MIN_VALUE);
+        numbers.setBoxedTotal(1500000000000L);
+        numbers.setText(42L);
+
+        return numbers;
+    }
+
+    private static void assertAccessors(ObjectMapper mapper, Class<?> type) throws JsonMappingException {
+        BeanSerializer serializer = (BeanSerializer)mapper.getSerializerProviderInstance().findValueSerializer(type);
+
+        Iterator<PropertyWriter> it = serializer.properties();
+        while(it.hasNext()) {
+            PropertyWriter writer = it.next();
+            Assert.assertTrue(writer.getName(), writer instanceof AccessorPropertyWriter);
+        }
+    }
+
     @Test
-    public void test() {
-        
+    public void test() throws IOException {
+        ObjectMapper plain = new ObjectMapper();
+        ObjectMapper mapper = customMapper();
+
+        Persion person = new Persion();
+        person.setId("1");
+        person.setName("name-1");
+
+        String str = mapper.writeValueAsString(person);
+        System.out.println(str);
+        Assert.assertEquals(plain.writeValueAsString(person), str);
+        Assert.assertEquals(person.toString(), mapper.readValue(str, Persion.class).toString());
+        assertAccessors(mapper, Persion.class);
+
+        Order order = new Order(1L);
+        order.setAddress("address-1");
+        order.setGoodsCount(2L);
+        order.setSum(2890L);
+
+        // random每次调用都不同，比较时去掉
+        ObjectNode expected = (ObjectNode)plain.valueToTree(order);
+        ObjectNode actual = (ObjectNode)mapper.valueToTree(order);
+        Assert.assertNotNull(actual.remove("random"));
+        expected.remove("random");
+        Assert.assertEquals(expected, actual);
+
+        Order d = mapper.readValue("{\"id\" : 2, \"sum\" : 2890, \"goodsCount\" : 2, \"address\" : \"address-2\"}", Order.class);
+        Assert.assertEquals(Long.valueOf(2), d.getGoodsCount());
+        Assert.assertEquals("address-2", d.getAddress());
+        Assert.assertNull(d.getId());
+    }
+
+    @Test
+    public void testEvent() throws IOException {
+        ObjectMapper plain = new ObjectMapper();
+        ObjectMapper mapper = customMapper();
+
+        Page page = new Page();
+        page.add("1");
+        page.add("2");
+        page.setPageNum(1);
+        page.setPageSize(10);
+
+        Event event = new Event();
+        event.setDate(new Date(1500000000000L));
+        event.setName("yang");
+        event.setPage(page);
+        event.setEventType(EventType.CREATE);
+        event.setInfos(Arrays.asList("str-1"));
+
+        String str = mapper.writeValueAsString(event);
+        System.out.println(str);
+        Assert.assertEquals(plain.writeValueAsString(event), str);
+
+        Event d = mapper.readValue(str, Event.class);
+        Assert.assertEquals(str, mapper.writeValueAsString(d));
+        assertAccessors(mapper, Event.class);
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        ObjectMapper plain = new ObjectMapper();
+        ObjectMapper mapper = new ObjectMapper().registerModule(new AccessorModule());
+
+        Numbers numbers = numbers(new Numbers());
+        String str = mapper.writeValueAsString(numbers);
+        System.out.println(str);
+        Assert.assertEquals(plain.writeValueAsString(numbers), str);
+        Assert.assertTrue(str.contains("\"text\":\"42\""));
+        Assert.assertEquals(str, mapper.writeValueAsString(mapper.readValue(str, Numbers.class)));
+        assertAccessors(mapper, Numbers.class);
+
+        // 字符串和null仍然交给jackson的deserializer
+        Numbers d = mapper.readValue("{\"count\" : \"12\", \"total\" : null, \"boxedCount\" : null, \"boxedTotal\" : 3}",
+                                     Numbers.class);
+        Assert.assertEquals(12, d.getCount());
+        Assert.assertEquals(0L, d.getTotal());
+        Assert.assertNull(d.getBoxedCount());
+        Assert.assertEquals(Long.valueOf(3), d.getBoxedTotal());
+
+        NumberRow row = (NumberRow)numbers(new NumberRow());
+        str = mapper.writeValueAsString(row);
+        System.out.println(str);
+        Assert.assertEquals(plain.writeValueAsString(row), str);
+        Assert.assertEquals(str, mapper.writeValueAsString(mapper.readValue(str, NumberRow.class)));
+
+        Sparse sparse = new Sparse();
+        Assert.assertEquals("{}", mapper.writeValueAsString(sparse));
+        sparse.setCount(3);
+        Assert.assertEquals(plain.writeValueAsString(sparse), mapper.writeValueAsString(sparse));
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void testIntOverflow() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new AccessorModule());
+
+        mapper.readValue("{\"count\" : 3000000000}", Numbers.class);
     }
 }
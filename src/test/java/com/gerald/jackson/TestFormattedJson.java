@@ -2,11 +2,14 @@ package com.gerald.jackson;
 
 import java.io.IOException;
 
+import org.junit.Assert;
 import org.junit.Test;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerald.jackson.io.JsonReformatter;
 
 public class TestFormattedJson {
     /**
@@ -26,4 +29,32 @@ public class TestFormattedJson {
         
         System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(obj));
     }
+    
+    /**
+     * 使用{@link JsonReformatter}格式化json，不生成LinkedHashMap，适合很大的文档
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testReformatExistedStr() throws IOException {
+        String str = "{\"name\" : \"name-test\",\"attr2\" : \"value2\", \"attr1\" : \"value1\", \"nested\":{\"prop\":1}}";
+        
+        String formatted = JsonReformatter.pretty().reformat(str);
+        
+        // 属性顺序保持输入的顺序，换行与DefaultPrettyPrinter相同
+        String expected = String.join(DefaultIndenter.SYS_LF, 
+                "{", 
+                "  \"name\" : \"name-test\",", 
+                "  \"attr2\" : \"value2\",", 
+                "  \"attr1\" : \"value1\",", 
+                "  \"nested\" : {", 
+                "    \"prop\" : 1", 
+                "  }", 
+                "}");
+        Assert.assertEquals(expected, formatted);
+        
+        ObjectMapper mapper = new ObjectMapper();
+        Assert.assertEquals(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(mapper.readValue(str, Object.class)), 
+                            formatted);
+    }
 }
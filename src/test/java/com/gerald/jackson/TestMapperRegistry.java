@@ -0,0 +1,83 @@
+package com.gerald.jackson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.gerald.jackson.MapperRegistry.Profile;
+import com.gerald.jackson.model.DeliveryNotification;
+import com.gerald.jackson.model.Notification;
+import com.gerald.jackson.model.PayNotification;
+
+public class TestMapperRegistry {
+    public static class Bean {
+        private Optional<String> name = Optional.of("name-1");
+
+        public Optional<String> getName() {
+            return name;
+        }
+
+        public void setName(Optional<String> name) {
+            this.name = name;
+        }
+    }
+    
+    /**
+     * 同一类型总是得到同一个reader/writer实例
+     */
+    @Test
+    public void testCached() {
+        MapperRegistry registry = new MapperRegistry(Notification.class);
+        JavaType type = registry.listType(Notification.class);
+        
+        Assert.assertSame(registry.writer(Profile.PLAIN, type), registry.writer(Profile.PLAIN, type));
+        Assert.assertSame(registry.reader(Profile.PLAIN, type), registry.reader(Profile.PLAIN, registry.listType(Notification.class)));
+        Assert.assertSame(registry.reader(Profile.PLAIN, Notification.class), registry.reader(Profile.PLAIN, Notification.class));
+        Assert.assertNotSame(registry.writer(Profile.PLAIN, type), registry.writer(Profile.PRETTY, type));
+    }
+    
+    @Test
+    public void testPolymorphicList() throws IOException {
+        MapperRegistry registry = new MapperRegistry();
+        JavaType type = registry.listType(Notification.class);
+        registry.preload(type);
+        
+        List<Notification> notifications = new ArrayList<>();
+        DeliveryNotification delivery = new DeliveryNotification();
+        delivery.setId(1L);
+        delivery.setCreateTime(new Date());
+        delivery.setDeliveryNo("0001");
+        PayNotification pay = new PayNotification();
+        pay.setId(2L);
+        pay.setPayCode("pay-1");
+        pay.setTotal(233);
+        notifications.add(delivery);
+        notifications.add(pay);
+        
+        String str = registry.writer(Profile.PLAIN, type).writeValueAsString(notifications);
+        System.out.println(str);
+        
+        List<Notification> d = registry.reader(Profile.PLAIN, type).readValue(str);
+        Assert.assertEquals(2, d.size());
+        Assert.assertTrue(d.get(0) instanceof DeliveryNotification);
+        Assert.assertTrue(d.get(1) instanceof PayNotification);
+    }
+    
+    @Test
+    public void testProfiles() throws IOException {
+        MapperRegistry registry = MapperRegistry.getDefault();
+        
+        String jdk8 = registry.writer(Profile.JDK8, Bean.class).writeValueAsString(new Bean());
+        Assert.assertEquals("{\"name\":\"name-1\"}", jdk8);
+        
+        String pretty = registry.writer(Profile.PRETTY, Notification.class).writeValueAsString(new Notification());
+        System.out.println(pretty);
+        Assert.assertTrue(pretty.contains("\n"));
+    }
+}
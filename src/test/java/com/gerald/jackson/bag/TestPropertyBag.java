@@ -0,0 +1,229 @@
+package com.gerald.jackson.bag;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerald.jackson.annotation.TestAnyGetterSetter;
+
+public class TestPropertyBag {
+    /**
+     * 与{@link TestAnyGetterSetter.ExtendableBean}相同，只是用{@link PropertyBag}保存属性
+     */
+    public static class ExtendableBean {
+        public String name;
+        private PropertyBag<String> properties = new PropertyBag<>();
+
+        @JsonAnyGetter
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @JsonAnySetter
+        public void setProperties(String name, String value) {
+            this.properties.put(name, value);
+        }
+    }
+
+    public static class ObjectBean {
+        public int id;
+        private PropertyBag<Object> extra = new PropertyBag<>();
+
+        @JsonAnyGetter
+        public PropertyBag<Object> getExtra() {
+            return extra;
+        }
+
+        @JsonAnySetter
+        public void setExtra(String name, Object value) {
+            this.extra.put(name, value);
+        }
+    }
+
+    /**
+     * any-getter返回普通的{@code HashMap}，记录调用次数
+     */
+    public static class CountingBean {
+        public String name;
+        private Map<String, Object> properties = new HashMap<>();
+        int calls;
+
+        @JsonAnyGetter
+        public Map<String, Object> getProperties() {
+            calls++;
+            return properties;
+        }
+    }
+
+    public static class Failing {
+        public String getValue() {
+            throw new IllegalStateException("failing");
+        }
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new PropertyBagModule());
+    }
+
+    @Test
+    public void testMap() {
+        PropertyBag<Integer> bag = new PropertyBag<>();
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for(int i = 0; i < 5000; i++) {
+            String key = "k" + random.nextInt(40);
+
+            if(random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), bag.remove(key));
+            } else {
+                Assert.assertEquals(expected.put(key, i), bag.put(key, i));
+            }
+
+            Assert.assertEquals(expected.size(), bag.size());
+        }
+
+        Assert.assertEquals(expected, bag);
+        Assert.assertEquals(bag, expected);
+        Assert.assertEquals(expected.hashCode(), bag.hashCode());
+        for(String key : expected.keySet()) {
+            Assert.assertTrue(bag.containsKey(key));
+            Assert.assertEquals(expected.get(key), bag.get(key));
+        }
+        Assert.assertNull(bag.get("missing"));
+        Assert.assertNull(bag.get(1));
+
+        Assert.assertEquals(expected, new PropertyBag<>(expected));
+
+        bag.clear();
+        Assert.assertTrue(bag.isEmpty());
+        Assert.assertNull(bag.get("k1"));
+    }
+
+    @Test
+    public void testEntrySet() {
+        PropertyBag<String> bag = new PropertyBag<>();
+        bag.put("a", "1");
+        bag.put("b", "2");
+
+        for(Map.Entry<String, String> entry : bag.entrySet()) {
+            entry.setValue(entry.getValue() + "0");
+        }
+        Assert.assertEquals("10", bag.get("a"));
+        Assert.assertEquals("20", bag.get("b"));
+
+        Iterator<String> it = bag.keySet().iterator();
+        it.next();
+        try {
+            it.remove();
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // 需要使用PropertyBag#remove
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        ExtendableBean bean = new ExtendableBean();
+        bean.name = "name-test";
+        bean.getProperties().put("attr1", "value1");
+        bean.getProperties().put("attr2", "value2");
+
+        String jsonStr = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(bean);
+        System.out.println(jsonStr);
+
+        ExtendableBean deserialize = mapper.readValue(jsonStr, ExtendableBean.class);
+        Assert.assertEquals(bean.name, deserialize.name);
+        Assert.assertEquals(bean.getProperties(), deserialize.getProperties());
+        Assert.assertTrue(deserialize.getProperties() instanceof PropertyBag);
+
+        // 与HashMap的输出相同
+        TestAnyGetterSetter.ExtendableBean plain = new TestAnyGetterSetter.ExtendableBean();
+        plain.name = bean.name;
+        plain.getProperties().putAll(bean.getProperties());
+        Assert.assertEquals(new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(plain)),
+                            new ObjectMapper().readTree(mapper.writeValueAsString(bean)));
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(bean), mapper.writeValueAsString(bean));
+    }
+
+    @Test
+    public void testManyProperties() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        StringBuilder str = new StringBuilder("{\"id\":1");
+        for(int i = 0; i < 40; i++) {
+            str.append(",\"p").append(i).append("\":");
+            switch(i % 4) {
+                case 0: str.append(i); break;
+                case 1: str.append("\"s").append(i).append('"'); break;
+                case 2: str.append("null"); break;
+                default: str.append("{\"n\":[").append(i).append("]}");
+            }
+        }
+        str.append('}');
+
+        ObjectBean bean = mapper.readValue(str.toString(), ObjectBean.class);
+        Assert.assertEquals(1, bean.id);
+        Assert.assertEquals(40, bean.getExtra().size());
+        Assert.assertTrue(bean.getExtra().containsKey("p2"));
+        Assert.assertNull(bean.getExtra().get("p2"));
+
+        Assert.assertEquals(mapper.readTree(str.toString()), mapper.readTree(mapper.writeValueAsString(bean)));
+    }
+
+    /**
+     * 属性名来自parser的符号表，多个对象共享同一个键
+     */
+    @Test
+    public void testSharedKeys() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        ExtendableBean first = mapper.readValue("{\"name\":\"a\",\"color\":\"red\"}", ExtendableBean.class);
+        ExtendableBean second = mapper.readValue("{\"name\":\"b\",\"color\":\"blue\"}".getBytes("UTF-8"),
+                                                 ExtendableBean.class);
+
+        Assert.assertSame(first.getProperties().keySet().iterator().next(),
+                          second.getProperties().keySet().iterator().next());
+    }
+
+    @Test
+    public void testException() throws IOException {
+        ObjectBean bean = new ObjectBean();
+        bean.getExtra().put("failing", new Failing());
+
+        try {
+            mapper().writeValueAsString(bean);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+            Assert.assertTrue(e.getMessage().contains("failing"));
+        }
+    }
+
+    @Test
+    public void testPlainMap() throws IOException {
+        CountingBean bean = new CountingBean();
+        bean.name = "name-test";
+        bean.properties.put("attr1", "value1");
+        bean.properties.put("attr2", 2);
+
+        String str = mapper().writeValueAsString(bean);
+        System.out.println(str);
+        Assert.assertEquals(1, bean.calls);
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(bean), str);
+
+        bean.properties = null;
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(bean), mapper().writeValueAsString(bean));
+    }
+}
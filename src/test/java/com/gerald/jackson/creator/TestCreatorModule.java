@@ -0,0 +1,328 @@
+package com.gerald.jackson.creator;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.gerald.jackson.annotation.TestCreator.Resp;
+import com.gerald.jackson.annotation.TestJsonFormat.Page;
+
+public class TestCreatorModule {
+    /**
+     * 各种基本类型的参数，以及creator之外的setter属性
+     */
+    public static class Sample {
+        private final long id;
+
+        private final double ratio;
+
+        private final boolean enabled;
+
+        private final float weight;
+
+        private final char grade;
+
+        private final String name;
+
+        private String remark;
+
+        @JsonCreator
+        public Sample(@JsonProperty("id") long id,
+                      @JsonProperty("ratio") double ratio,
+                      @JsonProperty("enabled") boolean enabled,
+                      @JsonProperty("weight") float weight,
+                      @JsonProperty("grade") char grade,
+                      @JsonProperty("name") String name) {
+            this.id = id;
+            this.ratio = ratio;
+            this.enabled = enabled;
+            this.weight = weight;
+            this.grade = grade;
+            this.name = name;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public float getWeight() {
+            return weight;
+        }
+
+        public char getGrade() {
+            return grade;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+    }
+
+    public static class Failing {
+        @JsonCreator
+        public Failing(@JsonProperty("code") int code) {
+            throw new IllegalStateException("code = " + code);
+        }
+    }
+
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+    public static class Item {
+        public String id;
+
+        public int value;
+    }
+
+    /**
+     * creator之外的属性引用了之后才出现的{@link Item}
+     */
+    public static class Link {
+        private final String name;
+
+        @JsonIdentityReference(alwaysAsId = true)
+        private Item target;
+
+        @JsonCreator
+        public Link(@JsonProperty("name") String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Item getTarget() {
+            return target;
+        }
+
+        public void setTarget(Item target) {
+            this.target = target;
+        }
+    }
+
+    public static class Graph {
+        public Link link;
+
+        public List<Item> items;
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new CreatorModule());
+    }
+
+    @Test
+    public void testInstalled() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        DefaultDeserializationContext ctxt = ((DefaultDeserializationContext)mapper.getDeserializationContext())
+                .createInstance(mapper.getDeserializationConfig(), null, null);
+
+        Assert.assertTrue(ctxt.findRootValueDeserializer(mapper.constructType(Resp.class)) instanceof CreatorDeserializer);
+        Assert.assertTrue(ctxt.findRootValueDeserializer(mapper.constructType(Page.class)) instanceof CreatorDeserializer);
+    }
+
+    @Test
+    public void testResp() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        Resp resp = mapper.readValue("{\"msg\" : \"success\", \"code\" : 1000}", Resp.class);
+        System.out.println(resp);
+        Assert.assertEquals(1000, resp.getCode());
+        Assert.assertEquals("success", resp.getMsg());
+
+        // 字符串形式的数字仍然交给jackson的deserializer
+        resp = mapper.readValue("{\"code\" : \"7\", \"msg\" : null}", Resp.class);
+        Assert.assertEquals(7, resp.getCode());
+        Assert.assertNull(resp.getMsg());
+
+        // 没有设置的int参数为0
+        resp = mapper.readValue("{\"msg\" : \"success\"}", Resp.class);
+        Assert.assertEquals(0, resp.getCode());
+    }
+
+    @Test
+    public void testMissingRequired() throws IOException {
+        String str = "{\"code\" : 1000}";
+        String expected = null;
+
+        try {
+            new ObjectMapper().readValue(str, Resp.class);
+        } catch (JsonMappingException e) {
+            expected = e.getOriginalMessage();
+        }
+
+        try {
+            mapper().readValue(str, Resp.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getOriginalMessage());
+            Assert.assertEquals("Missing required creator property 'msg' (index 1)", e.getOriginalMessage());
+            Assert.assertEquals(expected, e.getOriginalMessage());
+        }
+    }
+
+    @Test
+    public void testMissingWithFeature() throws IOException {
+        ObjectMapper mapper = mapper().enable(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES);
+
+        try {
+            mapper.readValue("{\"msg\" : \"success\"}", Resp.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            Assert.assertTrue(e.getOriginalMessage().startsWith("Missing creator property 'code' (index 0)"));
+        }
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void testUnknownProperty() throws IOException {
+        mapper().readValue("{\"code\" : 1000, \"msg\" : \"success\", \"other\" : 1}", Resp.class);
+    }
+
+    @Test
+    public void testPage() throws IOException {
+        ObjectMapper plain = new ObjectMapper();
+        ObjectMapper mapper = mapper();
+
+        String str = "{\"pageNum\" : 2, \"items\" : [\"1\", \"2\"], \"pageSize\" : 10}";
+        Page page = mapper.readValue(str, Page.class);
+        System.out.println(page);
+
+        Assert.assertEquals(plain.readValue(str, Page.class).toString(), page.toString());
+        Assert.assertEquals(2, page.getPageNum());
+        Assert.assertEquals(10, page.getPageSize());
+        Assert.assertEquals(2, page.size());
+    }
+
+    @Test
+    public void testPrimitives() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        // remark在creator参数之前和之后出现
+        String[] inputs = {
+            "{\"remark\" : \"r\", \"id\" : 9007199254740993, \"ratio\" : 0.25, \"enabled\" : true, "
+                    + "\"weight\" : 1.5, \"grade\" : \"A\", \"name\" : \"n\"}",
+            "{\"id\" : 9007199254740993, \"ratio\" : 0.25, \"enabled\" : true, "
+                    + "\"weight\" : 1.5, \"grade\" : \"A\", \"name\" : \"n\", \"remark\" : \"r\"}"
+        };
+
+        for(String str : inputs) {
+            Sample sample = mapper.readValue(str, Sample.class);
+
+            Assert.assertEquals(9007199254740993L, sample.getId());
+            Assert.assertEquals(0.25, sample.getRatio(), 0);
+            Assert.assertTrue(sample.isEnabled());
+            Assert.assertEquals(1.5f, sample.getWeight(), 0);
+            Assert.assertEquals('A', sample.getGrade());
+            Assert.assertEquals("n", sample.getName());
+            Assert.assertEquals("r", sample.getRemark());
+            Assert.assertEquals(new ObjectMapper().writeValueAsString(sample), mapper.writeValueAsString(sample));
+        }
+
+        Sample sample = mapper.readValue("{}", Sample.class);
+        Assert.assertEquals(0L, sample.getId());
+        Assert.assertFalse(sample.isEnabled());
+        Assert.assertEquals('\0', sample.getGrade());
+    }
+
+    @Test
+    public void testCreatorException() throws IOException {
+        try {
+            mapper().readValue("{\"code\" : 3}", Failing.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testNullWithFeature() throws IOException {
+        ObjectMapper plain = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES);
+        ObjectMapper mapper = mapper().enable(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES);
+
+        for(String str : new String[] {"{\"code\" : 1000}", "{\"code\" : 1000, \"msg\" : null}"}) {
+            try {
+                mapper.readValue(str, Resp.class);
+                Assert.fail();
+            } catch (JsonMappingException e) {
+                try {
+                    plain.readValue(str, Resp.class);
+                    Assert.fail();
+                } catch (JsonMappingException expected) {
+                    Assert.assertEquals(expected.getOriginalMessage(), e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testForwardReference() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        // name在target之后：创建对象时target还没有解析；没有name：在对象结束时创建
+        String[] inputs = {
+            "{\"link\" : {\"target\" : \"a\", \"name\" : \"n\"}, \"items\" : [{\"id\" : \"a\", \"value\" : 1}]}",
+            "{\"link\" : {\"target\" : \"a\"}, \"items\" : [{\"id\" : \"a\", \"value\" : 1}]}"
+        };
+
+        for(String str : inputs) {
+            Graph graph = mapper.readValue(str, Graph.class);
+
+            Assert.assertSame(graph.items.get(0), graph.link.getTarget());
+            Assert.assertEquals(1, graph.link.getTarget().value);
+        }
+
+        Graph graph = new ObjectMapper().readValue(inputs[1], Graph.class);
+        Assert.assertSame(graph.items.get(0), graph.link.getTarget());
+    }
+
+    /**
+     * 与jackson一样，关闭{@code WRAP_EXCEPTIONS}时creator的异常仍然被包装
+     */
+    @Test
+    public void testCreatorExceptionNotWrapped() throws IOException {
+        String str = "{\"code\" : 3}";
+        JsonMappingException expected = null;
+        try {
+            new ObjectMapper().disable(DeserializationFeature.WRAP_EXCEPTIONS).readValue(str, Failing.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            expected = e;
+        }
+
+        try {
+            mapper().disable(DeserializationFeature.WRAP_EXCEPTIONS).readValue(str, Failing.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getOriginalMessage());
+            Assert.assertEquals(expected.getOriginalMessage(), e.getOriginalMessage());
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
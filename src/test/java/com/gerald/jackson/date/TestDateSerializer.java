@@ -0,0 +1,118 @@
+package com.gerald.jackson.date;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+public class TestDateSerializer {
+    public static class Event {
+        private String name;
+        
+        @JsonSerialize(using = DateSerializer.class)
+        private Date createTime;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+    }
+    
+    private static String expected(Date date, TimeZone timeZone) {
+        SimpleDateFormat format = new SimpleDateFormat(DateSerializer.PATTERN);
+        format.setTimeZone(timeZone);
+        
+        return "\"" + format.format(date) + "\"";
+    }
+    
+    /**
+     * 与{@link SimpleDateFormat}的结果逐一比较，包括夏令时切换和1583年之前的时间
+     */
+    @Test
+    public void testSameAsSimpleDateFormat() throws IOException {
+        Random random = new Random(0);
+        
+        for(String id : new String[] {"UTC", "Asia/Shanghai", "America/New_York"}) {
+            TimeZone timeZone = TimeZone.getTimeZone(id);
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.registerModule(new SimpleModule().addSerializer(Date.class, new DateSerializer(timeZone)));
+            
+            for(int i = 0; i < 10000; i++) {
+                long millis = (i < 5000) ? (random.nextLong() % 100000000000000L)
+                                         : (1478412000000L + i * 997L);
+                Date date = new Date(millis);
+                
+                Assert.assertEquals(expected(date, timeZone), mapper.writeValueAsString(date));
+            }
+        }
+    }
+    
+    @Test
+    public void testAnnotated() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        
+        Event event = new Event();
+        event.setName("event-name");
+        event.setCreateTime(new Date());
+        
+        String str = mapper.writeValueAsString(event);
+        System.out.println(str);
+        Assert.assertTrue(str.contains(expected(event.getCreateTime(), TimeZone.getDefault())));
+    }
+    
+    /**
+     * 多个线程共享一个serializer，不会相互干扰
+     */
+    @Test
+    public void testConcurrent() throws Exception {
+        final ObjectMapper mapper = new ObjectMapper();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            
+            for(int t = 0; t < 4; t++) {
+                final long base = 1500000000000L + t * 86400000L * 31;
+                futures.add(executor.submit(() -> {
+                    Event event = new Event();
+                    for(int i = 0; i < 20000; i++) {
+                        event.setCreateTime(new Date(base + i * 333L));
+                        String str = mapper.writeValueAsString(event);
+                        Assert.assertTrue(str.contains(expected(event.getCreateTime(), TimeZone.getDefault())));
+                    }
+                    return null;
+                }));
+            }
+            
+            for(Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
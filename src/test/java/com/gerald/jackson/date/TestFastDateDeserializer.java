@@ -0,0 +1,131 @@
+package com.gerald.jackson.date;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TestFastDateDeserializer {
+    public static class Event {
+        private Date date;
+        
+        private Date millis;
+        
+        private Date other;
+
+        @JsonFormat(shape = Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+
+        @JsonFormat(shape = Shape.STRING, pattern = "yyyyMMdd'T'HHmmss.SSS", timezone = "Asia/Shanghai")
+        public Date getOther() {
+            return other;
+        }
+
+        public void setOther(Date other) {
+            this.other = other;
+        }
+
+        @JsonFormat(shape = Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss.SSS", timezone = "America/New_York")
+        public Date getMillis() {
+            return millis;
+        }
+
+        public void setMillis(Date millis) {
+            this.millis = millis;
+        }
+    }
+    
+    @Test
+    public void testCompile() {
+        Assert.assertNotNull(DatePattern.compile("yyyy-MM-dd HH:mm:ss"));
+        Assert.assertNotNull(DatePattern.compile("yyyyMMdd"));
+        Assert.assertNull(DatePattern.compile("yyyy-M-d"));
+        Assert.assertNull(DatePattern.compile("EEE, dd MMM yyyy"));
+        Assert.assertNull(DatePattern.compile("yyyyMMdd'T'HHmmss"));
+    }
+    
+    /**
+     * 与{@link SimpleDateFormat}的解析结果比较
+     */
+    @Test
+    public void testSameAsSimpleDateFormat() throws ParseException {
+        Random random = new Random(0);
+        
+        for(String pattern : new String[] {"yyyy-MM-dd HH:mm:ss", "dd/MM/yyyy HH:mm:ss.SSS", "yyyyMMdd"}) {
+            for(String id : new String[] {"UTC", "Asia/Shanghai", "America/New_York"}) {
+                TimeZone timeZone = TimeZone.getTimeZone(id);
+                SimpleDateFormat format = new SimpleDateFormat(pattern);
+                format.setTimeZone(timeZone);
+                DatePattern compiled = DatePattern.compile(pattern);
+                
+                for(int i = 0; i < 5000; i++) {
+                    String str = format.format(new Date(random.nextLong() % 4000000000000L + 1000000000000L));
+                    char[] buf = ("  " + str).toCharArray();
+                    
+                    Assert.assertEquals(str, format.parse(str).getTime(), compiled.parse(buf, 2, str.length(), timeZone));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testInvalid() {
+        DatePattern compiled = DatePattern.compile("yyyy-MM-dd HH:mm:ss");
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        
+        for(String str : new String[] {"2017-13-01 00:00:00", "2017-02-29 00:00:00", "2017-1-01 00:00:00", 
+                                       "2017-01-01T00:00:00", "1500-01-01 00:00:00", "2017-01-01 24:00:00"}) {
+            Assert.assertEquals(str, DatePattern.INVALID, compiled.parse(str.toCharArray(), 0, str.length(), utc));
+        }
+    }
+    
+    @Test
+    public void testDeserialize() throws IOException, ParseException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new DateModule());
+        ObjectMapper std = new ObjectMapper();
+        
+        String str = "{\"date\":\"2017-05-04 13:14:15\",\"millis\":\"04/05/2017 13:14:15.678\",\"other\":\"20170504T131415.123\"}";
+        Event d = mapper.readValue(str, Event.class);
+        Event expected = std.readValue(str, Event.class);
+        
+        Assert.assertEquals(expected.getDate(), d.getDate());
+        Assert.assertEquals(expected.getOther(), d.getOther());
+        Assert.assertEquals(expected.getMillis(), d.getMillis());
+        
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Assert.assertEquals(format.parse("2017-05-04 13:14:15"), d.getDate());
+        
+        Assert.assertEquals(str, mapper.writeValueAsString(d));
+    }
+    
+    /**
+     * 时间戳和不符合格式的输入交给jackson原来的实现
+     */
+    @Test
+    public void testFallback() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new DateModule());
+        ObjectMapper std = new ObjectMapper();
+        
+        for(String str : new String[] {"{\"date\":1493903655000}", "{\"date\":\"2017-5-4 13:14:15\"}", "{\"date\":\"2017-13-04 13:14:15\"}"}) {
+            Assert.assertEquals(std.readValue(str, Event.class).getDate(), mapper.readValue(str, Event.class).getDate());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.gerald.jackson.enums;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gerald.jackson.annotation.TestJsonFormat.Event;
+import com.gerald.jackson.annotation.TestJsonFormat.EventType;
+import com.gerald.jackson.annotation.TestJsonValue.ErrorCode;
+import com.gerald.jackson.annotation.TestJsonValue.Resp;
+
+public class TestEnumModule {
+    private static ObjectMapper mapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new EnumModule());
+        
+        return mapper;
+    }
+    
+    @Test
+    public void testEnumTable() {
+        TimeUnit[] units = TimeUnit.values();
+        String[] names = new String[units.length];
+        for(int i = 0; i < units.length; i++) {
+            names[i] = units[i].name();
+        }
+        
+        EnumTable table = EnumTable.build(names, units);
+        for(TimeUnit unit : units) {
+            char[] buf = ("xx" + unit.name() + "yy").toCharArray();
+            Assert.assertSame(unit, table.find(buf, 2, unit.name().length()));
+        }
+        
+        Assert.assertNull(table.find("SECOND".toCharArray(), 0, 6));
+        Assert.assertNull(table.find("".toCharArray(), 0, 0));
+    }
+    
+    @Test
+    public void testInstalled() throws IOException {
+        ObjectMapper mapper = mapper();
+        
+        Assert.assertTrue((Object)mapper.getSerializerProviderInstance().findValueSerializer(ErrorCode.class) instanceof FastEnumSerializer);
+        Assert.assertTrue((Object)mapper.getSerializerProviderInstance().findValueSerializer(EventType.class) instanceof FastEnumSerializer);
+    }
+    
+    /**
+     * {@code @JsonValue} + {@code @JsonCreator}
+     */
+    @Test
+    public void testJsonValue() throws IOException {
+        ObjectMapper mapper = mapper();
+        
+        Resp resp = new Resp();
+        resp.setErrorCode(ErrorCode.FAIL);
+        
+        String str = mapper.writeValueAsString(resp);
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(resp), str);
+        Assert.assertEquals("{\"errorCode\":\"fail\"}", str);
+        
+        Assert.assertSame(ErrorCode.FAIL, mapper.readValue(str, Resp.class).getErrorCode());
+        Assert.assertSame(ErrorCode.SUCCESS, mapper.readValue(mapper.writeValueAsBytes(ErrorCode.SUCCESS), ErrorCode.class));
+        
+        // 未知的值仍然交给creator，结果与原来一致
+        Assert.assertNull(mapper.readValue("{\"errorCode\":\"unknown\"}", Resp.class).getErrorCode());
+
+        // WRITE_ENUMS_USING_INDEX对@JsonValue不起作用
+        String indexed = mapper.writer().with(SerializationFeature.WRITE_ENUMS_USING_INDEX).writeValueAsString(resp);
+        Assert.assertEquals(new ObjectMapper().writer().with(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                                              .writeValueAsString(resp), indexed);
+        Assert.assertEquals("{\"errorCode\":\"fail\"}", indexed);
+    }
+    
+    /**
+     * <code>@JsonFormat(shape = Shape.NUMBER)</code>
+     */
+    @Test
+    public void testNumberShape() throws IOException {
+        ObjectMapper mapper = mapper();
+        
+        Event event = new Event();
+        event.setEventType(EventType.CREATE);
+        event.setInfos(Arrays.asList("str-1"));
+        
+        String str = mapper.writeValueAsString(event);
+        System.out.println(str);
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(event), str);
+        Assert.assertTrue(str.contains("\"eventType\":1"));
+        
+        Assert.assertSame(EventType.CREATE, mapper.readValue(str, Event.class).getEventType());
+        Assert.assertSame(EventType.PAY, mapper.readValue("{\"eventType\":\"PAY\"}", Event.class).getEventType());
+        
+        Assert.assertEquals("\"PAY\"", mapper.writeValueAsString(EventType.PAY));
+        Assert.assertEquals("0", mapper.writer().with(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                                       .writeValueAsString(EventType.PAY));
+    }
+    
+    @Test(expected = JsonMappingException.class)
+    public void testUnknownName() throws IOException {
+        mapper().readValue("\"REFUND\"", EventType.class);
+    }
+    
+    @Test(expected = JsonMappingException.class)
+    public void testIndexOutOfRange() throws IOException {
+        mapper().readValue("5", EventType.class);
+    }
+}
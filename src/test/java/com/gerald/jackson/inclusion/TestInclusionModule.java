@@ -0,0 +1,339 @@
+package com.gerald.jackson.inclusion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.gerald.jackson.annotation.TestJsonInclude.Default;
+import com.gerald.jackson.annotation.TestJsonInclude.Nulls;
+import com.gerald.jackson.inclusion.InclusionPropertyWriter.Check;
+
+public class TestInclusionModule {
+    /**
+     * 类上的NON_DEFAULT：与默认构造器创建的对象比较
+     */
+    @JsonInclude(Include.NON_DEFAULT)
+    public static class Defaults {
+        private int count = 3;
+
+        private long total;
+
+        private boolean enabled = true;
+
+        private double ratio = 0.5;
+
+        private Integer boxed = 7;
+
+        private String name = "n";
+
+        private List<String> tags = new ArrayList<>();
+
+        private int[] codes = {1, 2};
+
+        private Default def = new Default(1);
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double ratio) {
+            this.ratio = ratio;
+        }
+
+        public Integer getBoxed() {
+            return boxed;
+        }
+
+        public void setBoxed(Integer boxed) {
+            this.boxed = boxed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public int[] getCodes() {
+            return codes;
+        }
+
+        public void setCodes(int[] codes) {
+            this.codes = codes;
+        }
+
+        public Default getDef() {
+            return def;
+        }
+
+        public void setDef(Default def) {
+            this.def = def;
+        }
+    }
+
+    public static class Money {
+        private final long cents;
+
+        public Money(long cents) {
+            this.cents = cents;
+        }
+    }
+
+    /**
+     * 0元也算作空
+     */
+    public static class MoneySerializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.cents);
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, Money value) {
+            return value.cents == 0;
+        }
+    }
+
+    /**
+     * 属性上的设置
+     */
+    public static class Props {
+        @JsonInclude(Include.NON_DEFAULT)
+        public int level;
+
+        @JsonInclude(Include.NON_DEFAULT)
+        public Long version;
+
+        @JsonInclude(Include.NON_DEFAULT)
+        public Date time;
+
+        @JsonInclude(Include.NON_EMPTY)
+        public String title;
+
+        @JsonInclude(Include.NON_EMPTY)
+        public Map<String, Object> attrs;
+
+        @JsonInclude(Include.NON_EMPTY)
+        public String[] names;
+
+        @JsonInclude(Include.NON_EMPTY)
+        public long[] ids;
+
+        @JsonInclude(Include.NON_EMPTY)
+        public Object any;
+
+        @JsonInclude(Include.NON_ABSENT)
+        public Optional<String> nick;
+
+        @JsonInclude(Include.NON_EMPTY)
+        @JsonSerialize(using = MoneySerializer.class)
+        public Money price;
+
+        @JsonInclude(Include.NON_NULL)
+        public String remark;
+
+        @JsonInclude(Include.NON_EMPTY)
+        public List<Integer> values;
+    }
+
+    private static ObjectMapper plain() {
+        return new ObjectMapper().registerModule(new Jdk8Module());
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new InclusionModule()).registerModule(new Jdk8Module());
+    }
+
+    private static void assertSame(Object value) throws IOException {
+        String expected = plain().writeValueAsString(value);
+        String actual = mapper().writeValueAsString(value);
+        System.out.println(actual);
+
+        Assert.assertEquals(expected, actual);
+    }
+
+    /**
+     * {@code TestJsonInclude#test()}中的对象
+     */
+    @Test
+    public void testNulls() throws IOException {
+        Nulls n = new Nulls();
+        n.setId(2);
+        assertSame(n);
+
+        n.setName(Optional.of("name"));
+        n.setChildren(Arrays.asList("a"));
+        n.setDef1(null);
+        n.setOk(false);
+        assertSame(n);
+
+        n.setName(Optional.of(""));
+        n.setChildren(new LinkedList<>());
+        assertSame(n);
+    }
+
+    @Test
+    public void testClassDefaults() throws IOException {
+        Defaults d = new Defaults();
+        Assert.assertEquals("{}", mapper().writeValueAsString(d));
+
+        d.setCount(0);
+        d.setTotal(9L);
+        d.setEnabled(false);
+        d.setRatio(-0.0);
+        d.setBoxed(null);
+        d.setName("");
+        d.setTags(Arrays.asList("t"));
+        d.setCodes(new int[] {1, 2});
+        d.setDef(new Default(2));
+        assertSame(d);
+
+        d.setCodes(new int[] {1});
+        d.setBoxed(7);
+        d.setRatio(0.5);
+        d.setDef(new Default(1));
+        assertSame(d);
+    }
+
+    @Test
+    public void testPropertyInclusion() throws IOException {
+        Props p = new Props();
+        assertSame(p);
+
+        p.version = 0L;
+        p.time = new Date(0);
+        p.title = "";
+        p.attrs = new HashMap<>();
+        p.names = new String[0];
+        p.ids = new long[0];
+        p.any = Collections.emptyList();
+        p.nick = Optional.empty();
+        p.price = new Money(0);
+        p.values = new ArrayList<>();
+        assertSame(p);
+
+        p.level = 1;
+        p.version = 2L;
+        p.time = new Date(1);
+        p.title = "t";
+        p.attrs.put("k", null);
+        p.names = new String[] {"a"};
+        p.ids = new long[] {1};
+        p.any = "";
+        p.nick = Optional.of("");
+        p.price = new Money(100);
+        p.remark = "r";
+        p.values = Arrays.asList(1, 2);
+        assertSame(p);
+
+        p.any = new int[0];
+        assertSame(p);
+    }
+
+    @Test
+    public void testInstalled() throws IOException {
+        JsonSerializer<Object> ser = mapper().getSerializerProviderInstance().findValueSerializer(Nulls.class);
+
+        int count = 0;
+        for(Iterator<PropertyWriter> it = ser.properties(); it.hasNext(); ) {
+            PropertyWriter writer = it.next();
+            Assert.assertTrue(writer.getName(), writer instanceof InclusionPropertyWriter);
+            count++;
+        }
+        Assert.assertEquals(5, count);
+    }
+
+    /**
+     * jdk8模块把{@code Optional}属性替换为自己的writer，null和{@code Optional.empty()}都不写出
+     */
+    @Test
+    public void testAbsentsAsNulls() throws IOException {
+        Props p = new Props();
+        p.nick = Optional.empty();
+        p.title = "t";
+
+        ObjectMapper plain = new ObjectMapper().registerModule(new Jdk8Module().configureAbsentsAsNulls(true));
+        ObjectMapper mapper = new ObjectMapper().registerModule(new InclusionModule())
+                                                .registerModule(new Jdk8Module().configureAbsentsAsNulls(true));
+
+        Assert.assertEquals(plain.writeValueAsString(p), mapper.writeValueAsString(p));
+        for(Iterator<PropertyWriter> it = mapper.getSerializerProviderInstance().findValueSerializer(Props.class)
+                .properties(); it.hasNext(); ) {
+            PropertyWriter writer = it.next();
+            if(writer.getName().equals("nick")) {
+                Assert.assertTrue(writer instanceof InclusionPropertyWriter);
+            }
+        }
+    }
+
+    @Test
+    public void testCompile() {
+        Assert.assertEquals(Check.NULL, InclusionPropertyWriter.compile(String.class, null));
+        Assert.assertEquals(Check.EMPTY_STRING,
+                            InclusionPropertyWriter.compile(String.class, InclusionPropertyWriter.MARKER_FOR_EMPTY));
+        Assert.assertEquals(Check.EMPTY_COLLECTION,
+                            InclusionPropertyWriter.compile(List.class, InclusionPropertyWriter.MARKER_FOR_EMPTY));
+        Assert.assertEquals(Check.ABSENT_OPTIONAL,
+                            InclusionPropertyWriter.compile(Optional.class, InclusionPropertyWriter.MARKER_FOR_EMPTY));
+        Assert.assertEquals(Check.EMPTY,
+                            InclusionPropertyWriter.compile(Money.class, InclusionPropertyWriter.MARKER_FOR_EMPTY));
+        Assert.assertEquals(Check.DEFAULT_INT, InclusionPropertyWriter.compile(int.class, 0));
+        Assert.assertEquals(Check.DEFAULT_LONG, InclusionPropertyWriter.compile(Long.class, 0L));
+        Assert.assertEquals(Check.DEFAULT_DOUBLE, InclusionPropertyWriter.compile(double.class, 0.5));
+        Assert.assertEquals(Check.DEFAULT_OBJECT, InclusionPropertyWriter.compile(Date.class, new Date(0)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.gerald.jackson.intern;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerald.jackson.model.Order;
+
+public class TestInternModule {
+    @JsonIntern
+    public static class Event {
+        public String type;
+
+        @JsonIntern(false)
+        public String id;
+
+        public Integer count;
+    }
+
+    public static class Person {
+        private String name;
+
+        private String remark;
+
+        public String getName() {
+            return name;
+        }
+
+        @JsonIntern
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+    }
+
+    @Test
+    public void testProperty() throws IOException {
+        StripedStringDeduplicator deduplicator = new StripedStringDeduplicator();
+        ObjectMapper mapper = new ObjectMapper().registerModule(new InternModule(deduplicator));
+
+        String str = "[{\"id\" : 1, \"address\" : \"上海\"}, {\"id\" : 2, \"address\" : \"上海\"}, "
+                     + "{\"id\" : 3, \"address\" : \"北京\"}, {\"id\" : 4, \"address\" : null}]";
+        List<Order> orders = mapper.readValue(str, new TypeReference<List<Order>>() {});
+        Assert.assertEquals("上海", orders.get(0).getAddress());
+        Assert.assertSame(orders.get(0).getAddress(), orders.get(1).getAddress());
+        Assert.assertEquals("北京", orders.get(2).getAddress());
+        Assert.assertNull(orders.get(3).getAddress());
+        Assert.assertEquals(1, deduplicator.getHits());
+        Assert.assertEquals(2, deduplicator.getMisses());
+
+        Person p1 = mapper.readValue("{\"name\" : \"gerald\", \"remark\" : \"r\"}", Person.class);
+        Person p2 = mapper.readValue("{\"name\" : \"gerald\", \"remark\" : \"r\"}", Person.class);
+        Assert.assertSame(p1.getName(), p2.getName());
+        Assert.assertNotSame(p1.getRemark(), p2.getRemark());
+
+        // 非字符串的值按jackson原来的方式转换
+        p1 = mapper.readValue("{\"name\" : 12}", Person.class);
+        Assert.assertEquals("12", p1.getName());
+
+        System.out.println(deduplicator);
+    }
+
+    @Test
+    public void testType() throws IOException {
+        StripedStringDeduplicator deduplicator = new StripedStringDeduplicator();
+        ObjectMapper mapper = new ObjectMapper().registerModule(new InternModule(deduplicator));
+
+        Event e1 = mapper.readValue("{\"type\" : \"click\", \"id\" : \"a\", \"count\" : 1}", Event.class);
+        Event e2 = mapper.readValue("{\"type\" : \"click\", \"id\" : \"a\", \"count\" : 2}", Event.class);
+        Assert.assertSame(e1.type, e2.type);
+        Assert.assertNotSame(e1.id, e2.id);
+        Assert.assertEquals("a", e2.id);
+        Assert.assertEquals(Integer.valueOf(2), e2.count);
+        Assert.assertEquals(0.5, deduplicator.getHitRate(), 0.0);
+
+        // 没有注册module时标注不起作用
+        Event e3 = new ObjectMapper().readValue("{\"type\" : \"click\"}", Event.class);
+        Assert.assertNotSame(e1.type, e3.type);
+    }
+
+    @Test
+    public void testDeduplicator() throws Exception {
+        StripedStringDeduplicator deduplicator = new StripedStringDeduplicator(64, 4, 8);
+
+        char[] buf = "xxhello world".toCharArray();
+        String hello = deduplicator.deduplicate(buf, 2, 5);
+        Assert.assertEquals("hello", hello);
+        Assert.assertSame(hello, deduplicator.deduplicate("hello".toCharArray(), 0, 5));
+        Assert.assertEquals("", deduplicator.deduplicate(buf, 0, 0));
+
+        // 超过最大长度的不缓存
+        String long1 = deduplicator.deduplicate(buf, 0, buf.length);
+        Assert.assertEquals("xxhello world", long1);
+        Assert.assertNotSame(long1, deduplicator.deduplicate(buf, 0, buf.length));
+        Assert.assertEquals(2, deduplicator.getSkipped());
+
+        // 容量有限，旧的值被替换，但结果总是正确的
+        for(int i = 0; i < 10000; i++) {
+            String s = "s" + (i % 500);
+            Assert.assertEquals(s, deduplicator.deduplicate(s.toCharArray(), 0, s.length()));
+        }
+        System.out.println(deduplicator);
+
+        deduplicator = new StripedStringDeduplicator(1024, 16, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int t = 0; t < 4; t++) {
+                StripedStringDeduplicator d = deduplicator;
+                futures.add(executor.submit(() -> {
+                    for(int i = 0; i < 20000; i++) {
+                        String s = "v" + (i % 100);
+                        Assert.assertEquals(s, d.deduplicate(s.toCharArray(), 0, s.length()));
+                    }
+                }));
+            }
+            for(Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println(deduplicator);
+        Assert.assertEquals(80000, deduplicator.getHits() + deduplicator.getMisses());
+        Assert.assertTrue(deduplicator.getHitRate() > 0.9);
+
+        deduplicator.resetStats();
+        Assert.assertEquals(0.0, deduplicator.getHitRate(), 0.0);
+    }
+}
@@ -0,0 +1,195 @@
+package com.gerald.jackson.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gerald.jackson.model.Order;
+
+public class TestBatchWriter {
+    private static List<Order> orders(int n) {
+        List<Order> orders = new ArrayList<>();
+        for(int i = 0; i < n; i++) {
+            Order order = new Order((long)i);
+            order.setAddress("address-" + (i % 3));
+            order.setSum(i * 100L);
+            order.setGoodsCount((long)(i % 5));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static class CountingFlushStream extends ByteArrayOutputStream {
+        int flushes;
+
+        boolean closed;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testArray() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Order> orders = orders(500);
+        BatchWriter writer = new BatchWriter(mapper.writerFor(Order.class));
+
+        CountingFlushStream out = new CountingFlushStream();
+        Assert.assertEquals(500, writer.writeAll(orders, out, Framing.ARRAY));
+        Assert.assertEquals(mapper.writeValueAsString(orders), out.toString("UTF-8"));
+        Assert.assertFalse(out.closed);
+
+        out.reset();
+        writer.writeAll(new ArrayList<>(), out, Framing.ARRAY);
+        Assert.assertEquals("[]", out.toString("UTF-8"));
+
+        // 带缩进的数组可以读回
+        out.reset();
+        new BatchWriter(mapper.writer().with(SerializationFeature.INDENT_OUTPUT)).writeAll(orders, out, Framing.ARRAY);
+        List<Order> read = mapper.readValue(out.toByteArray(), new TypeReference<List<Order>>() {});
+        Assert.assertEquals(mapper.writeValueAsString(orders), mapper.writeValueAsString(read));
+    }
+
+    @Test
+    public void testNdjson() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        List<Order> orders = orders(10);
+        BatchWriter writer = new BatchWriter(mapper.writerFor(Order.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeAll(orders, out, Framing.NDJSON);
+
+        StringBuilder expected = new StringBuilder();
+        ObjectWriter compact = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        for(Order order : orders) {
+            expected.append(compact.writeValueAsString(order)).append('\n');
+        }
+        Assert.assertEquals(expected.toString(), out.toString("UTF-8"));
+    }
+
+    /**
+     * writer自带的pretty printer不影响NDJSON和LENGTH_PREFIXED的记录
+     */
+    @Test
+    public void testPrettyPrinter() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Order> orders = orders(10);
+        BatchWriter writer = new BatchWriter(mapper.writerFor(Order.class).withDefaultPrettyPrinter());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeAll(orders, out, Framing.NDJSON);
+
+        StringBuilder expected = new StringBuilder();
+        for(Order order : orders) {
+            expected.append(mapper.writeValueAsString(order)).append('\n');
+        }
+        Assert.assertEquals(expected.toString(), out.toString("UTF-8"));
+
+        out.reset();
+        writer.writeAll(orders, out, Framing.LENGTH_PREFIXED);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        for(Order order : orders) {
+            byte[] record = new byte[in.readInt()];
+            in.readFully(record);
+            Assert.assertEquals(mapper.writeValueAsString(order), new String(record, StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testLengthPrefixed() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Object> values = new ArrayList<>(orders(300));
+        // 运行时类型不同的记录，以及比初始缓冲区长的记录
+        values.add(Arrays.asList(1, 2, 3));
+        values.add(null);
+        char[] chars = new char[5000];
+        Arrays.fill(chars, '中');
+        values.add(new String(chars));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals(303, new BatchWriter(mapper.writer()).writeAll(values, out, Framing.LENGTH_PREFIXED));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        for(Object value : values) {
+            byte[] record = new byte[in.readInt()];
+            in.readFully(record);
+            Assert.assertEquals(mapper.writeValueAsString(value), new String(record, StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testSequence() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        BatchWriter writer = new BatchWriter(mapper.writerFor(Order.class)).withFlushInterval(100);
+
+        for(Framing framing : Framing.values()) {
+            CountingFlushStream out = new CountingFlushStream();
+            try(BatchWriter.Sequence sequence = writer.open(out, framing)) {
+                for(Order order : orders(250)) {
+                    sequence.write(order);
+                }
+                Assert.assertEquals(2, out.flushes);
+                Assert.assertEquals(250, sequence.getCount());
+            }
+            // close时再flush一次
+            Assert.assertEquals(3, out.flushes);
+            Assert.assertFalse(out.closed);
+            System.out.println(framing + ": " + out.size() + " bytes");
+        }
+
+        BatchWriter.Sequence sequence = writer.open(new ByteArrayOutputStream(), Framing.NDJSON);
+        sequence.close();
+        try {
+            sequence.write(new Order(1L));
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage());
+        }
+
+        try {
+            writer.withFlushInterval(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testError() throws IOException {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        try {
+            new BatchWriter(new ObjectMapper().writer()).writeAll(orders(1), failing, Framing.LENGTH_PREFIXED);
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertEquals("disk full", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.gerald.jackson.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TestJsonReformatter {
+    private static final String STR = "{\"name\" : \"name-test\",\"attr2\" : \"value2\", \"attr1\" : \"value1\", \"nested\":{\"prop\":1}}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 与{@code TestFormattedJson#testFormatExistedStr()}的输出相同
+     */
+    @Test
+    public void testPretty() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        String expected = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(mapper.readValue(STR, Object.class));
+
+        String pretty = JsonReformatter.pretty().reformat(STR);
+        System.out.println(pretty);
+        Assert.assertEquals(expected, pretty);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonReformatter.pretty().reformat(new ByteArrayInputStream(STR.getBytes(StandardCharsets.UTF_8)), out);
+        Assert.assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        String str = "[ 1.10 , -0.0, 12345678901234567890123, 1e400, \"a\\\"\\u00e9中\", true, false, null, {} , [ ] ]";
+
+        Assert.assertEquals("[1.10,-0.0,12345678901234567890123,1e400,\"a\\\"é中\",true,false,null,{},[]]",
+                            JsonReformatter.compact().reformat(str));
+        Assert.assertEquals(JsonReformatter.compact().reformat(str),
+                            JsonReformatter.compact().reformat(JsonReformatter.pretty().reformat(str)));
+    }
+
+    @Test
+    public void testSorted() throws IOException {
+        String str = "{\"b\":{\"z\":1,\"y\":[{\"d\":1,\"c\":2},3]},\"a\":\"x\",\"c\":null,\"a\":2}";
+
+        Assert.assertEquals("{\"a\":\"x\",\"a\":2,\"b\":{\"y\":[{\"c\":2,\"d\":1},3],\"z\":1},\"c\":null}",
+                            JsonReformatter.compact().withSortedKeys(true).reformat(str));
+
+        String pretty = JsonReformatter.pretty().withSortedKeys(true).reformat(STR);
+        System.out.println(pretty);
+        Assert.assertTrue(pretty.indexOf("attr1") < pretty.indexOf("attr2"));
+        Assert.assertEquals(new ObjectMapper().readTree(STR), new ObjectMapper().readTree(pretty));
+    }
+
+    @Test
+    public void testRootValues() throws IOException {
+        Assert.assertEquals("{\"a\":1}\n[2]\n3", JsonReformatter.compact().reformat("{ \"a\" : 1 } [ 2 ] 3\n"));
+        Assert.assertEquals("", JsonReformatter.compact().reformat("  "));
+    }
+
+    /**
+     * 每行一个JSON，输出仍然是每行一个JSON
+     */
+    @Test
+    public void testNdjson() throws IOException {
+        String ndjson = "{ \"id\" : 1, \"tags\" : [ \"a\" ] }\n{\"id\":2,\n\"tags\":[]}\n\n[ 3 ]\n";
+
+        String compact = JsonReformatter.compact().reformat(ndjson);
+        Assert.assertEquals("{\"id\":1,\"tags\":[\"a\"]}\n{\"id\":2,\"tags\":[]}\n[3]", compact);
+        Assert.assertEquals(compact, JsonReformatter.compact().withSortedKeys(true).reformat(ndjson));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonReformatter.compact().reformat(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out);
+        Assert.assertEquals(compact, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        // 缩进格式的每个根值从新的一行开始
+        ObjectMapper mapper = new ObjectMapper();
+        String pretty = JsonReformatter.pretty().reformat(ndjson);
+        System.out.println(pretty);
+        Assert.assertEquals(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(mapper.readTree("{\"id\":1,\"tags\":[\"a\"]}"))
+                            + "\n" + mapper.writerWithDefaultPrettyPrinter().writeValueAsString(mapper.readTree("{\"id\":2,\"tags\":[]}"))
+                            + "\n" + mapper.writerWithDefaultPrettyPrinter().writeValueAsString(mapper.readTree("[3]")),
+                            pretty);
+    }
+
+    @Test
+    public void testFiles() throws IOException {
+        Path source = folder.newFile("source.json").toPath();
+        Path target = folder.newFile("target.json").toPath();
+
+        StringBuilder str = new StringBuilder("[");
+        for(int i = 0; i < 1000; i++) {
+            str.append((i == 0) ? "" : ",").append("{ \"id\" : ").append(i).append(", \"name\" : \"名称-").append(i).append("\" }");
+        }
+        str.append("]");
+        Files.write(source, str.toString().getBytes(StandardCharsets.UTF_8));
+
+        JsonReformatter.compact().reformat(source, target);
+        String expected = JsonReformatter.compact().reformat(str.toString());
+        Assert.assertEquals(expected, new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+
+        // 跨越多个映射窗口
+        try(InputStream in = new MappedFileInputStream(source, 1000)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonReformatter.compact().reformat(in, out);
+            Assert.assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+
+        try(InputStream in = Files.newInputStream(source)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonReformatter.compact().reformat(Channels.newChannel(in), Channels.newChannel(out));
+            Assert.assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testMappedFileInputStream() throws IOException {
+        Path file = folder.newFile("bytes").toPath();
+        byte[] bytes = new byte[10000];
+        for(int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte)i;
+        }
+        Files.write(file, bytes);
+
+        try(InputStream in = new MappedFileInputStream(file, 999)) {
+            Assert.assertEquals(bytes.length, in.available());
+            Assert.assertEquals(0, in.read());
+            Assert.assertEquals(2000, in.skip(2000));
+            Assert.assertEquals(bytes[2001] & 0xFF, in.read());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[700];
+            for(int n; (n = in.read(buf, 0, buf.length)) >= 0; ) {
+                out.write(buf, 0, n);
+            }
+            Assert.assertEquals(bytes.length - 2002, out.size());
+            Assert.assertEquals(bytes[bytes.length - 1], out.toByteArray()[out.size() - 1]);
+            Assert.assertEquals(-1, in.read());
+        }
+
+        try(InputStream in = new MappedFileInputStream(folder.newFile("empty").toPath())) {
+            Assert.assertEquals(-1, in.read());
+        }
+    }
+
+    /**
+     * 输入和输出都不在内存中保存
+     */
+    @Test
+    public void testLargeStream() throws IOException {
+        final int count = 300000;
+        final byte[] element = "{ \"id\" : 123456, \"tags\" : [ \"a\", \"b\" ], \"ok\" : true }".getBytes(StandardCharsets.UTF_8);
+
+        InputStream in = new InputStream() {
+            private int index = -1;
+
+            private int pos;
+
+            @Override
+            public int read() throws IOException {
+                if(index < 0) {
+                    index = 0;
+                    return '[';
+                } else if(index == count) {
+                    index++;
+                    return ']';
+                } else if(index > count) {
+                    return -1;
+                }
+
+                if(pos == element.length) {
+                    pos = 0;
+                    index++;
+                    return (index == count) ? ' ' : ',';
+                }
+                return element[pos++];
+            }
+        };
+
+        long[] written = new long[1];
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+            }
+        };
+
+        JsonReformatter.compact().reformat(in, out);
+        long compact = "{\"id\":123456,\"tags\":[\"a\",\"b\"],\"ok\":true}".length();
+        Assert.assertEquals(count * compact + (count - 1) + 2, written[0]);
+    }
+}
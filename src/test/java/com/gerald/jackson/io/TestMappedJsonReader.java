@@ -0,0 +1,129 @@
+package com.gerald.jackson.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.gerald.jackson.model.DeliveryNotification;
+import com.gerald.jackson.model.Notification;
+import com.gerald.jackson.model.Order;
+import com.gerald.jackson.model.PayNotification;
+
+public class TestMappedJsonReader {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Notification> notifications(int count) {
+        List<Notification> list = new ArrayList<>();
+
+        for(int i = 0; i < count; i++) {
+            Notification n;
+            if((i % 2) == 0) {
+                DeliveryNotification d = new DeliveryNotification();
+                d.setDeliveryNo("delivery-" + i);
+                n = d;
+            } else {
+                PayNotification p = new PayNotification();
+                p.setPayCode("pay-" + i);
+                p.setTotal(i);
+                n = p;
+            }
+            n.setId((long)i);
+            n.setCreateTime(new Date(i * 1000L));
+            list.add(n);
+        }
+
+        return list;
+    }
+
+    /**
+     * 元素跨越多个映射窗口
+     */
+    @Test
+    public void testNotifications() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JavaType type = mapper.getTypeFactory().constructParametricType(List.class, Notification.class);
+        List<Notification> expected = notifications(1000);
+
+        Path file = folder.newFile("notifications.json").toPath();
+        mapper.writerFor(type).writeValue(file.toFile(), expected);
+        Assert.assertTrue(Files.size(file) > 10 * 1000);
+
+        MappedJsonReader reader = new MappedJsonReader(mapper.readerFor(Notification.class), 1000);
+        int count = 0;
+        try(MappingIterator<Notification> it = reader.readValues(file)) {
+            while(it.hasNext()) {
+                Notification n = it.next();
+                Assert.assertEquals(expected.get(count).getClass(), n.getClass());
+                Assert.assertEquals(expected.get(count).toString(), n.toString());
+                count++;
+            }
+        }
+        Assert.assertEquals(expected.size(), count);
+
+        try(Stream<Notification> stream = MappedJsonReader.of(mapper, type).stream(file)) {
+            Assert.assertEquals(500, stream.filter(n -> n instanceof PayNotification).count());
+        }
+    }
+
+    /**
+     * 以换行分隔的多个顶层值
+     */
+    @Test
+    public void testLines() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Path file = folder.newFile("orders.json").toPath();
+
+        try(OutputStream out = Files.newOutputStream(file)) {
+            JsonGenerator gen = mapper.getFactory().createGenerator(out);
+            gen.setRootValueSeparator(new SerializedString("\n"));
+            for(long i = 0; i < 100; i++) {
+                Order order = new Order(i);
+                order.setSum(i);
+                mapper.writeValue(gen, order);
+            }
+            gen.close();
+        }
+
+        try(Stream<Order> stream = new MappedJsonReader(mapper.readerFor(Order.class), 64).stream(file)) {
+            Assert.assertEquals(99 * 100 / 2, stream.mapToLong(Order::getSum).sum());
+        }
+
+        Path empty = folder.newFile("empty.json").toPath();
+        try(Stream<Order> stream = MappedJsonReader.of(mapper, mapper.constructType(Order[].class)).stream(empty)) {
+            Assert.assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    public void testError() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Path file = folder.newFile("broken.json").toPath();
+        Files.write(file, "[{\"id\" : 1}, {\"id\" : \"x\"}]".getBytes(StandardCharsets.UTF_8));
+
+        try(Stream<Order> stream = new MappedJsonReader(mapper.readerFor(Order.class)).stream(file)) {
+            stream.collect(Collectors.toList());
+            Assert.fail();
+        } catch (RuntimeJsonMappingException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.gerald.jackson.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.gerald.jackson.model.DeliveryNotification;
+import com.gerald.jackson.model.Notification;
+import com.gerald.jackson.model.Order;
+import com.gerald.jackson.model.PayNotification;
+
+public class TestParallelArrayReader {
+    private static List<Order> orders(int count) {
+        List<Order> list = new ArrayList<>();
+
+        for(long i = 0; i < count; i++) {
+            Order order = new Order(i);
+            order.setSum(i * 10);
+            order.setGoodsCount(i % 7);
+            // 字符串中的结构字符和转义
+            order.setAddress("addr-" + i + " [\"{,}\"] \\");
+            list.add(order);
+        }
+
+        return list;
+    }
+
+    @Test
+    public void testFindValues() {
+        Assert.assertArrayEquals(new int[] {2, 3, 5, 12, 13, 17},
+                                 JsonScanner.findValues(RawInput.of(" [1, {\"a\":2},true ] ")));
+        Assert.assertArrayEquals(new int[] {0, 7, 8, 9, 10, 16},
+                                 JsonScanner.findValues(RawInput.of("{\"a\":1}\n2\n\"a]\\\"\"\n")));
+        Assert.assertArrayEquals(new int[0], JsonScanner.findValues(RawInput.of("[ ]")));
+        Assert.assertArrayEquals(new int[0], JsonScanner.findValues(RawInput.of("  ")));
+        Assert.assertNull(JsonScanner.findValues(RawInput.of("[1,]")));
+        Assert.assertNull(JsonScanner.findValues(RawInput.of("[1 2]")));
+        Assert.assertNull(JsonScanner.findValues(RawInput.of("[1, 2")));
+        Assert.assertNull(JsonScanner.findValues(RawInput.of("[1] 2")));
+        Assert.assertNull(JsonScanner.findValues(RawInput.of("{\"a\":\"1}")));
+    }
+
+    @Test
+    public void testOrders() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Order> expected = orders(10000);
+        byte[] json = mapper.writeValueAsBytes(expected);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Order> list = new ParallelArrayReader(mapper.readerFor(Order.class), pool).readList(json);
+            Assert.assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(list));
+
+            // 与顺序解析的结果一样可以修改
+            Assert.assertEquals(ArrayList.class, list.getClass());
+            list.add(new Order());
+            list.remove(0);
+            Assert.assertEquals(expected.size(), list.size());
+        } finally {
+            pool.shutdown();
+        }
+
+        long sum = new ParallelArrayReader(mapper.readerFor(Order.class)).<Order>stream(json)
+                .mapToLong(Order::getSum).sum();
+        Assert.assertEquals(10L * 9999 * 10000 / 2, sum);
+    }
+
+    /**
+     * 多态类型，以及以换行分隔的顶层值
+     */
+    @Test
+    public void testNotifications() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Notification> expected = new ArrayList<>();
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+
+        for(int i = 0; i < 1000; i++) {
+            Notification n;
+            if((i % 3) == 0) {
+                PayNotification pay = new PayNotification();
+                pay.setPayCode("pay-" + i);
+                pay.setTotal(i);
+                n = pay;
+            } else {
+                DeliveryNotification delivery = new DeliveryNotification();
+                delivery.setDeliveryNo("delivery-" + i);
+                n = delivery;
+            }
+            n.setId((long)i);
+            n.setCreateTime(new Date(i));
+            expected.add(n);
+
+            lines.write(mapper.writerFor(Notification.class).writeValueAsBytes(n));
+            lines.write('\n');
+        }
+
+        JavaType type = mapper.getTypeFactory().constructParametricType(List.class, Notification.class);
+        String str = mapper.writerFor(type).writeValueAsString(expected);
+        ParallelArrayReader reader = new ParallelArrayReader(mapper.readerFor(Notification.class));
+
+        List<Notification> list = reader.readList(str.getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(str, mapper.writerFor(type).writeValueAsString(list));
+
+        list = reader.readList(lines.toByteArray());
+        Assert.assertEquals(str, mapper.writerFor(type).writeValueAsString(list));
+        Assert.assertEquals(ArrayList.class, list.getClass());
+
+        List<Long> ids = reader.<Notification>stream(lines.toByteArray()).map(Notification::getId).sorted()
+                .collect(Collectors.toList());
+        Assert.assertEquals(1000, ids.size());
+        Assert.assertEquals(Long.valueOf(999), ids.get(999));
+    }
+
+    @Test
+    public void testError() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ParallelArrayReader reader = new ParallelArrayReader(mapper.readerFor(Order.class));
+        byte[] json = "[{\"id\" : 1}, {\"id\" : \"x\"}]".getBytes(StandardCharsets.UTF_8);
+
+        try {
+            reader.readList(json);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+            Assert.assertEquals(1, e.getPath().get(0).getIndex());
+            Assert.assertEquals("id", e.getPath().get(1).getFieldName());
+        }
+
+        try {
+            reader.stream(json).collect(Collectors.toList());
+            Assert.fail();
+        } catch (RuntimeJsonMappingException e) {
+            System.out.println(e.getMessage());
+        }
+
+        // 扫描失败时由jackson报告错误
+        try {
+            reader.readList("[{\"id\" : 1}, ]".getBytes(StandardCharsets.UTF_8));
+            Assert.fail();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+
+        Assert.assertTrue(reader.readList("[]".getBytes(StandardCharsets.UTF_8)).isEmpty());
+    }
+}
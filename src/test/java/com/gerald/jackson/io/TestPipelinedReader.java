@@ -0,0 +1,332 @@
+package com.gerald.jackson.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.gerald.jackson.model.DeliveryNotification;
+import com.gerald.jackson.model.Notification;
+import com.gerald.jackson.model.Order;
+import com.gerald.jackson.model.PayNotification;
+
+public class TestPipelinedReader {
+    /**
+     * 每个解析任务使用一个新线程
+     */
+    private static final Executor NEW_THREAD = command -> new Thread(command).start();
+
+    public static class Price {
+        public BigDecimal price;
+
+        public double amount;
+    }
+
+    private static List<Order> orders(int count) {
+        List<Order> list = new ArrayList<>();
+
+        for(long i = 0; i < count; i++) {
+            Order order = new Order(i);
+            order.setSum(i * 10);
+            order.setGoodsCount(i % 7);
+            order.setAddress("addr-" + i);
+            list.add(order);
+        }
+
+        return list;
+    }
+
+    private static class ClosingStream extends ByteArrayInputStream {
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        ClosingStream(byte[] buf) {
+            super(buf);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed.set(true);
+        }
+    }
+
+    @Test
+    public void testOrders() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Order> expected = orders(10000);
+        byte[] json = mapper.writeValueAsBytes(expected);
+        PipelinedReader reader = new PipelinedReader(mapper.readerFor(Order.class));
+
+        ClosingStream in = new ClosingStream(json);
+        List<Order> actual = reader.readList(in);
+        Assert.assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(actual));
+        Assert.assertTrue(in.closed.get());
+
+        // 批次和队列都很小，解析线程经常需要等待
+        reader = new PipelinedReader(mapper.readerFor(Order.class), NEW_THREAD, 3, 1);
+        actual = reader.readList(json);
+        Assert.assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(actual));
+
+        // 以空白分隔的多个顶层值
+        StringBuilder ndjson = new StringBuilder();
+        for(Order order : expected.subList(0, 10)) {
+            ndjson.append(mapper.writeValueAsString(order)).append('\n');
+        }
+        actual = reader.readList(ndjson.toString().getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(mapper.writeValueAsString(expected.subList(0, 10)), mapper.writeValueAsString(actual));
+
+        Assert.assertTrue(reader.readList("[]".getBytes(StandardCharsets.UTF_8)).isEmpty());
+        Assert.assertTrue(reader.readList(" ".getBytes(StandardCharsets.UTF_8)).isEmpty());
+    }
+
+    /**
+     * 浮点数的精度与{@code MappingIterator}相同
+     */
+    @Test
+    public void testFloats() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        String str = "[{\"price\":0.1234567890123456789,\"amount\":0.1},{\"price\":12345678901234567890.5,\"amount\":1e-3}]";
+        byte[] json = str.getBytes(StandardCharsets.UTF_8);
+
+        ObjectReader[] readers = {
+            mapper.readerFor(Price.class),
+            mapper.readerFor(Map.class),
+            mapper.readerFor(Map.class).with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS),
+            mapper.readerFor(JsonNode.class),
+            mapper.readerFor(JsonNode.class).with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+        };
+        for(ObjectReader r : readers) {
+            List<Object> expected;
+            try(MappingIterator<Object> it = r.readValues(json)) {
+                expected = it.readAll();
+            }
+            List<Object> actual = new PipelinedReader(r).readList(json);
+
+            Assert.assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(actual));
+            if(expected.get(0) instanceof Map) {
+                Assert.assertEquals(expected, actual);
+                Assert.assertEquals(((Map<?, ?>)expected.get(0)).get("price").getClass(),
+                                    ((Map<?, ?>)actual.get(0)).get("price").getClass());
+            } else if(expected.get(0) instanceof JsonNode) {
+                Assert.assertEquals(expected, actual);
+            }
+        }
+
+        List<Price> prices = new PipelinedReader(mapper.readerFor(Price.class)).readList(json);
+        Assert.assertEquals(new BigDecimal("0.1234567890123456789"), prices.get(0).price);
+        Assert.assertEquals(new BigDecimal("12345678901234567890.5"), prices.get(1).price);
+        Assert.assertEquals(0.001, prices.get(1).amount, 0.0);
+
+        // 出错之前交出的元素
+        json = (str.substring(0, str.length() - 1) + ", {").getBytes(StandardCharsets.UTF_8);
+        try(PipelinedReader.Values<Price> values = new PipelinedReader(mapper.readerFor(Price.class)).readValues(json)) {
+            Assert.assertEquals(new BigDecimal("0.1234567890123456789"), values.nextValue().price);
+            Assert.assertEquals(new BigDecimal("12345678901234567890.5"), values.nextValue().price);
+            try {
+                values.nextValue();
+                Assert.fail();
+            } catch (JsonParseException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testPolymorphic() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Notification> expected = new ArrayList<>();
+        for(long i = 0; i < 500; i++) {
+            Notification notification;
+            if((i % 2) == 0) {
+                DeliveryNotification delivery = new DeliveryNotification();
+                delivery.setDeliveryNo("d-" + i);
+                notification = delivery;
+            } else {
+                PayNotification pay = new PayNotification();
+                pay.setPayCode("p-" + i);
+                pay.setTotal((int)i);
+                notification = pay;
+            }
+            notification.setId(i);
+            notification.setCreateTime(new Date(1500000000000L + i));
+            expected.add(notification);
+        }
+
+        byte[] json = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Notification.class))
+                            .writeValueAsBytes(expected);
+        PipelinedReader reader = new PipelinedReader(mapper.readerFor(Notification.class));
+
+        int count = 0;
+        try(PipelinedReader.Values<Notification> values = reader.readValues(new ByteArrayInputStream(json))) {
+            while(values.hasNext()) {
+                Notification notification = values.next();
+                Assert.assertSame(expected.get(count).getClass(), notification.getClass());
+                Assert.assertEquals(expected.get(count).getId(), notification.getId());
+                count++;
+            }
+        }
+        Assert.assertEquals(expected.size(), count);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        byte[] json = mapper.writeValueAsBytes(orders(100000));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            PipelinedReader reader = new PipelinedReader(mapper.readerFor(Order.class), executor, 16, 2);
+            ClosingStream in = new ClosingStream(json);
+
+            // 提前结束，队列已满的解析线程应当退出并关闭输入
+            try(PipelinedReader.Values<Order> values = reader.readValues(in)) {
+                Assert.assertEquals(Long.valueOf(0), values.nextValue().getId());
+                Assert.assertEquals(Long.valueOf(1), values.nextValue().getId());
+            }
+
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            Assert.assertTrue(in.closed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 读取全部元素，最后加上异常的消息
+     */
+    private static List<Object> readAll(MappingIterator<Object> it) {
+        List<Object> list = new ArrayList<>();
+        try {
+            while(it.hasNextValue()) {
+                list.add(it.nextValue());
+            }
+        } catch (IOException e) {
+            list.add(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return list;
+    }
+
+    private static List<Object> readAll(PipelinedReader.Values<Object> values) {
+        List<Object> list = new ArrayList<>();
+        try {
+            while(values.hasNextValue()) {
+                list.add(values.nextValue());
+            }
+        } catch (IOException e) {
+            list.add(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return list;
+    }
+
+    /**
+     * 出错之前的元素与{@code MappingIterator}相同，包括还没有放入队列的批次
+     */
+    @Test
+    public void testErrorAfterValues() throws IOException {
+        ObjectReader objects = new ObjectMapper().readerFor(Object.class);
+        String[] inputs = {"[1,2,3,4,5,}", "[1, 2, {\"a\" : }]", "[1, 2, 3", "[{\"a\" : [1, 2]}, 3, 4, 5, 6, x]"};
+
+        for(String str : inputs) {
+            byte[] json = str.getBytes(StandardCharsets.UTF_8);
+            List<Object> expected = readAll(objects.readValues(json));
+            System.out.println(expected);
+
+            for(int batchSize : new int[] {1, 2, 4, 64}) {
+                PipelinedReader reader = new PipelinedReader(objects, NEW_THREAD, batchSize, 2);
+                try(PipelinedReader.Values<Object> values = reader.readValues(json)) {
+                    Assert.assertEquals(str + ", batchSize = " + batchSize, expected, readAll(values));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testError() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        PipelinedReader reader = new PipelinedReader(mapper.readerFor(Order.class), NEW_THREAD,
+                                                     2, 2);
+
+        try(PipelinedReader.Values<Order> values = reader.readValues(
+                "[{\"id\" : 1}, {\"id\" : 2}, {\"id\" : 3}, {\"id\" : }]".getBytes(StandardCharsets.UTF_8))) {
+            Assert.assertEquals(Long.valueOf(1), values.nextValue().getId());
+            Assert.assertEquals(Long.valueOf(2), values.nextValue().getId());
+            Assert.assertEquals(Long.valueOf(3), values.nextValue().getId());
+            values.nextValue();
+            Assert.fail();
+        } catch (JsonParseException e) {
+            System.out.println(e.getMessage());
+        }
+
+        try {
+            reader.readList("[{\"id\" : 1}, {\"id\" : 2}, {\"id\" : \"x\"}]".getBytes(StandardCharsets.UTF_8));
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+            Assert.assertEquals(2, e.getPath().get(0).getIndex());
+        }
+
+        InputStream in = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("broken");
+            }
+        };
+        try {
+            reader.readList(in);
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertEquals("broken", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRingBuffer() throws Exception {
+        SpscRingBuffer<Integer> queue = new SpscRingBuffer<>(5);
+        Assert.assertEquals(8, queue.capacity());
+        Assert.assertNull(queue.poll());
+
+        Thread producer = new Thread(() -> {
+            try {
+                for(int i = 0; i < 100000; i++) {
+                    queue.put(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        for(int i = 0; i < 100000; i++) {
+            Assert.assertEquals(Integer.valueOf(i), queue.take());
+        }
+        producer.join();
+        Assert.assertNull(queue.poll());
+
+        for(int i = 0; i < 8; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertFalse(queue.offer(8));
+        queue.close();
+        Assert.assertFalse(queue.put(8));
+    }
+}
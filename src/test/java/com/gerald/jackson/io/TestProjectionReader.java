@@ -0,0 +1,139 @@
+package com.gerald.jackson.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerald.jackson.model.Order;
+
+public class TestProjectionReader {
+    private static final String NESTED = "{\"a\" : {\"c\" : 1, \"b\" : [1, 2]}, \"x\" : 5, "
+            + "\"items\" : [{\"name\" : \"x\"}, {\"name\" : \"y\"}, {\"name\" : \"z\", \"v\" : 1}, {\"name\" : \"w\"}], "
+            + "\"z\" : 1}";
+
+    @Test
+    public void testProject() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Projection<Order> projection = new ProjectionReader(mapper).project(Order.class, "/goodsCount", "/address");
+
+        String str = "{\"id\" : 1, \"sum\" : 2890, \"goodsCount\" : 2, \"extra\" : {\"a\" : [1, {\"b\" : \"}\"}]}, "
+                + "\"address\" : \"address-2\", \"tail\" : ";
+        // 两个属性都读到之后不再读取，后面不完整的输入不影响结果
+        Order order = projection.readValue(str);
+        System.out.println(order);
+        Assert.assertEquals(Long.valueOf(2), order.getGoodsCount());
+        Assert.assertEquals("address-2", order.getAddress());
+        Assert.assertNull(order.getId());
+        Assert.assertNull(order.getSum());
+
+        // 缺少的路径保持默认值
+        order = projection.readValue("{\"id\" : 1, \"goodsCount\" : 3}".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(Long.valueOf(3), order.getGoodsCount());
+        Assert.assertNull(order.getAddress());
+    }
+
+    @Test
+    public void testNested() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ProjectionReader reader = new ProjectionReader(mapper);
+
+        JsonNode node = reader.project(JsonNode.class, "/a/b", "/items/2/name", "/items/2").readValue(NESTED);
+        Assert.assertEquals("{\"a\":{\"b\":[1,2]},\"items\":[null,null,{\"name\":\"z\",\"v\":1}]}", node.toString());
+
+        // 结构不符时当作路径不存在
+        node = reader.project(JsonNode.class, "/x/y", "/a/c/d", "/a/b/name", "/z").readValue(NESTED);
+        Assert.assertEquals("{\"a\":{},\"z\":1}", node.toString());
+
+        Assert.assertEquals(Integer.valueOf(2), reader.projectValue(Integer.class, "/a/b/1").readValue(NESTED));
+        Assert.assertEquals("y", reader.projectValue(String.class, "/items/1/name").readValue(NESTED));
+        Assert.assertNull(reader.projectValue(String.class, "/items/9/name").readValue(NESTED));
+        Assert.assertEquals(NESTED.replace(" ", ""), reader.projectValue(JsonNode.class, "").readValue(NESTED).toString());
+    }
+
+    /**
+     * 重复的属性名与直接绑定一样以最后一个值为准，也不影响其他路径
+     */
+    @Test
+    public void testDuplicateKeys() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ProjectionReader reader = new ProjectionReader(mapper);
+
+        String str = "{\"a\" : 1, \"a\" : 2, \"b\" : 3}";
+        JsonNode node = reader.project(JsonNode.class, "/a", "/b").readValue(str);
+        Assert.assertEquals(mapper.readTree(str), node);
+
+        String[] paths = {"/a/x", "/a/z", "/b"};
+        String[] docs = {
+            "{\"a\" : {\"x\" : 1, \"x\" : 2, \"w\" : 0, \"z\" : 3}, \"b\" : 4}",
+            "{\"a\" : {\"x\" : 1}, \"a\" : {\"z\" : 3}, \"b\" : 4}",
+            "{\"b\" : 0, \"b\" : 4, \"a\" : {\"y\" : {\"x\" : 5, \"z\" : 6}, \"x\" : 1, \"x\" : [2], \"z\" : 3}}"
+        };
+        for(String doc : docs) {
+            JsonNode expected = mapper.readTree(doc);
+            node = reader.project(JsonNode.class, paths).readValue(doc);
+            System.out.println(node);
+            for(String path : paths) {
+                Assert.assertEquals(expected.at(path), node.at(path));
+            }
+            Assert.assertEquals(2, node.size());
+        }
+        Assert.assertEquals("{\"a\":{\"x\":2,\"z\":3},\"b\":4}", reader.project(JsonNode.class, paths).readValue(docs[0]).toString());
+
+        str = "{\"goodsCount\" : 1, \"goodsCount\" : 2, \"id\" : 1, \"address\" : \"address-2\"}";
+        Order order = reader.project(Order.class, "/goodsCount", "/address").readValue(str);
+        Assert.assertEquals(mapper.readValue(str, Order.class).getGoodsCount(), order.getGoodsCount());
+        Assert.assertEquals("address-2", order.getAddress());
+    }
+
+    @Test
+    public void testSkippingFactory() throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new SkippingJsonFactory());
+        Projection<Order> projection = new ProjectionReader(mapper).project(Order.class, "/goodsCount", "/address");
+
+        StringBuilder str = new StringBuilder("{\"extra\" : [");
+        for(int i = 0; i < 10000; i++) {
+            str.append("{\"name\" : \"item-").append(i).append(" [\\\"x\\\"]\"},");
+        }
+        str.append("{}], \"goodsCount\" : 7, \"address\" : \"address-7\"}");
+        byte[] json = str.toString().getBytes(StandardCharsets.UTF_8);
+
+        Order order = projection.readValue(new ByteArrayInputStream(json));
+        Assert.assertEquals(Long.valueOf(7), order.getGoodsCount());
+        Assert.assertEquals("address-7", order.getAddress());
+    }
+
+    @Test
+    public void testError() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ProjectionReader reader = new ProjectionReader(mapper);
+
+        try {
+            reader.project(Order.class, "/goodsCount", "/address").readValue("{\"goodsCount\" : 1, \"extra\" : {\"a\" : ");
+            Assert.fail();
+        } catch (JsonProcessingException e) {
+            System.out.println(e.getMessage());
+        }
+
+        try {
+            reader.project(Order.class, "/goodsCount").readValue("{\"goodsCount\" : \"x\"}");
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+            Assert.assertEquals("goodsCount", e.getPath().get(0).getFieldName());
+        }
+
+        try {
+            reader.project(Order.class, "goodsCount");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
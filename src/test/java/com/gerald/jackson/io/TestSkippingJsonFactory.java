@@ -0,0 +1,193 @@
+package com.gerald.jackson.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerald.jackson.annotation.TestJsonIgnore.Order;
+
+public class TestSkippingJsonFactory {
+    /**
+     * 随机生成的嵌套值，字符串中包含括号、转义的双引号和反斜杠，以及多字节字符
+     */
+    private static void randomValue(Random random, StringBuilder json, int depth) {
+        int kind = (depth > 4) ? random.nextInt(3) : random.nextInt(5);
+
+        switch(kind) {
+        case 0:
+            json.append(random.nextInt(100000));
+            break;
+        case 1:
+            json.append(random.nextBoolean() ? "true" : "null");
+            break;
+        case 2:
+            String[] parts = {"a", "{", "}", "[", "]", "\\\"", "\\\\", "\\n", "\\u005d", "中文", " "};
+            json.append('"');
+            for(int i = random.nextInt(12); i > 0; i--) {
+                json.append(parts[random.nextInt(parts.length)]);
+            }
+            json.append('"');
+            break;
+        case 3:
+            json.append("[\n");
+            for(int i = random.nextInt(6); i > 0; i--) {
+                randomValue(random, json, depth + 1);
+                json.append((i > 1) ? ",\n " : "\n");
+            }
+            json.append(']');
+            break;
+        default:
+            json.append("{ ");
+            for(int i = random.nextInt(6); i > 0; i--) {
+                json.append("\"k").append(i).append("\" : ");
+                randomValue(random, json, depth + 1);
+                json.append((i > 1) ? ",\n  " : "\n");
+            }
+            json.append('}');
+            break;
+        }
+    }
+
+    private static String document(long seed, int count) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder("[");
+
+        for(int i = 0; i < count; i++) {
+            if(i > 0) {
+                json.append(",\n");
+            }
+            randomValue(random, json, 0);
+        }
+
+        return json.append("]").toString();
+    }
+
+    /**
+     * 每遇到一个开始标记就跳过，记录剩下的token及其位置
+     */
+    private static List<String> skipAll(JsonParser p) throws IOException {
+        List<String> events = new ArrayList<>();
+        JsonToken t;
+
+        // 跳过最外层数组中的每个元素
+        p.nextToken();
+        while((t = p.nextToken()) != null) {
+            if(t.isStructStart()) {
+                p.skipChildren();
+            }
+            events.add(p.getCurrentToken() + "@" + p.getTokenLocation().getLineNr() + ":"
+                       + p.getTokenLocation().getColumnNr() + ":" + p.getTokenLocation().getByteOffset());
+        }
+
+        return events;
+    }
+
+    @Test
+    public void testSkipChildren() throws IOException {
+        JsonFactory plain = new JsonFactory();
+        JsonFactory skipping = new SkippingJsonFactory();
+
+        for(long seed = 0; seed < 20; seed++) {
+            // 超过parser的8000字节缓冲区，跨越多次_loadMore()
+            byte[] json = document(seed, 400).getBytes(StandardCharsets.UTF_8);
+
+            List<String> expected = skipAll(plain.createParser(json));
+            try(JsonParser p = skipping.createParser(json)) {
+                Assert.assertTrue(p instanceof SkippingJsonParser);
+                Assert.assertEquals(expected, skipAll(p));
+            }
+            try(JsonParser p = skipping.createParser(new ByteArrayInputStream(json))) {
+                Assert.assertTrue(p instanceof SkippingJsonParser);
+                Assert.assertEquals(expected, skipAll(p));
+            }
+        }
+    }
+
+    /**
+     * {@code TestJsonIgnore.Order}忽略id、random，以及未知属性
+     */
+    @Test
+    public void testIgnoredProperties() throws IOException {
+        ObjectMapper plain = new ObjectMapper();
+        ObjectMapper mapper = new ObjectMapper(new SkippingJsonFactory());
+
+        String str = "\uFEFF{\"attr\" : " + document(7, 50) + ", \"id\" : {\"a\" : [1, \"}\"]}, \"sum\" : 2890, "
+                + "\"goodsCount\" : 2, \"random\" : [\"\\\\\", {}], \"address\" : \"address-2\", \"tail\" : {}}";
+        byte[] json = str.getBytes(StandardCharsets.UTF_8);
+
+        Order expected = plain.readValue(json, Order.class);
+        Order order = mapper.readValue(json, Order.class);
+        System.out.println(order);
+        Assert.assertEquals(expected.toString(), order.toString());
+        Assert.assertEquals("address-2", order.getAddress());
+        Assert.assertEquals(Long.valueOf(2), order.getGoodsCount());
+
+        order = mapper.readValue(new ByteArrayInputStream(json), Order.class);
+        Assert.assertEquals(expected.toString(), order.toString());
+
+        // copy()保留factory的类型
+        Assert.assertTrue(mapper.copy().getFactory() instanceof SkippingJsonFactory);
+    }
+
+    @Test
+    public void testFallback() throws IOException {
+        JsonFactory factory = new SkippingJsonFactory();
+
+        byte[] utf16 = "{\"a\" : [1], \"b\" : 2}".getBytes(StandardCharsets.UTF_16BE);
+        try(JsonParser p = factory.createParser(new ByteArrayInputStream(utf16))) {
+            Assert.assertFalse(p instanceof SkippingJsonParser);
+            Assert.assertEquals(JsonToken.START_OBJECT, p.nextToken());
+            Assert.assertEquals("a", p.nextFieldName());
+            p.nextToken();
+            p.skipChildren();
+            Assert.assertEquals("b", p.nextFieldName());
+        }
+
+        // 注释中的括号由jackson处理
+        factory.enable(JsonParser.Feature.ALLOW_COMMENTS);
+        try(JsonParser p = factory.createParser("{\"a\" : [1 /* ] */], \"b\" : 2}".getBytes(StandardCharsets.UTF_8))) {
+            p.nextToken();
+            p.nextFieldName();
+            p.nextToken();
+            p.skipChildren();
+            Assert.assertEquals(JsonToken.END_ARRAY, p.getCurrentToken());
+            Assert.assertEquals("b", p.nextFieldName());
+        }
+    }
+
+    @Test
+    public void testError() throws IOException {
+        JsonFactory factory = new SkippingJsonFactory();
+
+        try(JsonParser p = factory.createParser("{\"a\" : {\"b\" : [1, \"]\"".getBytes(StandardCharsets.UTF_8))) {
+            p.nextToken();
+            p.nextToken();
+            p.nextToken();
+            p.skipChildren();
+            Assert.fail();
+        } catch (JsonParseException e) {
+            System.out.println(e.getMessage());
+        }
+
+        try(JsonParser p = factory.createParser("{\"a\" : {\"b\" : 1]}".getBytes(StandardCharsets.UTF_8))) {
+            p.nextToken();
+            p.nextToken();
+            p.nextToken();
+            p.skipChildren();
+            Assert.fail();
+        } catch (JsonParseException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.gerald.jackson.jsontype;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.gerald.jackson.annotation.TestPolymorphic.Container;
+import com.gerald.jackson.annotation.TestPolymorphic.DeliveryNotification;
+import com.gerald.jackson.annotation.TestPolymorphic.Notification;
+import com.gerald.jackson.annotation.TestPolymorphic.PayNotification;
+
+public class TestPolymorphicModule {
+    private static final String FEED = "[{\"id\" : 1, \"deliveryNo\" : \"0001\", \"type\" : \"delivery\"},\n"
+            + "  {\"payCode\" : \"pay-1\", \"nested\" : {\"type\" : \"x\"}, \"type\" : \"pay\", \"total\" : 233},\n"
+            + "  {\"type\" : \"delivery\", \"id\" : 2, \"createTime\" : 0},\n"
+            + "  {\"id\" : 3, \"type\" : \"deliv\\u0065ry\"}]";
+
+    private static ObjectMapper plain() {
+        ObjectMapper mapper = new ObjectMapper();
+
+        mapper.registerSubtypes(new NamedType(DeliveryNotification.class, "delivery"),
+                                new NamedType(PayNotification.class, "pay"));
+
+        return mapper;
+    }
+
+    private static ObjectMapper mapper() {
+        return plain().registerModule(new PolymorphicModule());
+    }
+
+    @Test
+    public void testInstalled() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        Assert.assertTrue(mapper.getDeserializationConfig()
+                .findTypeDeserializer(mapper.constructType(Notification.class)) instanceof TypeIdFirstTypeDeserializer);
+    }
+
+    @Test
+    public void testTypeNotFirst() throws IOException {
+        ObjectMapper plain = plain().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ObjectMapper mapper = mapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, Notification.class);
+
+        String expected = plain.readValue(FEED, type).toString();
+        byte[] bytes = FEED.getBytes(StandardCharsets.UTF_8);
+
+        List<Notification> fromString = mapper.readValue(FEED, type);
+        List<Notification> fromBytes = mapper.readValue(bytes, type);
+        List<Notification> fromStream = mapper.readValue(new ByteArrayInputStream(bytes), type);
+        List<Notification> fromChars = mapper.readValue(new CharArrayReader(FEED.toCharArray()), type);
+        System.out.println(fromString);
+
+        Assert.assertEquals(expected, fromString.toString());
+        Assert.assertEquals(expected, fromBytes.toString());
+        Assert.assertEquals(expected, fromStream.toString());
+        Assert.assertEquals(expected, fromChars.toString());
+
+        Assert.assertTrue(fromBytes.get(0) instanceof DeliveryNotification);
+        Assert.assertEquals("0001", ((DeliveryNotification)fromBytes.get(0)).getDeliveryNo());
+        Assert.assertTrue(fromBytes.get(1) instanceof PayNotification);
+        Assert.assertEquals(Integer.valueOf(233), ((PayNotification)fromBytes.get(1)).getTotal());
+        Assert.assertEquals(new Date(0), fromBytes.get(2).getCreateTime());
+        Assert.assertEquals(Long.valueOf(3L), fromBytes.get(3).getId());
+    }
+
+    @Test
+    public void testUnknownProperty() throws IOException {
+        String str = "{\"id\" : 1, \"other\" : 1, \"type\" : \"delivery\"}";
+
+        try {
+            mapper().readValue(str.getBytes(StandardCharsets.UTF_8), Notification.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getOriginalMessage());
+        }
+
+        // type属性本身不是未知属性
+        Notification n = mapper().readValue("{\"id\" : 1, \"type\" : \"pay\"}", Notification.class);
+        Assert.assertTrue(n instanceof PayNotification);
+    }
+
+    @Test
+    public void testUnknownTypeId() throws IOException {
+        String str = "{\"id\" : 1, \"type\" : \"refund\"}";
+        String expected = null;
+
+        try {
+            plain().readValue(str, Notification.class);
+        } catch (JsonMappingException e) {
+            expected = e.getOriginalMessage();
+        }
+
+        try {
+            mapper().readValue(str, Notification.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            Assert.assertEquals(expected, e.getOriginalMessage());
+        }
+    }
+
+    @Test
+    public void testContainer() throws IOException {
+        ObjectMapper plain = plain();
+        ObjectMapper mapper = mapper();
+
+        PayNotification pay = new PayNotification();
+        pay.setId(3L);
+        pay.setPayCode("pay-1");
+        pay.setTotal(233);
+
+        Container c = new Container();
+        c.setNotification(pay);
+
+        String str = mapper.writeValueAsString(c);
+        System.out.println(str);
+        Assert.assertTrue(str.startsWith("{\"type\":\"pay\",\"notification\":{"));
+        Assert.assertEquals(plain.readTree(plain.writeValueAsString(c)), mapper.readTree(str));
+
+        // type id在前、在后都可以读取
+        String[] inputs = {str, plain.writeValueAsString(c)};
+        for(String input : inputs) {
+            Container read = mapper.readValue(input, Container.class);
+
+            Assert.assertTrue(read.getNotification() instanceof PayNotification);
+            Assert.assertEquals(pay.toString(), read.getNotification().toString());
+            Assert.assertEquals(plain.readValue(input, Container.class).getNotification().toString(),
+                                read.getNotification().toString());
+        }
+
+        c.setNotification(null);
+        Assert.assertEquals(plain.writeValueAsString(c), mapper.writeValueAsString(c));
+        Assert.assertNull(mapper.readValue("{\"type\" : \"pay\", \"notification\" : null}", Container.class)
+                .getNotification());
+
+        // 默认启用了FAIL_ON_MISSING_EXTERNAL_TYPE_ID_PROPERTY
+        try {
+            mapper.readValue("{\"type\" : \"pay\"}", Container.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            Assert.assertEquals("Missing property 'notification' for external type id 'type'", e.getOriginalMessage());
+        }
+        Assert.assertNull(mapper.readerFor(Container.class)
+                .without(DeserializationFeature.FAIL_ON_MISSING_EXTERNAL_TYPE_ID_PROPERTY)
+                .<Container>readValue("{\"type\" : \"pay\"}").getNotification());
+    }
+
+    @Test
+    public void testContainerMissingTypeId() throws IOException {
+        String str = "{\"notification\" : {\"id\" : 1}}";
+
+        try {
+            mapper().readValue(str, Container.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getOriginalMessage());
+            Assert.assertEquals("Missing external type id property 'type'", e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * 所有属性名转为大写的{@code AnnotationIntrospector}
+     */
+    public static class UpperCaseIntrospector extends JacksonAnnotationIntrospector {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public PropertyName findNameForSerialization(Annotated a) {
+            PropertyName name = super.findNameForSerialization(a);
+
+            return ((name == null) || !name.hasSimpleName()) ? name : PropertyName.construct(name.getSimpleName().toUpperCase());
+        }
+    }
+
+    public static class Coded {
+        @JsonProperty("code")
+        public String code = "c-1";
+    }
+
+    /**
+     * 模块只处理{@code @JsonTypeInfo}，用户配置的{@code AnnotationIntrospector}仍然起作用
+     */
+    @Test
+    public void testUserIntrospector() throws IOException {
+        ObjectMapper mapper = plain();
+        mapper.setAnnotationIntrospector(new UpperCaseIntrospector());
+        mapper.registerModule(new PolymorphicModule());
+
+        Assert.assertEquals("{\"CODE\":\"c-1\"}", mapper.writeValueAsString(new Coded()));
+        Assert.assertTrue(mapper.getDeserializationConfig()
+                .findTypeDeserializer(mapper.constructType(Notification.class)) instanceof TypeIdFirstTypeDeserializer);
+    }
+}
@@ -0,0 +1,136 @@
+package com.gerald.jackson.jsontype;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerald.jackson.annotation.TestPolymorphic;
+import com.gerald.jackson.annotation.TestPolymorphic.DeliveryNotification;
+import com.gerald.jackson.annotation.TestPolymorphic.Notification;
+import com.gerald.jackson.annotation.TestPolymorphic.PayNotification;
+
+public class TestSubtypeIndex {
+    private static SubtypeIndex index;
+
+    @BeforeClass
+    public static void scan() {
+        index = SubtypeIndex.scan("com.gerald.jackson");
+        System.out.println(index.report());
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new PolymorphicModule().withSubtypeIndex(index));
+    }
+
+    @Test
+    public void testScan() {
+        SubtypeTable table = index.table(Notification.class);
+        Assert.assertNotNull(table);
+        Assert.assertEquals(3, table.size());
+        Assert.assertEquals("TestPolymorphic$DeliveryNotification", table.idOf(DeliveryNotification.class));
+        Assert.assertEquals(PayNotification.class, table.typeAt(table.indexOf("TestPolymorphic$PayNotification")));
+        Assert.assertEquals(-1, table.indexOf("delivery"));
+
+        // model.Notification的名称来自@JsonSubTypes
+        table = index.table(com.gerald.jackson.model.Notification.class);
+        Assert.assertNotNull(table);
+        Assert.assertEquals("delivery", table.idOf(com.gerald.jackson.model.DeliveryNotification.class));
+        Assert.assertEquals("pay", table.idOf(com.gerald.jackson.model.PayNotification.class));
+
+        Assert.assertNull(index.table(TestPolymorphic.Container.class));
+        Assert.assertTrue(index.getClassCount() > 0);
+    }
+
+    @Test
+    public void testInstalled() throws IOException {
+        ObjectMapper mapper = mapper();
+        JavaType type = mapper.constructType(Notification.class);
+
+        Assert.assertTrue(mapper.getDeserializationConfig().findTypeDeserializer(type).getTypeIdResolver()
+                instanceof IndexedTypeIdResolver);
+        Assert.assertTrue(mapper.getSerializerProviderInstance().findTypeSerializer(type).getTypeIdResolver()
+                instanceof IndexedTypeIdResolver);
+
+        // 子类作为基类时jackson只收集它自己的子类型，使用原来的实现
+        Assert.assertFalse(mapper.getDeserializationConfig()
+                .findTypeDeserializer(mapper.constructType(PayNotification.class)).getTypeIdResolver()
+                instanceof IndexedTypeIdResolver);
+    }
+
+    /**
+     * 与{@link TestPolymorphic#test()}相同的数据，没有{@code @JsonSubTypes}也可以反序列化
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        List<Notification> notifications = new ArrayList<>();
+
+        DeliveryNotification delivery = new DeliveryNotification();
+        delivery.setCreateTime(new Date());
+        delivery.setDeliveryNo("0001");
+        delivery.setId(1L);
+
+        PayNotification pay = new PayNotification();
+        pay.setCreateTime(new Date());
+        pay.setId(3L);
+        pay.setPayCode("pay-1");
+        pay.setTotal(233);
+
+        notifications.add(delivery);
+        notifications.add(pay);
+
+        JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, Notification.class);
+        String str = mapper.writerFor(type).writeValueAsString(notifications);
+        System.out.println(str);
+        Assert.assertTrue(str.contains("\"type\":\"TestPolymorphic$PayNotification\""));
+
+        List<Notification> read = mapper.readValue(str, type);
+        Assert.assertEquals(notifications.toString(), read.toString());
+        Assert.assertTrue(read.get(1) instanceof PayNotification);
+    }
+
+    @Test
+    public void testSameIdsAsJackson() throws IOException {
+        ObjectMapper plain = new ObjectMapper();
+        ObjectMapper mapper = mapper();
+
+        com.gerald.jackson.model.PayNotification pay = new com.gerald.jackson.model.PayNotification();
+        pay.setId(1L);
+        pay.setTotal(10);
+
+        String str = plain.writerFor(com.gerald.jackson.model.Notification.class).writeValueAsString(pay);
+        Assert.assertEquals(str, mapper.writerFor(com.gerald.jackson.model.Notification.class).writeValueAsString(pay));
+        Assert.assertEquals(plain.readValue(str, com.gerald.jackson.model.Notification.class).toString(),
+                            mapper.readValue(str, com.gerald.jackson.model.Notification.class).toString());
+    }
+
+    @Test
+    public void testUnknownTypeId() throws IOException {
+        try {
+            mapper().readValue("{\"type\" : \"refund\"}", Notification.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getOriginalMessage());
+            Assert.assertTrue(e.getOriginalMessage().contains("TestPolymorphic$PayNotification"));
+        }
+    }
+
+    @Test
+    public void testOf() {
+        SubtypeIndex built = SubtypeIndex.of(Notification.class, DeliveryNotification.class, PayNotification.class,
+                                             TestPolymorphic.Container.class);
+
+        Assert.assertEquals(1, built.getBaseTypeCount());
+        Assert.assertEquals(3, built.getNamedTypes().size());
+        Assert.assertEquals("TestPolymorphic$Notification", built.table(Notification.class).idOf(Notification.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.gerald.jackson.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerald.jackson.model.Notification;
+
+public class TestLoadRunner {
+    /**
+     * 生成的文件不超过目标大小，并且数组格式可以直接读回为List
+     */
+    @Test
+    public void testGenerateArray() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Path file = Files.createTempFile("dataset", ".json");
+        
+        try {
+            long records = new DataSetGenerator(mapper, 0).generate(file, RecordType.NOTIFICATION, DataFormat.ARRAY, 4096);
+            
+            Assert.assertTrue(records > 1);
+            Assert.assertTrue(Files.size(file) <= 4096);
+            
+            JavaType type = mapper.getTypeFactory().constructParametricType(List.class, Notification.class);
+            List<Notification> d = mapper.readValue(file.toFile(), type);
+            Assert.assertEquals(records, d.size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    /**
+     * NDJSON最后的换行也计入目标大小
+     */
+    @Test
+    public void testGenerateNdjson() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Path file = Files.createTempFile("dataset", ".ndjson");
+        
+        try {
+            DataSetGenerator generator = new DataSetGenerator(mapper, 0);
+            long records = generator.generate(file, RecordType.ORDER, DataFormat.NDJSON, 4096);
+            long size = Files.size(file);
+            Assert.assertTrue(size <= 4096);
+            
+            // 恰好放下全部记录的大小，以及少一个字节
+            Assert.assertEquals(records, generator.generate(file, RecordType.ORDER, DataFormat.NDJSON, size));
+            Assert.assertEquals(size, Files.size(file));
+            Assert.assertEquals(records - 1, generator.generate(file, RecordType.ORDER, DataFormat.NDJSON, size - 1));
+            Assert.assertTrue(Files.size(file) <= size - 1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    @Test
+    public void testReadWritePasses() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Path file = Files.createTempFile("dataset", ".ndjson");
+        
+        try {
+            long records = new DataSetGenerator(mapper, 0).generate(file, RecordType.ORDER, DataFormat.NDJSON, 16 * 1024);
+            LoadRunner runner = new LoadRunner(mapper, 2);
+            
+            PassResult read = runner.read(file, RecordType.ORDER);
+            System.out.println(read);
+            Assert.assertEquals(records * 2, read.getRecords());
+            
+            PassResult write = runner.write(RecordType.ORDER, DataFormat.NDJSON, records);
+            System.out.println(write);
+            Assert.assertEquals(records * 2, write.getRecords());
+            Assert.assertTrue(write.getBytes() > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
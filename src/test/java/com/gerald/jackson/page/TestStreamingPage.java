@@ -0,0 +1,227 @@
+package com.gerald.jackson.page;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.gerald.jackson.annotation.TestJsonFormat.Page;
+import com.gerald.jackson.model.Order;
+
+public class TestStreamingPage {
+    private static final TypeReference<StreamingPage<String>> STRING_PAGE = new TypeReference<StreamingPage<String>>() {
+    };
+
+    private static final TypeReference<StreamingPage<Order>> ORDER_PAGE = new TypeReference<StreamingPage<Order>>() {
+    };
+
+    public static class Export {
+        public String name;
+
+        public StreamingPage<Order> orders;
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new StreamingPageModule());
+    }
+
+    private static List<String> collect(Iterator<String> it) {
+        List<String> list = new ArrayList<>();
+        it.forEachRemaining(list::add);
+        return list;
+    }
+
+    private static Stream<String> numbers(int count) {
+        return IntStream.range(0, count).mapToObj(String::valueOf);
+    }
+
+    /**
+     * 与{@code TestJsonFormat.Page}的格式相同
+     */
+    @Test
+    public void testFormat() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        Page page = new Page(1, 10, Arrays.asList("1", "2"));
+        String expected = mapper.writeValueAsString(page);
+
+        String str = mapper.writerFor(STRING_PAGE).writeValueAsString(StreamingPage.of(1, 10, page.iterator()));
+        System.out.println(str);
+        Assert.assertEquals(mapper.readTree(expected), mapper.readTree(str));
+
+        StreamingPage<String> read = mapper.readValue(expected, STRING_PAGE);
+        Assert.assertEquals(1, read.getPageNum());
+        Assert.assertEquals(10, read.getPageSize());
+        Assert.assertEquals(2, read.getCount());
+        Assert.assertEquals(Arrays.asList("1", "2"), collect(read.items()));
+
+        Page back = mapper.readValue(str, Page.class);
+        Assert.assertEquals(page, back);
+        Assert.assertEquals(10, back.getPageSize());
+    }
+
+    @Test
+    public void testSources() throws IOException {
+        ObjectMapper mapper = mapper();
+        String expected = "{\"pageNum\":2,\"pageSize\":3,\"items\":[\"a\",null,\"c\"]}";
+
+        Assert.assertEquals(expected, mapper.writeValueAsString(
+                StreamingPage.of(2, 3, Arrays.asList("a", null, "c").spliterator())));
+
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> stream = Stream.of("a", null, "c").onClose(() -> closed.set(true));
+        Assert.assertEquals(expected, mapper.writeValueAsString(StreamingPage.of(2, 3, stream)));
+        Assert.assertTrue(closed.get());
+
+        // 失败时也关闭
+        closed.set(false);
+        stream = Stream.of("a", "b").map(s -> {
+            if(s.equals("b")) {
+                throw new IllegalStateException("broken");
+            }
+            return s;
+        }).onClose(() -> closed.set(true));
+        try {
+            mapper.writeValueAsString(StreamingPage.of(2, 3, stream));
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertTrue(closed.get());
+
+        Assert.assertEquals("{\"pageNum\":0,\"pageSize\":0,\"items\":[]}",
+                            mapper.writeValueAsString(StreamingPage.of(0, 0, Collections.emptyIterator())));
+    }
+
+    @Test
+    public void testTyped() throws IOException {
+        ObjectMapper mapper = mapper();
+        List<Order> orders = new ArrayList<>();
+        for(long i = 0; i < 5; i++) {
+            Order order = new Order(i);
+            order.setSum(i * 100);
+            order.setAddress("address-" + i);
+            orders.add(order);
+        }
+
+        Export export = new Export();
+        export.name = "orders";
+        export.orders = StreamingPage.of(1, 5, orders.iterator());
+        String str = mapper.writeValueAsString(export);
+        System.out.println(str);
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(orders),
+                            new ObjectMapper().writeValueAsString(mapper.readTree(str).get("orders").get("items")));
+
+        Export read = mapper.readValue(str, Export.class);
+        Assert.assertEquals("orders", read.name);
+        Assert.assertEquals(5, read.orders.getCount());
+        for(Iterator<Order> it = read.orders.items(); it.hasNext(); ) {
+            Order order = it.next();
+            Assert.assertEquals("address-" + order.getId(), order.getAddress());
+        }
+
+        try {
+            mapper.readValue("{\"orders\" : {\"items\" : [{\"id\" : 1}, {\"id\" : \"x\"}]}}", Export.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+            Assert.assertEquals(1, e.getPath().get(2).getIndex());
+        }
+    }
+
+    @Test
+    public void testFlush() throws IOException {
+        int[] flushes = new int[1];
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+
+        ObjectMapper mapper = new ObjectMapper().registerModule(new StreamingPageModule().withFlushInterval(10));
+        mapper.writerFor(STRING_PAGE).writeValue(out, StreamingPage.of(1, 100, numbers(100)));
+        Assert.assertTrue(String.valueOf(flushes[0]), flushes[0] >= 10);
+
+        flushes[0] = 0;
+        mapper = new ObjectMapper().registerModule(new StreamingPageModule().withFlushInterval(0));
+        mapper.writerFor(STRING_PAGE).writeValue(out, StreamingPage.of(1, 100, numbers(100)));
+        Assert.assertTrue(String.valueOf(flushes[0]), flushes[0] <= 1);
+    }
+
+    /**
+     * 元素交给回调处理，不保存在内存中
+     */
+    @Test
+    public void testCallback() throws IOException {
+        final int count = 300000;
+        InputStream head = new ByteArrayInputStream("{\"pageNum\":3,\"items\":[".getBytes(StandardCharsets.UTF_8));
+        InputStream body = new InputStream() {
+            private final byte[] element = "{\"id\":1,\"sum\":200,\"goodsCount\":3,\"address\":\"addr\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+            private int index;
+
+            private int pos;
+
+            @Override
+            public int read() throws IOException {
+                if(index == count) {
+                    return -1;
+                }
+                if(pos == element.length) {
+                    pos = 0;
+                    index++;
+                    return (index == count) ? -1 : ',';
+                }
+                return element[pos++];
+            }
+        };
+        InputStream tail = new ByteArrayInputStream("],\"pageSize\":7,\"other\":1}".getBytes(StandardCharsets.UTF_8));
+
+        long[] sum = new long[1];
+        Consumer<Order> callback = order -> sum[0] += order.getSum();
+        ObjectReader reader = mapper().readerFor(ORDER_PAGE).withAttribute(StreamingPage.ITEM_CALLBACK, callback)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        StreamingPage<Order> page = reader.readValue(new SequenceInputStream(new SequenceInputStream(head, body), tail));
+        Assert.assertEquals(3, page.getPageNum());
+        Assert.assertEquals(7, page.getPageSize());
+        Assert.assertEquals(count, page.getCount());
+        Assert.assertFalse(page.items().hasNext());
+        Assert.assertEquals(200L * count, sum[0]);
+
+        // 回调中的异常直接抛出
+        Consumer<Long> failing = id -> {
+            throw new IllegalStateException("stop at " + id);
+        };
+        try {
+            mapper().readerFor(new TypeReference<StreamingPage<Long>>() {
+            }).withAttribute(StreamingPage.ITEM_CALLBACK, failing).readValue("{\"items\":[1,2]}");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("stop at 1", e.getMessage());
+        }
+    }
+}
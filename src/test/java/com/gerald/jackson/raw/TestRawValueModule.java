@@ -0,0 +1,147 @@
+package com.gerald.jackson.raw;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gerald.jackson.annotation.TestRawValue.GeoResp;
+
+public class TestRawValueModule {
+    private static final String GEO = "{\"code\":10000000,\"msg\":\"sucess\",\"response\":{\"result\":{\"count\":9,\"data\":[]}}}";
+
+    /**
+     * 网关透传的响应
+     */
+    public static class Gateway {
+        private String requestId;
+
+        private RawJson payload;
+
+        public String getRequestId() {
+            return requestId;
+        }
+
+        public void setRequestId(String requestId) {
+            this.requestId = requestId;
+        }
+
+        public RawJson getPayload() {
+            return payload;
+        }
+
+        public void setPayload(RawJson payload) {
+            this.payload = payload;
+        }
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new RawValueModule());
+    }
+
+    /**
+     * {@code TestRawValue#testDeserialize()}中的输入
+     */
+    @Test
+    public void testGeoResp() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        GeoResp fromString = mapper.readValue(GEO, GeoResp.class);
+        GeoResp fromBytes = mapper.readValue(GEO.getBytes(StandardCharsets.UTF_8), GeoResp.class);
+        GeoResp fromStream = mapper.readValue(new ByteArrayInputStream(GEO.getBytes(StandardCharsets.UTF_8)), GeoResp.class);
+        System.out.println(fromBytes);
+
+        Assert.assertEquals("{\"result\":{\"count\":9,\"data\":[]}}", fromString.getResponse());
+        Assert.assertEquals(fromString.getResponse(), fromBytes.getResponse());
+        Assert.assertEquals(fromString.getResponse(), fromStream.getResponse());
+        Assert.assertEquals("sucess", fromBytes.getMsg());
+
+        Assert.assertEquals(GEO, mapper.writeValueAsString(fromBytes));
+    }
+
+    @Test
+    public void testWhitespaceKept() throws IOException {
+        String response = "{ \"city\" : \"杭州\",\n  \"escaped\" : \"a\\\"b\\u0041\" }";
+        String str = "{\"response\" : " + response + " , \"code\" : 1}";
+
+        GeoResp resp = mapper().readValue(str.getBytes(StandardCharsets.UTF_8), GeoResp.class);
+        Assert.assertEquals(response, resp.getResponse());
+        Assert.assertEquals(1, resp.getCode());
+
+        // 从InputStream读取时复制为紧凑格式
+        resp = mapper().readValue(new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8)), GeoResp.class);
+        Assert.assertEquals(new ObjectMapper().readTree(response), new ObjectMapper().readTree(resp.getResponse()));
+    }
+
+    @Test
+    public void testScalars() throws IOException {
+        ObjectMapper mapper = mapper();
+        String[] values = {"-12.5e3", "\"a\\\"b\"", "true", "false", "[1, [2], {\"a\" : []}]", "0"};
+
+        for(String value : values) {
+            String str = "{\"requestId\":\"r\",\"payload\":" + value + "}";
+
+            Gateway gateway = mapper.readValue(str.getBytes(StandardCharsets.UTF_8), Gateway.class);
+            Assert.assertEquals(value, gateway.getPayload().toString());
+            Assert.assertEquals(str, mapper.writeValueAsString(gateway));
+            Assert.assertEquals(value, mapper.readValue(str, Gateway.class).getPayload().toString());
+        }
+
+        Assert.assertNull(mapper.readValue("{\"payload\":null}", Gateway.class).getPayload());
+    }
+
+    @Test
+    public void testLargePayload() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        StringBuilder payload = new StringBuilder("{\"data\":[");
+        for(int i = 0; i < 200; i++) {
+            if(i > 0) {
+                payload.append(',');
+            }
+            payload.append("{\"id\":").append(i).append(",\"name\":\"名称-").append(i).append("\"}");
+        }
+        payload.append("]}");
+
+        String str = "{\"requestId\":\"r-1\",\"payload\":" + payload + "}";
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+
+        Gateway gateway = mapper.readValue(bytes, Gateway.class);
+        Assert.assertEquals(payload.toString().getBytes(StandardCharsets.UTF_8).length, gateway.getPayload().length());
+
+        // 直接写入OutputStream
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapper.writeValue(out, gateway);
+        Assert.assertArrayEquals(bytes, out.toByteArray());
+
+        Assert.assertArrayEquals(bytes, mapper.writeValueAsBytes(gateway));
+        Assert.assertEquals(str, mapper.writeValueAsString(gateway));
+
+        // 缩进输出时分隔符仍然由generator写出
+        String pretty = mapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(gateway);
+        Assert.assertEquals(new ObjectMapper().readTree(str), new ObjectMapper().readTree(pretty));
+    }
+
+    @Test
+    public void testArraySlice() throws IOException {
+        byte[] padded = ("xx{\"payload\":[\"{\"],\"requestId\":\"r\"}yy").getBytes(StandardCharsets.UTF_8);
+
+        Gateway gateway = mapper().readValue(padded, 2, padded.length - 4, Gateway.class);
+        Assert.assertEquals("[\"{\"]", gateway.getPayload().toString());
+        Assert.assertEquals("r", gateway.getRequestId());
+    }
+
+    @Test
+    public void testOf() throws IOException {
+        Gateway gateway = new Gateway();
+        gateway.setPayload(RawJson.of("{\"a\":1}"));
+
+        Assert.assertEquals("{\"requestId\":null,\"payload\":{\"a\":1}}", mapper().writeValueAsString(gateway));
+        Assert.assertEquals(RawJson.of("{\"a\":1}"), gateway.getPayload());
+    }
+}
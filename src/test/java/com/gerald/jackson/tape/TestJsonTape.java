@@ -0,0 +1,216 @@
+package com.gerald.jackson.tape;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+public class TestJsonTape {
+    private static final String DOC = "{\"name\" : \"name-test\", \"attr2\" : \"value2\", \"attr1\" : \"value1\", "
+            + "\"nested\" : {\"prop\" : 1, \"list\" : [1, 3000000000, 123456789012345678901234567890, -1.5e3, "
+            + "true, false, null, {}, []]}, \"esc\\\"aped\" : \"a\\\"b\\\\c\\u4e2d\\n\", \"中文\" : \"文本\"}";
+
+    public static class Holder {
+        public String id;
+
+        public JsonTape payload;
+    }
+
+    @Test
+    public void testNavigate() throws IOException {
+        JsonTape tape = JsonTape.parse(DOC);
+        TapeValue root = tape.root();
+
+        Assert.assertTrue(root.isObject());
+        Assert.assertEquals(6, root.size());
+        Assert.assertEquals("name-test", root.get("name").textValue());
+        Assert.assertEquals("value1", root.get("attr1").textValue());
+        Assert.assertNull(root.get("missing"));
+        Assert.assertNull(root.get(0));
+
+        TapeValue list = root.get("nested").get("list");
+        Assert.assertTrue(list.isArray());
+        Assert.assertEquals(9, list.size());
+        Assert.assertEquals(Integer.valueOf(1), list.get(0).numberValue());
+        Assert.assertEquals(Long.valueOf(3000000000L), list.get(1).numberValue());
+        Assert.assertEquals(new BigInteger("123456789012345678901234567890"), list.get(2).numberValue());
+        Assert.assertEquals(-1500.0, list.get(3).doubleValue(), 0.0);
+        Assert.assertTrue(list.get(4).booleanValue());
+        Assert.assertEquals(JsonToken.VALUE_FALSE, list.get(5).getToken());
+        Assert.assertTrue(list.get(6).isNull());
+        Assert.assertEquals(0, list.get(7).size());
+        Assert.assertEquals(0, list.get(8).size());
+        Assert.assertNull(list.get(9));
+
+        // 转义的属性名和值，多字节字符
+        Assert.assertEquals("a\"b\\c中\n", root.get("esc\"aped").textValue());
+        Assert.assertEquals("文本", root.get("中文").textValue());
+
+        List<String> names = new ArrayList<>();
+        for(TapeValue value : root) {
+            names.add(value.getName());
+        }
+        Assert.assertEquals("[name, attr2, attr1, nested, esc\"aped, 中文]", names.toString());
+        Assert.assertNull(root.getName());
+
+        Iterator<TapeValue> it = list.iterator();
+        int count = 0;
+        while(it.hasNext()) {
+            Assert.assertNull(it.next().getName());
+            count++;
+        }
+        Assert.assertEquals(9, count);
+    }
+
+    @Test
+    public void testMaterialize() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonTape tape = JsonTape.parse(DOC.getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals(mapper.readValue(DOC, Object.class), tape.root().materialize());
+        Assert.assertEquals(mapper.readValue("[1, \"x\"]", Object.class), JsonTape.parse("[1, \"x\"]").root().materialize());
+        Assert.assertEquals("x", JsonTape.parse(" \"x\" ").root().materialize());
+
+        System.out.println("json: " + tape.getJsonLength() + " bytes, tape: " + tape.getTapeLength() + " tokens");
+    }
+
+    @Test
+    public void testWrite() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Object expected = mapper.readValue(DOC, Object.class);
+        JsonTape tape = mapper.readValue(DOC, JsonTape.class);
+
+        // 标量保持原来的写法，例如-1.5e3和\\u4e2d
+        Assert.assertEquals(expected, mapper.readValue(mapper.writeValueAsString(tape), Object.class));
+        Assert.assertEquals(expected, mapper.readValue(tape.toString(), Object.class));
+        String pretty = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(tape);
+        System.out.println(pretty);
+        Assert.assertEquals(expected, mapper.readValue(pretty, Object.class));
+        Assert.assertEquals("{\"prop\":1,\"list\":[1,3000000000,123456789012345678901234567890,-1.5e3,true,false,"
+                            + "null,{},[]]}", tape.root().get("nested").toString());
+
+        // 不是JSON文本的generator按类型写出
+        TokenBuffer buffer = new TokenBuffer(mapper, false);
+        tape.root().writeTo(buffer);
+        Assert.assertEquals(expected, mapper.readValue(buffer.asParser(), Object.class));
+    }
+
+    /**
+     * 与jackson一样识别UTF-16和UTF-32的输入
+     */
+    @Test
+    public void testEncodings() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Object expected = mapper.readValue(DOC, Object.class);
+        String compact = JsonTape.parse(DOC).toString();
+
+        for(String charset : new String[] {"UTF-16BE", "UTF-16LE", "UTF-16", "UTF-32BE", "UTF-32LE"}) {
+            JsonTape tape = JsonTape.parse(DOC.getBytes(charset));
+            Assert.assertEquals(expected, tape.root().materialize());
+            Assert.assertEquals(compact, tape.toString());
+            Assert.assertEquals("name-test", tape.root().get("name").textValue());
+            Assert.assertEquals(expected, mapper.readValue(DOC.getBytes(charset), JsonTape.class).root().materialize());
+        }
+    }
+
+    /**
+     * 配置了{@code CharacterEscapes}时，字符串按配置转义，与直接写出相同
+     */
+    @Test
+    public void testCharacterEscapes() throws IOException {
+        CharacterEscapes escapes = new CharacterEscapes() {
+            private static final long serialVersionUID = 1L;
+
+            private final int[] codes = standardAsciiEscapesForJSON();
+
+            {
+                codes['<'] = CharacterEscapes.ESCAPE_CUSTOM;
+            }
+
+            @Override
+            public int[] getEscapeCodesForAscii() {
+                return codes;
+            }
+
+            @Override
+            public SerializableString getEscapeSequence(int ch) {
+                return (ch == '<') ? new SerializedString("\\u003C") : null;
+            }
+        };
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.getFactory().setCharacterEscapes(escapes);
+        String str = "{\"html\" : \"<b>中文</b>\", \"n\" : 1}";
+
+        JsonTape tape = JsonTape.parse(str);
+        String expected = mapper.writeValueAsString(new ObjectMapper().readValue(str, Object.class));
+        Assert.assertEquals("{\"html\":\"\\u003Cb>中文\\u003C/b>\",\"n\":1}", expected);
+        Assert.assertEquals(expected, mapper.writeValueAsString(tape));
+        Assert.assertEquals(expected, new String(mapper.writeValueAsBytes(tape), StandardCharsets.UTF_8));
+
+        Assert.assertEquals(new ObjectMapper().writer().with(JsonGenerator.Feature.ESCAPE_NON_ASCII)
+                                              .writeValueAsString(new ObjectMapper().readValue(str, Object.class)),
+                            new ObjectMapper().writer().with(JsonGenerator.Feature.ESCAPE_NON_ASCII).writeValueAsString(tape));
+    }
+
+    @Test
+    public void testDeserialize() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        String str = "{\"id\" : \"1\", \"payload\" : " + DOC + "}";
+        String expected = JsonTape.parse(DOC).toString();
+
+        Holder holder = mapper.readValue(str, Holder.class);
+        Assert.assertEquals("1", holder.id);
+        Assert.assertEquals(expected, holder.payload.toString());
+
+        holder = mapper.readValue(str.getBytes(StandardCharsets.UTF_8), Holder.class);
+        Assert.assertEquals(expected, holder.payload.toString());
+
+        Assert.assertEquals("{\"id\":\"1\",\"payload\":" + expected + "}", mapper.writeValueAsString(holder));
+
+        // 无法取得原始输入时，复制的文本是规范化的
+        holder = mapper.readValue(new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8)), Holder.class);
+        Assert.assertEquals(mapper.readValue(DOC, Object.class), holder.payload.root().materialize());
+
+        holder = mapper.readValue("{\"payload\" : 12}", Holder.class);
+        Assert.assertEquals(Integer.valueOf(12), holder.payload.root().numberValue());
+    }
+
+    @Test
+    public void testError() throws IOException {
+        try {
+            JsonTape.parse("{\"a\" : [1, 2}");
+            Assert.fail();
+        } catch (JsonParseException e) {
+            System.out.println(e.getMessage());
+        }
+
+        try {
+            JsonTape.parse("{\"a\" : [1, 2]");
+            Assert.fail();
+        } catch (JsonParseException e) {
+            System.out.println(e.getMessage());
+        }
+
+        try {
+            JsonTape.parse("  ");
+            Assert.fail();
+        } catch (JsonParseException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
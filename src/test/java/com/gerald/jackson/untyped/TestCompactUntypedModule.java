@@ -0,0 +1,315 @@
+package com.gerald.jackson.untyped;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+public class TestCompactUntypedModule {
+    private static final String DOC = "{\"name\" : \"name-test\", \"ints\" : [1, 2, -3], "
+            + "\"longs\" : [3000000000, -4000000000, 5000000000], \"intLongs\" : [1, 3000000000, -2], \"doubles\" : [1.5, -2.25e3], \"mixed\" : [1, 2.5, \"x\", null], "
+            + "\"big\" : [1, 123456789012345678901234567890], \"empty\" : [], \"nested\" : {\"a\" : {}, "
+            + "\"b\" : [[1], [2.0]]}, \"flag\" : true, \"none\" : null}";
+
+    public static class Holder {
+        public Map<String, Object> props;
+
+        public List<Object> values;
+    }
+
+    public static class Point {
+        final int x;
+
+        Point(int x) {
+            this.x = x;
+        }
+    }
+
+    /**
+     * 记录{@link #createContextual}的调用次数
+     */
+    public static class PointSerializer extends StdSerializer<Point> implements ContextualSerializer {
+        private static final long serialVersionUID = 1L;
+
+        int contextualized;
+
+        public PointSerializer() {
+            super(Point.class);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) {
+            contextualized++;
+            return this;
+        }
+
+        @Override
+        public void serialize(Point value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.x);
+        }
+    }
+
+    private static ObjectMapper compactMapper() {
+        return new ObjectMapper().registerModule(new CompactUntypedModule());
+    }
+
+    @Test
+    public void testDeserialize() throws IOException {
+        Object expected = new ObjectMapper().readValue(DOC, Object.class);
+        Object actual = compactMapper().readValue(DOC, Object.class);
+
+        Assert.assertTrue(actual instanceof CompactMap);
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(expected.hashCode(), actual.hashCode());
+        Assert.assertEquals(expected.toString(), actual.toString());
+
+        CompactMap map = (CompactMap)actual;
+        Assert.assertEquals(CompactList.Mode.INTS, ((CompactList)map.get("ints")).getMode());
+        Assert.assertEquals(CompactList.Mode.LONGS, ((CompactList)map.get("longs")).getMode());
+        Assert.assertEquals(CompactList.Mode.DOUBLES, ((CompactList)map.get("doubles")).getMode());
+        Assert.assertEquals(CompactList.Mode.OBJECTS, ((CompactList)map.get("mixed")).getMode());
+        Assert.assertEquals(CompactList.Mode.OBJECTS, ((CompactList)map.get("big")).getMode());
+        Assert.assertEquals(CompactList.Mode.OBJECTS, ((CompactList)map.get("intLongs")).getMode());
+        Assert.assertEquals(Long.valueOf(3000000000L), ((List<?>)map.get("longs")).get(0));
+        Assert.assertEquals(Integer.valueOf(1), ((List<?>)map.get("intLongs")).get(0));
+        Assert.assertEquals(Long.valueOf(3000000000L), ((List<?>)map.get("intLongs")).get(1));
+        Assert.assertEquals(-2250.0, ((CompactList)map.get("doubles")).getDouble(1), 0.0);
+
+        // 父类处理的数字转换
+        ObjectMapper mapper = compactMapper().enable(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)
+                                             .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        expected = new ObjectMapper().enable(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)
+                                     .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                                     .readValue(DOC, Object.class);
+        Assert.assertEquals(expected, mapper.readValue(DOC, Object.class));
+
+        // USE_LONG_FOR_INTS：所有整数都是Long，列表保存在long[]中
+        String longs = "{\"ids\" : [1, 3000000000, -2], \"id\" : 7}";
+        mapper = compactMapper().enable(DeserializationFeature.USE_LONG_FOR_INTS);
+        expected = new ObjectMapper().enable(DeserializationFeature.USE_LONG_FOR_INTS).readValue(longs, Object.class);
+        actual = mapper.readValue(longs, Object.class);
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(CompactList.Mode.LONGS, ((CompactList)((Map<?, ?>)actual).get("ids")).getMode());
+        Assert.assertEquals(Long.valueOf(1L), ((List<?>)((Map<?, ?>)actual).get("ids")).get(0));
+
+        Holder holder = compactMapper().readValue("{\"props\" : {\"a\" : [1, 2]}, \"values\" : [{\"b\" : 1}, 2]}",
+                                                  Holder.class);
+        Assert.assertTrue(holder.props.get("a") instanceof CompactList);
+        Assert.assertTrue(holder.values.get(0) instanceof CompactMap);
+
+        Assert.assertEquals(Arrays.asList(1, 2), compactMapper().readValue("[1, 2]", Object.class));
+        Assert.assertEquals("x", compactMapper().readValue("\"x\"", Object.class));
+    }
+
+    @Test
+    public void testSerialize() throws IOException {
+        ObjectMapper mapper = compactMapper();
+        ObjectMapper plain = new ObjectMapper();
+        Object value = mapper.readValue(DOC, Object.class);
+
+        String json = mapper.writeValueAsString(value);
+        System.out.println(json);
+        Assert.assertEquals(plain.writeValueAsString(plain.readValue(DOC, Object.class)), json);
+        Assert.assertEquals(value, mapper.readValue(json, Object.class));
+
+        mapper.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        plain.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        Assert.assertEquals(plain.writeValueAsString(plain.readValue(DOC, Object.class)),
+                            mapper.writeValueAsString(value));
+
+        mapper.disable(SerializationFeature.WRITE_NULL_MAP_VALUES);
+        plain.disable(SerializationFeature.WRITE_NULL_MAP_VALUES);
+        Assert.assertEquals(plain.writeValueAsString(plain.readValue(DOC, Object.class)),
+                            mapper.writeValueAsString(value));
+
+        // 默认类型信息
+        mapper = compactMapper().enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
+        json = mapper.writeValueAsString(new Object[] {value});
+        System.out.println(json);
+        Assert.assertEquals(plain.readValue(DOC, Object.class),
+                            mapper.readValue(json, Object[].class)[0]);
+    }
+
+    /**
+     * 元素的序列化器只查找一次，不会对每个元素重新执行{@code createContextual}
+     */
+    @Test
+    public void testSerializerCache() throws IOException {
+        PointSerializer pointSerializer = new PointSerializer();
+        ObjectMapper mapper = compactMapper().registerModule(new SimpleModule().addSerializer(Point.class, pointSerializer));
+
+        CompactList points = new CompactList();
+        CompactMap map = new CompactMap();
+        List<Object> expected = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            points.add(new Point(i));
+            map.put("p" + i, new Point(i));
+            expected.add(i);
+        }
+        CompactMap root = new CompactMap();
+        root.put("points", points);
+        root.put("map", map);
+
+        String json = mapper.writeValueAsString(root);
+        Assert.assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(points));
+        Assert.assertEquals(json, mapper.writeValueAsString(root));
+        Assert.assertEquals(expected, ((Map<?, ?>)mapper.readValue(json, Object.class)).get("points"));
+        System.out.println("contextualized: " + pointSerializer.contextualized);
+        Assert.assertTrue(pointSerializer.contextualized <= 3);
+    }
+
+    @Test
+    public void testList() {
+        CompactList list = new CompactList();
+        List<Object> expected = new ArrayList<>();
+        Random random = new Random(17);
+
+        for(int i = 0; i < 1000; i++) {
+            Object value;
+            switch(random.nextInt(i < 500 ? 2 : 5)) {
+            case 0:
+                value = random.nextInt(100);
+                break;
+            case 1:
+                value = 3000000000L + random.nextInt(100);
+                break;
+            case 2:
+                value = random.nextDouble();
+                break;
+            case 3:
+                value = "s" + i;
+                break;
+            default:
+                value = null;
+                break;
+            }
+            expected.add(value);
+
+            int op = random.nextInt(4);
+            if((op == 0) && !expected.isEmpty()) {
+                int index = random.nextInt(list.size() + 1);
+                list.add(index, value);
+                expected.add(index, expected.remove(expected.size() - 1));
+            } else if((op == 1) && (list.size() > 0)) {
+                int index = random.nextInt(list.size());
+                Assert.assertEquals(expected.set(index, expected.remove(expected.size() - 1)),
+                                    list.set(index, value));
+            } else if((op == 2) && (list.size() > 1)) {
+                list.add(value);
+                int index = random.nextInt(list.size());
+                Assert.assertEquals(expected.remove(index), list.remove(index));
+            } else {
+                list.add(value);
+            }
+
+            Assert.assertEquals(expected, list);
+        }
+        Assert.assertEquals(CompactList.Mode.OBJECTS, list.getMode());
+
+        // 返回加入时的装箱类型
+        list.clear();
+        list.add(5L);
+        Assert.assertEquals(CompactList.Mode.LONGS, list.getMode());
+        Assert.assertEquals(Long.valueOf(5L), list.get(0));
+        Assert.assertEquals(Arrays.asList(5L), list);
+        list.addLong(3000000000L);
+        list.set(0, 6L);
+        Assert.assertEquals(CompactList.Mode.LONGS, list.getMode());
+        Assert.assertEquals(Arrays.asList(6L, 3000000000L), list);
+        list.clear();
+        list.addInt(1);
+        list.addLong(3000000000L);
+        list.addInt(2);
+        Assert.assertEquals(CompactList.Mode.OBJECTS, list.getMode());
+        Assert.assertEquals(Arrays.asList(1, 3000000000L, 2), list);
+        list.addDouble(0.5);
+        Assert.assertEquals(CompactList.Mode.OBJECTS, list.getMode());
+        Assert.assertEquals(Arrays.asList(1, 3000000000L, 2, 0.5), list);
+        Assert.assertEquals(3000000000L, list.getLong(1));
+
+        list = new CompactList();
+        list.addDouble(1.0);
+        list.trimToSize();
+        list.addDouble(2.0);
+        Assert.assertEquals(CompactList.Mode.DOUBLES, list.getMode());
+        Assert.assertEquals(Arrays.asList(1.0, 2.0), list);
+    }
+
+    @Test
+    public void testMap() {
+        CompactMap map = new CompactMap();
+        Map<String, Object> expected = new LinkedHashMap<>();
+        Random random = new Random(17);
+
+        for(int i = 0; i < 2000; i++) {
+            String key = "k" + random.nextInt(40);
+            if(random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.put(key, i), map.put(key, i));
+            }
+
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        }
+
+        Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+        while(it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            if(((Integer)entry.getValue() & 1) == 0) {
+                it.remove();
+                expected.remove(entry.getKey());
+            } else {
+                entry.setValue(-1);
+                expected.put(entry.getKey(), -1);
+            }
+        }
+        Assert.assertEquals(expected, map);
+
+        for(int i = 0; i < map.size(); i++) {
+            Assert.assertEquals(expected.get(map.keyAt(i)), map.valueAt(i));
+        }
+        map.trimToSize();
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get("k1"));
+
+        try {
+            map.put(null, 1);
+            Assert.fail();
+        } catch (NullPointerException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testError() throws IOException {
+        try {
+            compactMapper().readValue("[1, 2", Object.class);
+            Assert.fail();
+        } catch (JsonParseException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.gerald.jackson.unwrapped;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.gerald.jackson.annotation.TestJsonUnwrap.Name;
+import com.gerald.jackson.annotation.TestJsonUnwrap.Person;
+
+public class TestUnwrappedModule {
+    public static class Address {
+        public String city;
+
+        public String street;
+
+        @JsonView(Detail.class)
+        public String zip;
+
+        @JsonIgnore
+        public String ignored;
+    }
+
+    public static class Detail {
+    }
+
+    /**
+     * 带前缀的unwrapped属性；{@code work}和{@code billing}的属性同名，{@code city}被外层对象的属性覆盖
+     */
+    public static class Customer {
+        public String id;
+
+        @JsonUnwrapped(prefix = "home.")
+        public Address home;
+
+        @JsonUnwrapped
+        public Address work;
+
+        @JsonUnwrapped
+        public Address billing;
+
+        @JsonUnwrapped
+        public Name name;
+
+        public String city;
+
+        @JsonView(Detail.class)
+        public String note;
+    }
+
+    /**
+     * 外层对象再被unwrap
+     */
+    public static class Account {
+        public long number;
+
+        @JsonUnwrapped(suffix = "Of")
+        public Person owner;
+    }
+
+    public static class Tagged {
+        public String tag;
+
+        private Map<String, Object> extra = new HashMap<>();
+
+        @JsonAnySetter
+        public void set(String name, Object value) {
+            extra.put(name, value);
+        }
+
+        public Map<String, Object> getExtra() {
+            return extra;
+        }
+    }
+
+    /**
+     * 子对象有any setter，使用jackson原来的实现
+     */
+    public static class Holder {
+        public String id;
+
+        @JsonUnwrapped
+        public Tagged tagged;
+    }
+
+    private static ObjectMapper plain() {
+        return new ObjectMapper();
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new UnwrappedModule());
+    }
+
+    private static JsonDeserializer<Object> find(ObjectMapper mapper, Class<?> type) throws JsonMappingException {
+        DefaultDeserializationContext ctxt = ((DefaultDeserializationContext)mapper.getDeserializationContext())
+                .createInstance(mapper.getDeserializationConfig(), null, null);
+
+        return ctxt.findRootValueDeserializer(mapper.constructType(type));
+    }
+
+    /**
+     * 反序列化的结果与jackson相同
+     */
+    private static <T> T assertSame(String json, Class<T> type) throws IOException {
+        ObjectMapper plain = plain();
+        T expected = plain.readValue(json, type);
+        T actual = mapper().readValue(json, type);
+
+        String str = plain.writeValueAsString(actual);
+        System.out.println(str);
+        Assert.assertEquals(plain.writeValueAsString(expected), str);
+
+        return actual;
+    }
+
+    @Test
+    public void testInstalled() throws IOException {
+        ObjectMapper mapper = mapper();
+
+        Assert.assertTrue(((FlatUnwrappedDeserializer)find(mapper, Person.class)).isFlattened());
+        Assert.assertTrue(((FlatUnwrappedDeserializer)find(mapper, Customer.class)).isFlattened());
+        Assert.assertFalse(((FlatUnwrappedDeserializer)find(mapper, Account.class)).isFlattened());
+        Assert.assertFalse(((FlatUnwrappedDeserializer)find(mapper, Holder.class)).isFlattened());
+        Assert.assertFalse(find(mapper, Name.class) instanceof FlatUnwrappedDeserializer);
+    }
+
+    @Test
+    public void testCaseInsensitive() throws IOException {
+        String json = "{\"ID\" : \"3\", \"FirstName\" : \"a\", \"lastname\" : \"b\"}";
+        ObjectMapper mapper = mapper().enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES);
+
+        Person expected = plain().enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES).readValue(json, Person.class);
+        Person p = mapper.readValue(json, Person.class);
+        Assert.assertEquals(plain().writeValueAsString(expected), plain().writeValueAsString(p));
+        Assert.assertEquals("3", p.getId());
+        Assert.assertEquals("a", p.getName().getFirstName());
+        Assert.assertEquals("b", p.getName().getLastName());
+        Assert.assertFalse(((FlatUnwrappedDeserializer)find(mapper, Person.class)).isFlattened());
+    }
+
+    @Test
+    public void testPerson() throws IOException {
+        Person p = assertSame("{\"firstName\" : \"yang\", \"id\" : \"123\", \"lastName\" : \"zongyuan\"}", Person.class);
+        Assert.assertEquals("123", p.getId());
+        Assert.assertEquals("yang", p.getName().getFirstName());
+        Assert.assertEquals("zongyuan", p.getName().getLastName());
+
+        // 没有子对象的属性时也会创建子对象
+        p = assertSame("{\"id\" : \"123\", \"unknown\" : {\"firstName\" : [1]}}", Person.class);
+        Assert.assertNotNull(p.getName());
+        Assert.assertNull(p.getName().getFirstName());
+
+        assertSame("{}", Person.class);
+    }
+
+    @Test
+    public void testCustomer() throws IOException {
+        String json = "{\"home.city\" : \"h\", \"city\" : \"c\", \"street\" : \"s\", \"home.street\" : \"hs\","
+                + "\"zip\" : \"z\", \"home.zip\" : \"hz\", \"ignored\" : 1, \"firstName\" : \"f\", \"id\" : \"i\","
+                + "\"note\" : \"n\", \"other\" : null}";
+
+        Customer c = assertSame(json, Customer.class);
+        Assert.assertEquals("c", c.city);
+        Assert.assertNull(c.work.city);
+        Assert.assertEquals("h", c.home.city);
+        Assert.assertEquals("hs", c.home.street);
+        Assert.assertEquals("s", c.work.street);
+        Assert.assertEquals("z", c.work.zip);
+        Assert.assertNull(c.work.ignored);
+        Assert.assertEquals("f", c.name.getFirstName());
+
+        // 两个子对象都有street属性
+        Assert.assertEquals("s", c.billing.street);
+        Assert.assertEquals("z", c.billing.zip);
+
+        // 视图
+        json = "{\"zip\" : \"z\", \"note\" : \"n\", \"city\" : \"c\"}";
+        Customer viewed = mapper().readerWithView(String.class).forType(Customer.class).readValue(json);
+        Assert.assertNull(viewed.work.zip);
+        Assert.assertNull(viewed.note);
+        Assert.assertEquals("c", viewed.city);
+        viewed = mapper().readerWithView(Detail.class).forType(Customer.class).readValue(json);
+        Assert.assertEquals("z", viewed.work.zip);
+        Assert.assertEquals("n", viewed.note);
+    }
+
+    @Test
+    public void testFallback() throws IOException {
+        Account a = assertSame("{\"idOf\" : \"1\", \"firstNameOf\" : \"f\", \"number\" : 3}", Account.class);
+        Assert.assertEquals("1", a.owner.getId());
+        Assert.assertEquals("f", a.owner.getName().getFirstName());
+
+        Holder h = assertSame("{\"id\" : \"1\", \"tag\" : \"t\", \"x\" : 2}", Holder.class);
+        Assert.assertEquals(2, h.tagged.getExtra().get("x"));
+
+        try {
+            mapper().enable(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)
+                    .readValue("{\"ignored\" : 1}", Customer.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testError() throws IOException {
+        try {
+            mapper().readValue("{\"id\" : \"1\", \"firstName\" : {}}", Person.class);
+            Assert.fail();
+        } catch (JsonMappingException e) {
+            System.out.println(e.getMessage());
+            Assert.assertEquals("firstName", e.getPath().get(e.getPath().size() - 1).getFieldName());
+        }
+    }
+
+    @Test
+    public void testUpdating() throws IOException {
+        Person p = new Person();
+        p.setId("1");
+
+        mapper().readerForUpdating(p).readValue("{\"lastName\" : \"l\"}");
+        Assert.assertEquals("1", p.getId());
+        Assert.assertEquals("l", p.getName().getLastName());
+    }
+}